@@ -44,6 +44,14 @@ CREATE TABLE Cita (
     FOREIGN KEY (idVeterinario) REFERENCES Veterinario(idVeterinario)
 );
 
+-- Índices de las consultas por rango de fechas de la agenda: la columna de igualdad
+-- va primero y fechaHora después, para que cada consulta lea solo las filas del rango.
+-- Los dos primeros también sirven a las claves foráneas de idVeterinario e idMascota.
+CREATE INDEX idx_cita_veterinario_fecha ON Cita (idVeterinario, fechaHora);
+CREATE INDEX idx_cita_mascota_fecha ON Cita (idMascota, fechaHora);
+CREATE INDEX idx_cita_estado_fecha ON Cita (estado, fechaHora);
+CREATE INDEX idx_cita_fecha ON Cita (fechaHora);
+
 CREATE TABLE Servicio (
     idServicio INT AUTO_INCREMENT PRIMARY KEY,
     nombreServicio VARCHAR(100) NOT NULL,
@@ -79,6 +87,55 @@ CREATE TABLE DetalleFactura (
     FOREIGN KEY (idProducto) REFERENCES Medicamento(idMedicamento)
 );
 
+-- Unidades vendidas de cada medicamento por periodo, mantenidas por la aplicación al
+-- guardar, actualizar o eliminar detalles de factura. periodo: D (día, clave yyyymmdd),
+-- M (mes, clave yyyymm), A (año, clave yyyy) o T (histórico, clave 0).
+-- Es un dato derivado: sin clave foránea, y se reconstruye con "--reconstruir-ventas".
+CREATE TABLE VentaMedicamento (
+    periodo CHAR(1) NOT NULL,
+    clave INT NOT NULL,
+    idMedicamento INT NOT NULL,
+    unidades INT NOT NULL,
+    PRIMARY KEY (periodo, clave, idMedicamento)
+);
+
+-- Progreso de las importaciones masivas desde CSV: filas de datos ya procesadas de cada
+-- fichero (clave "lote:clientes" o "lote:mascotas"). Se actualiza en la misma transacción
+-- que inserta cada bloque, así que al repetir una importación interrumpida se continúa
+-- justo después del último bloque confirmado.
+CREATE TABLE ImportacionProgreso (
+    clave VARCHAR(150) PRIMARY KEY,
+    filas INT NOT NULL
+);
+
+-- Referencias de cliente usadas en los ficheros de importación, para que las mascotas
+-- del mismo lote puedan indicar su dueño con la referencia del fichero de clientes.
+CREATE TABLE ImportacionReferencia (
+    lote VARCHAR(100) NOT NULL,
+    referencia VARCHAR(100) NOT NULL,
+    idCliente INT NOT NULL,
+    PRIMARY KEY (lote, referencia),
+    FOREIGN KEY (idCliente) REFERENCES Cliente(idCliente) ON DELETE CASCADE
+);
+
+-- Registro de cambios compartido por los puestos que trabajan contra esta base de datos.
+-- Los DAO añaden una fila por entidad escrita en la misma transacción que la escritura,
+-- y cada instancia de la aplicación lee periódicamente las filas posteriores a la última
+-- que vio para invalidar sus cachés y actualizar sus ventanas abiertas. idEntidad es NULL
+-- en los cambios de tipo VARIOS, que pueden afectar a cualquier entidad del tipo; origen
+-- identifica a la instancia que escribió, que ignora sus propios cambios. Solo se escribe
+-- con "sync.enabled=true"; cada instancia borra las filas con más de
+-- "sync.retencion_minutos" al arrancar, en cualquier modo, y cada hora mientras sondea.
+CREATE TABLE RegistroCambio (
+    idCambio BIGINT AUTO_INCREMENT PRIMARY KEY,
+    entidad VARCHAR(30) NOT NULL,
+    idEntidad INT NULL,
+    tipo VARCHAR(12) NOT NULL,
+    origen CHAR(36) NOT NULL,
+    fecha TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_registro_cambio_fecha ON RegistroCambio (fecha);
+
 #init Usuario
 INSERT INTO Usuario (nombreUsuario, contrasena, rol)
 SELECT 'admin', 'admin123', 'administrador'
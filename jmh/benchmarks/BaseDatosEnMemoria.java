@@ -0,0 +1,231 @@
+package benchmarks;
+
+import utils.Query;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Base de datos H2 en memoria, en modo MySQL, que sustituye a MySQL durante los benchmarks.
+ * Redirige la configuración de la aplicación mediante propiedades del sistema, crea el
+ * esquema de {@code database/VeterinariaScriptSQL.sql} y lo llena con datos deterministas,
+ * de modo que los resultados solo dependen del código medido.
+ * Debe iniciarse antes de tocar cualquier DAO, ya que la configuración se lee una sola vez.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class BaseDatosEnMemoria {
+
+    /**
+     * URL JDBC de la base en memoria. IGNORECASE imita la colación de MySQL.
+     */
+    public static final String URL =
+            "jdbc:h2:mem:veterinaria;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    // Volumen de datos generado por tabla
+    public static final int CLIENTES = 1_000;
+    public static final int MASCOTAS = 1_500;
+    public static final int VETERINARIOS = 20;
+    public static final int CITAS = 10_000;
+    public static final int SERVICIOS = 30;
+    public static final int MEDICAMENTOS = 200;
+    public static final int FACTURAS = 3_000;
+    public static final int DETALLES_POR_FACTURA = 5;
+
+    private static final String[] ESQUEMA = {
+            "CREATE TABLE Usuario (idUsuario INT AUTO_INCREMENT PRIMARY KEY, nombreUsuario VARCHAR(50) NOT NULL,"
+                    + " contrasena VARCHAR(100) NOT NULL, rol VARCHAR(20) NOT NULL)",
+            "CREATE TABLE Cliente (idCliente INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL,"
+                    + " telefono VARCHAR(20))",
+            "CREATE TABLE Mascota (idMascota INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(50) NOT NULL,"
+                    + " especie VARCHAR(50), raza VARCHAR(50), edad INT, sexo VARCHAR(10), idCliente INT NOT NULL,"
+                    + " FOREIGN KEY (idCliente) REFERENCES Cliente(idCliente))",
+            "CREATE TABLE Veterinario (idVeterinario INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL,"
+                    + " especialidad VARCHAR(100), telefono VARCHAR(20), email VARCHAR(100))",
+            "CREATE TABLE Cita (idCita INT AUTO_INCREMENT PRIMARY KEY, fechaHora DATETIME NOT NULL,"
+                    + " motivo VARCHAR(255), estado VARCHAR(20), idMascota INT NOT NULL, idVeterinario INT NOT NULL,"
+                    + " FOREIGN KEY (idMascota) REFERENCES Mascota(idMascota),"
+                    + " FOREIGN KEY (idVeterinario) REFERENCES Veterinario(idVeterinario))",
+            "CREATE TABLE Servicio (idServicio INT AUTO_INCREMENT PRIMARY KEY, nombreServicio VARCHAR(100) NOT NULL,"
+                    + " descripcion TEXT, precio DECIMAL(10, 2) NOT NULL)",
+            "CREATE TABLE Medicamento (idMedicamento INT AUTO_INCREMENT PRIMARY KEY, nombre VARCHAR(100) NOT NULL,"
+                    + " descripcion TEXT, precio DECIMAL(10, 2) NOT NULL)",
+            "CREATE TABLE Factura (idFactura INT AUTO_INCREMENT PRIMARY KEY, fechaEmision DATE NOT NULL,"
+                    + " total DECIMAL(10, 2) NOT NULL, idCliente INT NOT NULL,"
+                    + " FOREIGN KEY (idCliente) REFERENCES Cliente(idCliente))",
+            "CREATE TABLE DetalleFactura (idDetalle INT AUTO_INCREMENT PRIMARY KEY, idFactura INT NOT NULL,"
+                    + " tipo VARCHAR(50) NOT NULL, idServicio INT, idProducto INT, cantidad INT NOT NULL,"
+                    + " subtotal DECIMAL(10, 2) NOT NULL,"
+                    + " FOREIGN KEY (idFactura) REFERENCES Factura(idFactura),"
+                    + " FOREIGN KEY (idServicio) REFERENCES Servicio(idServicio),"
+                    + " FOREIGN KEY (idProducto) REFERENCES Medicamento(idMedicamento))",
+            "CREATE TABLE VentaMedicamento (periodo CHAR(1) NOT NULL, clave INT NOT NULL,"
+                    + " idMedicamento INT NOT NULL, unidades INT NOT NULL,"
+                    + " PRIMARY KEY (periodo, clave, idMedicamento))"
+    };
+
+    private static boolean iniciada;
+
+    private BaseDatosEnMemoria() {}
+
+    /**
+     * Configura la aplicación para usar la base en memoria y la crea y llena la primera vez.
+     * Las llamadas posteriores no hacen nada.
+     */
+    public static synchronized void iniciar() {
+        if (iniciada) {
+            return;
+        }
+        System.setProperty("db.url", URL);
+        System.setProperty("db.user", "sa");
+        System.setProperty("db.password", "");
+        System.setProperty("db.driver", "org.h2.Driver");
+
+        // La conexión de carga mantiene viva la base hasta que termina de llenarse
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "")) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String ddl : ESQUEMA) {
+                    stmt.execute(ddl);
+                }
+            }
+            conn.setAutoCommit(false);
+            poblar(conn);
+            conn.commit();
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo crear la base de datos en memoria", e);
+        }
+        iniciada = true;
+    }
+
+    private static void poblar(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Usuario (nombreUsuario, contrasena, rol) VALUES (?, ?, ?)")) {
+            stmt.setString(1, "admin");
+            stmt.setString(2, "admin123");
+            stmt.setString(3, "administrador");
+            stmt.executeUpdate();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Cliente (nombre, telefono) VALUES (?, ?)")) {
+            for (int i = 1; i <= CLIENTES; i++) {
+                stmt.setString(1, "Cliente " + i);
+                stmt.setString(2, String.format("09%08d", i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        String[] especies = {"Perro", "Gato", "Conejo", "Ave"};
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Mascota (nombre, especie, raza, edad, sexo, idCliente) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= MASCOTAS; i++) {
+                stmt.setString(1, "Mascota " + i);
+                stmt.setString(2, especies[i % especies.length]);
+                stmt.setString(3, "Raza " + (i % 25));
+                stmt.setInt(4, 1 + i % 15);
+                stmt.setString(5, i % 2 == 0 ? "Macho" : "Hembra");
+                stmt.setInt(6, 1 + i % CLIENTES);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Veterinario (nombre, especialidad, telefono, email) VALUES (?, ?, ?, ?)")) {
+            for (int i = 1; i <= VETERINARIOS; i++) {
+                stmt.setString(1, "Veterinario " + i);
+                stmt.setString(2, "Especialidad " + (i % 4));
+                stmt.setString(3, String.format("08%08d", i));
+                stmt.setString(4, "vet" + i + "@veterinaria.com");
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        String[] estados = {"Pendiente", "Confirmada", "Cancelada"};
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 1, 8, 0);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Cita (fechaHora, motivo, estado, idMascota, idVeterinario) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= CITAS; i++) {
+                stmt.setTimestamp(1, Timestamp.valueOf(inicio.plusMinutes(30L * i)));
+                stmt.setString(2, "Consulta general " + i);
+                stmt.setString(3, estados[i % estados.length]);
+                stmt.setInt(4, 1 + i % MASCOTAS);
+                stmt.setInt(5, 1 + i % VETERINARIOS);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Servicio (nombreServicio, descripcion, precio) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= SERVICIOS; i++) {
+                stmt.setString(1, "Servicio " + i);
+                stmt.setString(2, "Descripción del servicio " + i);
+                stmt.setDouble(3, 10 + i);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Medicamento (nombre, descripcion, precio) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= MEDICAMENTOS; i++) {
+                stmt.setString(1, "Medicamento " + i);
+                stmt.setString(2, "Descripción del medicamento " + i);
+                stmt.setDouble(3, 2 + i % 50);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        LocalDate primerDia = LocalDate.of(2024, 1, 1);
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO Factura (fechaEmision, total, idCliente) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= FACTURAS; i++) {
+                stmt.setDate(1, Date.valueOf(primerDia.plusDays(i % 365)));
+                stmt.setDouble(2, 0);
+                stmt.setInt(3, 1 + i % CLIENTES);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "INSERT INTO DetalleFactura (idFactura, tipo, idServicio, idProducto, cantidad, subtotal)"
+                        + " VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (int factura = 1; factura <= FACTURAS; factura++) {
+                for (int j = 0; j < DETALLES_POR_FACTURA; j++) {
+                    boolean servicio = j % 2 == 0;
+                    stmt.setInt(1, factura);
+                    stmt.setString(2, servicio ? "Servicio" : "Medicamento");
+                    if (servicio) {
+                        stmt.setInt(3, 1 + (factura + j) % SERVICIOS);
+                        stmt.setNull(4, Types.INTEGER);
+                    } else {
+                        stmt.setNull(3, Types.INTEGER);
+                        stmt.setInt(4, 1 + (factura * 7 + j) % MEDICAMENTOS);
+                    }
+                    stmt.setInt(5, 1 + j);
+                    stmt.setDouble(6, 5 + j);
+                    stmt.addBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(Query.VENTA_MEDICAMENTO_REBUILD.getSql());
+        }
+    }
+}
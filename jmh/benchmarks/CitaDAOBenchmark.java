@@ -0,0 +1,117 @@
+package benchmarks;
+
+import model.dao.CitaDAO;
+import model.dto.CitaDetalleDTO;
+import model.entities.Cita;
+import model.exceptions.PersistenceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las lecturas de {@link CitaDAO}: búsqueda por ID, búsqueda múltiple y páginas
+ * de entidades y de filas con sus nombres asociados. El tamaño de página permite
+ * separar el costo fijo de cada consulta del costo de hidratar cada fila.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CitaDAOBenchmark {
+
+    private CitaDAO citaDAO;
+    private int siguienteId;
+
+    @Setup
+    public void preparar() {
+        BaseDatosEnMemoria.iniciar();
+        citaDAO = new CitaDAO();
+    }
+
+    /**
+     * Estado de los benchmarks que dependen del tamaño de página. La búsqueda por ID no
+     * lo usa, así que se ejecuta una sola vez y no una por cada tamaño.
+     */
+    @State(Scope.Benchmark)
+    public static class Pagina {
+
+        @Param({"10", "100", "1000"})
+        public int tamanoPagina;
+
+        private List<Integer> ids;
+        private int offsetFinal;
+        private int ultimoIdFinal;
+
+        @Setup
+        public void preparar(CitaDAOBenchmark benchmark) throws PersistenceException {
+            ids = new ArrayList<>(tamanoPagina);
+            for (int i = 0; i < tamanoPagina; i++) {
+                ids.add(1 + (i * 37) % BaseDatosEnMemoria.CITAS);
+            }
+            offsetFinal = BaseDatosEnMemoria.CITAS - tamanoPagina;
+            ultimoIdFinal = offsetFinal;
+
+            // Cada consulta paginada debe devolver una página completa; si no, el parámetro no mide nada
+            CitaDAO citaDAO = benchmark.citaDAO;
+            comprobar("paginaInicial", citaDAO.obtenerPagina(0, tamanoPagina).size());
+            comprobar("paginaFinalPorOffset", citaDAO.obtenerPagina(offsetFinal, tamanoPagina).size());
+            comprobar("paginaFinalPorClave", citaDAO.obtenerPaginaDespuesDe(ultimoIdFinal, tamanoPagina).size());
+            comprobar("paginaDetallada", citaDAO.obtenerCitasDetalladasPagina(0, tamanoPagina).size());
+        }
+
+        private void comprobar(String benchmark, int filas) {
+            if (filas != tamanoPagina) {
+                throw new IllegalStateException(benchmark + " devolvió " + filas + " filas en lugar de " + tamanoPagina);
+            }
+        }
+    }
+
+    @Benchmark
+    public Cita buscarPorId() throws PersistenceException {
+        siguienteId = siguienteId % BaseDatosEnMemoria.CITAS + 1;
+        return citaDAO.buscarPorId(siguienteId);
+    }
+
+    @Benchmark
+    public Map<Integer, Cita> buscarPorIds(Pagina pagina) throws PersistenceException {
+        return citaDAO.buscarPorIds(pagina.ids);
+    }
+
+    @Benchmark
+    public List<Cita> paginaInicial(Pagina pagina) throws PersistenceException {
+        return citaDAO.obtenerPagina(0, pagina.tamanoPagina);
+    }
+
+    @Benchmark
+    public List<Cita> paginaFinalPorOffset(Pagina pagina) throws PersistenceException {
+        return citaDAO.obtenerPagina(pagina.offsetFinal, pagina.tamanoPagina);
+    }
+
+    @Benchmark
+    public List<Cita> paginaFinalPorClave(Pagina pagina) throws PersistenceException {
+        return citaDAO.obtenerPaginaDespuesDe(pagina.ultimoIdFinal, pagina.tamanoPagina);
+    }
+
+    @Benchmark
+    public List<CitaDetalleDTO> paginaDetallada(Pagina pagina) throws PersistenceException {
+        return citaDAO.obtenerCitasDetalladasPagina(0, pagina.tamanoPagina);
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import model.database.Conexion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo de obtener y devolver una conexión: del pool de la aplicación, con uno
+ * y con más hilos que conexiones, frente a abrir una conexión física en cada llamada.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConexionBenchmark {
+
+    @Setup
+    public void preparar() {
+        BaseDatosEnMemoria.iniciar();
+    }
+
+    @Benchmark
+    public boolean conexionDelPool() throws SQLException, ClassNotFoundException {
+        try (Connection conn = Conexion.getConnection()) {
+            return conn.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean conexionDelPoolConContencion() throws SQLException, ClassNotFoundException {
+        try (Connection conn = Conexion.getConnection()) {
+            return conn.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public boolean conexionSinPool() throws SQLException {
+        try (Connection conn = DriverManager.getConnection(BaseDatosEnMemoria.URL, "sa", "")) {
+            return conn.getAutoCommit();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package benchmarks;
+
+import model.dao.DetalleFacturaDAO;
+import model.dao.FacturaDAO;
+import model.entities.DetalleFactura;
+import model.exceptions.PersistenceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las lecturas de {@link DetalleFacturaDAO} y el recálculo del total de una factura,
+ * que son las operaciones de la pantalla de detalles.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DetalleFacturaDAOBenchmark {
+
+    private DetalleFacturaDAO detalleFacturaDAO;
+    private FacturaDAO facturaDAO;
+    private int siguienteFactura;
+
+    @Setup
+    public void preparar() {
+        BaseDatosEnMemoria.iniciar();
+        detalleFacturaDAO = new DetalleFacturaDAO();
+        facturaDAO = new FacturaDAO();
+    }
+
+    /**
+     * Estado de los benchmarks que dependen del tamaño de página. Las lecturas por
+     * factura y el recálculo no lo usan, así que se ejecutan una sola vez.
+     */
+    @State(Scope.Benchmark)
+    public static class Pagina {
+
+        @Param({"10", "100", "1000"})
+        public int tamanoPagina;
+
+        private List<Integer> ids;
+
+        @Setup
+        public void preparar(DetalleFacturaDAOBenchmark benchmark) throws PersistenceException {
+            int totalDetalles = BaseDatosEnMemoria.FACTURAS * BaseDatosEnMemoria.DETALLES_POR_FACTURA;
+            ids = new ArrayList<>(tamanoPagina);
+            for (int i = 0; i < tamanoPagina; i++) {
+                ids.add(1 + (i * 53) % totalDetalles);
+            }
+
+            int filas = benchmark.detalleFacturaDAO.obtenerPagina(0, tamanoPagina).size();
+            if (filas != tamanoPagina) {
+                throw new IllegalStateException("pagina devolvió " + filas + " filas en lugar de " + tamanoPagina);
+            }
+        }
+    }
+
+    private int siguienteFactura() {
+        siguienteFactura = siguienteFactura % BaseDatosEnMemoria.FACTURAS + 1;
+        return siguienteFactura;
+    }
+
+    @Benchmark
+    public List<DetalleFactura> obtenerPorIdFactura() throws PersistenceException {
+        return detalleFacturaDAO.obtenerPorIdFactura(siguienteFactura());
+    }
+
+    @Benchmark
+    public Map<Integer, DetalleFactura> buscarPorIds(Pagina pagina) throws PersistenceException {
+        return detalleFacturaDAO.buscarPorIds(pagina.ids);
+    }
+
+    @Benchmark
+    public List<DetalleFactura> pagina(Pagina pagina) throws PersistenceException {
+        return detalleFacturaDAO.obtenerPagina(0, pagina.tamanoPagina);
+    }
+
+    @Benchmark
+    public double recalcularTotal() throws PersistenceException {
+        return facturaDAO.recalcularTotal(siguienteFactura());
+    }
+}
@@ -0,0 +1,59 @@
+package benchmarks;
+
+import model.dao.MedicamentoDAO;
+import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
+import model.exceptions.PersistenceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el reporte de medicamentos más vendidos, que lee las ventas acumuladas por periodo,
+ * frente a la reconstrucción de esas ventas, que agrega todos los detalles de factura.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MedicamentoDAOBenchmark {
+
+    private MedicamentoDAO medicamentoDAO;
+
+    @Setup
+    public void preparar() {
+        BaseDatosEnMemoria.iniciar();
+        medicamentoDAO = new MedicamentoDAO();
+    }
+
+    @Benchmark
+    public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos() throws PersistenceException {
+        return medicamentoDAO.buscarMedicamentosMasVendidos();
+    }
+
+    @Benchmark
+    public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidosDelMes() throws PersistenceException {
+        return medicamentoDAO.buscarMedicamentosMasVendidos(PeriodoVentas.MES, LocalDate.of(2024, 6, 15));
+    }
+
+    @Benchmark
+    public void reconstruirVentas() throws PersistenceException {
+        medicamentoDAO.reconstruirVentas();
+    }
+}
@@ -0,0 +1,121 @@
+package benchmarks;
+
+import model.dao.CitaDAO;
+import model.dao.ClienteDAO;
+import model.dao.FacturaDAO;
+import model.dto.FacturaCreadaDTO;
+import model.entities.Cita;
+import model.entities.Cliente;
+import model.entities.DetalleFactura;
+import model.entities.Factura;
+import model.exceptions.BusinessException;
+import model.services.impl.CitaServiceImpl;
+import model.services.impl.ClienteServiceImpl;
+import model.services.impl.FacturaServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las validaciones de los servicios sin acceso a datos: los DAOs se sustituyen
+ * por versiones que no hacen nada, de modo que solo se mide la capa de servicio.
+ * Los casos inválidos miden además el costo de crear y lanzar la excepción de negocio.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacionServiciosBenchmark {
+
+    private CitaServiceImpl citaService;
+    private ClienteServiceImpl clienteService;
+    private FacturaServiceImpl facturaService;
+
+    private Cita citaValida;
+    private Cita citaInvalida;
+    private Cliente clienteValido;
+    private Factura factura;
+    private List<DetalleFactura> detalles;
+
+    @Setup
+    public void preparar() {
+        citaService = new CitaServiceImpl(new CitaDAO() {
+            @Override
+            public void guardar(Cita cita) {}
+
+            @Override
+            public List<Cita> obtenerDesde(LocalDateTime desde) {
+                return List.of();
+            }
+        }, Duration.ofMinutes(30));
+        clienteService = new ClienteServiceImpl(new ClienteDAO() {
+            @Override
+            public void guardar(Cliente cliente) {}
+        });
+        facturaService = new FacturaServiceImpl(new FacturaDAO() {
+            @Override
+            public FacturaCreadaDTO guardarConDetalles(Factura factura, List<DetalleFactura> detalles) {
+                return new FacturaCreadaDTO(1, List.of(), factura.getTotal());
+            }
+        });
+
+        // La cita válida tiene ID para que cada guardado vuelva a reservar su propio hueco
+        citaValida = new Cita(1, LocalDateTime.now().plusDays(1), "Consulta general", "Pendiente", 1, 1);
+        citaInvalida = new Cita(LocalDateTime.now().plusDays(1), "Consulta general", "Desconocido", 1, 1);
+        clienteValido = new Cliente("Cliente de prueba", "0999999999");
+
+        factura = new Factura(LocalDate.now(), 0, 1, 1);
+        detalles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            detalles.add(i % 2 == 0
+                    ? new DetalleFactura(0, "Servicio", 1 + i, null, 1 + i % 3, 10.5)
+                    : new DetalleFactura(0, "Medicamento", null, 1 + i, 1 + i % 3, 4.25));
+        }
+    }
+
+    @Benchmark
+    public Cita citaValida() throws BusinessException {
+        citaService.guardarCita(citaValida);
+        return citaValida;
+    }
+
+    @Benchmark
+    public BusinessException citaInvalida() {
+        try {
+            citaService.guardarCita(citaInvalida);
+            return null;
+        } catch (BusinessException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Cliente clienteValido() throws BusinessException {
+        clienteService.guardarCliente(clienteValido);
+        return clienteValido;
+    }
+
+    @Benchmark
+    public FacturaCreadaDTO facturaConDetalles() throws BusinessException {
+        return facturaService.crearFacturaConDetalles(factura, detalles);
+    }
+}
@@ -0,0 +1,200 @@
+package loadtest;
+
+import benchmarks.BaseDatosEnMemoria;
+import controller.CitaController;
+import controller.ClienteController;
+import controller.FacturaController;
+import controller.MascotaController;
+import utils.AppFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prueba de carga que reproduce, desde varios hilos a la vez, las lecturas que hacen
+ * las vistas: páginas de citas y facturas, búsquedas por ID y búsquedas múltiples.
+ * Pasa por los controladores de {@link AppFactory}, de modo que mide también el pool
+ * de conexiones y las cachés de entidades. Al terminar imprime el rendimiento y los
+ * percentiles de latencia de cada operación.
+ * <p>
+ * Se configura con propiedades del sistema:
+ * <ul>
+ *     <li>{@code carga.hilos}: número de hilos concurrentes (por defecto 16)</li>
+ *     <li>{@code carga.duracion_s}: duración de la medición en segundos (por defecto 30)</li>
+ *     <li>{@code carga.calentamiento_s}: duración del calentamiento en segundos (por defecto 5)</li>
+ *     <li>{@code carga.h2}: si es true usa la base H2 en memoria de los benchmarks en vez
+ *     de la configurada en {@code config.properties} (por defecto false)</li>
+ * </ul>
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class PruebaCarga {
+
+    private static final int TAMANO_PAGINA = 50;
+    private static final int IDS_POR_BUSQUEDA = 20;
+
+    private PruebaCarga() {}
+
+    /**
+     * Punto de entrada de la prueba de carga.
+     *
+     * @param args Argumentos de línea de comandos (no utilizados)
+     * @throws InterruptedException Si se interrumpe la espera de los hilos
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int hilos = Integer.getInteger("carga.hilos", 16);
+        int duracionS = Integer.getInteger("carga.duracion_s", 30);
+        int calentamientoS = Integer.getInteger("carga.calentamiento_s", 5);
+        if (Boolean.getBoolean("carga.h2")) {
+            BaseDatosEnMemoria.iniciar();
+        }
+
+        Map<String, Operacion> operaciones = crearOperaciones();
+        System.out.printf("Calentamiento: %d s con %d hilos%n", calentamientoS, hilos);
+        ejecutar(operaciones, hilos, calentamientoS);
+        operaciones.values().forEach(Operacion::reiniciar);
+
+        System.out.printf("Medición: %d s con %d hilos%n", duracionS, hilos);
+        ejecutar(operaciones, hilos, duracionS);
+        imprimir(operaciones, duracionS);
+    }
+
+    private static Map<String, Operacion> crearOperaciones() {
+        CitaController citas = AppFactory.getCitaController();
+        ClienteController clientes = AppFactory.getClienteController();
+        MascotaController mascotas = AppFactory.getMascotaController();
+        FacturaController facturas = AppFactory.getFacturaController();
+
+        int totalCitas = Math.max(1, citas.contarCitas());
+        int totalClientes = Math.max(1, clientes.contarClientes());
+        int totalFacturas = Math.max(1, facturas.contarFacturas());
+
+        Map<String, Operacion> operaciones = new LinkedHashMap<>();
+        operaciones.put("citas.pagina", new Operacion(() ->
+                citas.obtenerCitasDetalladasDespuesDe(aleatorio(totalCitas) - 1, TAMANO_PAGINA)));
+        operaciones.put("cita.porId", new Operacion(() ->
+                citas.buscarCitaPorId(aleatorio(totalCitas))));
+        operaciones.put("cliente.porId", new Operacion(() ->
+                clientes.buscarClientePorId(aleatorio(totalClientes))));
+        operaciones.put("mascotas.porIds", new Operacion(() ->
+                mascotas.buscarMascotasPorIds(idsAleatorios(totalClientes))));
+        operaciones.put("facturas.pagina", new Operacion(() ->
+                facturas.obtenerFacturasDespuesDe(aleatorio(totalFacturas) - 1, TAMANO_PAGINA)));
+        return operaciones;
+    }
+
+    private static void ejecutar(Map<String, Operacion> operaciones, int hilos, int duracionS)
+            throws InterruptedException {
+        List<Operacion> lista = new ArrayList<>(operaciones.values());
+        long fin = System.nanoTime() + TimeUnit.SECONDS.toNanos(duracionS);
+        CountDownLatch terminados = new CountDownLatch(hilos);
+        for (int i = 0; i < hilos; i++) {
+            Thread hilo = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < fin) {
+                        lista.get(ThreadLocalRandom.current().nextInt(lista.size())).medir();
+                    }
+                } finally {
+                    terminados.countDown();
+                }
+            }, "carga-" + (i + 1));
+            hilo.setDaemon(true);
+            hilo.start();
+        }
+        terminados.await();
+    }
+
+    private static void imprimir(Map<String, Operacion> operaciones, int duracionS) {
+        System.out.printf("%-18s %10s %10s %10s %10s %10s %8s%n",
+                "Operación", "ops/s", "p50 ms", "p95 ms", "p99 ms", "máx ms", "errores");
+        for (Map.Entry<String, Operacion> entrada : operaciones.entrySet()) {
+            long[] latencias = entrada.getValue().latencias();
+            Arrays.sort(latencias);
+            System.out.printf("%-18s %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    entrada.getKey(),
+                    (double) latencias.length / duracionS,
+                    percentil(latencias, 0.50),
+                    percentil(latencias, 0.95),
+                    percentil(latencias, 0.99),
+                    percentil(latencias, 1.0),
+                    entrada.getValue().errores());
+        }
+    }
+
+    private static double percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(p * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+    }
+
+    private static int aleatorio(int maximo) {
+        return 1 + ThreadLocalRandom.current().nextInt(maximo);
+    }
+
+    private static List<Integer> idsAleatorios(int maximo) {
+        List<Integer> ids = new ArrayList<>(IDS_POR_BUSQUEDA);
+        for (int i = 0; i < IDS_POR_BUSQUEDA; i++) {
+            ids.add(aleatorio(maximo));
+        }
+        return ids;
+    }
+
+    /**
+     * Operación medida junto con las latencias y errores acumulados por todos los hilos.
+     */
+    private static final class Operacion {
+
+        private final Runnable accion;
+        private long[] latencias = new long[1024];
+        private int cantidad;
+        private int errores;
+
+        Operacion(Runnable accion) {
+            this.accion = accion;
+        }
+
+        void medir() {
+            long inicio = System.nanoTime();
+            boolean fallo = false;
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                fallo = true;
+            }
+            long duracion = System.nanoTime() - inicio;
+            synchronized (this) {
+                if (fallo) {
+                    errores++;
+                    return;
+                }
+                if (cantidad == latencias.length) {
+                    latencias = Arrays.copyOf(latencias, cantidad * 2);
+                }
+                latencias[cantidad++] = duracion;
+            }
+        }
+
+        synchronized void reiniciar() {
+            latencias = new long[1024];
+            cantidad = 0;
+            errores = 0;
+        }
+
+        synchronized long[] latencias() {
+            return Arrays.copyOf(latencias, cantidad);
+        }
+
+        synchronized int errores() {
+            return errores;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+@echo off
+rem Arranca la aplicación con las opciones de la JVM del build y el archivo AppCDS, si existe.
+cd /d "%~dp0"
+set CDS=
+if exist veterinaria.jsa set CDS=-XX:SharedArchiveFile=veterinaria.jsa
+java @JVM_FLAGS@ %CDS% %JAVA_OPTS% -jar veterinaria.jar %*
@@ -0,0 +1,8 @@
+#!/bin/sh
+# Arranca la aplicación con las opciones de la JVM del build y el archivo AppCDS, si existe.
+cd "$(dirname "$0")" || exit 1
+CDS=""
+if [ -f veterinaria.jsa ]; then
+    CDS="-XX:SharedArchiveFile=veterinaria.jsa"
+fi
+exec java @JVM_FLAGS@ $CDS $JAVA_OPTS -jar veterinaria.jar "$@"
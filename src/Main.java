@@ -1,12 +1,18 @@
 import controller.AuthController;
+import controller.ImportacionController;
 import controller.UsuarioController;
+import model.dto.ResultadoImportacionDTO;
 import model.dto.UsuarioDTO;
 import model.entities.Usuario;
+import model.services.ImportacionService.ProgresoImportacion;
 import utils.AppFactory;
+import utils.DatabaseConfig;
 import utils.SessionManager;
 import view.views.IndexView;
 import view.views.LoginView;
 
+import java.nio.file.Path;
+
 /**
  * Clase principal que inicia la aplicación del sistema veterinario.
  * Gestiona el flujo inicial de autenticación y redirección a la vista principal.
@@ -16,21 +22,135 @@ import view.views.LoginView;
  * @since 2023
  */
 public class Main{
+    /**
+     * Argumento que ejecuta el arranque de entrenamiento del archivo AppCDS.
+     */
+    public static final String ENTRENAR_CDS = "--entrenar-cds";
+
+    /**
+     * Argumento que reconstruye las ventas acumuladas de medicamentos y termina.
+     */
+    public static final String RECONSTRUIR_VENTAS = "--reconstruir-ventas";
+
+    /**
+     * Argumento que importa clientes desde un CSV y termina.
+     */
+    public static final String IMPORTAR_CLIENTES = "--importar-clientes";
+
+    /**
+     * Argumento que importa mascotas desde un CSV y termina.
+     */
+    public static final String IMPORTAR_MASCOTAS = "--importar-mascotas";
+
     /**
      * Punto de entrada principal de la aplicación.
      *
-     * @param args Argumentos de línea de comandos (no utilizados)
+     * @param args Argumentos de línea de comandos. Con {@value #ENTRENAR_CDS} solo se cargan
+     *             las clases del arranque y se termina, sin mostrar ventanas. Con
+     *             {@value #RECONSTRUIR_VENTAS} se recalcula la tabla VentaMedicamento y se termina.
+     *             Con {@value #IMPORTAR_CLIENTES} o {@value #IMPORTAR_MASCOTAS}, seguidos del
+     *             nombre del lote y la ruta del CSV, se importa el fichero y se termina.
+     *             Salvo en el entrenamiento, si la sincronización está activada se purga
+     *             antes el registro de cambios
      */
     public static void main(String[] args) {
+        if (args.length > 0 && ENTRENAR_CDS.equals(args[0])) {
+            entrenarCds();
+            return;
+        }
+        if (DatabaseConfig.isSyncEnabled()) {
+            // El sondeo solo corre con la interfaz; las escrituras por línea de comandos también llenan el registro
+            AppFactory.getSincronizadorCambios().purgar();
+        }
+        if (args.length > 0 && RECONSTRUIR_VENTAS.equals(args[0])) {
+            boolean reconstruidas = AppFactory.getMedicamentoController().reconstruirVentasMedicamentos();
+            System.out.println(reconstruidas
+                    ? "Ventas de medicamentos reconstruidas"
+                    : "No se pudieron reconstruir las ventas de medicamentos");
+            System.exit(reconstruidas ? 0 : 1);
+        }
+        if (args.length > 0 && (IMPORTAR_CLIENTES.equals(args[0]) || IMPORTAR_MASCOTAS.equals(args[0]))) {
+            System.exit(importar(args));
+        }
         run();
     }
 
+    /**
+     * Importa un fichero CSV de clientes o mascotas desde la línea de comandos, mostrando
+     * el progreso de cada bloque y el rendimiento final. Si se interrumpe, volver a
+     * ejecutar la misma orden continúa tras el último bloque guardado.
+     *
+     * @param args Orden de importación, nombre del lote y ruta del CSV
+     * @return Código de salida: 0 si la importación terminó, 1 si no
+     */
+    private static int importar(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Uso: " + args[0] + " <lote> <archivo.csv>");
+            return 1;
+        }
+        ImportacionController importacionController = AppFactory.getImportacionController();
+        Path archivo = Path.of(args[2]);
+        ProgresoImportacion progreso = (leidas, insertadas, rechazadas, filasPorSegundo) ->
+                System.out.printf("%d filas leídas, %d insertadas, %d rechazadas (%.0f filas/s)%n",
+                        leidas, insertadas, rechazadas, filasPorSegundo);
+
+        ResultadoImportacionDTO resultado = IMPORTAR_CLIENTES.equals(args[0])
+                ? importacionController.importarClientes(archivo, args[1], progreso)
+                : importacionController.importarMascotas(archivo, args[1], progreso);
+        if (resultado == null) {
+            System.err.println("La importación no terminó; repita la orden para continuar donde se quedó");
+            return 1;
+        }
+
+        resultado.errores().forEach(System.err::println);
+        if (resultado.rechazadas() > resultado.errores().size()) {
+            System.err.println("... y " + (resultado.rechazadas() - resultado.errores().size()) + " filas rechazadas más");
+        }
+        System.out.printf("Importación terminada: %d filas leídas (%d omitidas de ejecuciones anteriores), "
+                        + "%d insertadas, %d rechazadas en %.1f s (%.0f filas/s)%n",
+                resultado.filasLeidas(), resultado.omitidas(), resultado.insertadas(), resultado.rechazadas(),
+                resultado.nanos() / 1e9, resultado.filasPorSegundo());
+        return 0;
+    }
+
+    /**
+     * Carga e inicializa las clases que usa el arranque normal, para que la JVM las
+     * vuelque al archivo AppCDS indicado con {@code -XX:ArchiveClassesAtExit}.
+     * No abre conexiones ni ventanas, por lo que funciona sin base de datos y sin pantalla.
+     */
+    private static void entrenarCds() {
+        AppFactory.getAuthController();
+        String[] clases = {
+                "utils.SessionManager", "utils.SwingUtils", "utils.AsyncExecutor",
+                "model.database.Conexion", "model.database.ConnectionPool",
+                "view.tables.LazyTableModel", "view.listeners.LoginViewListener",
+                "view.views.LoginView", "view.views.IndexView", "view.views.CitaView",
+                "view.views.ClienteView", "view.views.MascotaView", "view.views.VeterinarioView",
+                "view.views.MedicamentoView", "view.views.ServicioView", "view.views.FacturaView",
+                "view.views.DetalleFacturaView", "view.views.GraficoBarras",
+                "javax.swing.JFrame", "javax.swing.JTable", "javax.swing.JScrollPane",
+                "javax.swing.JOptionPane", "javax.swing.UIManager"
+        };
+        for (String clase : clases) {
+            try {
+                Class.forName(clase, true, Main.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                System.err.println("No se pudo precargar " + clase + ": " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Método que controla el flujo inicial de la aplicación.
      * Intenta cargar credenciales guardadas y autenticar al usuario automáticamente.
      * Si no hay credenciales guardadas o la autenticación falla, muestra la vista de login.
+     * Si está activada, inicia también la sincronización con los cambios de otros puestos.
      */
     public static void run() {
+        if (DatabaseConfig.isSyncEnabled()) {
+            AppFactory.getSincronizadorCambios().iniciar();
+        }
+
         // Intentar carga automática
         String[] credenciales = SessionManager.cargarCredenciales();
 
@@ -0,0 +1,124 @@
+package controller;
+
+import model.dto.GranularidadVentas;
+import model.dto.TipoVenta;
+import model.dto.VentasItemDTO;
+import model.dto.VentasPeriodoDTO;
+import model.exceptions.BusinessException;
+import model.services.AnaliticaVentasService;
+import utils.AsyncExecutor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador para el panel de análisis de ventas.
+ * Gestiona la interacción entre la vista y el servicio de análisis de ventas.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class AnaliticaVentasController {
+
+    private final AnaliticaVentasService analiticaVentasService;
+
+    /**
+     * Constructor que inicializa el controlador con un servicio de análisis de ventas.
+     *
+     * @param analiticaVentasService el servicio de análisis de ventas a utilizar
+     */
+    public AnaliticaVentasController(AnaliticaVentasService analiticaVentasService) {
+        this.analiticaVentasService = analiticaVentasService;
+    }
+
+    /**
+     * Obtiene las ventas de cada servicio o medicamento en un rango de fechas.
+     *
+     * @param tipo  el tipo de ítem
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return lista de ítems con ventas, vacía si ocurre un error
+     */
+    public List<VentasItemDTO> obtenerVentasPorItem(TipoVenta tipo, LocalDate desde, LocalDate hasta) {
+        try {
+            return analiticaVentasService.obtenerVentasPorItem(tipo, desde, hasta);
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene la evolución de las ventas de un ítem, o de todos los de un tipo.
+     *
+     * @param tipo         el tipo de ítem
+     * @param idItem       el ID del servicio o medicamento, o 0 para todos los del tipo
+     * @param granularidad el tamaño de los intervalos
+     * @param desde        la primera fecha de emisión
+     * @param hasta        la última fecha de emisión
+     * @return lista de intervalos ordenados por fecha, vacía si ocurre un error
+     */
+    public List<VentasPeriodoDTO> obtenerSerieVentas(TipoVenta tipo, int idItem, GranularidadVentas granularidad,
+                                                     LocalDate desde, LocalDate hasta) {
+        try {
+            return analiticaVentasService.obtenerSerieVentas(tipo, idItem, granularidad, desde, hasta);
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Vuelve a leer todas las ventas de la base de datos.
+     *
+     * @return el número de detalles cargados, o -1 si ocurre un error
+     */
+    public int recargarVentas() {
+        try {
+            return analiticaVentasService.recargarVentas();
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerVentasPorItem(TipoVenta, LocalDate, LocalDate)}.
+     *
+     * @param tipo  el tipo de ítem
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return futuro con la lista de ítems con ventas
+     */
+    public CompletableFuture<List<VentasItemDTO>> obtenerVentasPorItemAsync(TipoVenta tipo, LocalDate desde, LocalDate hasta) {
+        return AsyncExecutor.consultar(() -> obtenerVentasPorItem(tipo, desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerSerieVentas(TipoVenta, int, GranularidadVentas, LocalDate, LocalDate)}.
+     *
+     * @param tipo         el tipo de ítem
+     * @param idItem       el ID del servicio o medicamento, o 0 para todos los del tipo
+     * @param granularidad el tamaño de los intervalos
+     * @param desde        la primera fecha de emisión
+     * @param hasta        la última fecha de emisión
+     * @return futuro con la lista de intervalos
+     */
+    public CompletableFuture<List<VentasPeriodoDTO>> obtenerSerieVentasAsync(TipoVenta tipo, int idItem, GranularidadVentas granularidad,
+                                                                             LocalDate desde, LocalDate hasta) {
+        return AsyncExecutor.consultar(() -> obtenerSerieVentas(tipo, idItem, granularidad, desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #recargarVentas()}.
+     *
+     * @return futuro con el número de detalles cargados, o -1 si ocurre un error
+     */
+    public CompletableFuture<Integer> recargarVentasAsync() {
+        return AsyncExecutor.consultar(this::recargarVentas);
+    }
+}
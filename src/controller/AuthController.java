@@ -4,6 +4,9 @@ import model.entities.Usuario;
 import model.exceptions.AuthException;
 import model.exceptions.BusinessException;
 import model.services.AuthService;
+import utils.AsyncExecutor;
+
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones de autenticación de usuarios.
@@ -70,4 +73,35 @@ public class AuthController {
         }
         return false;
     }
+
+    /**
+     * Versión asíncrona de {@link #autenticarUsuario(String, String)}.
+     *
+     * @param nombreUsuario el nombre de usuario
+     * @param contrasena la contraseña del usuario
+     * @return futuro con true si la autenticación es exitosa, false en caso contrario
+     */
+    public CompletableFuture<Boolean> autenticarUsuarioAsync(String nombreUsuario, String contrasena) {
+        return AsyncExecutor.consultar(() -> autenticarUsuario(nombreUsuario, contrasena));
+    }
+
+    /**
+     * Versión asíncrona de {@link #registrarUsuario(Usuario)}.
+     *
+     * @param usuario el usuario a registrar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> registrarUsuarioAsync(Usuario usuario) {
+        return AsyncExecutor.ejecutar(() -> registrarUsuario(usuario));
+    }
+
+    /**
+     * Versión asíncrona de {@link #estaAutenticado(String)}.
+     *
+     * @param nombreUsuario el nombre de usuario a verificar
+     * @return futuro con true si el usuario está autenticado, false en caso contrario
+     */
+    public CompletableFuture<Boolean> estaAutenticadoAsync(String nombreUsuario) {
+        return AsyncExecutor.consultar(() -> estaAutenticado(nombreUsuario));
+    }
 }
@@ -1,11 +1,17 @@
 package controller;
 
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
 import model.services.CitaService;
 import model.exceptions.BusinessException;
+import utils.SwingUtils;
+import utils.AsyncExecutor;
 
-import javax.swing.*;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con citas médicas.
@@ -32,14 +38,16 @@ public class CitaController {
      * Guarda una nueva cita en el sistema.
      *
      * @param cita la cita a guardar
+     * @return la cita guardada con su ID asignado, o null si ocurre un error
      */
-    public void guardarCita(Cita cita) {
+    public Cita guardarCita(Cita cita) {
         try {
-            citaService.guardarCita(cita);
+            return citaService.guardarCita(cita);
         }
         catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error en Cita",  JOptionPane.ERROR_MESSAGE);
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return null;
         }
     }
 
@@ -54,11 +62,150 @@ public class CitaController {
         }
         catch (BusinessException e) {
             System.err.println("Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error en Cita",  JOptionPane.ERROR_MESSAGE);
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene todas las citas con los nombres de mascota, dueño y veterinario.
+     *
+     * @return lista de citas detalladas
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladas() {
+        try {
+            return citaService.obtenerCitasDetalladas();
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
             return List.of();
         }
     }
 
+    /**
+     * Obtiene una página de citas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPagina(int offset, int limite) {
+        try {
+            return citaService.obtenerCitasDetalladasPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene la página de citas con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasDespuesDe(int ultimoId, int limite) {
+        try {
+            return citaService.obtenerCitasDetalladasDespuesDe(ultimoId, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas del rango [desde, hasta), ordenadas por fecha y hora.
+     *
+     * @param desde inicio del rango, incluido
+     * @param hasta fin del rango, excluido
+     * @return lista de citas detalladas, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasEnRango(LocalDateTime desde, LocalDateTime hasta) {
+        try {
+            return citaService.obtenerCitasDetalladasEnRango(desde, hasta);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas de un veterinario en el rango [desde, hasta).
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param desde         inicio del rango, incluido
+     * @param hasta         fin del rango, excluido
+     * @return lista de citas detalladas, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorVeterinario(int idVeterinario, LocalDateTime desde,
+                                                                     LocalDateTime hasta) {
+        try {
+            return citaService.obtenerCitasDetalladasPorVeterinario(idVeterinario, desde, hasta);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas de una mascota en el rango [desde, hasta).
+     *
+     * @param idMascota el ID de la mascota
+     * @param desde     inicio del rango, incluido
+     * @param hasta     fin del rango, excluido
+     * @return lista de citas detalladas, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorMascota(int idMascota, LocalDateTime desde,
+                                                                 LocalDateTime hasta) {
+        try {
+            return citaService.obtenerCitasDetalladasPorMascota(idMascota, desde, hasta);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas con un estado en el rango [desde, hasta).
+     *
+     * @param estado el estado de las citas
+     * @param desde  inicio del rango, incluido
+     * @param hasta  fin del rango, excluido
+     * @return lista de citas detalladas, vacía si ocurre un error
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorEstado(String estado, LocalDateTime desde,
+                                                                LocalDateTime hasta) {
+        try {
+            return citaService.obtenerCitasDetalladasPorEstado(estado, desde, hasta);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta las citas registradas en el sistema.
+     *
+     * @return número total de citas, 0 si ocurre un error
+     */
+    public int contarCitas() {
+        try {
+            return citaService.contarCitas();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return 0;
+        }
+    }
+
     /**
      * Busca una cita por su ID.
      *
@@ -71,11 +218,27 @@ public class CitaController {
         }
         catch (BusinessException e) {
             System.err.println("Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error en Cita",  JOptionPane.ERROR_MESSAGE);
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
             return null;
         }
     }
 
+    /**
+     * Busca las citas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cita con las citas encontradas, vacío si ocurre un error
+     */
+    public Map<Integer, Cita> buscarCitasPorIds(Collection<Integer> ids) {
+        try {
+            return citaService.buscarCitasPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de una cita existente.
      *
@@ -87,7 +250,7 @@ public class CitaController {
         }
         catch (BusinessException e) {
             System.err.println("Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error en Cita",  JOptionPane.ERROR_MESSAGE);
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
         }
     }
 
@@ -102,7 +265,189 @@ public class CitaController {
         }
         catch (BusinessException e) {
             System.err.println("Error: " + e.getMessage());
-            JOptionPane.showMessageDialog(null, "Error: " + e.getMessage(), "Error en Cita",  JOptionPane.ERROR_MESSAGE);
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+        }
+    }
+
+    /**
+     * Busca la primera hora, a partir de la indicada, en la que el veterinario y la
+     * mascota están libres.
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param idMascota     el ID de la mascota, o 0 para tener en cuenta solo al veterinario
+     * @param desde         la primera hora aceptable
+     * @return la hora de inicio del primer hueco libre, o null si ocurre un error
+     */
+    public LocalDateTime buscarSiguienteHuecoLibre(int idVeterinario, int idMascota, LocalDateTime desde) {
+        try {
+            return citaService.buscarSiguienteHuecoLibre(idVeterinario, idMascota, desde);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            SwingUtils.mostrarError("Error: " + e.getMessage(), "Error en Cita");
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Versión asíncrona de {@link #guardarCita(Cita)}.
+     *
+     * @param cita la cita a guardar
+     * @return futuro con la cita guardada con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Cita> guardarCitaAsync(Cita cita) {
+        return AsyncExecutor.consultar(() -> guardarCita(cita));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodasCitas()}.
+     *
+     * @return futuro con lista de todas las citas
+     */
+    public CompletableFuture<List<Cita>> obtenerTodasCitasAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodasCitas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladas()}.
+     *
+     * @return futuro con lista de citas detalladas
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasAsync() {
+        return AsyncExecutor.consultar(this::obtenerCitasDetalladas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasDespuesDe(int, int)}.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasDespuesDeAsync(int ultimoId, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasDespuesDe(ultimoId, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarCitas()}.
+     *
+     * @return futuro con número total de citas, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarCitasAsync() {
+        return AsyncExecutor.consultar(this::contarCitas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarCitaPorId(int)}.
+     *
+     * @param id el ID de la cita a buscar
+     * @return futuro con la cita encontrada o null si no existe
+     */
+    public CompletableFuture<Cita> buscarCitaPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarCitaPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarCitasPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a cita de las citas encontradas
+     */
+    public CompletableFuture<Map<Integer, Cita>> buscarCitasPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarCitasPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarCita(Cita)}.
+     *
+     * @param cita la cita con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarCitaAsync(Cita cita) {
+        return AsyncExecutor.ejecutar(() -> actualizarCita(cita));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarCita(int)}.
+     *
+     * @param id el ID de la cita a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarCitaAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarCita(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarSiguienteHuecoLibre(int, int, LocalDateTime)}.
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param idMascota     el ID de la mascota, o 0 para tener en cuenta solo al veterinario
+     * @param desde         la primera hora aceptable
+     * @return futuro con la hora de inicio del primer hueco libre, o null si ocurre un error
+     */
+    public CompletableFuture<LocalDateTime> buscarSiguienteHuecoLibreAsync(int idVeterinario, int idMascota,
+                                                                          LocalDateTime desde) {
+        return AsyncExecutor.consultar(() -> buscarSiguienteHuecoLibre(idVeterinario, idMascota, desde));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasEnRango(LocalDateTime, LocalDateTime)}.
+     *
+     * @param desde inicio del rango, incluido
+     * @param hasta fin del rango, excluido
+     * @return futuro con la lista de citas detalladas
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasEnRangoAsync(LocalDateTime desde,
+                                                                                     LocalDateTime hasta) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasEnRango(desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasPorVeterinario(int, LocalDateTime, LocalDateTime)}.
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param desde         inicio del rango, incluido
+     * @param hasta         fin del rango, excluido
+     * @return futuro con la lista de citas detalladas
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasPorVeterinarioAsync(
+            int idVeterinario, LocalDateTime desde, LocalDateTime hasta) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasPorVeterinario(idVeterinario, desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasPorMascota(int, LocalDateTime, LocalDateTime)}.
+     *
+     * @param idMascota el ID de la mascota
+     * @param desde     inicio del rango, incluido
+     * @param hasta     fin del rango, excluido
+     * @return futuro con la lista de citas detalladas
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasPorMascotaAsync(
+            int idMascota, LocalDateTime desde, LocalDateTime hasta) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasPorMascota(idMascota, desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerCitasDetalladasPorEstado(String, LocalDateTime, LocalDateTime)}.
+     *
+     * @param estado el estado de las citas
+     * @param desde  inicio del rango, incluido
+     * @param hasta  fin del rango, excluido
+     * @return futuro con la lista de citas detalladas
+     */
+    public CompletableFuture<List<CitaDetalleDTO>> obtenerCitasDetalladasPorEstadoAsync(
+            String estado, LocalDateTime desde, LocalDateTime hasta) {
+        return AsyncExecutor.consultar(() -> obtenerCitasDetalladasPorEstado(estado, desde, hasta));
+    }
+}
@@ -4,8 +4,12 @@ import model.entities.Cliente;
 import model.services.ClienteService;
 import model.services.impl.ClienteServiceImpl;
 import model.exceptions.BusinessException;
+import utils.AsyncExecutor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con clientes.
@@ -32,12 +36,14 @@ public class ClienteController {
      * Guarda un nuevo cliente en el sistema.
      *
      * @param cliente el cliente a guardar
+     * @return el cliente guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarCliente(Cliente cliente) {
+    public Cliente guardarCliente(Cliente cliente) {
         try {
-            clienteService.guardarCliente(cliente);
+            return clienteService.guardarCliente(cliente);
         } catch (BusinessException e) {
             System.err.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -56,6 +62,36 @@ public class ClienteController {
         return List.of();
     }
 
+    /**
+     * Obtiene una página de clientes ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Cliente> obtenerClientesPagina(int offset, int limite) {
+        try {
+            return clienteService.obtenerClientesPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta los clientes registrados en el sistema.
+     *
+     * @return número total de clientes, 0 si ocurre un error
+     */
+    public int contarClientes() {
+        try {
+            return clienteService.contarClientes();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca un cliente por su ID.
      *
@@ -72,6 +108,21 @@ public class ClienteController {
         }
     }
 
+    /**
+     * Busca los clientes con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cliente con los clientes encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, Cliente> buscarClientesPorIds(Collection<Integer> ids) {
+        try {
+            return clienteService.buscarClientesPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de un cliente existente.
      *
@@ -98,4 +149,83 @@ public class ClienteController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarCliente(Cliente)}.
+     *
+     * @param cliente el cliente a guardar
+     * @return futuro con el cliente guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Cliente> guardarClienteAsync(Cliente cliente) {
+        return AsyncExecutor.consultar(() -> guardarCliente(cliente));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosClientes()}.
+     *
+     * @return futuro con lista de todos los clientes
+     */
+    public CompletableFuture<List<Cliente>> obtenerTodosClientesAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosClientes);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerClientesPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Cliente>> obtenerClientesPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerClientesPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarClientes()}.
+     *
+     * @return futuro con número total de clientes, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarClientesAsync() {
+        return AsyncExecutor.consultar(this::contarClientes);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarClientePorId(int)}.
+     *
+     * @param id el ID del cliente a buscar
+     * @return futuro con el cliente encontrado o null si no existe
+     */
+    public CompletableFuture<Cliente> buscarClientePorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarClientePorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarClientesPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a cliente de los clientes encontrados
+     */
+    public CompletableFuture<Map<Integer, Cliente>> buscarClientesPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarClientesPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarCliente(Cliente)}.
+     *
+     * @param cliente el cliente con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarClienteAsync(Cliente cliente) {
+        return AsyncExecutor.ejecutar(() -> actualizarCliente(cliente));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarCliente(int)}.
+     *
+     * @param id el ID del cliente a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarClienteAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarCliente(id));
+    }
 }
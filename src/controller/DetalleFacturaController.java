@@ -4,8 +4,15 @@ import model.entities.DetalleFactura;
 import model.exceptions.BusinessException;
 import model.services.DetalleFacturaService;
 import model.services.impl.DetalleFacturaServiceImpl;
+import utils.AsyncExecutor;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con detalles de factura.
@@ -32,13 +39,15 @@ public class DetalleFacturaController {
      * Guarda un nuevo detalle de factura en el sistema.
      *
      * @param detalleFactura el detalle de factura a guardar
+     * @return el detalle guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarDetalleFactura(DetalleFactura detalleFactura) {
+    public DetalleFactura guardarDetalleFactura(DetalleFactura detalleFactura) {
         try{
-            detalleFacturaService.guardarDetalleFactura(detalleFactura);
+            return detalleFacturaService.guardarDetalleFactura(detalleFactura);
         }
         catch (BusinessException e){
             System.out.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -57,6 +66,38 @@ public class DetalleFacturaController {
         }
     }
 
+    /**
+     * Obtiene una página de detalles factura ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<DetalleFactura> obtenerDetallesFacturaPagina(int offset, int limite) {
+        try {
+            return detalleFacturaService.obtenerDetallesFacturaPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene la página de detalles factura con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<DetalleFactura> obtenerDetallesFacturaDespuesDe(int ultimoId, int limite) {
+        try {
+            return detalleFacturaService.obtenerDetallesFacturaDespuesDe(ultimoId, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
     /**
      * Busca un detalle de factura por su ID.
      *
@@ -73,6 +114,21 @@ public class DetalleFacturaController {
         }
     }
 
+    /**
+     * Busca los detalles de factura con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a detalle con los detalles de factura encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, DetalleFactura> buscarDetallesFacturaPorIds(Collection<Integer> ids) {
+        try {
+            return detalleFacturaService.buscarDetallesFacturaPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Obtiene los detalles de factura asociados a una factura específica.
      *
@@ -89,6 +145,25 @@ public class DetalleFacturaController {
         }
     }
 
+    /**
+     * Exporta a un fichero CSV los detalles de las facturas emitidas entre dos fechas,
+     * ambas incluidas.
+     *
+     * @param desde    la primera fecha de emisión de la factura
+     * @param hasta    la última fecha de emisión de la factura
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de detalles exportados, o null si ocurre un error
+     */
+    public Long exportarDetallesFacturaCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) {
+        try {
+            return detalleFacturaService.exportarDetallesFacturaCsv(desde, hasta, destino, progreso);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Actualiza los datos de un detalle de factura existente.
      *
@@ -116,5 +191,111 @@ public class DetalleFacturaController {
             System.out.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarDetalleFactura(DetalleFactura)}.
+     *
+     * @param detalleFactura el detalle de factura a guardar
+     * @return futuro con el detalle guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<DetalleFactura> guardarDetalleFacturaAsync(DetalleFactura detalleFactura) {
+        return AsyncExecutor.consultar(() -> guardarDetalleFactura(detalleFactura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosDetallesFactura()}.
+     *
+     * @return futuro con lista de todos los detalles de factura
+     */
+    public CompletableFuture<List<DetalleFactura>> obtenerTodosDetallesFacturaAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosDetallesFactura);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerDetallesFacturaPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<DetalleFactura>> obtenerDetallesFacturaPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerDetallesFacturaPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerDetallesFacturaDespuesDe(int, int)}.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<DetalleFactura>> obtenerDetallesFacturaDespuesDeAsync(int ultimoId, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerDetallesFacturaDespuesDe(ultimoId, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarDetalleFacturaPorId(int)}.
+     *
+     * @param id el ID del detalle a buscar
+     * @return futuro con el detalle encontrado o null si no existe
+     */
+    public CompletableFuture<DetalleFactura> buscarDetalleFacturaPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarDetalleFacturaPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarDetallesFacturaPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a detalle de los detalles de factura encontrados
+     */
+    public CompletableFuture<Map<Integer, DetalleFactura>> buscarDetallesFacturaPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarDetallesFacturaPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerDetallesPorFactura(int)}.
+     *
+     * @param idFactura el ID de la factura
+     * @return futuro con lista de detalles de factura asociados
+     */
+    public CompletableFuture<List<DetalleFactura>> obtenerDetallesPorFacturaAsync(int idFactura) {
+        return AsyncExecutor.consultar(() -> obtenerDetallesPorFactura(idFactura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #exportarDetallesFacturaCsv(LocalDate, LocalDate, Path, ProgresoExportacion)}.
+     * El progreso se informa desde el hilo de la exportación, no desde el EDT.
+     *
+     * @param desde    la primera fecha de emisión de la factura
+     * @param hasta    la última fecha de emisión de la factura
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return futuro con el número de detalles exportados, o null si ocurre un error
+     */
+    public CompletableFuture<Long> exportarDetallesFacturaCsvAsync(LocalDate desde, LocalDate hasta, Path destino,
+                                                                   ProgresoExportacion progreso) {
+        return AsyncExecutor.consultar(() -> exportarDetallesFacturaCsv(desde, hasta, destino, progreso));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarDetalleFactura(DetalleFactura)}.
+     *
+     * @param detalleFactura el detalle con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarDetalleFacturaAsync(DetalleFactura detalleFactura) {
+        return AsyncExecutor.ejecutar(() -> actualizarDetalleFactura(detalleFactura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarDetalleFactura(int)}.
+     *
+     * @param id el ID del detalle a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarDetalleFacturaAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarDetalleFactura(id));
+    }
 }
 
@@ -0,0 +1,80 @@
+package controller;
+
+import model.dao.CacheDAO;
+import model.database.Conexion;
+import model.database.ConnectionPool;
+import model.database.EstadisticasSentencias;
+import model.database.EstadisticasSentencias.Latencia;
+import model.dto.EstadoPoolDTO;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Controlador de la ventana de diagnóstico.
+ * Reúne las métricas de las consultas, el estado del pool de conexiones y las
+ * estadísticas de las cachés de entidades. Todo se lee de memoria, sin acceder
+ * a la base de datos.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class DiagnosticoController {
+
+    private final Map<String, CacheDAO<?>> caches;
+
+    /**
+     * Constructor que inicializa el controlador con las cachés de entidades de la aplicación.
+     *
+     * @param caches cachés de entidades por nombre de entidad
+     */
+    public DiagnosticoController(Map<String, CacheDAO<?>> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Obtiene las métricas de todas las consultas ejecutadas, de la más a la menos ejecutada.
+     *
+     * @return lista con las métricas de cada consulta
+     */
+    public List<EstadisticasSentencias.Uso> obtenerMetricasConsultas() {
+        return EstadisticasSentencias.obtener();
+    }
+
+    /**
+     * Obtiene el estado del pool de conexiones.
+     *
+     * @return estado del pool, o null si aún no se ha abierto ninguna conexión
+     */
+    public EstadoPoolDTO obtenerEstadoPool() {
+        ConnectionPool pool = Conexion.getPoolActual();
+        if (pool == null) {
+            return null;
+        }
+        return new EstadoPoolDTO(pool.getConexionesActivas(), pool.getConexionesInactivas(),
+                pool.getMaxConexiones(), Latencia.de(pool.getEspera()));
+    }
+
+    /**
+     * Obtiene las estadísticas de las cachés de entidades.
+     *
+     * @return estadísticas por nombre de entidad
+     */
+    public Map<String, CacheDAO.Estadisticas> obtenerEstadisticasCaches() {
+        Map<String, CacheDAO.Estadisticas> estadisticas = new LinkedHashMap<>();
+        caches.forEach((entidad, cache) -> estadisticas.put(entidad, cache.getEstadisticas()));
+        return estadisticas;
+    }
+
+    /**
+     * Pone a cero las métricas de las consultas y la espera del pool.
+     */
+    public void reiniciarMetricas() {
+        EstadisticasSentencias.reiniciar();
+        ConnectionPool pool = Conexion.getPoolActual();
+        if (pool != null) {
+            pool.getEspera().reiniciar();
+        }
+    }
+}
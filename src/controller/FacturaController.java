@@ -1,11 +1,20 @@
 package controller;
 
+import model.dto.FacturaCreadaDTO;
+import model.entities.DetalleFactura;
 import model.entities.Factura;
 import model.exceptions.BusinessException;
 import model.services.FacturaService;
 import model.services.impl.FacturaServiceImpl;
+import utils.AsyncExecutor;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con facturas.
@@ -32,12 +41,30 @@ public class FacturaController {
      * Guarda una nueva factura en el sistema.
      *
      * @param factura la factura a guardar
+     * @return la factura guardada con su ID asignado, o null si ocurre un error
      */
-    public void guardarFactura(Factura factura) {
+    public Factura guardarFactura(Factura factura) {
         try {
-            facturaService.guardarFactura(factura);
+            return facturaService.guardarFactura(factura);
         } catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Crea una factura junto con todos sus detalles en una sola transacción.
+     *
+     * @param factura  la factura a crear
+     * @param detalles los detalles de la factura
+     * @return las claves generadas y el total calculado, o null si ocurre un error
+     */
+    public FacturaCreadaDTO crearFacturaConDetalles(Factura factura, List<DetalleFactura> detalles) {
+        try {
+            return facturaService.crearFacturaConDetalles(factura, detalles);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -55,6 +82,52 @@ public class FacturaController {
         }
     }
 
+    /**
+     * Obtiene una página de facturas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Factura> obtenerFacturasPagina(int offset, int limite) {
+        try {
+            return facturaService.obtenerFacturasPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Obtiene la página de facturas con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Factura> obtenerFacturasDespuesDe(int ultimoId, int limite) {
+        try {
+            return facturaService.obtenerFacturasDespuesDe(ultimoId, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta las facturas registradas en el sistema.
+     *
+     * @return número total de facturas, 0 si ocurre un error
+     */
+    public int contarFacturas() {
+        try {
+            return facturaService.contarFacturas();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca una factura por su ID.
      *
@@ -70,6 +143,85 @@ public class FacturaController {
         }
     }
 
+    /**
+     * Busca las facturas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a factura con las facturas encontradas, vacío si ocurre un error
+     */
+    public Map<Integer, Factura> buscarFacturasPorIds(Collection<Integer> ids) {
+        try {
+            return facturaService.buscarFacturasPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Recalcula el total de una factura a partir de sus detalles.
+     *
+     * @param idFactura el ID de la factura
+     * @return el nuevo total de la factura, o null si ocurre un error
+     */
+    public Double recalcularTotalFactura(int idFactura) {
+        try {
+            return facturaService.recalcularTotalFactura(idFactura);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Recalcula los totales de varias facturas a partir de sus detalles.
+     *
+     * @param ids los IDs de las facturas
+     * @return el número de facturas recalculadas, 0 si ocurre un error
+     */
+    public int recalcularTotalesFacturas(Collection<Integer> ids) {
+        try {
+            return facturaService.recalcularTotalesFacturas(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Recalcula los totales de las facturas emitidas entre dos fechas, ambas incluidas.
+     *
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return el número de facturas recalculadas, 0 si ocurre un error
+     */
+    public int recalcularTotalesFacturasEntre(LocalDate desde, LocalDate hasta) {
+        try {
+            return facturaService.recalcularTotalesFacturasEntre(desde, hasta);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Exporta a un fichero CSV las facturas emitidas entre dos fechas, ambas incluidas.
+     *
+     * @param desde    la primera fecha de emisión
+     * @param hasta    la última fecha de emisión
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de facturas exportadas, o null si ocurre un error
+     */
+    public Long exportarFacturasCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) {
+        try {
+            return facturaService.exportarFacturasCsv(desde, hasta, destino, progreso);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Actualiza los datos de una factura existente.
      *
@@ -95,5 +247,152 @@ public class FacturaController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarFactura(Factura)}.
+     *
+     * @param factura la factura a guardar
+     * @return futuro con la factura guardada con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Factura> guardarFacturaAsync(Factura factura) {
+        return AsyncExecutor.consultar(() -> guardarFactura(factura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #crearFacturaConDetalles(Factura, List)}.
+     *
+     * @param factura  la factura a crear
+     * @param detalles los detalles de la factura
+     * @return futuro con las claves generadas y el total calculado, o null si ocurre un error
+     */
+    public CompletableFuture<FacturaCreadaDTO> crearFacturaConDetallesAsync(Factura factura, List<DetalleFactura> detalles) {
+        return AsyncExecutor.consultar(() -> crearFacturaConDetalles(factura, detalles));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodasFacturas()}.
+     *
+     * @return futuro con lista de todas las facturas
+     */
+    public CompletableFuture<List<Factura>> obtenerTodasFacturasAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodasFacturas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerFacturasPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Factura>> obtenerFacturasPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerFacturasPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerFacturasDespuesDe(int, int)}.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Factura>> obtenerFacturasDespuesDeAsync(int ultimoId, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerFacturasDespuesDe(ultimoId, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarFacturas()}.
+     *
+     * @return futuro con número total de facturas, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarFacturasAsync() {
+        return AsyncExecutor.consultar(this::contarFacturas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarFacturaPorId(int)}.
+     *
+     * @param id el ID de la factura a buscar
+     * @return futuro con la factura encontrada o null si no existe
+     */
+    public CompletableFuture<Factura> buscarFacturaPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarFacturaPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarFacturasPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a factura de las facturas encontradas
+     */
+    public CompletableFuture<Map<Integer, Factura>> buscarFacturasPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarFacturasPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #recalcularTotalFactura(int)}.
+     *
+     * @param idFactura el ID de la factura
+     * @return futuro con el nuevo total de la factura, o null si ocurre un error
+     */
+    public CompletableFuture<Double> recalcularTotalFacturaAsync(int idFactura) {
+        return AsyncExecutor.consultar(() -> recalcularTotalFactura(idFactura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #recalcularTotalesFacturas(Collection)}.
+     *
+     * @param ids los IDs de las facturas
+     * @return futuro con el número de facturas recalculadas
+     */
+    public CompletableFuture<Integer> recalcularTotalesFacturasAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> recalcularTotalesFacturas(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #recalcularTotalesFacturasEntre(LocalDate, LocalDate)}.
+     *
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return futuro con el número de facturas recalculadas
+     */
+    public CompletableFuture<Integer> recalcularTotalesFacturasEntreAsync(LocalDate desde, LocalDate hasta) {
+        return AsyncExecutor.consultar(() -> recalcularTotalesFacturasEntre(desde, hasta));
+    }
+
+    /**
+     * Versión asíncrona de {@link #exportarFacturasCsv(LocalDate, LocalDate, Path, ProgresoExportacion)}.
+     * El progreso se informa desde el hilo de la exportación, no desde el EDT.
+     *
+     * @param desde    la primera fecha de emisión
+     * @param hasta    la última fecha de emisión
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return futuro con el número de facturas exportadas, o null si ocurre un error
+     */
+    public CompletableFuture<Long> exportarFacturasCsvAsync(LocalDate desde, LocalDate hasta, Path destino,
+                                                            ProgresoExportacion progreso) {
+        return AsyncExecutor.consultar(() -> exportarFacturasCsv(desde, hasta, destino, progreso));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarFactura(Factura)}.
+     *
+     * @param factura la factura con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarFacturaAsync(Factura factura) {
+        return AsyncExecutor.ejecutar(() -> actualizarFactura(factura));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarFactura(int)}.
+     *
+     * @param id el ID de la factura a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarFacturaAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarFactura(id));
+    }
 }
 
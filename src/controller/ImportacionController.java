@@ -0,0 +1,94 @@
+package controller;
+
+import model.dto.ResultadoImportacionDTO;
+import model.exceptions.BusinessException;
+import model.services.ImportacionService;
+import model.services.ImportacionService.ProgresoImportacion;
+import utils.AsyncExecutor;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Controlador para las importaciones masivas de clientes y mascotas desde CSV.
+ * Se usa desde la línea de comandos, por lo que los errores solo se escriben en la
+ * salida de error, sin mostrar diálogos.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class ImportacionController {
+
+    private final ImportacionService importacionService;
+
+    /**
+     * Constructor que inicializa el controlador con un servicio de importación.
+     *
+     * @param importacionService el servicio de importación a utilizar
+     */
+    public ImportacionController(ImportacionService importacionService) {
+        this.importacionService = importacionService;
+    }
+
+    /**
+     * Importa clientes desde un CSV.
+     *
+     * @param archivo  el fichero CSV
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación, o null si ocurre un error
+     */
+    public ResultadoImportacionDTO importarClientes(Path archivo, String lote, ProgresoImportacion progreso) {
+        try {
+            return importacionService.importarClientes(archivo, lote, progreso);
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Importa mascotas desde un CSV.
+     *
+     * @param archivo  el fichero CSV
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación, o null si ocurre un error
+     */
+    public ResultadoImportacionDTO importarMascotas(Path archivo, String lote, ProgresoImportacion progreso) {
+        try {
+            return importacionService.importarMascotas(archivo, lote, progreso);
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #importarClientes(Path, String, ProgresoImportacion)}.
+     *
+     * @param archivo  el fichero CSV
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return futuro con el resultado de la importación, o null si ocurre un error
+     */
+    public CompletableFuture<ResultadoImportacionDTO> importarClientesAsync(Path archivo, String lote,
+                                                                           ProgresoImportacion progreso) {
+        return AsyncExecutor.consultar(() -> importarClientes(archivo, lote, progreso));
+    }
+
+    /**
+     * Versión asíncrona de {@link #importarMascotas(Path, String, ProgresoImportacion)}.
+     *
+     * @param archivo  el fichero CSV
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return futuro con el resultado de la importación, o null si ocurre un error
+     */
+    public CompletableFuture<ResultadoImportacionDTO> importarMascotasAsync(Path archivo, String lote,
+                                                                           ProgresoImportacion progreso) {
+        return AsyncExecutor.consultar(() -> importarMascotas(archivo, lote, progreso));
+    }
+}
@@ -5,8 +5,12 @@ import model.entities.Mascota;
 import model.exceptions.BusinessException;
 import model.services.MascotaService;
 import model.services.impl.MascotaServiceImpl;
+import utils.AsyncExecutor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con mascotas.
@@ -33,13 +37,15 @@ public class MascotaController {
      * Guarda una nueva mascota en el sistema.
      *
      * @param mascota la mascota a guardar
+     * @return la mascota guardada con su ID asignado, o null si ocurre un error
      */
-    public void guardarMascota(Mascota mascota) {
+    public Mascota guardarMascota(Mascota mascota) {
         try{
-            mascotaService.guardarMascota(mascota);
+            return mascotaService.guardarMascota(mascota);
         }
         catch (BusinessException e){
             System.out.println("Error: "+e.getMessage());
+            return null;
         }
     }
 
@@ -58,6 +64,36 @@ public class MascotaController {
         }
     }
 
+    /**
+     * Obtiene una página de mascotas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Mascota> obtenerMascotasPagina(int offset, int limite) {
+        try {
+            return mascotaService.obtenerMascotasPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta las mascotas registradas en el sistema.
+     *
+     * @return número total de mascotas, 0 si ocurre un error
+     */
+    public int contarMascotas() {
+        try {
+            return mascotaService.contarMascotas();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca una mascota por su ID.
      *
@@ -73,6 +109,21 @@ public class MascotaController {
         }
     }
 
+    /**
+     * Busca las mascotas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a mascota con las mascotas encontradas, vacío si ocurre un error
+     */
+    public Map<Integer, Mascota> buscarMascotasPorIds(Collection<Integer> ids) {
+        try {
+            return mascotaService.buscarMascotasPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de una mascota existente.
      *
@@ -98,4 +149,83 @@ public class MascotaController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarMascota(Mascota)}.
+     *
+     * @param mascota la mascota a guardar
+     * @return futuro con la mascota guardada con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Mascota> guardarMascotaAsync(Mascota mascota) {
+        return AsyncExecutor.consultar(() -> guardarMascota(mascota));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodasMascotas()}.
+     *
+     * @return futuro con lista de todas las mascotas
+     */
+    public CompletableFuture<List<Mascota>> obtenerTodasMascotasAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodasMascotas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerMascotasPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Mascota>> obtenerMascotasPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerMascotasPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarMascotas()}.
+     *
+     * @return futuro con número total de mascotas, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarMascotasAsync() {
+        return AsyncExecutor.consultar(this::contarMascotas);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarMascotaPorId(int)}.
+     *
+     * @param id el ID de la mascota a buscar
+     * @return futuro con la mascota encontrada o null si no existe
+     */
+    public CompletableFuture<Mascota> buscarMascotaPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarMascotaPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarMascotasPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a mascota de las mascotas encontradas
+     */
+    public CompletableFuture<Map<Integer, Mascota>> buscarMascotasPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarMascotasPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarMascota(Mascota)}.
+     *
+     * @param mascota la mascota con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarMascotaAsync(Mascota mascota) {
+        return AsyncExecutor.ejecutar(() -> actualizarMascota(mascota));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarMascota(int)}.
+     *
+     * @param id el ID de la mascota a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarMascotaAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarMascota(id));
+    }
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package controller;
 
 import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
 import model.entities.Medicamento;
 import model.exceptions.BusinessException;
 import model.services.MedicamentoService;
 import model.services.impl.MedicamentoServiceImpl;
+import utils.AsyncExecutor;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con medicamentos.
@@ -33,13 +39,15 @@ public class MedicamentoController {
      * Guarda un nuevo medicamento en el sistema.
      *
      * @param medicamento el medicamento a guardar
+     * @return el medicamento guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarMedicamento(Medicamento medicamento) {
+    public Medicamento guardarMedicamento(Medicamento medicamento) {
         try {
-            medicamentoService.guardarMedicamento(medicamento);
+            return medicamentoService.guardarMedicamento(medicamento);
         }
         catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -58,6 +66,36 @@ public class MedicamentoController {
         }
     }
 
+    /**
+     * Obtiene una página de medicamentos ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Medicamento> obtenerMedicamentosPagina(int offset, int limite) {
+        try {
+            return medicamentoService.obtenerMedicamentosPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta los medicamentos registrados en el sistema.
+     *
+     * @return número total de medicamentos, 0 si ocurre un error
+     */
+    public int contarMedicamentos() {
+        try {
+            return medicamentoService.contarMedicamentos();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca un medicamento por su ID.
      *
@@ -73,6 +111,21 @@ public class MedicamentoController {
         }
     }
 
+    /**
+     * Busca los medicamentos con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a medicamento con los medicamentos encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, Medicamento> buscarMedicamentosPorIds(Collection<Integer> ids) {
+        try {
+            return medicamentoService.buscarMedicamentosPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de un medicamento existente.
      *
@@ -116,4 +169,145 @@ public class MedicamentoController {
         }
     }
 
+    /**
+     * Obtiene un reporte de los medicamentos más vendidos en el día, mes o año que
+     * contiene una fecha.
+     *
+     * @param periodo la ventana de tiempo del reporte
+     * @param fecha   una fecha contenida en la ventana
+     * @return lista de DTOs con información de medicamentos más vendidos
+     */
+    public List<MedicamentoMasVendidoDTO> obtenerMedicamentosMasVendidos(PeriodoVentas periodo, LocalDate fecha) {
+        try {
+            return medicamentoService.buscarMedicamentosMasVendidos(periodo, fecha);
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Vuelve a calcular las ventas acumuladas de medicamentos a partir de las facturas.
+     *
+     * @return true si la reconstrucción terminó correctamente
+     */
+    public boolean reconstruirVentasMedicamentos() {
+        try {
+            medicamentoService.reconstruirVentasMedicamentos();
+            return true;
+        }
+        catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Versión asíncrona de {@link #guardarMedicamento(Medicamento)}.
+     *
+     * @param medicamento el medicamento a guardar
+     * @return futuro con el medicamento guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Medicamento> guardarMedicamentoAsync(Medicamento medicamento) {
+        return AsyncExecutor.consultar(() -> guardarMedicamento(medicamento));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosMedicamentos()}.
+     *
+     * @return futuro con lista de todos los medicamentos
+     */
+    public CompletableFuture<List<Medicamento>> obtenerTodosMedicamentosAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosMedicamentos);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerMedicamentosPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Medicamento>> obtenerMedicamentosPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerMedicamentosPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarMedicamentos()}.
+     *
+     * @return futuro con número total de medicamentos, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarMedicamentosAsync() {
+        return AsyncExecutor.consultar(this::contarMedicamentos);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarMedicamentoPorId(int)}.
+     *
+     * @param id el ID del medicamento a buscar
+     * @return futuro con el medicamento encontrado o null si no existe
+     */
+    public CompletableFuture<Medicamento> buscarMedicamentoPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarMedicamentoPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarMedicamentosPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a medicamento de los medicamentos encontrados
+     */
+    public CompletableFuture<Map<Integer, Medicamento>> buscarMedicamentosPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarMedicamentosPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarMedicamento(Medicamento)}.
+     *
+     * @param medicamento el medicamento con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarMedicamentoAsync(Medicamento medicamento) {
+        return AsyncExecutor.ejecutar(() -> actualizarMedicamento(medicamento));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarMedicamento(int)}.
+     *
+     * @param id el ID del medicamento a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarMedicamentoAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarMedicamento(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerMedicamentosMasVendidos()}.
+     *
+     * @return futuro con lista de DTOs con información de medicamentos más vendidos
+     */
+    public CompletableFuture<List<MedicamentoMasVendidoDTO>> obtenerMedicamentosMasVendidosAsync() {
+        return AsyncExecutor.consultar(this::obtenerMedicamentosMasVendidos);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerMedicamentosMasVendidos(PeriodoVentas, LocalDate)}.
+     *
+     * @param periodo la ventana de tiempo del reporte
+     * @param fecha   una fecha contenida en la ventana
+     * @return futuro con lista de DTOs con información de medicamentos más vendidos
+     */
+    public CompletableFuture<List<MedicamentoMasVendidoDTO>> obtenerMedicamentosMasVendidosAsync(PeriodoVentas periodo, LocalDate fecha) {
+        return AsyncExecutor.consultar(() -> obtenerMedicamentosMasVendidos(periodo, fecha));
+    }
+
+    /**
+     * Versión asíncrona de {@link #reconstruirVentasMedicamentos()}.
+     *
+     * @return futuro con true si la reconstrucción terminó correctamente
+     */
+    public CompletableFuture<Boolean> reconstruirVentasMedicamentosAsync() {
+        return AsyncExecutor.consultar(this::reconstruirVentasMedicamentos);
+    }
 }
@@ -4,8 +4,12 @@ import model.entities.Servicio;
 import model.exceptions.BusinessException;
 import model.services.ServicioService;
 import model.services.impl.ServicioServiceImpl;
+import utils.AsyncExecutor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con servicios.
@@ -32,12 +36,14 @@ public class ServicioController {
      * Guarda un nuevo servicio en el sistema.
      *
      * @param servicio el servicio a guardar
+     * @return el servicio guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarServicio(Servicio servicio) {
+    public Servicio guardarServicio(Servicio servicio) {
         try {
-            servicioService.guardarServicio(servicio);
+            return servicioService.guardarServicio(servicio);
         } catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -55,6 +61,36 @@ public class ServicioController {
         }
     }
 
+    /**
+     * Obtiene una página de servicios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Servicio> obtenerServiciosPagina(int offset, int limite) {
+        try {
+            return servicioService.obtenerServiciosPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta los servicios registrados en el sistema.
+     *
+     * @return número total de servicios, 0 si ocurre un error
+     */
+    public int contarServicios() {
+        try {
+            return servicioService.contarServicios();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca un servicio por su ID.
      *
@@ -70,6 +106,21 @@ public class ServicioController {
         }
     }
 
+    /**
+     * Busca los servicios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a servicio con los servicios encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, Servicio> buscarServiciosPorIds(Collection<Integer> ids) {
+        try {
+            return servicioService.buscarServiciosPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de un servicio existente.
      *
@@ -95,4 +146,83 @@ public class ServicioController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarServicio(Servicio)}.
+     *
+     * @param servicio el servicio a guardar
+     * @return futuro con el servicio guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Servicio> guardarServicioAsync(Servicio servicio) {
+        return AsyncExecutor.consultar(() -> guardarServicio(servicio));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosServicios()}.
+     *
+     * @return futuro con lista de todos los servicios
+     */
+    public CompletableFuture<List<Servicio>> obtenerTodosServiciosAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosServicios);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerServiciosPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Servicio>> obtenerServiciosPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerServiciosPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarServicios()}.
+     *
+     * @return futuro con número total de servicios, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarServiciosAsync() {
+        return AsyncExecutor.consultar(this::contarServicios);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarServicioPorId(int)}.
+     *
+     * @param id el ID del servicio a buscar
+     * @return futuro con el servicio encontrado o null si no existe
+     */
+    public CompletableFuture<Servicio> buscarServicioPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarServicioPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarServiciosPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a servicio de los servicios encontrados
+     */
+    public CompletableFuture<Map<Integer, Servicio>> buscarServiciosPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarServiciosPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarServicio(Servicio)}.
+     *
+     * @param servicio el servicio con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarServicioAsync(Servicio servicio) {
+        return AsyncExecutor.ejecutar(() -> actualizarServicio(servicio));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarServicio(int)}.
+     *
+     * @param id el ID del servicio a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarServicioAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarServicio(id));
+    }
 }
\ No newline at end of file
@@ -4,8 +4,12 @@ import model.entities.Usuario;
 import model.exceptions.BusinessException;
 import model.services.UsuarioService;
 import model.services.impl.UsuarioServiceImpl;
+import utils.AsyncExecutor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con usuarios.
@@ -32,12 +36,14 @@ public class UsuarioController {
      * Guarda un nuevo usuario en el sistema.
      *
      * @param usuario el usuario a guardar
+     * @return el usuario guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarUsuario(Usuario usuario) {
+    public Usuario guardarUsuario(Usuario usuario) {
         try {
-            usuarioService.guardarUsuario(usuario);
+            return usuarioService.guardarUsuario(usuario);
         } catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -70,6 +76,21 @@ public class UsuarioController {
         }
     }
 
+    /**
+     * Busca los usuarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a usuario con los usuarios encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, Usuario> buscarUsuariosPorIds(Collection<Integer> ids) {
+        try {
+            return usuarioService.buscarUsuariosPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Busca un usuario por su nombre de usuario.
      *
@@ -97,4 +118,63 @@ public class UsuarioController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarUsuario(Usuario)}.
+     *
+     * @param usuario el usuario a guardar
+     * @return futuro con el usuario guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Usuario> guardarUsuarioAsync(Usuario usuario) {
+        return AsyncExecutor.consultar(() -> guardarUsuario(usuario));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosUsuarios()}.
+     *
+     * @return futuro con lista de todos los usuarios
+     */
+    public CompletableFuture<List<Usuario>> obtenerTodosUsuariosAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosUsuarios);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarUsuarioPorId(int)}.
+     *
+     * @param id el ID del usuario a buscar
+     * @return futuro con el usuario encontrado o null si no existe
+     */
+    public CompletableFuture<Usuario> buscarUsuarioPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarUsuarioPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarUsuariosPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a usuario de los usuarios encontrados
+     */
+    public CompletableFuture<Map<Integer, Usuario>> buscarUsuariosPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarUsuariosPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarUsuarioPorNombreUsuario(String)}.
+     *
+     * @param nombreUsuario el nombre de usuario a buscar
+     * @return futuro con el usuario encontrado o null si no existe
+     */
+    public CompletableFuture<Usuario> buscarUsuarioPorNombreUsuarioAsync(String nombreUsuario) {
+        return AsyncExecutor.consultar(() -> buscarUsuarioPorNombreUsuario(nombreUsuario));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarUsuario(Usuario)}.
+     *
+     * @param usuario el usuario con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarUsuarioAsync(Usuario usuario) {
+        return AsyncExecutor.ejecutar(() -> actualizarUsuario(usuario));
+    }
 }
@@ -4,8 +4,12 @@ import model.entities.Veterinario;
 import model.exceptions.BusinessException;
 import model.services.VeterinarioService;
 import model.services.impl.VeterinarioServiceImpl;
+import utils.AsyncExecutor;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controlador para manejar las operaciones relacionadas con veterinarios.
@@ -32,12 +36,14 @@ public class VeterinarioController {
      * Guarda un nuevo veterinario en el sistema.
      *
      * @param veterinario el veterinario a guardar
+     * @return el veterinario guardado con su ID asignado, o null si ocurre un error
      */
-    public void guardarVeterinario(Veterinario veterinario) {
+    public Veterinario guardarVeterinario(Veterinario veterinario) {
         try {
-            veterinarioService.guardarVeterinario(veterinario);
+            return veterinarioService.guardarVeterinario(veterinario);
         } catch (BusinessException e) {
             System.out.println("Error: " + e.getMessage());
+            return null;
         }
     }
 
@@ -55,6 +61,36 @@ public class VeterinarioController {
         }
     }
 
+    /**
+     * Obtiene una página de veterinarios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada, vacía si ocurre un error
+     */
+    public List<Veterinario> obtenerVeterinariosPagina(int offset, int limite) {
+        try {
+            return veterinarioService.obtenerVeterinariosPagina(offset, limite);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Cuenta los veterinarios registrados en el sistema.
+     *
+     * @return número total de veterinarios, 0 si ocurre un error
+     */
+    public int contarVeterinarios() {
+        try {
+            return veterinarioService.contarVeterinarios();
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Busca un veterinario por su ID.
      *
@@ -70,6 +106,21 @@ public class VeterinarioController {
         }
     }
 
+    /**
+     * Busca los veterinarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a veterinario con los veterinarios encontrados, vacío si ocurre un error
+     */
+    public Map<Integer, Veterinario> buscarVeterinariosPorIds(Collection<Integer> ids) {
+        try {
+            return veterinarioService.buscarVeterinariosPorIds(ids);
+        } catch (BusinessException e) {
+            System.err.println("Error: " + e.getMessage());
+            return Map.of();
+        }
+    }
+
     /**
      * Actualiza los datos de un veterinario existente.
      *
@@ -95,5 +146,84 @@ public class VeterinarioController {
             System.err.println("Error: " + e.getMessage());
         }
     }
+
+    /**
+     * Versión asíncrona de {@link #guardarVeterinario(Veterinario)}.
+     *
+     * @param veterinario el veterinario a guardar
+     * @return futuro con el veterinario guardado con su ID asignado, o null si ocurre un error
+     */
+    public CompletableFuture<Veterinario> guardarVeterinarioAsync(Veterinario veterinario) {
+        return AsyncExecutor.consultar(() -> guardarVeterinario(veterinario));
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerTodosVeterinarios()}.
+     *
+     * @return futuro con lista de todos los veterinarios
+     */
+    public CompletableFuture<List<Veterinario>> obtenerTodosVeterinariosAsync() {
+        return AsyncExecutor.consultar(this::obtenerTodosVeterinarios);
+    }
+
+    /**
+     * Versión asíncrona de {@link #obtenerVeterinariosPagina(int, int)}.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return futuro con lista con la página solicitada, vacía si ocurre un error
+     */
+    public CompletableFuture<List<Veterinario>> obtenerVeterinariosPaginaAsync(int offset, int limite) {
+        return AsyncExecutor.consultar(() -> obtenerVeterinariosPagina(offset, limite));
+    }
+
+    /**
+     * Versión asíncrona de {@link #contarVeterinarios()}.
+     *
+     * @return futuro con número total de veterinarios, 0 si ocurre un error
+     */
+    public CompletableFuture<Integer> contarVeterinariosAsync() {
+        return AsyncExecutor.consultar(this::contarVeterinarios);
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarVeterinarioPorId(int)}.
+     *
+     * @param id el ID del veterinario a buscar
+     * @return futuro con el veterinario encontrado o null si no existe
+     */
+    public CompletableFuture<Veterinario> buscarVeterinarioPorIdAsync(int id) {
+        return AsyncExecutor.consultar(() -> buscarVeterinarioPorId(id));
+    }
+
+    /**
+     * Versión asíncrona de {@link #buscarVeterinariosPorIds(Collection)}.
+     *
+     * @param ids los IDs a buscar
+     * @return futuro con el mapa de ID a veterinario de los veterinarios encontrados
+     */
+    public CompletableFuture<Map<Integer, Veterinario>> buscarVeterinariosPorIdsAsync(Collection<Integer> ids) {
+        return AsyncExecutor.consultar(() -> buscarVeterinariosPorIds(ids));
+    }
+
+    /**
+     * Versión asíncrona de {@link #actualizarVeterinario(Veterinario)}.
+     *
+     * @param veterinario el veterinario con los datos actualizados
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> actualizarVeterinarioAsync(Veterinario veterinario) {
+        return AsyncExecutor.ejecutar(() -> actualizarVeterinario(veterinario));
+    }
+
+    /**
+     * Versión asíncrona de {@link #eliminarVeterinario(int)}.
+     *
+     * @param id el ID del veterinario a eliminar
+     * @return futuro que se completa al terminar la operación
+     */
+    public CompletableFuture<Void> eliminarVeterinarioAsync(int id) {
+        return AsyncExecutor.ejecutar(() -> eliminarVeterinario(id));
+    }
 }
 
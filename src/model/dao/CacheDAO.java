@@ -0,0 +1,300 @@
+package model.dao;
+
+import model.exceptions.PersistenceException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Decorador de {@link GenericDAO} que guarda en memoria las entidades leídas por ID.
+ * La caché está acotada en tamaño (se desaloja la entrada usada hace más tiempo) y cada
+ * entrada caduca tras un tiempo de vida. Las escrituras se delegan al DAO envuelto y
+ * después invalidan la entrada afectada. Listados, páginas y conteos no se cachean.
+ * <p>
+ * Las entidades devueltas se comparten entre llamadas: quien las modifique debe
+ * persistir el cambio con {@link #actualizar(Object)} para que la caché no quede desfasada.
+ *
+ * @param <T> Tipo de entidad a manejar
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class CacheDAO<T> implements GenericDAO<T> {
+
+    private final GenericDAO<T> delegado;
+    private final ToIntFunction<T> clave;
+    private final int maxEntradas;
+    private final long ttlMs;
+    private final Map<Integer, Entrada<T>> entradas;
+
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+    private long expiraciones;
+    private long invalidaciones;
+
+    /**
+     * Constructor que envuelve un DAO con una caché de lectura.
+     *
+     * @param delegado    DAO que accede a la base de datos
+     * @param clave       Función que obtiene el ID de una entidad
+     * @param maxEntradas Número máximo de entidades en memoria
+     * @param ttlMs       Tiempo de vida de cada entrada en milisegundos
+     */
+    public CacheDAO(GenericDAO<T> delegado, ToIntFunction<T> clave, int maxEntradas, long ttlMs) {
+        if (maxEntradas <= 0 || ttlMs <= 0) {
+            throw new IllegalArgumentException("El tamaño y el tiempo de vida de la caché deben ser positivos");
+        }
+        this.delegado = delegado;
+        this.clave = clave;
+        this.maxEntradas = maxEntradas;
+        this.ttlMs = ttlMs;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entrada<T>> mayor) {
+                if (size() > CacheDAO.this.maxEntradas) {
+                    desalojos++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Busca una entidad por su ID, consultando la base de datos solo si no está en
+     * caché o si su entrada ha caducado. Los IDs inexistentes no se cachean.
+     *
+     * @param id El ID de la entidad a buscar
+     * @return La entidad encontrada o null si no existe
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public T buscarPorId(int id) throws PersistenceException {
+        long invalidacionesAntes;
+        synchronized (entradas) {
+            Entrada<T> entrada = entradas.get(id);
+            if (entrada != null) {
+                if (entrada.expira() > System.currentTimeMillis()) {
+                    aciertos++;
+                    return entrada.valor();
+                }
+                entradas.remove(id);
+                expiraciones++;
+            }
+            fallos++;
+            invalidacionesAntes = invalidaciones;
+        }
+
+        // La consulta se hace fuera del bloqueo para no serializar las lecturas
+        T entidad = delegado.buscarPorId(id);
+        if (entidad != null) {
+            synchronized (entradas) {
+                // Una escritura concurrente puede haber dejado obsoleto lo que se acaba de leer
+                if (invalidaciones == invalidacionesAntes) {
+                    entradas.put(id, new Entrada<>(entidad, System.currentTimeMillis() + ttlMs));
+                }
+            }
+        }
+        return entidad;
+    }
+
+    /**
+     * Busca varias entidades por su ID. Las que están en caché se sirven desde memoria
+     * y el resto se piden al DAO envuelto en una sola llamada.
+     *
+     * @param ids Los IDs de las entidades a buscar
+     * @return Mapa de ID a entidad con las entidades encontradas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, T> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        Map<Integer, T> resultado = new HashMap<>();
+        List<Integer> pendientes = new ArrayList<>();
+        Set<Integer> vistos = new HashSet<>();
+        long invalidacionesAntes;
+        synchronized (entradas) {
+            long ahora = System.currentTimeMillis();
+            for (Integer id : ids) {
+                if (id == null || !vistos.add(id)) {
+                    continue;
+                }
+                Entrada<T> entrada = entradas.get(id);
+                if (entrada != null && entrada.expira() > ahora) {
+                    aciertos++;
+                    resultado.put(id, entrada.valor());
+                    continue;
+                }
+                if (entrada != null) {
+                    entradas.remove(id);
+                    expiraciones++;
+                }
+                fallos++;
+                pendientes.add(id);
+            }
+            invalidacionesAntes = invalidaciones;
+        }
+
+        if (pendientes.isEmpty()) {
+            return resultado;
+        }
+        Map<Integer, T> leidas = delegado.buscarPorIds(pendientes);
+        synchronized (entradas) {
+            if (invalidaciones == invalidacionesAntes) {
+                long expira = System.currentTimeMillis() + ttlMs;
+                for (Map.Entry<Integer, T> leida : leidas.entrySet()) {
+                    entradas.put(leida.getKey(), new Entrada<>(leida.getValue(), expira));
+                }
+            }
+        }
+        resultado.putAll(leidas);
+        return resultado;
+    }
+
+    @Override
+    public void guardar(T entidad) throws PersistenceException {
+        delegado.guardar(entidad);
+        invalidar(clave.applyAsInt(entidad));
+    }
+
+    @Override
+    public List<Integer> guardarTodos(List<T> entidades) throws PersistenceException {
+        List<Integer> ids = delegado.guardarTodos(entidades);
+        invalidarTodos(ids);
+        return ids;
+    }
+
+    @Override
+    public List<T> obtenerTodos() throws PersistenceException {
+        return delegado.obtenerTodos();
+    }
+
+    @Override
+    public List<T> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return delegado.obtenerPagina(offset, limite);
+    }
+
+    @Override
+    public List<T> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return delegado.obtenerPaginaDespuesDe(ultimoId, limite);
+    }
+
+    @Override
+    public int contar() throws PersistenceException {
+        return delegado.contar();
+    }
+
+    @Override
+    public void actualizar(T entidad) throws PersistenceException {
+        try {
+            delegado.actualizar(entidad);
+        } finally {
+            // Si la escritura falló a medias, la próxima lectura irá a la base de datos
+            invalidar(clave.applyAsInt(entidad));
+        }
+    }
+
+    @Override
+    public void actualizarTodos(List<T> entidades) throws PersistenceException {
+        try {
+            delegado.actualizarTodos(entidades);
+        } finally {
+            invalidarTodos(entidades.stream().map(clave::applyAsInt).toList());
+        }
+    }
+
+    @Override
+    public void eliminar(int id) throws PersistenceException {
+        try {
+            delegado.eliminar(id);
+        } finally {
+            invalidar(id);
+        }
+    }
+
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        try {
+            delegado.eliminarTodos(ids);
+        } finally {
+            invalidarTodos(ids);
+        }
+    }
+
+    /**
+     * Descarta la entrada de una entidad para que la próxima lectura vaya a la base de datos.
+     *
+     * @param id ID de la entidad a descartar
+     */
+    public void invalidar(int id) {
+        synchronized (entradas) {
+            invalidaciones++;
+            entradas.remove(id);
+        }
+    }
+
+    /**
+     * Descarta las entradas de varias entidades con un solo bloqueo.
+     *
+     * @param ids IDs de las entidades a descartar; los nulos se ignoran
+     */
+    public void invalidarTodos(Collection<Integer> ids) {
+        synchronized (entradas) {
+            invalidaciones++;
+            entradas.keySet().removeAll(ids);
+        }
+    }
+
+    /**
+     * Descarta todas las entradas de la caché. Las estadísticas se conservan.
+     */
+    public void limpiar() {
+        synchronized (entradas) {
+            invalidaciones++;
+            entradas.clear();
+        }
+    }
+
+    /**
+     * Obtiene una instantánea de las estadísticas de uso de la caché.
+     *
+     * @return Estadísticas acumuladas desde la creación de la caché
+     */
+    public Estadisticas getEstadisticas() {
+        synchronized (entradas) {
+            return new Estadisticas(aciertos, fallos, desalojos, expiraciones, entradas.size(), maxEntradas);
+        }
+    }
+
+    private record Entrada<T>(T valor, long expira) {}
+
+    /**
+     * Estadísticas de uso de una caché de entidades.
+     *
+     * @param aciertos     Lecturas resueltas desde memoria
+     * @param fallos       Lecturas que tuvieron que consultar la base de datos
+     * @param desalojos    Entradas descartadas por falta de espacio
+     * @param expiraciones Entradas descartadas por caducar
+     * @param entradas     Entradas en memoria actualmente
+     * @param maxEntradas  Capacidad máxima de la caché
+     */
+    public record Estadisticas(long aciertos, long fallos, long desalojos, long expiraciones,
+                               int entradas, int maxEntradas) {
+
+        /**
+         * Calcula la proporción de lecturas resueltas desde memoria.
+         *
+         * @return Tasa de aciertos entre 0 y 1, o 0 si aún no hubo lecturas
+         */
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0 : (double) aciertos / total;
+        }
+    }
+}
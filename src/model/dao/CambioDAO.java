@@ -0,0 +1,115 @@
+package model.dao;
+
+import model.database.Conexion;
+import model.dto.CambioRegistradoDTO;
+import model.events.CambioEntidad;
+import model.exceptions.PersistenceException;
+import utils.Query;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DAO de lectura del registro de cambios que escriben todos los DAO (tabla RegistroCambio).
+ * Cada instancia de la aplicación lo consulta periódicamente desde el último cambio que
+ * vio para enterarse de las escrituras hechas desde otros puestos.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class CambioDAO {
+
+    /**
+     * Constructor por defecto.
+     */
+    public CambioDAO() {}
+
+    /**
+     * Obtiene la posición del último cambio registrado.
+     *
+     * @return El ID del último cambio, 0 si el registro está vacío
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long obtenerUltimoId() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CAMBIO_SELECT_MAX);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener el último cambio registrado", e);
+        }
+    }
+
+    /**
+     * Obtiene los cambios registrados después de uno dado, en orden de registro.
+     *
+     * @param ultimoId ID del último cambio ya leído
+     * @param limite   Número máximo de cambios a devolver
+     * @return Lista de cambios, incluidos los escritos por esta instancia
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CambioRegistradoDTO> obtenerDespuesDe(long ultimoId, int limite) throws PersistenceException {
+        List<CambioRegistradoDTO> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CAMBIO_SELECT_AFTER_ID)) {
+
+            stmt.setLong(1, ultimoId);
+            stmt.setInt(2, limite);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearCambio(rs));
+                }
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener los cambios posteriores a " + ultimoId, e);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Borra los cambios registrados hace más de los minutos indicados, según el reloj
+     * del servidor.
+     *
+     * @param minutos Antigüedad a partir de la cual se borran
+     * @return Número de cambios borrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int purgarAntiguos(int minutos) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CAMBIO_DELETE_ANTIGUOS)) {
+
+            stmt.setInt(1, minutos);
+            return stmt.executeUpdate();
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al purgar el registro de cambios", e);
+        }
+    }
+
+    private CambioRegistradoDTO mapearCambio(ResultSet rs) throws SQLException {
+        int id = rs.getInt("idEntidad");
+        Integer idEntidad = rs.wasNull() ? null : id;
+        return new CambioRegistradoDTO(
+                rs.getLong("idCambio"),
+                rs.getString("entidad"),
+                idEntidad,
+                mapearTipo(rs.getString("tipo")),
+                RegistroCambios.ORIGEN.equals(rs.getString("origen"))
+        );
+    }
+
+    private CambioEntidad.Tipo mapearTipo(String tipo) {
+        try {
+            return CambioEntidad.Tipo.valueOf(tipo);
+        } catch (IllegalArgumentException e) {
+            // Un tipo desconocido, escrito por otra versión de la aplicación, se trata como el más general
+            return CambioEntidad.Tipo.VARIOS;
+        }
+    }
+}
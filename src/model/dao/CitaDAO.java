@@ -1,13 +1,18 @@
 package model.dao;
 
 import model.database.Conexion;
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de citas en la base de datos.
@@ -25,31 +30,43 @@ public class CitaDAO implements GenericDAO<Cita>{
     public CitaDAO(){}
 
     /**
-     * Guarda una nueva cita en la base de datos.
+     * Guarda una nueva cita en la base de datos y le asigna el ID generado.
      *
      * @param cita La cita a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Cita cita) throws PersistenceException {
-        String sql = QueryManager.getQuery("cita.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, cita);
+                stmt.executeUpdate();
 
-        try (
-                Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)
-        )
-        {
-
-            stmt.setTimestamp(1, Timestamp.valueOf(cita.getFechaHora()));
-            stmt.setString(2, cita.getMotivo());
-            stmt.setString(3, cita.getEstado());
-            stmt.setInt(4, cita.getIdMascota());
-            stmt.setInt(5, cita.getIdVeterinario());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID de la cita");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Cita.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar la cita");
+        cita.setIdCita(id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar la cita",e);
-        }
+    /**
+     * Guarda varias citas con inserciones por lotes, en una sola transacción,
+     * y asigna a cada una el ID generado.
+     *
+     * @param citas Las citas a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Cita> citas) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.CITA_INSERT, citas, CitaDAO::asignarInsercion, Cita::setIdCita, Cita.class, "citas");
     }
 
     /**
@@ -61,22 +78,14 @@ public class CitaDAO implements GenericDAO<Cita>{
     @Override
     public List<Cita> obtenerTodos() throws PersistenceException{
         List<Cita> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("cita.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql))
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery())
         {
 
             while (rs.next()) {
-                Cita cita = new Cita();
-                cita.setIdCita(rs.getInt("idCita"));
-                cita.setFechaHora(rs.getTimestamp("fechaHora").toLocalDateTime());
-                cita.setMotivo(rs.getString("motivo"));
-                cita.setEstado(rs.getString("estado"));
-                cita.setIdMascota(rs.getInt("idMascota"));
-                cita.setIdVeterinario(rs.getInt("idVeterinario"));
-                lista.add(cita);
+                lista.add(mapearCita(rs));
             }
 
         }
@@ -91,6 +100,78 @@ public class CitaDAO implements GenericDAO<Cita>{
         return lista;
     }
 
+    /**
+     * Obtiene las citas con fecha y hora igual o posterior a la indicada.
+     *
+     * @param desde Primera fecha y hora a incluir
+     * @return Lista de citas, sin un orden definido
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<Cita> obtenerDesde(LocalDateTime desde) throws PersistenceException {
+        List<Cita> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_SELECT_DESDE)) {
+
+            stmt.setTimestamp(1, Timestamp.valueOf(desde));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearCita(rs));
+                }
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener las citas desde " + desde, e);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Obtiene una página de citas ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Cita> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.CITA_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de citas: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Cita> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.CITA_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta las citas registradas.
+     *
+     * @return Número total de citas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar citas", e);
+        }
+    }
+
     /**
      * Busca una cita por su ID.
      *
@@ -101,22 +182,16 @@ public class CitaDAO implements GenericDAO<Cita>{
 
     @Override
     public Cita buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("cita.select.byId"); Cita cita = null;
+        Cita cita = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
-
-            if (rs.next()) {
-                cita = new Cita();
-                cita.setIdCita(rs.getInt("idCita"));
-                cita.setFechaHora(rs.getTimestamp("fechaHora").toLocalDateTime());
-                cita.setMotivo(rs.getString("motivo"));
-                cita.setEstado(rs.getString("estado"));
-                cita.setIdMascota(rs.getInt("idMascota"));
-                cita.setIdVeterinario(rs.getInt("idVeterinario"));
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    cita = mapearCita(rs);
+                }
             }
         } catch (SQLException | ClassNotFoundException e) {
             throw new PersistenceException("Error al buscar cita por ID: " + id, e);
@@ -124,6 +199,18 @@ public class CitaDAO implements GenericDAO<Cita>{
         return cita;
     }
 
+    /**
+     * Busca varias citas por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a cita con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Cita> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.CITA_SELECT_BY_IDS, ids, this::mapearCita, Cita::getIdCita, "citas");
+    }
+
     /**
      * Actualiza los datos de una cita existente.
      *
@@ -132,42 +219,295 @@ public class CitaDAO implements GenericDAO<Cita>{
      */
     @Override
     public void actualizar(Cita cita) throws PersistenceException {
-        String sql = QueryManager.getQuery("cita.update");
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_UPDATE)) {
+                asignarActualizacion(stmt, cita);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Cita.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(cita.getIdCita()));
+            }
+            return filas;
+        }, "Error al actualizar la cita");
+    }
+
+    /**
+     * Actualiza varias citas con sentencias por lotes, en una sola transacción.
+     *
+     * @param citas Las citas con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Cita> citas) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.CITA_UPDATE, citas, CitaDAO::asignarActualizacion, Cita::getIdCita, Cita.class, "citas");
+    }
+
+    /**
+     * Elimina una cita de la base de datos.
+     *
+     * @param id El ID de la cita a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Cita.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar la cita con ID: " + id);
+    }
+
+    /**
+     * Elimina varias citas con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de las citas a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.CITA_DELETE, ids, Cita.class, "citas");
+    }
+
+    /**
+     * Obtiene todas las citas junto con los nombres de su mascota, dueño y veterinario
+     * en una sola consulta, evitando una búsqueda por cada fila.
+     *
+     * @return Lista de citas detalladas ordenadas por ID
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladas() throws PersistenceException {
+        List<CitaDetalleDTO> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CITA_SELECT_DETALLADO);
+             ResultSet rs = stmt.executeQuery()) {
 
-            stmt.setTimestamp(1, Timestamp.valueOf(cita.getFechaHora()));
-            stmt.setString(2, cita.getMotivo());
-            stmt.setString(3, cita.getEstado());
-            stmt.setInt(4, cita.getIdMascota());
-            stmt.setInt(5, cita.getIdVeterinario());
-            stmt.setInt(6, cita.getIdCita());
-            stmt.executeUpdate();
+            while (rs.next()) {
+                lista.add(mapearDetalle(rs));
+            }
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar la cita", e);
+            throw new PersistenceException("Error al obtener las citas detalladas", e);
         }
+
+        return lista;
     }
 
     /**
-     * Elimina una cita de la base de datos.
+     * Obtiene una página de citas detalladas ordenada por ID.
      *
-     * @param id El ID de la cita a eliminar
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
-    @Override
-    public void eliminar(int id) throws PersistenceException {
-        String sql = QueryManager.getQuery("cita.delete");
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPagina(int offset, int limite) throws PersistenceException {
+        return consultarDetalle(Query.CITA_SELECT_DETALLADO_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de citas detalladas: las de ID mayor que el indicado, ordenadas por ID.
+     *
+     * @param ultimoId ID de la última cita ya leída (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarDetalle(Query.CITA_SELECT_DETALLADO_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Obtiene las citas detalladas cuya fecha y hora está en el rango [desde, hasta),
+     * ordenadas por fecha y hora. Usa el índice por {@code fechaHora}.
+     *
+     * @param desde Inicio del rango, incluido
+     * @param hasta Fin del rango, excluido
+     * @return Lista de citas detalladas del rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasEnRango(LocalDateTime desde, LocalDateTime hasta)
+            throws PersistenceException {
+        return consultarDetalleEnRango(Query.CITA_SELECT_DETALLADO_RANGO, null, desde, hasta);
+    }
+
+    /**
+     * Obtiene las citas detalladas de un veterinario en el rango [desde, hasta),
+     * ordenadas por fecha y hora. Usa el índice por {@code (idVeterinario, fechaHora)}.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param desde         Inicio del rango, incluido
+     * @param hasta         Fin del rango, excluido
+     * @return Lista de citas detalladas del veterinario en el rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorVeterinario(int idVeterinario, LocalDateTime desde,
+                                                                     LocalDateTime hasta) throws PersistenceException {
+        return consultarDetalleEnRango(Query.CITA_SELECT_DETALLADO_RANGO_VETERINARIO, idVeterinario, desde, hasta);
+    }
+
+    /**
+     * Obtiene las citas detalladas de una mascota en el rango [desde, hasta),
+     * ordenadas por fecha y hora. Usa el índice por {@code (idMascota, fechaHora)}.
+     *
+     * @param idMascota ID de la mascota
+     * @param desde     Inicio del rango, incluido
+     * @param hasta     Fin del rango, excluido
+     * @return Lista de citas detalladas de la mascota en el rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorMascota(int idMascota, LocalDateTime desde,
+                                                                 LocalDateTime hasta) throws PersistenceException {
+        return consultarDetalleEnRango(Query.CITA_SELECT_DETALLADO_RANGO_MASCOTA, idMascota, desde, hasta);
+    }
+
+    /**
+     * Obtiene las citas detalladas con un estado en el rango [desde, hasta),
+     * ordenadas por fecha y hora. Usa el índice por {@code (estado, fechaHora)}.
+     *
+     * @param estado Estado de las citas
+     * @param desde  Inicio del rango, incluido
+     * @param hasta  Fin del rango, excluido
+     * @return Lista de citas detalladas con ese estado en el rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorEstado(String estado, LocalDateTime desde,
+                                                                LocalDateTime hasta) throws PersistenceException {
+        return consultarDetalleEnRango(Query.CITA_SELECT_DETALLADO_RANGO_ESTADO, estado, desde, hasta);
+    }
+
+    private List<CitaDetalleDTO> consultarDetalleEnRango(Query consulta, Object filtro, LocalDateTime desde,
+                                                         LocalDateTime hasta) throws PersistenceException {
+        List<CitaDetalleDTO> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            int indice = 1;
+            if (filtro != null) {
+                stmt.setObject(indice++, filtro);
+            }
+            stmt.setTimestamp(indice++, Timestamp.valueOf(desde));
+            stmt.setTimestamp(indice, Timestamp.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearDetalle(rs));
+                }
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener las citas entre " + desde + " y " + hasta, e);
+        }
+
+        return lista;
+    }
+
+    private List<CitaDetalleDTO> consultarDetalle(Query consulta, int... parametros) throws PersistenceException {
+        List<CitaDetalleDTO> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearDetalle(rs));
+                }
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener la página de citas detalladas", e);
+        }
+
+        return lista;
+    }
+
+    private CitaDetalleDTO mapearDetalle(ResultSet rs) throws SQLException {
+        return new CitaDetalleDTO(
+                rs.getInt("idCita"),
+                rs.getTimestamp("fechaHora").toLocalDateTime(),
+                rs.getString("motivo"),
+                rs.getString("estado"),
+                rs.getInt("idMascota"),
+                rs.getString("nombreMascota"),
+                rs.getInt("idCliente"),
+                rs.getString("nombreCliente"),
+                rs.getInt("idVeterinario"),
+                rs.getString("nombreVeterinario")
+        );
+    }
+
+    private List<Cita> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Cita> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearCita(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar la cita con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de citas", e);
         }
+
+        return lista;
+    }
+
+    private Cita mapearCita(ResultSet rs) throws SQLException {
+        Cita cita = new Cita();
+        cita.setIdCita(rs.getInt("idCita"));
+        cita.setFechaHora(rs.getTimestamp("fechaHora").toLocalDateTime());
+        cita.setMotivo(rs.getString("motivo"));
+        cita.setEstado(rs.getString("estado"));
+        cita.setIdMascota(rs.getInt("idMascota"));
+        cita.setIdVeterinario(rs.getInt("idVeterinario"));
+        return cita;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción de la cita.
+     *
+     * @param stmt Sentencia preparada con la consulta de inserción
+     * @param cita La cita a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Cita cita) throws SQLException {
+        stmt.setTimestamp(1, Timestamp.valueOf(cita.getFechaHora()));
+        stmt.setString(2, cita.getMotivo());
+        stmt.setString(3, cita.getEstado());
+        stmt.setInt(4, cita.getIdMascota());
+        stmt.setInt(5, cita.getIdVeterinario());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización de la cita, con su ID al final.
+     *
+     * @param stmt Sentencia preparada con la consulta de actualización
+     * @param cita La cita con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Cita cita) throws SQLException {
+        stmt.setTimestamp(1, Timestamp.valueOf(cita.getFechaHora()));
+        stmt.setString(2, cita.getMotivo());
+        stmt.setString(3, cita.getEstado());
+        stmt.setInt(4, cita.getIdMascota());
+        stmt.setInt(5, cita.getIdVeterinario());
+        stmt.setInt(6, cita.getIdCita());
     }
 }
\ No newline at end of file
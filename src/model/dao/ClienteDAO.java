@@ -2,12 +2,15 @@ package model.dao;
 
 import model.database.Conexion;
 import model.entities.Cliente;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de clientes en la base de datos.
@@ -25,7 +28,7 @@ public class ClienteDAO implements GenericDAO<Cliente>{
     public ClienteDAO(){}
 
     /**
-     * Guarda un nuevo cliente en la base de datos.
+     * Guarda un nuevo cliente en la base de datos y le asigna el ID generado.
      *
      * @param cliente El cliente a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
@@ -33,18 +36,36 @@ public class ClienteDAO implements GenericDAO<Cliente>{
 
     @Override
     public void guardar(Cliente cliente) throws PersistenceException {
-        String sql = QueryManager.getQuery("cliente.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, cliente);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cliente.getNombre());
-            stmt.setString(2, cliente.getTelefono());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del cliente");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Cliente.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar el cliente");
+        cliente.setIdCliente(id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar el cliente",e);
-        }
+    /**
+     * Guarda varios clientes con inserciones por lotes, en una sola transacción,
+     * y asigna a cada uno el ID generado.
+     *
+     * @param clientes Los clientes a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Cliente> clientes) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.CLIENTE_INSERT, clientes, ClienteDAO::asignarInsercion, Cliente::setIdCliente, Cliente.class, "clientes");
     }
 
     /**
@@ -56,18 +77,13 @@ public class ClienteDAO implements GenericDAO<Cliente>{
     @Override
     public List<Cliente> obtenerTodos() throws PersistenceException{
         List<Cliente> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("cliente.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Cliente cliente = new Cliente();
-                cliente.setIdCliente(rs.getInt("idCliente"));
-                cliente.setNombre(rs.getString("nombre"));
-                cliente.setTelefono(rs.getString("telefono"));
-                lista.add(cliente);
+                lista.add(mapearCliente(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -77,6 +93,51 @@ public class ClienteDAO implements GenericDAO<Cliente>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de clientes ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Cliente> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.CLIENTE_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de clientes: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Cliente> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.CLIENTE_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los clientes registrados.
+     *
+     * @return Número total de clientes
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar clientes", e);
+        }
+    }
+
     /**
      * Busca un cliente por su ID.
      *
@@ -86,19 +147,15 @@ public class ClienteDAO implements GenericDAO<Cliente>{
      */
     @Override
     public Cliente buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("cliente.select.byId");
         Cliente cliente = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    cliente = new Cliente();
-                    cliente.setIdCliente(rs.getInt("idCliente"));
-                    cliente.setNombre(rs.getString("nombre"));
-                    cliente.setTelefono(rs.getString("telefono"));
+                    cliente = mapearCliente(rs);
                 }
             }
 
@@ -109,6 +166,18 @@ public class ClienteDAO implements GenericDAO<Cliente>{
         return cliente;
     }
 
+    /**
+     * Busca varios clientes por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a cliente con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Cliente> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.CLIENTE_SELECT_BY_IDS, ids, this::mapearCliente, Cliente::getIdCliente, "clientes");
+    }
+
     /**
      * Actualiza los datos de un cliente existente.
      *
@@ -116,20 +185,29 @@ public class ClienteDAO implements GenericDAO<Cliente>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Cliente cliente) throws PersistenceException{
-        String sql = QueryManager.getQuery("cliente.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, cliente.getNombre());
-            stmt.setString(2, cliente.getTelefono());
-            stmt.setInt(3, cliente.getIdCliente());
-            stmt.executeUpdate();
+    public void actualizar(Cliente cliente) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_UPDATE)) {
+                asignarActualizacion(stmt, cliente);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Cliente.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(cliente.getIdCliente()));
+            }
+            return filas;
+        }, "Error al actualizar la cita");
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar la cita", e);
-        }
+    /**
+     * Actualiza varios clientes con sentencias por lotes, en una sola transacción.
+     *
+     * @param clientes Los clientes con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Cliente> clientes) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.CLIENTE_UPDATE, clientes, ClienteDAO::asignarActualizacion, Cliente::getIdCliente, Cliente.class, "clientes");
     }
 
     /**
@@ -139,17 +217,85 @@ public class ClienteDAO implements GenericDAO<Cliente>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("cliente.delete");
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.CLIENTE_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Cliente.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar el cliente con ID: " + id);
+    }
+
+    /**
+     * Elimina varios clientes con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de los clientes a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.CLIENTE_DELETE, ids, Cliente.class, "clientes");
+    }
+
+    private List<Cliente> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Cliente> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearCliente(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar el cliente con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de clientes", e);
         }
+
+        return lista;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@code cliente.insert}.
+     * La usan también las operaciones que insertan clientes por lotes.
+     *
+     * @param stmt    Sentencia preparada con la consulta de inserción
+     * @param cliente El cliente a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    static void asignarInsercion(PreparedStatement stmt, Cliente cliente) throws SQLException {
+        stmt.setString(1, cliente.getNombre());
+        stmt.setString(2, cliente.getTelefono());
+    }
+
+    private Cliente mapearCliente(ResultSet rs) throws SQLException {
+        Cliente cliente = new Cliente();
+        cliente.setIdCliente(rs.getInt("idCliente"));
+        cliente.setNombre(rs.getString("nombre"));
+        cliente.setTelefono(rs.getString("telefono"));
+        return cliente;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización del cliente, con su ID al final.
+     *
+     * @param stmt    Sentencia preparada con la consulta de actualización
+     * @param cliente El cliente con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Cliente cliente) throws SQLException {
+        stmt.setString(1, cliente.getNombre());
+        stmt.setString(2, cliente.getTelefono());
+        stmt.setInt(3, cliente.getIdCliente());
     }
 }
@@ -0,0 +1,93 @@
+package model.dao;
+
+import model.database.Conexion;
+import model.exceptions.PersistenceException;
+import utils.Query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+
+/**
+ * Utilidad compartida por los DAOs para buscar varias entidades por ID con
+ * consultas {@code IN (...)}. Los IDs se agrupan en tramos para no superar
+ * el límite de parámetros de una sentencia y todos los tramos se leen con la
+ * misma conexión.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class ConsultaPorIds {
+
+    /**
+     * Número máximo de IDs por consulta. Es potencia de dos para que los tramos
+     * completos coincidan con un tamaño de lista de {@link Conexion#prepararIn}.
+     */
+    static final int TAMANO_TRAMO = 512;
+
+    private ConsultaPorIds() {}
+
+    /**
+     * Mapea la fila actual de un ResultSet a una entidad.
+     *
+     * @param <T> Tipo de entidad
+     */
+    @FunctionalInterface
+    interface Mapeador<T> {
+        T mapear(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Busca las entidades cuyos IDs se indican. Los IDs nulos o repetidos se ignoran
+     * y los que no existen simplemente no aparecen en el resultado.
+     *
+     * @param consulta Consulta con el marcador {@code {ids}} en la lista IN
+     * @param ids      IDs a buscar
+     * @param mapeador Función que construye la entidad a partir de una fila
+     * @param id       Función que obtiene el ID de una entidad
+     * @param entidad  Nombre de la entidad en plural, para los mensajes de error
+     * @param <T>      Tipo de entidad
+     * @return Mapa de ID a entidad con las entidades encontradas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    static <T> Map<Integer, T> buscar(Query consulta, Collection<Integer> ids, Mapeador<T> mapeador,
+                                      ToIntFunction<T> id, String entidad) throws PersistenceException {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        unicos.removeIf(Objects::isNull);
+        Map<Integer, T> resultado = new HashMap<>();
+        if (unicos.isEmpty()) {
+            return resultado;
+        }
+
+        try (Connection conn = Conexion.getConnection()) {
+            for (int inicio = 0; inicio < unicos.size(); inicio += TAMANO_TRAMO) {
+                List<Integer> tramo = unicos.subList(inicio, Math.min(inicio + TAMANO_TRAMO, unicos.size()));
+
+                try (PreparedStatement stmt = Conexion.prepararIn(conn, consulta, tramo)) {
+                    int filas = 0;
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            T fila = mapeador.mapear(rs);
+                            resultado.put(id.applyAsInt(fila), fila);
+                            filas++;
+                        }
+                    }
+                    Conexion.registrarFilas(consulta, filas);
+                }
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al buscar " + entidad + " por IDs", e);
+        }
+
+        return resultado;
+    }
+}
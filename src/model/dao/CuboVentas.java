@@ -0,0 +1,531 @@
+package model.dao;
+
+import model.dto.GranularidadVentas;
+import model.dto.TipoVenta;
+import model.dto.VentasItemDTO;
+import model.dto.VentasPeriodoDTO;
+import model.entities.DetalleFactura;
+import model.exceptions.PersistenceException;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ventas de servicios y medicamentos en memoria, agrupadas por ítem y por día de emisión
+ * de la factura, para responder consultas de paneles sin acceder a la base de datos.
+ * <p>
+ * Por cada tipo de venta se guardan dos arrays primitivos, de unidades y de importe en
+ * céntimos, con una celda por ítem vendido y día; los días de un mismo ítem son contiguos,
+ * así que sumar un rango es un recorrido secuencial. Semanas y meses se obtienen sumando
+ * días al consultar. Además se conserva la última contribución de cada detalle de factura,
+ * indexada por su ID, para poder restarla cuando el detalle cambia.
+ * <p>
+ * Las ventas se leen completas en la primera consulta. Después, los servicios que
+ * escriben facturas o detalles llaman a {@link #refrescarFactura(int)} o a
+ * {@link #refrescarDetalle(int)} (o a sus variantes para escrituras por lotes) tras confirmar
+ * la escritura, y el cubo vuelve a leer solo las filas afectadas. Las escrituras hechas desde otra instancia de la aplicación no se
+ * ven hasta llamar a {@link #cargar()}.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class CuboVentas {
+
+    /** Días que se reservan de más al ampliar el rango de fechas. */
+    private static final int MARGEN_DIAS = 366;
+
+    /** Filas a partir de las cuales un refresco por lotes descarta el cubo en vez de leerlas una a una. */
+    private static final int MAX_REFRESCOS = 200;
+
+    private final DetalleFacturaDAO detalleFacturaDAO;
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final Object carga = new Object();
+
+    // Null mientras no se haya cargado o tras invalidarse; se sustituye con el bloqueo de escritura
+    private volatile Estado estado;
+
+    // Refrescos pedidos durante una carga, que se repiten al terminarla; protegidos por el monitor de facturasPendientes
+    private final Set<Integer> facturasPendientes = new LinkedHashSet<>();
+    private final Set<Integer> detallesPendientes = new LinkedHashSet<>();
+    private boolean cargando;
+
+    /**
+     * Constructor que crea un cubo vacío, que se cargará en la primera consulta.
+     *
+     * @param detalleFacturaDAO DAO del que se leen las ventas
+     */
+    public CuboVentas(DetalleFacturaDAO detalleFacturaDAO) {
+        this.detalleFacturaDAO = detalleFacturaDAO;
+    }
+
+    /**
+     * Lee de nuevo todas las ventas de la base de datos y sustituye las que hay en memoria.
+     * Las consultas siguen respondiendo con los datos anteriores mientras dura la lectura.
+     *
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public void cargar() throws PersistenceException {
+        synchronized (carga) {
+            synchronized (facturasPendientes) {
+                cargando = true;
+                facturasPendientes.clear();
+                detallesPendientes.clear();
+            }
+
+            Estado nuevo = new Estado();
+            try {
+                detalleFacturaDAO.recorrerVentas(nuevo::poner);
+            } catch (PersistenceException e) {
+                synchronized (facturasPendientes) {
+                    cargando = false;
+                }
+                throw e;
+            }
+
+            bloqueo.writeLock().lock();
+            try {
+                estado = nuevo;
+            } finally {
+                bloqueo.writeLock().unlock();
+            }
+
+            // Lo escrito mientras se leía puede no estar en la lectura
+            List<Integer> facturas;
+            List<Integer> detalles;
+            synchronized (facturasPendientes) {
+                cargando = false;
+                facturas = new ArrayList<>(facturasPendientes);
+                detalles = new ArrayList<>(detallesPendientes);
+            }
+            facturas.forEach(this::refrescarFactura);
+            detalles.forEach(this::refrescarDetalle);
+        }
+    }
+
+    /**
+     * Descarta las ventas en memoria; se volverán a leer en la próxima consulta.
+     */
+    public void invalidar() {
+        bloqueo.writeLock().lock();
+        try {
+            estado = null;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye las ventas de una factura por las que tiene ahora en la base de datos.
+     * Debe llamarse después de crear, modificar o eliminar la factura o sus detalles.
+     * Si el cubo no está cargado no hace nada, y si la lectura falla lo invalida.
+     *
+     * @param idFactura El ID de la factura
+     */
+    public void refrescarFactura(int idFactura) {
+        if (!anotar(facturasPendientes, idFactura)) {
+            return;
+        }
+        List<Venta> ventas = new ArrayList<>();
+        try {
+            detalleFacturaDAO.recorrerVentasDeFactura(idFactura, (detalle, fecha) -> ventas.add(new Venta(detalle, fecha)));
+        } catch (PersistenceException e) {
+            descartar(e);
+            return;
+        }
+
+        bloqueo.writeLock().lock();
+        try {
+            if (estado != null) {
+                estado.quitarFactura(idFactura);
+                ventas.forEach(venta -> estado.poner(venta.detalle(), venta.fecha()));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye la venta de un detalle de factura por la que tiene ahora en la base de datos,
+     * o la quita si el detalle ya no existe. Debe llamarse después de modificarlo o eliminarlo.
+     * Si el cubo no está cargado no hace nada, y si la lectura falla lo invalida.
+     *
+     * @param idDetalle El ID del detalle
+     */
+    public void refrescarDetalle(int idDetalle) {
+        if (!anotar(detallesPendientes, idDetalle)) {
+            return;
+        }
+        List<Venta> ventas = new ArrayList<>(1);
+        try {
+            detalleFacturaDAO.recorrerVentaDeDetalle(idDetalle, (detalle, fecha) -> ventas.add(new Venta(detalle, fecha)));
+        } catch (PersistenceException e) {
+            descartar(e);
+            return;
+        }
+
+        bloqueo.writeLock().lock();
+        try {
+            if (estado != null) {
+                estado.quitar(idDetalle);
+                ventas.forEach(venta -> estado.poner(venta.detalle(), venta.fecha()));
+            }
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Refresca las ventas de varias facturas tras una escritura por lotes. Si son muchas,
+     * descarta el cubo para que la próxima consulta lo lea completo, que es más barato
+     * que una consulta por factura.
+     *
+     * @param idsFactura Los IDs de las facturas
+     */
+    public void refrescarFacturas(Collection<Integer> idsFactura) {
+        if (idsFactura.size() > MAX_REFRESCOS && !hayCargaEnCurso()) {
+            invalidar();
+            return;
+        }
+        for (Integer idFactura : new LinkedHashSet<>(idsFactura)) {
+            if (idFactura != null) {
+                refrescarFactura(idFactura);
+            }
+        }
+    }
+
+    /**
+     * Refresca las ventas de varios detalles de factura tras una escritura por lotes. Si
+     * son muchos, descarta el cubo para que la próxima consulta lo lea completo.
+     *
+     * @param idsDetalle Los IDs de los detalles
+     */
+    public void refrescarDetalles(Collection<Integer> idsDetalle) {
+        if (idsDetalle.size() > MAX_REFRESCOS && !hayCargaEnCurso()) {
+            invalidar();
+            return;
+        }
+        for (Integer idDetalle : new LinkedHashSet<>(idsDetalle)) {
+            if (idDetalle != null) {
+                refrescarDetalle(idDetalle);
+            }
+        }
+    }
+
+    /**
+     * Suma las ventas de cada ítem de un tipo entre dos fechas, ambas incluidas.
+     * Carga el cubo si aún no está en memoria.
+     *
+     * @param tipo  Tipo de ítem
+     * @param desde Primera fecha de emisión
+     * @param hasta Última fecha de emisión
+     * @return Ítems con ventas en el rango, del de mayor importe al de menor
+     * @throws PersistenceException Si hay que cargar el cubo y falla la lectura
+     */
+    public List<VentasItemDTO> totalesPorItem(TipoVenta tipo, LocalDate desde, LocalDate hasta) throws PersistenceException {
+        asegurarCargado();
+        List<VentasItemDTO> totales = new ArrayList<>();
+
+        bloqueo.readLock().lock();
+        try {
+            if (estado == null) {
+                return totales;
+            }
+            Columnas columnas = estado.columnas[tipo.ordinal()];
+            int inicio = Math.max((int) desde.toEpochDay(), columnas.diaBase);
+            int fin = Math.min((int) hasta.toEpochDay(), columnas.diaBase + columnas.dias - 1);
+            for (int slot = 0; slot < columnas.slots && inicio <= fin; slot++) {
+                int desplazamiento = slot * columnas.dias - columnas.diaBase;
+                long unidades = 0;
+                long centimos = 0;
+                for (int dia = inicio; dia <= fin; dia++) {
+                    unidades += columnas.unidades[desplazamiento + dia];
+                    centimos += columnas.centimos[desplazamiento + dia];
+                }
+                if (unidades != 0 || centimos != 0) {
+                    totales.add(new VentasItemDTO(columnas.itemDeSlot[slot], unidades, centimos / 100.0));
+                }
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+
+        totales.sort(Comparator.comparingDouble(VentasItemDTO::importe)
+                .thenComparingLong(VentasItemDTO::unidades).reversed());
+        return totales;
+    }
+
+    /**
+     * Obtiene la serie temporal de ventas de un ítem, o de todos los ítems de un tipo,
+     * entre dos fechas. Se devuelve un intervalo por cada día, semana o mes del rango,
+     * también los que no tienen ventas; el primero y el último solo suman los días que
+     * caen dentro del rango. Carga el cubo si aún no está en memoria.
+     *
+     * @param tipo         Tipo de ítem
+     * @param idItem       ID del servicio o medicamento, o 0 para todos los del tipo
+     * @param granularidad Tamaño de los intervalos
+     * @param desde        Primera fecha de emisión
+     * @param hasta        Última fecha de emisión
+     * @return Intervalos ordenados por fecha
+     * @throws PersistenceException Si hay que cargar el cubo y falla la lectura
+     */
+    public List<VentasPeriodoDTO> serie(TipoVenta tipo, int idItem, GranularidadVentas granularidad,
+                                        LocalDate desde, LocalDate hasta) throws PersistenceException {
+        asegurarCargado();
+        List<VentasPeriodoDTO> serie = new ArrayList<>();
+
+        bloqueo.readLock().lock();
+        try {
+            Columnas columnas = estado == null ? null : estado.columnas[tipo.ordinal()];
+            int[] unidades = null;
+            long[] centimos = null;
+            int desplazamiento = 0;
+            if (columnas != null && idItem == 0) {
+                unidades = columnas.unidadesDia;
+                centimos = columnas.centimosDia;
+                desplazamiento = -columnas.diaBase;
+            } else if (columnas != null && idItem > 0 && idItem < columnas.slotDeItem.length
+                    && columnas.slotDeItem[idItem] != 0) {
+                unidades = columnas.unidades;
+                centimos = columnas.centimos;
+                desplazamiento = (columnas.slotDeItem[idItem] - 1) * columnas.dias - columnas.diaBase;
+            }
+
+            for (LocalDate inicio = granularidad.inicio(desde); !inicio.isAfter(hasta); inicio = granularidad.siguiente(inicio)) {
+                long sumaUnidades = 0;
+                long sumaCentimos = 0;
+                if (unidades != null) {
+                    int primero = Math.max((int) Math.max(inicio.toEpochDay(), desde.toEpochDay()), columnas.diaBase);
+                    int ultimo = Math.min((int) Math.min(granularidad.siguiente(inicio).toEpochDay() - 1, hasta.toEpochDay()),
+                            columnas.diaBase + columnas.dias - 1);
+                    for (int dia = primero; dia <= ultimo; dia++) {
+                        sumaUnidades += unidades[desplazamiento + dia];
+                        sumaCentimos += centimos[desplazamiento + dia];
+                    }
+                }
+                serie.add(new VentasPeriodoDTO(inicio, sumaUnidades, sumaCentimos / 100.0));
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+
+        return serie;
+    }
+
+    /**
+     * Obtiene el número de detalles de factura con venta que hay en memoria.
+     *
+     * @return Detalles en memoria, o 0 si el cubo no está cargado
+     */
+    public int getDetalles() {
+        bloqueo.readLock().lock();
+        try {
+            return estado == null ? 0 : estado.detalles;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private void asegurarCargado() throws PersistenceException {
+        if (estado == null) {
+            synchronized (carga) {
+                if (estado == null) {
+                    cargar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Decide si un refresco debe leer ya de la base de datos. Durante una carga solo se
+     * anota para repetirlo al terminar, y sin cubo en memoria no hay nada que refrescar.
+     */
+    private boolean anotar(Set<Integer> pendientes, int id) {
+        synchronized (facturasPendientes) {
+            if (cargando) {
+                pendientes.add(id);
+                return false;
+            }
+        }
+        return estado != null;
+    }
+
+    /**
+     * Indica si hay una carga en curso. Durante una carga no se descarta el cubo, porque la
+     * carga lo volvería a instalar sin las escrituras; los refrescos se anotan para repetirlos.
+     */
+    private boolean hayCargaEnCurso() {
+        synchronized (facturasPendientes) {
+            return cargando;
+        }
+    }
+
+    private void descartar(PersistenceException e) {
+        // Es preferible volver a leerlo todo que responder con ventas desfasadas
+        System.err.println("No se pudo refrescar el cubo de ventas; se recargará en la próxima consulta: " + e.getMessage());
+        invalidar();
+    }
+
+    /**
+     * Detalle leído de la base de datos junto con la fecha de emisión de su factura.
+     */
+    private record Venta(DetalleFactura detalle, LocalDate fecha) {}
+
+    /**
+     * Contenido del cubo: las columnas de cada tipo de venta y la contribución de cada detalle.
+     * Los arrays de detalles se indexan por idDetalle, que es autoincremental y por tanto denso.
+     */
+    private static final class Estado {
+        private final Columnas[] columnas = {new Columnas(), new Columnas()};
+        private int[] filaFactura = new int[0];
+        private byte[] filaTipo = new byte[0]; // 0 si no hay fila; si no, el ordinal del tipo más uno
+        private int[] filaItem = new int[0];
+        private int[] filaDia = new int[0];
+        private int[] filaUnidades = new int[0];
+        private long[] filaCentimos = new long[0];
+        private int detalles;
+
+        private void poner(DetalleFactura detalle, LocalDate fecha) {
+            int id = detalle.getIdDetalle();
+            quitar(id);
+            TipoVenta tipo = TipoVenta.de(detalle.getTipo());
+            Integer item = tipo == TipoVenta.SERVICIO ? detalle.getIdServicio() : detalle.getIdMedicamento();
+            if (tipo == null || item == null || item <= 0 || id <= 0) {
+                return;
+            }
+
+            if (id >= filaTipo.length) {
+                int capacidad = Math.max(id + 1, filaTipo.length * 2);
+                filaFactura = Arrays.copyOf(filaFactura, capacidad);
+                filaTipo = Arrays.copyOf(filaTipo, capacidad);
+                filaItem = Arrays.copyOf(filaItem, capacidad);
+                filaDia = Arrays.copyOf(filaDia, capacidad);
+                filaUnidades = Arrays.copyOf(filaUnidades, capacidad);
+                filaCentimos = Arrays.copyOf(filaCentimos, capacidad);
+            }
+            int dia = (int) fecha.toEpochDay();
+            // El subtotal del detalle es el precio unitario, igual que en factura.update.total
+            long centimos = Math.round(detalle.getCantidad() * detalle.getSubtotal() * 100);
+
+            filaFactura[id] = detalle.getIdFactura();
+            filaTipo[id] = (byte) (tipo.ordinal() + 1);
+            filaItem[id] = item;
+            filaDia[id] = dia;
+            filaUnidades[id] = detalle.getCantidad();
+            filaCentimos[id] = centimos;
+            detalles++;
+            columnas[tipo.ordinal()].sumar(item, dia, detalle.getCantidad(), centimos);
+        }
+
+        private void quitar(int id) {
+            if (id <= 0 || id >= filaTipo.length || filaTipo[id] == 0) {
+                return;
+            }
+            columnas[filaTipo[id] - 1].sumar(filaItem[id], filaDia[id], -filaUnidades[id], -filaCentimos[id]);
+            filaTipo[id] = 0;
+            filaFactura[id] = 0;
+            detalles--;
+        }
+
+        private void quitarFactura(int idFactura) {
+            for (int id = 1; id < filaTipo.length; id++) {
+                if (filaFactura[id] == idFactura && filaTipo[id] != 0) {
+                    quitar(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ventas de un tipo por ítem y día. La celda de un ítem y un día está en
+     * {@code slot * dias + (dia - diaBase)}, donde el slot es la posición del ítem en
+     * el orden en que apareció su primera venta.
+     */
+    private static final class Columnas {
+        private int diaBase;
+        private int dias;
+        private int slots;
+        private int[] slotDeItem = new int[0]; // idItem -> slot + 1, 0 si el ítem no tiene ventas
+        private int[] itemDeSlot = new int[0];
+        private int[] unidades = new int[0];
+        private long[] centimos = new long[0];
+        private int[] unidadesDia = new int[0];
+        private long[] centimosDia = new long[0];
+
+        private void sumar(int item, int dia, int cantidad, long importe) {
+            asegurarDia(dia);
+            int celda = slot(item) * dias + (dia - diaBase);
+            unidades[celda] += cantidad;
+            centimos[celda] += importe;
+            unidadesDia[dia - diaBase] += cantidad;
+            centimosDia[dia - diaBase] += importe;
+        }
+
+        private int slot(int item) {
+            if (item >= slotDeItem.length) {
+                slotDeItem = Arrays.copyOf(slotDeItem, Math.max(item + 1, slotDeItem.length * 2));
+            }
+            if (slotDeItem[item] != 0) {
+                return slotDeItem[item] - 1;
+            }
+            if (slots == itemDeSlot.length) {
+                int capacidad = Math.max(16, slots * 2);
+                itemDeSlot = Arrays.copyOf(itemDeSlot, capacidad);
+                // Los ítems ocupan tramos consecutivos, así que basta con alargar los arrays
+                unidades = Arrays.copyOf(unidades, capacidad * dias);
+                centimos = Arrays.copyOf(centimos, capacidad * dias);
+            }
+            itemDeSlot[slots] = item;
+            slotDeItem[item] = ++slots;
+            return slots - 1;
+        }
+
+        private void asegurarDia(int dia) {
+            if (dias > 0 && dia >= diaBase && dia < diaBase + dias) {
+                return;
+            }
+            int primero;
+            int ultimo;
+            if (dias == 0) {
+                primero = dia;
+                ultimo = dia + MARGEN_DIAS - 1;
+            } else if (dia < diaBase) {
+                primero = Math.min(dia, diaBase - Math.max(MARGEN_DIAS, dias / 2));
+                ultimo = diaBase + dias - 1;
+            } else {
+                primero = diaBase;
+                ultimo = Math.max(dia, diaBase + dias - 1 + Math.max(MARGEN_DIAS, dias / 2));
+            }
+            reubicar(primero, ultimo - primero + 1);
+        }
+
+        private void reubicar(int nuevaBase, int nuevosDias) {
+            int capacidad = itemDeSlot.length;
+            int[] nuevasUnidades = new int[capacidad * nuevosDias];
+            long[] nuevosCentimos = new long[capacidad * nuevosDias];
+            int[] nuevasUnidadesDia = new int[nuevosDias];
+            long[] nuevosCentimosDia = new long[nuevosDias];
+            int hueco = diaBase - nuevaBase;
+            for (int slot = 0; slot < slots; slot++) {
+                System.arraycopy(unidades, slot * dias, nuevasUnidades, slot * nuevosDias + hueco, dias);
+                System.arraycopy(centimos, slot * dias, nuevosCentimos, slot * nuevosDias + hueco, dias);
+            }
+            if (dias > 0) {
+                System.arraycopy(unidadesDia, 0, nuevasUnidadesDia, hueco, dias);
+                System.arraycopy(centimosDia, 0, nuevosCentimosDia, hueco, dias);
+            }
+            unidades = nuevasUnidades;
+            centimos = nuevosCentimos;
+            unidadesDia = nuevasUnidadesDia;
+            centimosDia = nuevosCentimosDia;
+            diaBase = nuevaBase;
+            dias = nuevosDias;
+        }
+    }
+}
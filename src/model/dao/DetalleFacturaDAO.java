@@ -2,12 +2,18 @@ package model.dao;
 
 import model.database.Conexion;
 import model.entities.DetalleFactura;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * DAO para operaciones CRUD de detalles de factura en la base de datos.
@@ -25,31 +31,63 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
     public DetalleFacturaDAO(){}
 
     /**
-     * Guarda un nuevo detalle de factura en la base de datos.
+     * Guarda un nuevo detalle de factura en la base de datos y suma sus unidades a las
+     * ventas acumuladas de medicamentos, en una sola transacción. Asigna al detalle el ID generado.
      *
      * @param detalleFactura El detalle de factura a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(DetalleFactura detalleFactura) throws PersistenceException {
-        String sql = QueryManager.getQuery("detalleFactura.insert");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, detalleFactura.getIdFactura());
-            stmt.setString(2, detalleFactura.getTipo());
-            stmt.setObject(3, detalleFactura.getIdServicio(), Types.INTEGER); // Servicio puede ser null
-            stmt.setObject(4, detalleFactura.getIdMedicamento(), Types.INTEGER); // Producto puede ser null
-            stmt.setInt(5, detalleFactura.getCantidad());
-            stmt.setDouble(6, detalleFactura.getSubtotal());
-            stmt.executeUpdate();
-
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, detalleFactura);
+                stmt.executeUpdate();
+
+                int idDetalle;
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del detalle factura");
+                    }
+                    idDetalle = claves.getInt(1);
+                }
+                VentasMedicamento.aplicarDetalle(conn, VentasMedicamento.SUMAR, idDetalle);
+                RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.CREADO, List.of(idDetalle));
+                conn.commit();
+                detalleFactura.setIdDetalle(idDetalle);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException | ClassNotFoundException e) {
             throw new PersistenceException("Error al guardar el detalle factura",e);
         }
     }
 
+    /**
+     * Guarda varios detalles de factura con inserciones por lotes y suma sus unidades a
+     * las ventas acumuladas de medicamentos, en una sola transacción. Asigna a cada
+     * detalle el ID generado.
+     *
+     * @param detalles Los detalles a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<DetalleFactura> detalles) throws PersistenceException {
+        if (detalles.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return EscrituraPorLotes.enTransaccion(conn -> {
+            List<Integer> ids = EscrituraPorLotes.insertar(conn, Query.DETALLE_FACTURA_INSERT, detalles,
+                    DetalleFacturaDAO::asignarInsercion, DetalleFactura::setIdDetalle);
+            VentasMedicamento.aplicarDetalles(conn, VentasMedicamento.SUMAR, ids);
+            RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.CREADO, ids);
+            return ids;
+        }, "Error al guardar " + detalles.size() + " detalles factura");
+    }
+
     /**
      * Obtiene todos los detalles de factura registrados.
      *
@@ -59,22 +97,13 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
     @Override
     public List<DetalleFactura> obtenerTodos() throws PersistenceException{
         List<DetalleFactura> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("detalleFactura.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                DetalleFactura detalleFactura = new DetalleFactura();
-                detalleFactura.setIdDetalle(rs.getInt("idDetalle"));
-                detalleFactura.setIdFactura(rs.getInt("idFactura"));
-                detalleFactura.setTipo(rs.getString("tipo"));
-                detalleFactura.setIdServicio(rs.getInt("idServicio"));
-                detalleFactura.setIdMedicamento(rs.getInt("idProducto"));
-                detalleFactura.setCantidad(rs.getInt("cantidad"));
-                detalleFactura.setSubtotal(rs.getDouble("subtotal"));
-                lista.add(detalleFactura);
+                lista.add(mapearDetalleFactura(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -84,6 +113,147 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de detalles de factura ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<DetalleFactura> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.DETALLE_FACTURA_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de detalles de factura: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<DetalleFactura> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.DETALLE_FACTURA_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los detalles de factura registrados.
+     *
+     * @return Número total de detalles de factura
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar detalles de factura", e);
+        }
+    }
+
+    /**
+     * Cuenta los detalles de las facturas emitidas entre dos fechas, ambas incluidas.
+     *
+     * @param desde Primera fecha de emisión de la factura
+     * @param hasta Última fecha de emisión de la factura
+     * @return Número de detalles en el rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int contarEntre(LocalDate desde, LocalDate hasta) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_COUNT_BY_FECHA)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar los detalles de factura entre " + desde + " y " + hasta, e);
+        }
+    }
+
+    /**
+     * Recorre los detalles de las facturas emitidas entre dos fechas, ambas incluidas,
+     * ordenados por factura y por ID. Las filas se leen en modo streaming y se entregan
+     * una a una sin acumularlas. La conexión queda ocupada hasta terminar el recorrido.
+     *
+     * @param desde  Primera fecha de emisión de la factura
+     * @param hasta  Última fecha de emisión de la factura
+     * @param accion Acción que recibe cada detalle
+     * @return Número de detalles recorridos
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long recorrerEntre(LocalDate desde, LocalDate hasta, Consumer<DetalleFactura> accion) throws PersistenceException {
+        long filas = 0;
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_EXPORT_BY_FECHA)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accion.accept(mapearDetalleFactura(rs));
+                    filas++;
+                }
+            }
+            Conexion.registrarFilas(Query.DETALLE_FACTURA_EXPORT_BY_FECHA, filas);
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al recorrer los detalles de factura entre " + desde + " y " + hasta, e);
+        }
+
+        return filas;
+    }
+
+    /**
+     * Recorre todos los detalles de factura junto con la fecha de emisión de su factura,
+     * sin un orden definido. Las filas se leen en modo streaming y se entregan una a una
+     * sin acumularlas. La conexión queda ocupada hasta terminar el recorrido.
+     *
+     * @param accion Acción que recibe cada detalle y la fecha de emisión de su factura
+     * @return Número de detalles recorridos
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long recorrerVentas(BiConsumer<DetalleFactura, LocalDate> accion) throws PersistenceException {
+        return recorrerVentas(Query.DETALLE_FACTURA_SELECT_VENTAS, accion, "Error al recorrer las ventas");
+    }
+
+    /**
+     * Recorre los detalles de una factura junto con su fecha de emisión.
+     *
+     * @param idFactura El ID de la factura
+     * @param accion    Acción que recibe cada detalle y la fecha de emisión de la factura
+     * @return Número de detalles recorridos; 0 si la factura no existe o no tiene detalles
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long recorrerVentasDeFactura(int idFactura, BiConsumer<DetalleFactura, LocalDate> accion) throws PersistenceException {
+        return recorrerVentas(Query.DETALLE_FACTURA_SELECT_VENTAS_BY_FACTURA, accion,
+                "Error al recorrer las ventas de la factura: " + idFactura, idFactura);
+    }
+
+    /**
+     * Lee un detalle de factura junto con la fecha de emisión de su factura.
+     *
+     * @param idDetalle El ID del detalle
+     * @param accion    Acción que recibe el detalle y la fecha de emisión de su factura
+     * @return 1 si el detalle existe, 0 si no
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long recorrerVentaDeDetalle(int idDetalle, BiConsumer<DetalleFactura, LocalDate> accion) throws PersistenceException {
+        return recorrerVentas(Query.DETALLE_FACTURA_SELECT_VENTAS_BY_ID, accion,
+                "Error al leer la venta del detalle factura: " + idDetalle, idDetalle);
+    }
+
     /**
      * Busca un detalle de factura por su ID.
      *
@@ -93,23 +263,15 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
      */
     @Override
     public DetalleFactura buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("detalleFactura.select.byId");
         DetalleFactura detalleFactura = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    detalleFactura = new DetalleFactura();
-                    detalleFactura.setIdDetalle(rs.getInt("idDetalle"));
-                    detalleFactura.setIdFactura(rs.getInt("idFactura"));
-                    detalleFactura.setTipo(rs.getString("tipo"));
-                    detalleFactura.setIdServicio(rs.getInt("idServicio"));
-                    detalleFactura.setIdMedicamento(rs.getInt("idProducto"));
-                    detalleFactura.setCantidad(rs.getInt("cantidad"));
-                    detalleFactura.setSubtotal(rs.getDouble("subtotal"));
+                    detalleFactura = mapearDetalleFactura(rs);
                 }
             }
 
@@ -120,6 +282,18 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
         return detalleFactura;
     }
 
+    /**
+     * Busca varios detalles de factura por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a detalle con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, DetalleFactura> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.DETALLE_FACTURA_SELECT_BY_IDS, ids, this::mapearDetalleFactura, DetalleFactura::getIdDetalle, "detalles de factura");
+    }
+
     /**
      * Obtiene todos los detalles de factura asociados a una factura específica.
      *
@@ -129,23 +303,14 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
      */
     public List<DetalleFactura> obtenerPorIdFactura(int idFactura) throws PersistenceException{
         List<DetalleFactura> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("detalleFactura.select.ByIdFactura");
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_SELECT_BY_ID_FACTURA)) {
 
             stmt.setInt(1, idFactura);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
-                    DetalleFactura detalleFactura = new DetalleFactura();
-                    detalleFactura.setIdDetalle(rs.getInt("idDetalle"));
-                    detalleFactura.setIdFactura(rs.getInt("idFactura"));
-                    detalleFactura.setTipo(rs.getString("tipo"));
-                    detalleFactura.setIdServicio(rs.getInt("idServicio"));
-                    detalleFactura.setIdMedicamento(rs.getInt("idProducto"));
-                    detalleFactura.setCantidad(rs.getInt("cantidad"));
-                    detalleFactura.setSubtotal(rs.getDouble("subtotal"));
-                    lista.add(detalleFactura);
+                    lista.add(mapearDetalleFactura(rs));
                 }
             }
 
@@ -157,51 +322,195 @@ public class DetalleFacturaDAO implements GenericDAO<DetalleFactura>{
     }
 
     /**
-     * Actualiza los datos de un detalle de factura existente.
+     * Actualiza los datos de un detalle de factura existente y corrige las ventas
+     * acumuladas de medicamentos, en una sola transacción.
      *
      * @param detalleFactura El detalle con los datos actualizados
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void actualizar(DetalleFactura detalleFactura) throws PersistenceException{
-        String sql = QueryManager.getQuery("detalleFactura.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, detalleFactura.getIdFactura());
-            stmt.setString(2, detalleFactura.getTipo());
-            stmt.setObject(3, detalleFactura.getIdServicio(), Types.INTEGER); // Servicio puede ser null
-            stmt.setObject(4, detalleFactura.getIdMedicamento(), Types.INTEGER); // Producto puede ser null
-            stmt.setInt(5, detalleFactura.getCantidad());
-            stmt.setDouble(6, detalleFactura.getSubtotal());
-            stmt.setInt(7, detalleFactura.getIdDetalle());
-            stmt.executeUpdate();
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_UPDATE)) {
+                // Las ventas acumuladas se corrigen con la diferencia entre la fila anterior y la nueva
+                VentasMedicamento.aplicarDetalle(conn, VentasMedicamento.RESTAR, detalleFactura.getIdDetalle());
+
+                asignarActualizacion(stmt, detalleFactura);
+                if (stmt.executeUpdate() > 0) {
+                    RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.ACTUALIZADO,
+                            List.of(detalleFactura.getIdDetalle()));
+                }
 
+                VentasMedicamento.aplicarDetalle(conn, VentasMedicamento.SUMAR, detalleFactura.getIdDetalle());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException | ClassNotFoundException e) {
             throw new PersistenceException("Error al actualizar el detalle factura", e);
         }
     }
 
     /**
-     * Elimina un detalle de factura de la base de datos.
+     * Actualiza varios detalles de factura con sentencias por lotes y corrige las ventas
+     * acumuladas de medicamentos, en una sola transacción.
+     *
+     * @param detalles Los detalles con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<DetalleFactura> detalles) throws PersistenceException {
+        if (detalles.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = detalles.stream().map(DetalleFactura::getIdDetalle).toList();
+        EscrituraPorLotes.enTransaccion(conn -> {
+            VentasMedicamento.aplicarDetalles(conn, VentasMedicamento.RESTAR, ids);
+            int filas = EscrituraPorLotes.ejecutar(conn, Query.DETALLE_FACTURA_UPDATE, detalles, DetalleFacturaDAO::asignarActualizacion);
+            VentasMedicamento.aplicarDetalles(conn, VentasMedicamento.SUMAR, ids);
+            RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.ACTUALIZADO, ids);
+            return filas;
+        }, "Error al actualizar " + detalles.size() + " detalles factura");
+    }
+
+    /**
+     * Elimina un detalle de factura de la base de datos y resta sus unidades de las
+     * ventas acumuladas de medicamentos, en una sola transacción.
      *
      * @param id El ID del detalle a eliminar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("detalleFactura.delete");
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_DELETE)) {
+                VentasMedicamento.aplicarDetalle(conn, VentasMedicamento.RESTAR, id);
+
+                stmt.setInt(1, id);
+                if (stmt.executeUpdate() > 0) {
+                    RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al eliminar el detalle factura con ID: " + id, e);
+        }
+    }
+
+    /**
+     * Elimina varios detalles de factura con sentencias por lotes y resta sus unidades de
+     * las ventas acumuladas de medicamentos, en una sola transacción. Los IDs nulos o
+     * repetidos se ignoran.
+     *
+     * @param ids Los IDs de los detalles a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        List<Integer> unicos = EscrituraPorLotes.unicos(ids);
+        if (unicos.isEmpty()) {
+            return;
+        }
+        EscrituraPorLotes.enTransaccion(conn -> {
+            VentasMedicamento.aplicarDetalles(conn, VentasMedicamento.RESTAR, unicos);
+            int filas = EscrituraPorLotes.ejecutar(conn, Query.DETALLE_FACTURA_DELETE, unicos, (stmt, id) -> stmt.setInt(1, id));
+            RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.ELIMINADO, unicos);
+            return filas;
+        }, "Error al eliminar " + unicos.size() + " detalles factura");
+    }
+
+    private long recorrerVentas(Query consulta, BiConsumer<DetalleFactura, LocalDate> accion,
+                                String error, int... parametros) throws PersistenceException {
+        long filas = 0;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accion.accept(mapearDetalleFactura(rs), rs.getDate("fechaEmision").toLocalDate());
+                    filas++;
+                }
+            }
+            Conexion.registrarFilas(consulta, filas);
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar el detalle factura con ID: " + id, e);
+            throw new PersistenceException(error, e);
         }
+
+        return filas;
     }
-}
 
+    private List<DetalleFactura> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<DetalleFactura> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearDetalleFactura(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener la página de detalles de factura", e);
+        }
+
+        return lista;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@code detalleFactura.insert}.
+     * La usan también las operaciones que insertan detalles por lotes.
+     *
+     * @param stmt           Sentencia preparada con la consulta de inserción
+     * @param detalleFactura El detalle a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    static void asignarInsercion(PreparedStatement stmt, DetalleFactura detalleFactura) throws SQLException {
+        stmt.setInt(1, detalleFactura.getIdFactura());
+        stmt.setString(2, detalleFactura.getTipo());
+        stmt.setObject(3, detalleFactura.getIdServicio(), Types.INTEGER); // Servicio puede ser null
+        stmt.setObject(4, detalleFactura.getIdMedicamento(), Types.INTEGER); // Producto puede ser null
+        stmt.setInt(5, detalleFactura.getCantidad());
+        stmt.setDouble(6, detalleFactura.getSubtotal());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@code detalleFactura.update}, con el ID al final.
+     *
+     * @param stmt           Sentencia preparada con la consulta de actualización
+     * @param detalleFactura El detalle con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, DetalleFactura detalleFactura) throws SQLException {
+        asignarInsercion(stmt, detalleFactura);
+        stmt.setInt(7, detalleFactura.getIdDetalle());
+    }
+
+    private DetalleFactura mapearDetalleFactura(ResultSet rs) throws SQLException {
+        DetalleFactura detalleFactura = new DetalleFactura();
+        detalleFactura.setIdDetalle(rs.getInt("idDetalle"));
+        detalleFactura.setIdFactura(rs.getInt("idFactura"));
+        detalleFactura.setTipo(rs.getString("tipo"));
+        detalleFactura.setIdServicio(rs.getInt("idServicio"));
+        detalleFactura.setIdMedicamento(rs.getInt("idProducto"));
+        detalleFactura.setCantidad(rs.getInt("cantidad"));
+        detalleFactura.setSubtotal(rs.getDouble("subtotal"));
+        return detalleFactura;
+    }
+}
@@ -0,0 +1,275 @@
+package model.dao;
+
+import model.database.Conexion;
+import model.events.CambioEntidad;
+import model.exceptions.PersistenceException;
+import utils.DatabaseConfig;
+import utils.Query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Utilidad compartida por los DAOs para escribir varias entidades con sentencias por
+ * lotes ({@code addBatch}/{@code executeBatch}). Las filas se envían en tramos de
+ * {@link DatabaseConfig#getDaoTamanoTramo()} sentencias; con {@code rewriteBatchedStatements}
+ * el driver de MySQL convierte cada tramo de inserciones en un único INSERT multivalor.
+ * Todos los tramos de una operación se escriben con la misma conexión y en la misma
+ * transacción, de modo que un fallo no deja el lote a medias. Las operaciones con
+ * transacción propia anotan además las entidades escritas en el registro de cambios
+ * ({@link RegistroCambios}) antes de confirmar, si la sincronización está activada.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class EscrituraPorLotes {
+
+    private EscrituraPorLotes() {}
+
+    /**
+     * Asigna los parámetros de una sentencia para un elemento del lote.
+     *
+     * @param <T> Tipo del elemento
+     */
+    @FunctionalInterface
+    interface Asignador<T> {
+        void asignar(PreparedStatement stmt, T elemento) throws SQLException;
+    }
+
+    /**
+     * Trabajo que se ejecuta dentro de la transacción de una escritura por lotes.
+     *
+     * @param <R> Tipo del resultado
+     */
+    @FunctionalInterface
+    interface Operacion<R> {
+        R ejecutar(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Ejecuta una operación en una transacción propia: confirma si termina y deshace
+     * todo si falla.
+     *
+     * @param operacion Trabajo a ejecutar con la conexión de la transacción
+     * @param error     Mensaje de la excepción si falla
+     * @param <R>       Tipo del resultado
+     * @return El resultado de la operación
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    static <R> R enTransaccion(Operacion<R> operacion, String error) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                R resultado = operacion.ejecutar(conn);
+                conn.commit();
+                return resultado;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException(error, e);
+        }
+    }
+
+    /**
+     * Ejecuta una escritura que no necesita transacción por sí misma, como una única
+     * sentencia. Si el registro de cambios está activo se ejecuta en una transacción, para
+     * que la escritura y su anotación se confirmen juntas; si no, con autocommit, sin el
+     * coste de abrir y confirmar la transacción.
+     *
+     * @param operacion Trabajo a ejecutar con la conexión
+     * @param error     Mensaje de la excepción si falla
+     * @param <R>       Tipo del resultado
+     * @return El resultado de la operación
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    static <R> R escribir(Operacion<R> operacion, String error) throws PersistenceException {
+        if (RegistroCambios.ACTIVO) {
+            return enTransaccion(operacion, error);
+        }
+        try (Connection conn = Conexion.getConnection()) {
+            return operacion.ejecutar(conn);
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException(error, e);
+        }
+    }
+
+    /**
+     * Inserta las entidades por tramos en una transacción propia, las anota en el registro
+     * de cambios y asigna a cada una el ID generado.
+     *
+     * @param consulta  Consulta de inserción
+     * @param entidades Entidades a insertar
+     * @param asignador Función que asigna los parámetros de inserción
+     * @param asignarId Función que guarda en la entidad el ID generado
+     * @param clase     Clase de las entidades, para el registro de cambios
+     * @param entidad   Nombre de la entidad en plural, para los mensajes de error
+     * @param <T>       Tipo de entidad
+     * @return Los IDs generados, en el orden de las entidades
+     * @throws PersistenceException Si ocurre un error en la base de datos; no se inserta ninguna
+     */
+    static <T> List<Integer> insertar(Query consulta, List<T> entidades, Asignador<T> asignador,
+                                      ObjIntConsumer<T> asignarId, Class<T> clase, String entidad)
+            throws PersistenceException {
+        if (entidades.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return enTransaccion(conn -> {
+            List<Integer> ids = insertar(conn, consulta, entidades, asignador, asignarId);
+            RegistroCambios.registrar(conn, clase, CambioEntidad.Tipo.CREADO, ids);
+            return ids;
+        }, "Error al guardar " + entidades.size() + " " + entidad);
+    }
+
+    /**
+     * Inserta las entidades por tramos con la conexión de una transacción en curso y
+     * asigna a cada una el ID generado.
+     *
+     * @param conn      Conexión de la transacción en curso
+     * @param consulta  Consulta de inserción
+     * @param entidades Entidades a insertar
+     * @param asignador Función que asigna los parámetros de inserción
+     * @param asignarId Función que guarda en la entidad el ID generado
+     * @param <T>       Tipo de entidad
+     * @return Los IDs generados, en el orden de las entidades
+     * @throws SQLException Si falla la inserción o el driver no devuelve un ID por fila
+     */
+    static <T> List<Integer> insertar(Connection conn, Query consulta, List<T> entidades, Asignador<T> asignador,
+                                      ObjIntConsumer<T> asignarId) throws SQLException {
+        List<Integer> ids = new ArrayList<>(entidades.size());
+        int tamanoTramo = DatabaseConfig.getDaoTamanoTramo();
+
+        try (PreparedStatement stmt = Conexion.preparar(conn, consulta, Statement.RETURN_GENERATED_KEYS)) {
+            for (int inicio = 0; inicio < entidades.size(); inicio += tamanoTramo) {
+                List<T> tramo = entidades.subList(inicio, Math.min(inicio + tamanoTramo, entidades.size()));
+                for (T entidad : tramo) {
+                    asignador.asignar(stmt, entidad);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                int leidos = 0;
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    while (claves.next() && leidos < tramo.size()) {
+                        ids.add(claves.getInt(1));
+                        leidos++;
+                    }
+                }
+                if (leidos != tramo.size()) {
+                    throw new SQLException("Se esperaban " + tramo.size() + " IDs generados y se recibieron " + leidos);
+                }
+            }
+        }
+
+        for (int i = 0; i < entidades.size(); i++) {
+            asignarId.accept(entidades.get(i), ids.get(i));
+        }
+        return ids;
+    }
+
+    /**
+     * Ejecuta una sentencia de actualización o borrado para cada elemento, por tramos,
+     * con la conexión de una transacción en curso.
+     *
+     * @param conn      Conexión de la transacción en curso
+     * @param consulta  Consulta a ejecutar
+     * @param elementos Elementos a escribir
+     * @param asignador Función que asigna los parámetros de cada elemento
+     * @param <T>       Tipo del elemento
+     * @return Número total de filas afectadas
+     * @throws SQLException Si falla alguna sentencia
+     */
+    static <T> int ejecutar(Connection conn, Query consulta, List<T> elementos, Asignador<T> asignador)
+            throws SQLException {
+        int filas = 0;
+        int tamanoTramo = DatabaseConfig.getDaoTamanoTramo();
+
+        try (PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+            for (int inicio = 0; inicio < elementos.size(); inicio += tamanoTramo) {
+                List<T> tramo = elementos.subList(inicio, Math.min(inicio + tamanoTramo, elementos.size()));
+                for (T elemento : tramo) {
+                    asignador.asignar(stmt, elemento);
+                    stmt.addBatch();
+                }
+                for (int afectadas : stmt.executeBatch()) {
+                    // El driver puede no conocer el recuento exacto de cada sentencia (SUCCESS_NO_INFO)
+                    filas += Math.max(afectadas, 0);
+                }
+            }
+        }
+
+        return filas;
+    }
+
+    /**
+     * Actualiza las entidades por tramos en una transacción propia y las anota en el
+     * registro de cambios.
+     *
+     * @param consulta  Consulta de actualización
+     * @param entidades Entidades con los datos actualizados
+     * @param asignador Función que asigna los parámetros de actualización, incluido el ID
+     * @param id        Función que devuelve el ID de una entidad
+     * @param clase     Clase de las entidades, para el registro de cambios
+     * @param entidad   Nombre de la entidad en plural, para los mensajes de error
+     * @param <T>       Tipo de entidad
+     * @throws PersistenceException Si ocurre un error en la base de datos; no se actualiza ninguna
+     */
+    static <T> void actualizar(Query consulta, List<T> entidades, Asignador<T> asignador, ToIntFunction<T> id,
+                               Class<T> clase, String entidad) throws PersistenceException {
+        if (entidades.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = entidades.stream().map(id::applyAsInt).toList();
+        enTransaccion(conn -> {
+            int filas = ejecutar(conn, consulta, entidades, asignador);
+            RegistroCambios.registrar(conn, clase, CambioEntidad.Tipo.ACTUALIZADO, ids);
+            return filas;
+        }, "Error al actualizar " + entidades.size() + " " + entidad);
+    }
+
+    /**
+     * Elimina por tramos, en una transacción propia, las filas cuyos IDs se indican, y
+     * anota las bajas en el registro de cambios. Los IDs nulos o repetidos se ignoran.
+     *
+     * @param consulta Consulta de borrado con el ID como único parámetro
+     * @param ids      IDs a eliminar
+     * @param clase    Clase de las entidades, para el registro de cambios
+     * @param entidad  Nombre de la entidad en plural, para los mensajes de error
+     * @throws PersistenceException Si ocurre un error en la base de datos; no se elimina ninguna
+     */
+    static void eliminar(Query consulta, Collection<Integer> ids, Class<?> clase, String entidad)
+            throws PersistenceException {
+        List<Integer> unicos = unicos(ids);
+        if (unicos.isEmpty()) {
+            return;
+        }
+        enTransaccion(conn -> {
+            int filas = ejecutar(conn, consulta, unicos, (stmt, id) -> stmt.setInt(1, id));
+            RegistroCambios.registrar(conn, clase, CambioEntidad.Tipo.ELIMINADO, unicos);
+            return filas;
+        }, "Error al eliminar " + unicos.size() + " " + entidad);
+    }
+
+    /**
+     * Quita de una colección de IDs los nulos y los repetidos, conservando el orden.
+     *
+     * @param ids IDs recibidos
+     * @return Lista de IDs distintos
+     */
+    static List<Integer> unicos(Collection<Integer> ids) {
+        List<Integer> unicos = new ArrayList<>(new LinkedHashSet<>(ids));
+        unicos.removeIf(Objects::isNull);
+        return unicos;
+    }
+}
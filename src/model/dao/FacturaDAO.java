@@ -1,13 +1,20 @@
 package model.dao;
 
 import model.database.Conexion;
+import model.dto.FacturaCreadaDTO;
+import model.entities.DetalleFactura;
 import model.entities.Factura;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * DAO para operaciones CRUD de facturas en la base de datos.
@@ -25,28 +32,212 @@ public class FacturaDAO implements GenericDAO<Factura>{
     public FacturaDAO(){}
 
     /**
-     * Guarda una nueva factura en la base de datos.
+     * Guarda una nueva factura en la base de datos y le asigna el ID generado.
      *
      * @param factura La factura a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Factura factura) throws PersistenceException {
-        String sql = QueryManager.getQuery("factura.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, factura);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID de la factura");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar la factura");
+        factura.setIdFactura(id);
+    }
 
-            stmt.setDate(1, Date.valueOf(factura.getFechaEmision()));
-            stmt.setDouble(2, factura.getTotal());
-            stmt.setInt(3, factura.getIdCliente());
-            stmt.executeUpdate();
+    /**
+     * Guarda varias facturas sin detalles con inserciones por lotes, en una sola
+     * transacción, y asigna a cada una el ID generado.
+     *
+     * @param facturas Las facturas a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Factura> facturas) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.FACTURA_INSERT, facturas, FacturaDAO::asignarInsercion, Factura::setIdFactura, Factura.class, "facturas");
+    }
+
+    /**
+     * Guarda una factura y todos sus detalles en una sola transacción: inserta la
+     * cabecera, inserta los detalles en un único lote, suma sus unidades a las ventas
+     * acumuladas de medicamentos y confirma una vez. Si algo
+     * falla no queda nada guardado. Las claves generadas se asignan también a las
+     * entidades recibidas.
+     *
+     * @param factura  La factura a guardar, con su total ya calculado
+     * @param detalles Los detalles de la factura
+     * @return Claves generadas para la factura y cada detalle, en el orden recibido
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public FacturaCreadaDTO guardarConDetalles(Factura factura, List<DetalleFactura> detalles) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int idFactura = insertarCabecera(conn, factura);
+                List<Integer> idsDetalles = insertarDetalles(conn, idFactura, detalles);
+                VentasMedicamento.aplicarFactura(conn, VentasMedicamento.SUMAR, idFactura);
+                RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.CREADO, List.of(idFactura));
+                RegistroCambios.registrar(conn, DetalleFactura.class, CambioEntidad.Tipo.CREADO, idsDetalles);
+                conn.commit();
+
+                factura.setIdFactura(idFactura);
+                for (int i = 0; i < detalles.size(); i++) {
+                    detalles.get(i).setIdDetalle(idsDetalles.get(i));
+                }
+                return new FacturaCreadaDTO(idFactura, idsDetalles, factura.getTotal());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al guardar la factura con sus detalles", e);
+        }
+    }
+
+    /**
+     * Recalcula en la base de datos el total de una factura como la suma de cantidad
+     * por precio unitario de sus detalles, sin transferir los detalles.
+     *
+     * @param idFactura El ID de la factura
+     * @return El nuevo total de la factura
+     * @throws PersistenceException Si la factura no existe o ocurre un error en la base de datos
+     */
+    public double recalcularTotal(int idFactura) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement update = Conexion.preparar(conn, Query.FACTURA_UPDATE_TOTAL);
+                 PreparedStatement select = Conexion.preparar(conn, Query.FACTURA_SELECT_TOTAL)) {
 
+                update.setInt(1, idFactura);
+                if (update.executeUpdate() == 0) {
+                    conn.rollback();
+                    throw new PersistenceException("No existe la factura con ID: " + idFactura);
+                }
+                RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(idFactura));
+
+                double total;
+                select.setInt(1, idFactura);
+                try (ResultSet rs = select.executeQuery()) {
+                    total = rs.next() ? rs.getDouble("total") : 0;
+                }
+                conn.commit();
+                return total;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar la factura",e);
+            throw new PersistenceException("Error al recalcular el total de la factura con ID: " + idFactura, e);
         }
     }
 
+    /**
+     * Recalcula en la base de datos los totales de varias facturas. Los IDs se
+     * procesan en tramos con una sentencia por tramo.
+     *
+     * @param ids Los IDs de las facturas
+     * @return Número de facturas recalculadas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int recalcularTotales(Collection<Integer> ids) throws PersistenceException {
+        List<Integer> unicos = EscrituraPorLotes.unicos(ids);
+        if (unicos.isEmpty()) {
+            return 0;
+        }
+
+        return EscrituraPorLotes.escribir(conn -> {
+            int filas = 0;
+            for (int inicio = 0; inicio < unicos.size(); inicio += ConsultaPorIds.TAMANO_TRAMO) {
+                List<Integer> tramo = unicos.subList(inicio, Math.min(inicio + ConsultaPorIds.TAMANO_TRAMO, unicos.size()));
+
+                try (PreparedStatement stmt = Conexion.prepararIn(conn, Query.FACTURA_UPDATE_TOTAL_BY_IDS, tramo)) {
+                    filas += stmt.executeUpdate();
+                }
+            }
+            RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ACTUALIZADO, unicos);
+            return filas;
+        }, "Error al recalcular los totales de las facturas");
+    }
+
+    /**
+     * Recalcula en la base de datos los totales de todas las facturas emitidas entre
+     * dos fechas, ambas incluidas, con una única sentencia.
+     *
+     * @param desde Primera fecha de emisión
+     * @param hasta Última fecha de emisión
+     * @return Número de facturas recalculadas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int recalcularTotalesEntre(LocalDate desde, LocalDate hasta) throws PersistenceException {
+        return EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_UPDATE_TOTAL_BY_FECHA)) {
+                stmt.setDate(1, Date.valueOf(desde));
+                stmt.setDate(2, Date.valueOf(hasta));
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrarVarios(conn, Factura.class);
+            }
+            return filas;
+        }, "Error al recalcular los totales de las facturas entre " + desde + " y " + hasta);
+    }
+
+    private int insertarCabecera(Connection conn, Factura factura) throws SQLException {
+        try (PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            asignarInsercion(stmt, factura);
+            stmt.executeUpdate();
+
+            try (ResultSet claves = stmt.getGeneratedKeys()) {
+                if (!claves.next()) {
+                    throw new SQLException("La base de datos no devolvió el ID de la factura");
+                }
+                return claves.getInt(1);
+            }
+        }
+    }
+
+    private List<Integer> insertarDetalles(Connection conn, int idFactura, List<DetalleFactura> detalles) throws SQLException {
+        List<Integer> ids = new ArrayList<>(detalles.size());
+        if (detalles.isEmpty()) {
+            return ids;
+        }
+
+        try (PreparedStatement stmt = Conexion.preparar(conn, Query.DETALLE_FACTURA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (DetalleFactura detalle : detalles) {
+                detalle.setIdFactura(idFactura);
+                DetalleFacturaDAO.asignarInsercion(stmt, detalle);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+
+            try (ResultSet claves = stmt.getGeneratedKeys()) {
+                while (claves.next()) {
+                    ids.add(claves.getInt(1));
+                }
+            }
+        }
+
+        if (ids.size() != detalles.size()) {
+            throw new SQLException("Se esperaban " + detalles.size() + " IDs de detalle y se recibieron " + ids.size());
+        }
+        return ids;
+    }
+
     /**
      * Obtiene todas las facturas registradas.
      *
@@ -56,19 +247,13 @@ public class FacturaDAO implements GenericDAO<Factura>{
     @Override
     public List<Factura> obtenerTodos() throws PersistenceException{
         List<Factura> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("factura.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Factura factura = new Factura();
-                factura.setIdFactura(rs.getInt("idFactura"));
-                factura.setFechaEmision(rs.getDate("fechaEmision").toLocalDate());
-                factura.setTotal(rs.getDouble("total"));
-                factura.setIdCliente(rs.getInt("idCliente"));
-                lista.add(factura);
+                lista.add(mapearFactura(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -78,6 +263,109 @@ public class FacturaDAO implements GenericDAO<Factura>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de facturas ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Factura> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.FACTURA_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de facturas: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Factura> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.FACTURA_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta las facturas registradas.
+     *
+     * @return Número total de facturas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar facturas", e);
+        }
+    }
+
+    /**
+     * Cuenta las facturas emitidas entre dos fechas, ambas incluidas.
+     *
+     * @param desde Primera fecha de emisión
+     * @param hasta Última fecha de emisión
+     * @return Número de facturas en el rango
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int contarEntre(LocalDate desde, LocalDate hasta) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_COUNT_BY_FECHA)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar las facturas entre " + desde + " y " + hasta, e);
+        }
+    }
+
+    /**
+     * Recorre las facturas emitidas entre dos fechas, ambas incluidas, ordenadas por ID.
+     * Las filas se leen en modo streaming y se entregan una a una sin acumularlas, por lo
+     * que la memoria usada no depende del tamaño del rango. La conexión queda ocupada
+     * hasta terminar el recorrido.
+     *
+     * @param desde  Primera fecha de emisión
+     * @param hasta  Última fecha de emisión
+     * @param accion Acción que recibe cada factura
+     * @return Número de facturas recorridas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public long recorrerEntre(LocalDate desde, LocalDate hasta, Consumer<Factura> accion) throws PersistenceException {
+        long filas = 0;
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_EXPORT_BY_FECHA)) {
+
+            stmt.setDate(1, Date.valueOf(desde));
+            stmt.setDate(2, Date.valueOf(hasta));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accion.accept(mapearFactura(rs));
+                    filas++;
+                }
+            }
+            Conexion.registrarFilas(Query.FACTURA_EXPORT_BY_FECHA, filas);
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al recorrer las facturas entre " + desde + " y " + hasta, e);
+        }
+
+        return filas;
+    }
+
     /**
      * Busca una factura por su ID.
      *
@@ -87,20 +375,15 @@ public class FacturaDAO implements GenericDAO<Factura>{
      */
     @Override
     public Factura buscarPorId(int id) throws PersistenceException {
-        String sql = QueryManager.getQuery("factura.select.byId");
         Factura factura = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    factura = new Factura();
-                    factura.setIdFactura(rs.getInt("idFactura"));
-                    factura.setFechaEmision(rs.getDate("fechaEmision").toLocalDate());
-                    factura.setTotal(rs.getDouble("total"));
-                    factura.setIdCliente(rs.getInt("idCliente"));
+                    factura = mapearFactura(rs);
                 }
             }
 
@@ -111,6 +394,18 @@ public class FacturaDAO implements GenericDAO<Factura>{
         return factura;
     }
 
+    /**
+     * Busca varias facturas por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a factura con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Factura> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.FACTURA_SELECT_BY_IDS, ids, this::mapearFactura, Factura::getIdFactura, "facturas");
+    }
+
     /**
      * Actualiza los datos de una factura existente.
      *
@@ -119,22 +414,50 @@ public class FacturaDAO implements GenericDAO<Factura>{
      */
     @Override
     public void actualizar(Factura factura) throws PersistenceException{
-        String sql = QueryManager.getQuery("factura.update");
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_UPDATE)) {
+                // Un cambio de fecha mueve las ventas de la factura a otros periodos
+                VentasMedicamento.aplicarFactura(conn, VentasMedicamento.RESTAR, factura.getIdFactura());
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setDate(1, Date.valueOf(factura.getFechaEmision()));
-            stmt.setDouble(2, factura.getTotal());
-            stmt.setInt(3, factura.getIdCliente());
-            stmt.setInt(4, factura.getIdFactura());
-            stmt.executeUpdate();
+                asignarActualizacion(stmt, factura);
+                if (stmt.executeUpdate() > 0) {
+                    RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(factura.getIdFactura()));
+                }
 
+                VentasMedicamento.aplicarFactura(conn, VentasMedicamento.SUMAR, factura.getIdFactura());
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
         } catch (SQLException | ClassNotFoundException e) {
             throw new PersistenceException("Error al actualizar la factura", e);
         }
     }
 
+    /**
+     * Actualiza varias facturas con sentencias por lotes y corrige las ventas acumuladas
+     * de medicamentos, en una sola transacción.
+     *
+     * @param facturas Las facturas con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Factura> facturas) throws PersistenceException {
+        if (facturas.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = facturas.stream().map(Factura::getIdFactura).toList();
+        EscrituraPorLotes.enTransaccion(conn -> {
+            VentasMedicamento.aplicarFacturas(conn, VentasMedicamento.RESTAR, ids);
+            int filas = EscrituraPorLotes.ejecutar(conn, Query.FACTURA_UPDATE, facturas, FacturaDAO::asignarActualizacion);
+            VentasMedicamento.aplicarFacturas(conn, VentasMedicamento.SUMAR, ids);
+            RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ACTUALIZADO, ids);
+            return filas;
+        }, "Error al actualizar " + facturas.size() + " facturas");
+    }
+
     /**
      * Elimina una factura de la base de datos.
      *
@@ -143,16 +466,102 @@ public class FacturaDAO implements GenericDAO<Factura>{
      */
     @Override
     public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("factura.delete");
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.FACTURA_DELETE)) {
+                VentasMedicamento.aplicarFactura(conn, VentasMedicamento.RESTAR, id);
+
+                stmt.setInt(1, id);
+                if (stmt.executeUpdate() > 0) {
+                    RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al eliminar la factura con ID: " + id, e);
+        }
+    }
+
+    /**
+     * Elimina varias facturas con sentencias por lotes y resta sus unidades de las ventas
+     * acumuladas de medicamentos, en una sola transacción. Los IDs nulos o repetidos se ignoran.
+     *
+     * @param ids Los IDs de las facturas a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        List<Integer> unicos = EscrituraPorLotes.unicos(ids);
+        if (unicos.isEmpty()) {
+            return;
+        }
+        EscrituraPorLotes.enTransaccion(conn -> {
+            VentasMedicamento.aplicarFacturas(conn, VentasMedicamento.RESTAR, unicos);
+            int filas = EscrituraPorLotes.ejecutar(conn, Query.FACTURA_DELETE, unicos, (stmt, id) -> stmt.setInt(1, id));
+            RegistroCambios.registrar(conn, Factura.class, CambioEntidad.Tipo.ELIMINADO, unicos);
+            return filas;
+        }, "Error al eliminar " + unicos.size() + " facturas");
+    }
+
+    private List<Factura> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Factura> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearFactura(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar la factura con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de facturas", e);
         }
+
+        return lista;
+    }
+
+    private Factura mapearFactura(ResultSet rs) throws SQLException {
+        Factura factura = new Factura();
+        factura.setIdFactura(rs.getInt("idFactura"));
+        factura.setFechaEmision(rs.getDate("fechaEmision").toLocalDate());
+        factura.setTotal(rs.getDouble("total"));
+        factura.setIdCliente(rs.getInt("idCliente"));
+        return factura;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción de la factura.
+     *
+     * @param stmt    Sentencia preparada con la consulta de inserción
+     * @param factura La factura a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Factura factura) throws SQLException {
+        stmt.setDate(1, Date.valueOf(factura.getFechaEmision()));
+        stmt.setDouble(2, factura.getTotal());
+        stmt.setInt(3, factura.getIdCliente());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización de la factura, con su ID al final.
+     *
+     * @param stmt    Sentencia preparada con la consulta de actualización
+     * @param factura La factura con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Factura factura) throws SQLException {
+        stmt.setDate(1, Date.valueOf(factura.getFechaEmision()));
+        stmt.setDouble(2, factura.getTotal());
+        stmt.setInt(3, factura.getIdCliente());
+        stmt.setInt(4, factura.getIdFactura());
     }
 }
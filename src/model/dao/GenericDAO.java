@@ -2,8 +2,9 @@ package model.dao;
 
 import model.exceptions.PersistenceException;
 
-import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz genérica para operaciones CRUD en la base de datos.
@@ -15,12 +16,23 @@ import java.util.List;
 public interface GenericDAO<T> {
 
     /**
-     * Guarda una entidad en la base de datos.
+     * Guarda una entidad en la base de datos y le asigna el ID generado, de modo que
+     * quien la guarda no necesita volver a leerla para conocerlo.
      *
      * @param entidad La entidad a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
-    void guardar(T entidad) throws PersistenceException, SQLException, ClassNotFoundException;
+    void guardar(T entidad) throws PersistenceException;
+
+    /**
+     * Guarda varias entidades con sentencias por lotes, en una sola transacción:
+     * si alguna falla no se guarda ninguna. Asigna a cada entidad el ID generado.
+     *
+     * @param entidades Las entidades a guardar
+     * @return Los IDs generados, en el orden de las entidades
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    List<Integer> guardarTodos(List<T> entidades) throws PersistenceException;
 
     /**
      * Obtiene todas las entidades del tipo.
@@ -30,6 +42,35 @@ public interface GenericDAO<T> {
      */
     List<T> obtenerTodos() throws PersistenceException;
 
+    /**
+     * Obtiene una página de entidades ordenadas por ID (paginación por offset).
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    List<T> obtenerPagina(int offset, int limite) throws PersistenceException;
+
+    /**
+     * Obtiene la página de entidades con ID mayor que el indicado, ordenadas por ID
+     * (paginación por clave). Su costo no crece con el número de páginas ya leídas.
+     *
+     * @param ultimoId ID de la última entidad ya leída (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    List<T> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException;
+
+    /**
+     * Cuenta las entidades del tipo.
+     *
+     * @return Número total de entidades
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    int contar() throws PersistenceException;
+
     /**
      * Busca una entidad por su ID.
      *
@@ -39,6 +80,16 @@ public interface GenericDAO<T> {
      */
     T buscarPorId(int id) throws PersistenceException;
 
+    /**
+     * Busca varias entidades por su ID en una sola ida a la base de datos.
+     * Los IDs que no existen no aparecen en el resultado.
+     *
+     * @param ids Los IDs de las entidades a buscar
+     * @return Mapa de ID a entidad con las entidades encontradas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    Map<Integer, T> buscarPorIds(Collection<Integer> ids) throws PersistenceException;
+
     /**
      * Actualiza los datos de una entidad existente.
      *
@@ -47,6 +98,14 @@ public interface GenericDAO<T> {
      */
     void actualizar(T entidad) throws PersistenceException;
 
+    /**
+     * Actualiza varias entidades con sentencias por lotes, en una sola transacción.
+     *
+     * @param entidades Las entidades con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    void actualizarTodos(List<T> entidades) throws PersistenceException;
+
     /**
      * Elimina una entidad de la base de datos.
      *
@@ -54,4 +113,13 @@ public interface GenericDAO<T> {
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     void eliminar(int id) throws PersistenceException;
+
+    /**
+     * Elimina varias entidades con sentencias por lotes, en una sola transacción.
+     * Los IDs nulos o repetidos se ignoran.
+     *
+     * @param ids Los IDs de las entidades a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    void eliminarTodos(Collection<Integer> ids) throws PersistenceException;
 }
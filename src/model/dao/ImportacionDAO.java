@@ -0,0 +1,172 @@
+package model.dao;
+
+import model.database.Conexion;
+import model.entities.Cliente;
+import model.entities.Mascota;
+import model.events.CambioEntidad;
+import model.exceptions.PersistenceException;
+import utils.Query;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DAO de las importaciones masivas de clientes y mascotas.
+ * Cada bloque de filas se inserta con sentencias por lotes dentro de una única transacción
+ * que también guarda cuántas filas del fichero se han procesado, de modo que una importación
+ * interrumpida se puede repetir sin duplicar ni perder filas: continúa tras el último
+ * bloque confirmado.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class ImportacionDAO {
+
+    /**
+     * Constructor por defecto.
+     */
+    public ImportacionDAO() {}
+
+    /**
+     * Obtiene cuántas filas de datos de un fichero se han procesado ya, contando las rechazadas.
+     *
+     * @param clave Clave de la importación, por ejemplo "lote:clientes"
+     * @return Filas procesadas, 0 si la importación no ha empezado
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public int obtenerFilasProcesadas(String clave) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.IMPORTACION_PROGRESO_SELECT)) {
+
+            stmt.setString(1, clave);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener el progreso de la importación " + clave, e);
+        }
+    }
+
+    /**
+     * Obtiene las referencias de cliente registradas por las importaciones de un lote.
+     *
+     * @param lote Nombre del lote
+     * @return Mapa de referencia a ID de cliente
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public Map<String, Integer> obtenerReferencias(String lote) throws PersistenceException {
+        Map<String, Integer> referencias = new HashMap<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.IMPORTACION_REFERENCIA_SELECT_BY_LOTE)) {
+
+            stmt.setString(1, lote);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    referencias.put(rs.getString("referencia"), rs.getInt("idCliente"));
+                }
+            }
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener las referencias del lote " + lote, e);
+        }
+
+        return referencias;
+    }
+
+    /**
+     * Inserta un bloque de clientes y sus referencias, y guarda el progreso, en una transacción.
+     * Asigna a cada cliente el ID generado.
+     *
+     * @param lote        Nombre del lote al que pertenecen las referencias
+     * @param clave       Clave de la importación
+     * @param filas       Filas del fichero procesadas al confirmar este bloque
+     * @param clientes    Clientes a insertar
+     * @param referencias Referencia de cada cliente en el fichero, o null si no tiene
+     * @throws PersistenceException Si ocurre un error en la base de datos; no se guarda nada del bloque
+     */
+    public void guardarClientes(String lote, String clave, int filas, List<Cliente> clientes, List<String> referencias)
+            throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertarClientes(conn, clientes);
+                insertarReferencias(conn, lote, clientes, referencias);
+                guardarProgreso(conn, clave, filas);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al importar el bloque de clientes de " + clave, e);
+        }
+    }
+
+    /**
+     * Inserta un bloque de mascotas y guarda el progreso en una transacción.
+     * Asigna a cada mascota el ID generado.
+     *
+     * @param clave    Clave de la importación
+     * @param filas    Filas del fichero procesadas al confirmar este bloque
+     * @param mascotas Mascotas a insertar, con su cliente ya resuelto
+     * @throws PersistenceException Si ocurre un error en la base de datos; no se guarda nada del bloque
+     */
+    public void guardarMascotas(String clave, int filas, List<Mascota> mascotas) throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertarMascotas(conn, mascotas);
+                guardarProgreso(conn, clave, filas);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al importar el bloque de mascotas de " + clave, e);
+        }
+    }
+
+    private void insertarClientes(Connection conn, List<Cliente> clientes) throws SQLException {
+        List<Integer> ids = EscrituraPorLotes.insertar(conn, Query.CLIENTE_INSERT, clientes, ClienteDAO::asignarInsercion, Cliente::setIdCliente);
+        RegistroCambios.registrar(conn, Cliente.class, CambioEntidad.Tipo.CREADO, ids);
+    }
+
+    private void insertarReferencias(Connection conn, String lote, List<Cliente> clientes, List<String> referencias)
+            throws SQLException {
+        try (PreparedStatement stmt = Conexion.preparar(conn, Query.IMPORTACION_REFERENCIA_INSERT)) {
+            int pendientes = 0;
+            for (int i = 0; i < clientes.size(); i++) {
+                String referencia = referencias.get(i);
+                if (referencia == null) {
+                    continue;
+                }
+                stmt.setString(1, lote);
+                stmt.setString(2, referencia);
+                stmt.setInt(3, clientes.get(i).getIdCliente());
+                stmt.addBatch();
+                pendientes++;
+            }
+            if (pendientes > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    private void insertarMascotas(Connection conn, List<Mascota> mascotas) throws SQLException {
+        List<Integer> ids = EscrituraPorLotes.insertar(conn, Query.MASCOTA_INSERT, mascotas, MascotaDAO::asignarInsercion, Mascota::setIdMascota);
+        RegistroCambios.registrar(conn, Mascota.class, CambioEntidad.Tipo.CREADO, ids);
+    }
+
+    private void guardarProgreso(Connection conn, String clave, int filas) throws SQLException {
+        try (PreparedStatement stmt = Conexion.preparar(conn, Query.IMPORTACION_PROGRESO_UPSERT)) {
+            stmt.setString(1, clave);
+            stmt.setInt(2, filas);
+            stmt.executeUpdate();
+        }
+    }
+}
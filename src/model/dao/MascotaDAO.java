@@ -3,13 +3,16 @@ package model.dao;
 import model.database.Conexion;
 import model.entities.Cliente;
 import model.entities.Mascota;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
 import utils.AppFactory;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de mascotas en la base de datos.
@@ -27,30 +30,43 @@ public class MascotaDAO implements GenericDAO<Mascota>{
     public MascotaDAO() {}
 
     /**
-     * Guarda una nueva mascota en la base de datos.
+     * Guarda una nueva mascota en la base de datos y le asigna el ID generado.
      *
      * @param mascota La mascota a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Mascota mascota) throws PersistenceException {
-        String sql = QueryManager.getQuery("mascota.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, mascota);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, mascota.getNombre());
-            stmt.setString(2, mascota.getEspecie());
-            stmt.setString(3, mascota.getRaza());
-            stmt.setInt(4, mascota.getEdad());
-            stmt.setString(5, mascota.getSexo());
-            stmt.setInt(6, mascota.getIdCliente());
-
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID de la mascota");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Mascota.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar la mascota");
+        mascota.setIdMascota(id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar la mascota",e);
-        }
+    /**
+     * Guarda varias mascotas con inserciones por lotes, en una sola transacción,
+     * y asigna a cada una el ID generado.
+     *
+     * @param mascotas Las mascotas a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Mascota> mascotas) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.MASCOTA_INSERT, mascotas, MascotaDAO::asignarInsercion, Mascota::setIdMascota, Mascota.class, "mascotas");
     }
 
     /**
@@ -62,22 +78,13 @@ public class MascotaDAO implements GenericDAO<Mascota>{
     @Override
     public List<Mascota> obtenerTodos() throws PersistenceException{
         List<Mascota> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("mascota.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Mascota mascota = new Mascota();
-                mascota.setIdMascota(rs.getInt("idMascota"));
-                mascota.setNombre(rs.getString("nombre"));
-                mascota.setEspecie(rs.getString("especie"));
-                mascota.setRaza(rs.getString("raza"));
-                mascota.setEdad(rs.getInt("edad"));
-                mascota.setSexo(rs.getString("sexo"));
-                mascota.setIdCliente(rs.getInt("idCliente"));
-                lista.add(mascota);
+                lista.add(mapearMascota(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -87,6 +94,51 @@ public class MascotaDAO implements GenericDAO<Mascota>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de mascotas ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Mascota> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.MASCOTA_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de mascotas: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Mascota> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.MASCOTA_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta las mascotas registradas.
+     *
+     * @return Número total de mascotas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar mascotas", e);
+        }
+    }
+
     /**
      * Busca una mascota por su ID.
      *
@@ -96,26 +148,18 @@ public class MascotaDAO implements GenericDAO<Mascota>{
      */
     @Override
     public Mascota buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("mascota.select.byId");
         Mascota mascota = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    mascota = new Mascota();
-                    mascota.setIdMascota(rs.getInt("idMascota"));
-                    mascota.setNombre(rs.getString("nombre"));
-                    mascota.setEspecie(rs.getString("especie"));
-                    mascota.setRaza(rs.getString("raza"));
-                    mascota.setEdad(rs.getInt("edad"));
-                    mascota.setSexo(rs.getString("sexo"));
-                    mascota.setIdCliente(rs.getInt("idCliente"));
+                    mascota = mapearMascota(rs);
 
                     // Aquí cargamos el Cliente asociado con el idCliente
-                    Cliente cliente = AppFactory.getClienteDAO().buscarPorId(mascota.getIdCliente());
+                    Cliente cliente = AppFactory.getClienteLookupDAO().buscarPorId(mascota.getIdCliente());
                     mascota.setCliente(cliente);
                 }
             }
@@ -128,30 +172,59 @@ public class MascotaDAO implements GenericDAO<Mascota>{
     }
 
     /**
-     * Actualiza los datos de una mascota existente.
+     * Busca varias mascotas por su ID en una sola consulta.
      *
-     * @param mascota La mascota con los datos actualizados
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a mascota con los registros encontrados
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Mascota mascota) throws PersistenceException{
-        String sql = QueryManager.getQuery("mascota.update");
+    public Map<Integer, Mascota> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        Map<Integer, Mascota> mascotas = ConsultaPorIds.buscar(Query.MASCOTA_SELECT_BY_IDS, ids, this::mapearMascota, Mascota::getIdMascota, "mascotas");
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+        // Igual que en buscarPorId, pero con los dueños de todas las mascotas en una sola consulta
+        List<Integer> idsClientes = new ArrayList<>();
+        for (Mascota mascota : mascotas.values()) {
+            idsClientes.add(mascota.getIdCliente());
+        }
+        Map<Integer, Cliente> clientes = AppFactory.getClienteLookupDAO().buscarPorIds(idsClientes);
+        for (Mascota mascota : mascotas.values()) {
+            mascota.setCliente(clientes.get(mascota.getIdCliente()));
+        }
 
-            stmt.setString(1, mascota.getNombre());
-            stmt.setString(2, mascota.getEspecie());
-            stmt.setString(3, mascota.getRaza());
-            stmt.setInt(4, mascota.getEdad());
-            stmt.setString(5, mascota.getSexo());
-            stmt.setInt(6, mascota.getIdCliente());
-            stmt.setInt(7, mascota.getIdMascota());
-            stmt.executeUpdate();
+        return mascotas;
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar la mascota", e);
-        }
+    /**
+     * Actualiza los datos de una mascota existente.
+     *
+     * @param mascota La mascota con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizar(Mascota mascota) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_UPDATE)) {
+                asignarActualizacion(stmt, mascota);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Mascota.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(mascota.getIdMascota()));
+            }
+            return filas;
+        }, "Error al actualizar la mascota");
+    }
+
+    /**
+     * Actualiza varias mascotas con sentencias por lotes, en una sola transacción.
+     *
+     * @param mascotas Las mascotas con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Mascota> mascotas) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.MASCOTA_UPDATE, mascotas, MascotaDAO::asignarActualizacion, Mascota::getIdMascota, Mascota.class, "mascotas");
     }
 
     /**
@@ -161,17 +234,97 @@ public class MascotaDAO implements GenericDAO<Mascota>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("mascota.delete");
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MASCOTA_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Mascota.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar la cita con ID: " + id);
+    }
+
+    /**
+     * Elimina varias mascotas con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de las mascotas a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.MASCOTA_DELETE, ids, Mascota.class, "mascotas");
+    }
+
+    private List<Mascota> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Mascota> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearMascota(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar la cita con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de mascotas", e);
         }
+
+        return lista;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia {@code mascota.insert}.
+     * La usan también las operaciones que insertan mascotas por lotes.
+     *
+     * @param stmt    Sentencia preparada con la consulta de inserción
+     * @param mascota La mascota a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    static void asignarInsercion(PreparedStatement stmt, Mascota mascota) throws SQLException {
+        stmt.setString(1, mascota.getNombre());
+        stmt.setString(2, mascota.getEspecie());
+        stmt.setString(3, mascota.getRaza());
+        stmt.setInt(4, mascota.getEdad());
+        stmt.setString(5, mascota.getSexo());
+        stmt.setInt(6, mascota.getIdCliente());
+    }
+
+    private Mascota mapearMascota(ResultSet rs) throws SQLException {
+        Mascota mascota = new Mascota();
+        mascota.setIdMascota(rs.getInt("idMascota"));
+        mascota.setNombre(rs.getString("nombre"));
+        mascota.setEspecie(rs.getString("especie"));
+        mascota.setRaza(rs.getString("raza"));
+        mascota.setEdad(rs.getInt("edad"));
+        mascota.setSexo(rs.getString("sexo"));
+        mascota.setIdCliente(rs.getInt("idCliente"));
+        return mascota;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización de la mascota, con su ID al final.
+     *
+     * @param stmt    Sentencia preparada con la consulta de actualización
+     * @param mascota La mascota con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Mascota mascota) throws SQLException {
+        stmt.setString(1, mascota.getNombre());
+        stmt.setString(2, mascota.getEspecie());
+        stmt.setString(3, mascota.getRaza());
+        stmt.setInt(4, mascota.getEdad());
+        stmt.setString(5, mascota.getSexo());
+        stmt.setInt(6, mascota.getIdCliente());
+        stmt.setInt(7, mascota.getIdMascota());
     }
 }
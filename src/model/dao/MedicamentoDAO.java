@@ -2,13 +2,18 @@ package model.dao;
 
 import model.database.Conexion;
 import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
 import model.entities.Medicamento;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de medicamentos en la base de datos.
@@ -26,27 +31,43 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
     public MedicamentoDAO() {}
 
     /**
-     * Guarda un nuevo medicamento en la base de datos.
+     * Guarda un nuevo medicamento en la base de datos y le asigna el ID generado.
      *
      * @param medicamento El medicamento a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Medicamento medicamento) throws PersistenceException {
-        String sql = QueryManager.getQuery("medicamento.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, medicamento);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, medicamento.getNombre());
-            stmt.setString(2, medicamento.getDescripcion());
-            stmt.setDouble(3, medicamento.getPrecio());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del medicamento");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Medicamento.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar el medicamento");
+        medicamento.setIdMedicamento(id);
+    }
 
-        }
-        catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar el medicamento",e);
-        }
+    /**
+     * Guarda varios medicamentos con inserciones por lotes, en una sola transacción,
+     * y asigna a cada uno el ID generado.
+     *
+     * @param medicamentos Los medicamentos a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Medicamento> medicamentos) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.MEDICAMENTO_INSERT, medicamentos, MedicamentoDAO::asignarInsercion, Medicamento::setIdMedicamento, Medicamento.class, "medicamentos");
     }
 
     /**
@@ -58,19 +79,13 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
     @Override
     public List<Medicamento> obtenerTodos() throws PersistenceException{
         List<Medicamento> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("medicamento.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Medicamento medicamento = new Medicamento();
-                medicamento.setIdMedicamento(rs.getInt("idMedicamento"));
-                medicamento.setNombre(rs.getString("nombre"));
-                medicamento.setDescripcion(rs.getString("descripcion"));
-                medicamento.setPrecio(rs.getDouble("precio"));
-                lista.add(medicamento);
+                lista.add(mapearMedicamento(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -80,6 +95,51 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de medicamentos ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Medicamento> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.MEDICAMENTO_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de medicamentos: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Medicamento> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.MEDICAMENTO_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los medicamentos registrados.
+     *
+     * @return Número total de medicamentos
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar medicamentos", e);
+        }
+    }
+
     /**
      * Busca un medicamento por su ID.
      *
@@ -89,20 +149,15 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
      */
     @Override
     public Medicamento buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("medicamento.select.byId");
         Medicamento medicamento = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    medicamento = new Medicamento();
-                    medicamento.setIdMedicamento(rs.getInt("idMedicamento"));
-                    medicamento.setNombre(rs.getString("nombre"));
-                    medicamento.setDescripcion(rs.getString("descripcion"));
-                    medicamento.setPrecio(rs.getDouble("precio"));
+                    medicamento = mapearMedicamento(rs);
                 }
             }
 
@@ -113,6 +168,18 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
         return medicamento;
     }
 
+    /**
+     * Busca varios medicamentos por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a medicamento con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Medicamento> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.MEDICAMENTO_SELECT_BY_IDS, ids, this::mapearMedicamento, Medicamento::getIdMedicamento, "medicamentos");
+    }
+
     /**
      * Actualiza los datos de un medicamento existente.
      *
@@ -120,21 +187,29 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Medicamento medicamento) throws PersistenceException{
-        String sql = QueryManager.getQuery("medicamento.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, medicamento.getNombre());
-            stmt.setString(2, medicamento.getDescripcion());
-            stmt.setDouble(3, medicamento.getPrecio());
-            stmt.setInt(4, medicamento.getIdMedicamento());
-            stmt.executeUpdate();
+    public void actualizar(Medicamento medicamento) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_UPDATE)) {
+                asignarActualizacion(stmt, medicamento);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Medicamento.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(medicamento.getIdMedicamento()));
+            }
+            return filas;
+        }, "Error al actualizar el medicamento");
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar el medicamento", e);
-        }
+    /**
+     * Actualiza varios medicamentos con sentencias por lotes, en una sola transacción.
+     *
+     * @param medicamentos Los medicamentos con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Medicamento> medicamentos) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.MEDICAMENTO_UPDATE, medicamentos, MedicamentoDAO::asignarActualizacion, Medicamento::getIdMedicamento, Medicamento.class, "medicamentos");
     }
 
     /**
@@ -144,45 +219,151 @@ public class MedicamentoDAO implements GenericDAO<Medicamento>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("medicamento.delete");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.MEDICAMENTO_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Medicamento.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar el medicamento con ID: " + id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar el medicamento con ID: " + id, e);
-        }
+    /**
+     * Elimina varios medicamentos con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de los medicamentos a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.MEDICAMENTO_DELETE, ids, Medicamento.class, "medicamentos");
     }
 
     /**
-     * Obtiene los medicamentos más vendidos.
+     * Obtiene los medicamentos más vendidos de todo el historial.
      *
      * @return Lista de DTOs con información de medicamentos más vendidos
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos() throws PersistenceException{
+        return buscarMedicamentosMasVendidos(PeriodoVentas.TOTAL, LocalDate.now());
+    }
+
+    /**
+     * Obtiene los medicamentos más vendidos en el día, mes o año que contiene una fecha.
+     * Lee las ventas acumuladas de la tabla VentaMedicamento, una fila por medicamento,
+     * sin recorrer los detalles de factura.
+     *
+     * @param periodo Ventana de tiempo del reporte
+     * @param fecha   Fecha contenida en la ventana; se ignora en {@link PeriodoVentas#TOTAL}
+     * @return Lista de DTOs ordenada de más a menos unidades vendidas
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos(PeriodoVentas periodo, LocalDate fecha) throws PersistenceException{
         List<MedicamentoMasVendidoDTO> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("medicamento.select.masVendidos");
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql);
-             ResultSet rs = stmt.executeQuery()) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.VENTA_MEDICAMENTO_SELECT_MAS_VENDIDOS)) {
 
-            while (rs.next()) {
-                String nombre = rs.getString("nombre");
-                int total = rs.getInt("total_vendido");
-                lista.add(new MedicamentoMasVendidoDTO(nombre, total));
+            stmt.setString(1, periodo.getCodigo());
+            stmt.setInt(2, periodo.clave(fecha));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String nombre = rs.getString("nombre");
+                    int total = rs.getInt("total_vendido");
+                    lista.add(new MedicamentoMasVendidoDTO(nombre, total));
+                }
             }
         } catch (SQLException | ClassNotFoundException e) {
             throw new PersistenceException("Error al buscar medicamentos más vendidos: ", e);
         }
 
-        System.out.println(lista);
         return lista;
     }
 
+    /**
+     * Vuelve a calcular las ventas acumuladas de medicamentos a partir de todos los
+     * detalles de factura, en una sola transacción. Sirve para poblar la tabla la primera
+     * vez o corregirla si se modificaron detalles fuera de la aplicación.
+     *
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    public void reconstruirVentas() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                VentasMedicamento.reconstruir(conn);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al reconstruir las ventas de medicamentos", e);
+        }
+    }
+
+    private List<Medicamento> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Medicamento> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearMedicamento(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener la página de medicamentos", e);
+        }
+
+        return lista;
+    }
+
+    private Medicamento mapearMedicamento(ResultSet rs) throws SQLException {
+        Medicamento medicamento = new Medicamento();
+        medicamento.setIdMedicamento(rs.getInt("idMedicamento"));
+        medicamento.setNombre(rs.getString("nombre"));
+        medicamento.setDescripcion(rs.getString("descripcion"));
+        medicamento.setPrecio(rs.getDouble("precio"));
+        return medicamento;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción del medicamento.
+     *
+     * @param stmt        Sentencia preparada con la consulta de inserción
+     * @param medicamento El medicamento a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Medicamento medicamento) throws SQLException {
+        stmt.setString(1, medicamento.getNombre());
+        stmt.setString(2, medicamento.getDescripcion());
+        stmt.setDouble(3, medicamento.getPrecio());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización del medicamento, con su ID al final.
+     *
+     * @param stmt        Sentencia preparada con la consulta de actualización
+     * @param medicamento El medicamento con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Medicamento medicamento) throws SQLException {
+        stmt.setString(1, medicamento.getNombre());
+        stmt.setString(2, medicamento.getDescripcion());
+        stmt.setDouble(3, medicamento.getPrecio());
+        stmt.setInt(4, medicamento.getIdMedicamento());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+package model.dao;
+
+import model.database.Conexion;
+import model.events.CambioEntidad;
+import utils.DatabaseConfig;
+import utils.Query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Escritura de la tabla RegistroCambio, que anota cada entidad creada, modificada o
+ * eliminada para que las demás instancias de la aplicación que trabajan contra la misma
+ * base de datos se enteren (ver {@link CambioDAO}). Los DAO la llaman con la conexión de
+ * la transacción que hace la escritura, de modo que el cambio se anota si y solo si la
+ * escritura se confirma. Con {@code sync.enabled=false} no se anota nada: la tabla puede
+ * no existir y nadie leería las filas.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class RegistroCambios {
+
+    /** Indica si se anotan los cambios; se lee una vez de la configuración. */
+    static final boolean ACTIVO = DatabaseConfig.isSyncEnabled();
+
+    /** Identificador de esta instancia de la aplicación, guardado como origen de sus cambios. */
+    static final String ORIGEN = UUID.randomUUID().toString();
+
+    private RegistroCambios() {}
+
+    /**
+     * Anota un cambio sobre varias entidades, con una fila por ID enviada por lotes.
+     *
+     * @param conn    Conexión de la transacción en curso
+     * @param entidad Clase de las entidades cambiadas
+     * @param tipo    Tipo de cambio; no debe ser {@link CambioEntidad.Tipo#VARIOS}
+     * @param ids     IDs de las entidades cambiadas
+     * @throws SQLException Si falla la inserción
+     */
+    static void registrar(Connection conn, Class<?> entidad, CambioEntidad.Tipo tipo, List<Integer> ids)
+            throws SQLException {
+        if (!ACTIVO || ids.isEmpty()) {
+            return;
+        }
+        EscrituraPorLotes.ejecutar(conn, Query.CAMBIO_INSERT, ids, (stmt, id) -> asignar(stmt, entidad, id, tipo));
+    }
+
+    /**
+     * Anota un cambio que puede afectar a cualquier entidad del tipo, por ejemplo una
+     * actualización por rango de fechas.
+     *
+     * @param conn    Conexión de la transacción en curso
+     * @param entidad Clase de las entidades cambiadas
+     * @throws SQLException Si falla la inserción
+     */
+    static void registrarVarios(Connection conn, Class<?> entidad) throws SQLException {
+        if (!ACTIVO) {
+            return;
+        }
+        try (PreparedStatement stmt = Conexion.preparar(conn, Query.CAMBIO_INSERT)) {
+            asignar(stmt, entidad, null, CambioEntidad.Tipo.VARIOS);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void asignar(PreparedStatement stmt, Class<?> entidad, Integer id, CambioEntidad.Tipo tipo)
+            throws SQLException {
+        stmt.setString(1, entidad.getSimpleName());
+        if (id != null) {
+            stmt.setInt(2, id);
+        } else {
+            stmt.setNull(2, Types.INTEGER);
+        }
+        stmt.setString(3, tipo.name());
+        stmt.setString(4, ORIGEN);
+    }
+}
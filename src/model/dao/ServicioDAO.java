@@ -2,12 +2,15 @@ package model.dao;
 
 import model.database.Conexion;
 import model.entities.Servicio;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de servicios en la base de datos.
@@ -25,26 +28,43 @@ public class ServicioDAO implements GenericDAO<Servicio>{
     public ServicioDAO() {}
 
     /**
-     * Guarda un nuevo servicio en la base de datos.
+     * Guarda un nuevo servicio en la base de datos y le asigna el ID generado.
      *
      * @param servicio El servicio a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Servicio servicio) throws PersistenceException {
-        String sql = QueryManager.getQuery("servicio.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, servicio);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, servicio.getNombreServicio());
-            stmt.setString(2, servicio.getDescripcion());
-            stmt.setDouble(3, servicio.getPrecio());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del servicio");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Servicio.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar el servicio");
+        servicio.setIdServicio(id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar el servicio",e);
-        }
+    /**
+     * Guarda varios servicios con inserciones por lotes, en una sola transacción,
+     * y asigna a cada uno el ID generado.
+     *
+     * @param servicios Los servicios a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Servicio> servicios) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.SERVICIO_INSERT, servicios, ServicioDAO::asignarInsercion, Servicio::setIdServicio, Servicio.class, "servicios");
     }
 
     /**
@@ -56,19 +76,13 @@ public class ServicioDAO implements GenericDAO<Servicio>{
     @Override
     public List<Servicio> obtenerTodos() throws PersistenceException{
         List<Servicio> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("servicio.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Servicio servicio = new Servicio();
-                servicio.setIdServicio(rs.getInt("idServicio"));
-                servicio.setNombreServicio(rs.getString("nombreServicio"));
-                servicio.setDescripcion(rs.getString("descripcion"));
-                servicio.setPrecio(rs.getDouble("precio"));
-                lista.add(servicio);
+                lista.add(mapearServicio(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -78,6 +92,51 @@ public class ServicioDAO implements GenericDAO<Servicio>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de servicios ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Servicio> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.SERVICIO_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de servicios: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Servicio> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.SERVICIO_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los servicios registrados.
+     *
+     * @return Número total de servicios
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar servicios", e);
+        }
+    }
+
     /**
      * Busca un servicio por su ID.
      *
@@ -87,20 +146,15 @@ public class ServicioDAO implements GenericDAO<Servicio>{
      */
     @Override
     public Servicio buscarPorId(int id) throws PersistenceException {
-        String sql = QueryManager.getQuery("servicio.select.byId");
         Servicio servicio = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    servicio = new Servicio();
-                    servicio.setIdServicio(rs.getInt("idServicio"));
-                    servicio.setNombreServicio(rs.getString("nombreServicio"));
-                    servicio.setDescripcion(rs.getString("descripcion"));
-                    servicio.setPrecio(rs.getDouble("precio"));
+                    servicio = mapearServicio(rs);
                 }
             }
 
@@ -111,6 +165,18 @@ public class ServicioDAO implements GenericDAO<Servicio>{
         return servicio;
     }
 
+    /**
+     * Busca varios servicios por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a servicio con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Servicio> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.SERVICIO_SELECT_BY_IDS, ids, this::mapearServicio, Servicio::getIdServicio, "servicios");
+    }
+
     /**
      * Actualiza los datos de un servicio existente.
      *
@@ -118,21 +184,29 @@ public class ServicioDAO implements GenericDAO<Servicio>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Servicio servicio) throws PersistenceException{
-        String sql = QueryManager.getQuery("servicio.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, servicio.getNombreServicio());
-            stmt.setString(2, servicio.getDescripcion());
-            stmt.setDouble(3, servicio.getPrecio());
-            stmt.setInt(4, servicio.getIdServicio());
-            stmt.executeUpdate();
+    public void actualizar(Servicio servicio) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_UPDATE)) {
+                asignarActualizacion(stmt, servicio);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Servicio.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(servicio.getIdServicio()));
+            }
+            return filas;
+        }, "Error al actualizar el servicio");
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar el servicio", e);
-        }
+    /**
+     * Actualiza varios servicios con sentencias por lotes, en una sola transacción.
+     *
+     * @param servicios Los servicios con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Servicio> servicios) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.SERVICIO_UPDATE, servicios, ServicioDAO::asignarActualizacion, Servicio::getIdServicio, Servicio.class, "servicios");
     }
 
     /**
@@ -142,18 +216,87 @@ public class ServicioDAO implements GenericDAO<Servicio>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("servicio.delete");
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.SERVICIO_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Servicio.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar la cita con ID: " + id);
+    }
+
+    /**
+     * Elimina varios servicios con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de los servicios a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.SERVICIO_DELETE, ids, Servicio.class, "servicios");
+    }
+
+    private List<Servicio> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Servicio> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearServicio(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar la cita con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de servicios", e);
         }
+
+        return lista;
+    }
+
+    private Servicio mapearServicio(ResultSet rs) throws SQLException {
+        Servicio servicio = new Servicio();
+        servicio.setIdServicio(rs.getInt("idServicio"));
+        servicio.setNombreServicio(rs.getString("nombreServicio"));
+        servicio.setDescripcion(rs.getString("descripcion"));
+        servicio.setPrecio(rs.getDouble("precio"));
+        return servicio;
     }
-}
 
+    /**
+     * Asigna los parámetros de la sentencia de inserción del servicio.
+     *
+     * @param stmt     Sentencia preparada con la consulta de inserción
+     * @param servicio El servicio a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Servicio servicio) throws SQLException {
+        stmt.setString(1, servicio.getNombreServicio());
+        stmt.setString(2, servicio.getDescripcion());
+        stmt.setDouble(3, servicio.getPrecio());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización del servicio, con su ID al final.
+     *
+     * @param stmt     Sentencia preparada con la consulta de actualización
+     * @param servicio El servicio con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Servicio servicio) throws SQLException {
+        stmt.setString(1, servicio.getNombreServicio());
+        stmt.setString(2, servicio.getDescripcion());
+        stmt.setDouble(3, servicio.getPrecio());
+        stmt.setInt(4, servicio.getIdServicio());
+    }
+}
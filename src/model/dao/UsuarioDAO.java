@@ -2,12 +2,15 @@ package model.dao;
 
 import model.database.Conexion;
 import model.entities.Usuario;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de usuarios en la base de datos.
@@ -25,28 +28,43 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
     public UsuarioDAO() {}
 
     /**
-     * Guarda un nuevo usuario en la base de datos.
+     * Guarda un nuevo usuario en la base de datos y le asigna el ID generado.
      *
      * @param usuario El usuario a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Usuario usuario) throws PersistenceException {
-        String sql = QueryManager.getQuery("usuario.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, usuario);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, usuario.getNombreUsuario());
-            stmt.setString(2, usuario.getContrasena());
-            stmt.setString(3, usuario.getRol());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del usuario");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Usuario.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar el usuario");
+        usuario.setIdUsuario(id);
+    }
 
-        } catch (SQLException e) {
-            e.printStackTrace();
-        } catch (ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar el usuario",e);
-        }
+    /**
+     * Guarda varios usuarios con inserciones por lotes, en una sola transacción,
+     * y asigna a cada uno el ID generado.
+     *
+     * @param usuarios Los usuarios a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Usuario> usuarios) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.USUARIO_INSERT, usuarios, UsuarioDAO::asignarInsercion, Usuario::setIdUsuario, Usuario.class, "usuarios");
     }
 
     /**
@@ -58,19 +76,13 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
     @Override
     public List<Usuario> obtenerTodos() throws PersistenceException{
         List<Usuario> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("usuario.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Usuario usuario = new Usuario();
-                usuario.setIdUsuario(rs.getInt("idUsuario"));
-                usuario.setNombreUsuario(rs.getString("nombreUsuario"));
-                usuario.setContrasena(rs.getString("contrasena"));
-                usuario.setRol(rs.getString("rol"));
-                lista.add(usuario);
+                lista.add(mapearUsuario(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -80,6 +92,51 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
         return lista;
     }
 
+    /**
+     * Obtiene una página de usuarios ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Usuario> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.USUARIO_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de usuarios: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Usuario> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.USUARIO_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los usuarios registrados.
+     *
+     * @return Número total de usuarios
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar usuarios", e);
+        }
+    }
+
     /**
      * Busca un usuario por su ID.
      *
@@ -89,20 +146,15 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
      */
     @Override
     public Usuario buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("usuario.select.byId");
         Usuario usuario = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    usuario = new Usuario();
-                    usuario.setIdUsuario(rs.getInt("idUsuario"));
-                    usuario.setNombreUsuario(rs.getString("nombreUsuario"));
-                    usuario.setContrasena(rs.getString("contrasena"));
-                    usuario.setRol(rs.getString("rol"));
+                    usuario = mapearUsuario(rs);
                 }
             }
 
@@ -113,6 +165,18 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
         return usuario;
     }
 
+    /**
+     * Busca varios usuarios por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a usuario con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Usuario> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.USUARIO_SELECT_BY_IDS, ids, this::mapearUsuario, Usuario::getIdUsuario, "usuarios");
+    }
+
     /**
      * Busca un usuario por su nombre de usuario.
      *
@@ -121,20 +185,15 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     public Usuario buscarPorNombreUsuario(String nombreUsuario) throws PersistenceException{
-        String sql = QueryManager.getQuery("usuario.select.porNombreUsuario");
         Usuario usuario = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_SELECT_POR_NOMBRE_USUARIO)) {
 
             stmt.setString(1, nombreUsuario);  // Usamos setString porque nombreUsuario es un String
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    usuario = new Usuario();
-                    usuario.setIdUsuario(rs.getInt("idUsuario"));
-                    usuario.setNombreUsuario(rs.getString("nombreUsuario"));
-                    usuario.setContrasena(rs.getString("contrasena"));
-                    usuario.setRol(rs.getString("rol"));
+                    usuario = mapearUsuario(rs);
                 }
             }
 
@@ -152,21 +211,29 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Usuario usuario) throws PersistenceException{
-        String sql = QueryManager.getQuery("usuario.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, usuario.getNombreUsuario());
-            stmt.setString(2, usuario.getContrasena());
-            stmt.setString(3, usuario.getRol());
-            stmt.setInt(4, usuario.getIdUsuario());
-            stmt.executeUpdate();
+    public void actualizar(Usuario usuario) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.USUARIO_UPDATE)) {
+                asignarActualizacion(stmt, usuario);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Usuario.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(usuario.getIdUsuario()));
+            }
+            return filas;
+        }, "Error al actualizar el usuario");
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar el usuario", e);
-        }
+    /**
+     * Actualiza varios usuarios con sentencias por lotes, en una sola transacción.
+     *
+     * @param usuarios Los usuarios con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Usuario> usuarios) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.USUARIO_UPDATE, usuarios, UsuarioDAO::asignarActualizacion, Usuario::getIdUsuario, Usuario.class, "usuarios");
     }
 
     /**
@@ -181,5 +248,74 @@ public class UsuarioDAO implements GenericDAO<Usuario> {
         throw new PersistenceException("Método no implementado");
     }
 
+    /**
+     * Elimina varios usuarios de la base de datos.
+     * (Actualmente no implementado por requisitos del sistema)
+     *
+     * @param ids Los IDs de los usuarios a eliminar
+     * @throws PersistenceException Siempre, ya que el método no está implementado
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        throw new PersistenceException("Método no implementado");
+    }
+
+    private List<Usuario> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Usuario> lista = new ArrayList<>();
+
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearUsuario(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al obtener la página de usuarios", e);
+        }
+
+        return lista;
+    }
+
+    private Usuario mapearUsuario(ResultSet rs) throws SQLException {
+        Usuario usuario = new Usuario();
+        usuario.setIdUsuario(rs.getInt("idUsuario"));
+        usuario.setNombreUsuario(rs.getString("nombreUsuario"));
+        usuario.setContrasena(rs.getString("contrasena"));
+        usuario.setRol(rs.getString("rol"));
+        return usuario;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción del usuario.
+     *
+     * @param stmt    Sentencia preparada con la consulta de inserción
+     * @param usuario El usuario a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Usuario usuario) throws SQLException {
+        stmt.setString(1, usuario.getNombreUsuario());
+        stmt.setString(2, usuario.getContrasena());
+        stmt.setString(3, usuario.getRol());
+    }
 
+    /**
+     * Asigna los parámetros de la sentencia de actualización del usuario, con su ID al final.
+     *
+     * @param stmt    Sentencia preparada con la consulta de actualización
+     * @param usuario El usuario con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Usuario usuario) throws SQLException {
+        stmt.setString(1, usuario.getNombreUsuario());
+        stmt.setString(2, usuario.getContrasena());
+        stmt.setString(3, usuario.getRol());
+        stmt.setInt(4, usuario.getIdUsuario());
+    }
 }
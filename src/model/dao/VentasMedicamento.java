@@ -0,0 +1,107 @@
+package model.dao;
+
+import model.database.Conexion;
+import utils.Query;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Mantenimiento de la tabla VentaMedicamento, que acumula las unidades vendidas de
+ * cada medicamento por día, mes, año y en total. Los DAO que escriben detalles de
+ * factura restan la contribución de las filas afectadas antes de modificarlas y la
+ * suman después, en la misma transacción, de modo que el reporte de más vendidos lee
+ * una fila por medicamento en vez de agrupar todo el historial de ventas.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class VentasMedicamento {
+
+    /** Suma la contribución de las filas indicadas. */
+    static final int SUMAR = 1;
+    /** Resta la contribución de las filas indicadas. */
+    static final int RESTAR = -1;
+
+    private VentasMedicamento() {}
+
+    /**
+     * Suma o resta las unidades de un detalle de factura, si es de un medicamento.
+     *
+     * @param conn      Conexión de la transacción en curso
+     * @param signo     {@link #SUMAR} o {@link #RESTAR}
+     * @param idDetalle ID del detalle
+     * @throws SQLException Si falla la actualización
+     */
+    static void aplicarDetalle(Connection conn, int signo, int idDetalle) throws SQLException {
+        aplicar(conn, Query.VENTA_MEDICAMENTO_APLICAR_BY_DETALLE, signo, idDetalle);
+    }
+
+    /**
+     * Suma o resta las unidades de todos los detalles de medicamento de una factura.
+     *
+     * @param conn      Conexión de la transacción en curso
+     * @param signo     {@link #SUMAR} o {@link #RESTAR}
+     * @param idFactura ID de la factura
+     * @throws SQLException Si falla la actualización
+     */
+    static void aplicarFactura(Connection conn, int signo, int idFactura) throws SQLException {
+        aplicar(conn, Query.VENTA_MEDICAMENTO_APLICAR_BY_FACTURA, signo, idFactura);
+    }
+
+    /**
+     * Suma o resta las unidades de varios detalles de factura con sentencias por lotes.
+     *
+     * @param conn       Conexión de la transacción en curso
+     * @param signo      {@link #SUMAR} o {@link #RESTAR}
+     * @param idsDetalle IDs de los detalles
+     * @throws SQLException Si falla la actualización
+     */
+    static void aplicarDetalles(Connection conn, int signo, List<Integer> idsDetalle) throws SQLException {
+        aplicar(conn, Query.VENTA_MEDICAMENTO_APLICAR_BY_DETALLE, signo, idsDetalle);
+    }
+
+    /**
+     * Suma o resta las unidades de todos los detalles de medicamento de varias facturas
+     * con sentencias por lotes.
+     *
+     * @param conn        Conexión de la transacción en curso
+     * @param signo       {@link #SUMAR} o {@link #RESTAR}
+     * @param idsFactura IDs de las facturas
+     * @throws SQLException Si falla la actualización
+     */
+    static void aplicarFacturas(Connection conn, int signo, List<Integer> idsFactura) throws SQLException {
+        aplicar(conn, Query.VENTA_MEDICAMENTO_APLICAR_BY_FACTURA, signo, idsFactura);
+    }
+
+    /**
+     * Vuelve a calcular la tabla completa a partir de los detalles de factura.
+     *
+     * @param conn Conexión de la transacción en curso
+     * @throws SQLException Si falla la reconstrucción
+     */
+    static void reconstruir(Connection conn) throws SQLException {
+        try (PreparedStatement borrar = Conexion.preparar(conn, Query.VENTA_MEDICAMENTO_DELETE_ALL);
+             PreparedStatement insertar = Conexion.preparar(conn, Query.VENTA_MEDICAMENTO_REBUILD)) {
+            borrar.executeUpdate();
+            insertar.executeUpdate();
+        }
+    }
+
+    private static void aplicar(Connection conn, Query consulta, int signo, int id) throws SQLException {
+        try (PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
+            stmt.setInt(1, signo);
+            stmt.setInt(2, id);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void aplicar(Connection conn, Query consulta, int signo, List<Integer> ids) throws SQLException {
+        EscrituraPorLotes.ejecutar(conn, consulta, ids, (stmt, id) -> {
+            stmt.setInt(1, signo);
+            stmt.setInt(2, id);
+        });
+    }
+}
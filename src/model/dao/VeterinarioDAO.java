@@ -2,12 +2,15 @@ package model.dao;
 
 import model.database.Conexion;
 import model.entities.Veterinario;
+import model.events.CambioEntidad;
 import model.exceptions.PersistenceException;
-import utils.QueryManager;
+import utils.Query;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO para operaciones CRUD de veterinarios en la base de datos.
@@ -25,27 +28,43 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
     public VeterinarioDAO() {}
 
     /**
-     * Guarda un nuevo veterinario en la base de datos.
+     * Guarda un nuevo veterinario en la base de datos y le asigna el ID generado.
      *
      * @param veterinario El veterinario a guardar
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
     public void guardar(Veterinario veterinario) throws PersistenceException {
-        String sql = QueryManager.getQuery("veterinario.insert");
+        int id = EscrituraPorLotes.escribir(conn -> {
+            int generado;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+                asignarInsercion(stmt, veterinario);
+                stmt.executeUpdate();
 
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, veterinario.getNombre());
-            stmt.setString(2, veterinario.getEspecialidad());
-            stmt.setString(3, veterinario.getTelefono());
-            stmt.setString(4, veterinario.getEmail());
-            stmt.executeUpdate();
+                try (ResultSet claves = stmt.getGeneratedKeys()) {
+                    if (!claves.next()) {
+                        throw new SQLException("La base de datos no devolvió el ID del veterinario");
+                    }
+                    generado = claves.getInt(1);
+                }
+            }
+            RegistroCambios.registrar(conn, Veterinario.class, CambioEntidad.Tipo.CREADO, List.of(generado));
+            return generado;
+        }, "Error al guardar el veterinario");
+        veterinario.setIdVeterinario(id);
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al guardar el veterinario",e);
-        }
+    /**
+     * Guarda varios veterinarios con inserciones por lotes, en una sola transacción,
+     * y asigna a cada uno el ID generado.
+     *
+     * @param veterinarios Los veterinarios a guardar
+     * @return Los IDs generados, en el orden de la lista
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Integer> guardarTodos(List<Veterinario> veterinarios) throws PersistenceException {
+        return EscrituraPorLotes.insertar(Query.VETERINARIO_INSERT, veterinarios, VeterinarioDAO::asignarInsercion, Veterinario::setIdVeterinario, Veterinario.class, "veterinarios");
     }
 
     /**
@@ -57,20 +76,13 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
     @Override
     public List<Veterinario> obtenerTodos() throws PersistenceException{
         List<Veterinario> lista = new ArrayList<>();
-        String sql = QueryManager.getQuery("veterinario.select.all");
 
         try (Connection conn = Conexion.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_SELECT_ALL);
+             ResultSet rs = stmt.executeQuery()) {
 
             while (rs.next()) {
-                Veterinario veterinario = new Veterinario();
-                veterinario.setIdVeterinario(rs.getInt("idVeterinario"));
-                veterinario.setNombre(rs.getString("nombre"));
-                veterinario.setEspecialidad(rs.getString("especialidad"));
-                veterinario.setTelefono(rs.getString("telefono"));
-                veterinario.setEmail(rs.getString("email"));
-                lista.add(veterinario);
+                lista.add(mapearVeterinario(rs));
             }
 
         } catch (SQLException | ClassNotFoundException e) {
@@ -80,6 +92,51 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
         return lista;
     }
 
+    /**
+     * Obtiene una página de veterinarios ordenada por ID.
+     *
+     * @param offset Número de filas a saltar
+     * @param limite Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Veterinario> obtenerPagina(int offset, int limite) throws PersistenceException {
+        return consultarLista(Query.VETERINARIO_SELECT_PAGE, limite, offset);
+    }
+
+    /**
+     * Obtiene la siguiente página de veterinarios: los registros con ID mayor que el indicado, ordenados por ID.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   Número máximo de filas a devolver
+     * @return Lista con la página solicitada
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public List<Veterinario> obtenerPaginaDespuesDe(int ultimoId, int limite) throws PersistenceException {
+        return consultarLista(Query.VETERINARIO_SELECT_AFTER_ID, ultimoId, limite);
+    }
+
+    /**
+     * Cuenta los veterinarios registrados.
+     *
+     * @return Número total de veterinarios
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public int contar() throws PersistenceException {
+        try (Connection conn = Conexion.getConnection();
+             PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_COUNT);
+             ResultSet rs = stmt.executeQuery()) {
+
+            return rs.next() ? rs.getInt(1) : 0;
+
+        } catch (SQLException | ClassNotFoundException e) {
+            throw new PersistenceException("Error al contar veterinarios", e);
+        }
+    }
+
     /**
      * Busca un veterinario por su ID.
      *
@@ -89,21 +146,15 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
      */
     @Override
     public Veterinario buscarPorId(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("veterinario.select.byId");
         Veterinario veterinario = null;
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_SELECT_BY_ID)) {
 
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    veterinario = new Veterinario();
-                    veterinario.setIdVeterinario(rs.getInt("idVeterinario"));
-                    veterinario.setNombre(rs.getString("nombre"));
-                    veterinario.setEspecialidad(rs.getString("especialidad"));
-                    veterinario.setTelefono(rs.getString("telefono"));
-                    veterinario.setEmail(rs.getString("email"));
+                    veterinario = mapearVeterinario(rs);
                 }
             }
 
@@ -114,6 +165,18 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
         return veterinario;
     }
 
+    /**
+     * Busca varios veterinarios por su ID en una sola consulta.
+     *
+     * @param ids Los IDs a buscar
+     * @return Mapa de ID a veterinario con los registros encontrados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public Map<Integer, Veterinario> buscarPorIds(Collection<Integer> ids) throws PersistenceException {
+        return ConsultaPorIds.buscar(Query.VETERINARIO_SELECT_BY_IDS, ids, this::mapearVeterinario, Veterinario::getIdVeterinario, "veterinarios");
+    }
+
     /**
      * Actualiza los datos de un veterinario existente.
      *
@@ -121,22 +184,29 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void actualizar(Veterinario veterinario) throws PersistenceException{
-        String sql = QueryManager.getQuery("veterinario.update");
-
-        try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-
-            stmt.setString(1, veterinario.getNombre());
-            stmt.setString(2, veterinario.getEspecialidad());
-            stmt.setString(3, veterinario.getTelefono());
-            stmt.setString(4, veterinario.getEmail());
-            stmt.setInt(5, veterinario.getIdVeterinario());
-            stmt.executeUpdate();
+    public void actualizar(Veterinario veterinario) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_UPDATE)) {
+                asignarActualizacion(stmt, veterinario);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Veterinario.class, CambioEntidad.Tipo.ACTUALIZADO, List.of(veterinario.getIdVeterinario()));
+            }
+            return filas;
+        }, "Error al actualizar la cita");
+    }
 
-        } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al actualizar la cita", e);
-        }
+    /**
+     * Actualiza varios veterinarios con sentencias por lotes, en una sola transacción.
+     *
+     * @param veterinarios Los veterinarios con los datos actualizados
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void actualizarTodos(List<Veterinario> veterinarios) throws PersistenceException {
+        EscrituraPorLotes.actualizar(Query.VETERINARIO_UPDATE, veterinarios, VeterinarioDAO::asignarActualizacion, Veterinario::getIdVeterinario, Veterinario.class, "veterinarios");
     }
 
     /**
@@ -146,17 +216,90 @@ public class VeterinarioDAO implements GenericDAO<Veterinario>{
      * @throws PersistenceException Si ocurre un error en la base de datos
      */
     @Override
-    public void eliminar(int id) throws PersistenceException{
-        String sql = QueryManager.getQuery("veterinario.delete");
+    public void eliminar(int id) throws PersistenceException {
+        EscrituraPorLotes.escribir(conn -> {
+            int filas;
+            try (PreparedStatement stmt = Conexion.preparar(conn, Query.VETERINARIO_DELETE)) {
+                stmt.setInt(1, id);
+                filas = stmt.executeUpdate();
+            }
+            if (filas > 0) {
+                RegistroCambios.registrar(conn, Veterinario.class, CambioEntidad.Tipo.ELIMINADO, List.of(id));
+            }
+            return filas;
+        }, "Error al eliminar el veterinario con ID: " + id);
+    }
+
+    /**
+     * Elimina varios veterinarios con sentencias por lotes, en una sola transacción.
+     *
+     * @param ids Los IDs de los veterinarios a eliminar
+     * @throws PersistenceException Si ocurre un error en la base de datos
+     */
+    @Override
+    public void eliminarTodos(Collection<Integer> ids) throws PersistenceException {
+        EscrituraPorLotes.eliminar(Query.VETERINARIO_DELETE, ids, Veterinario.class, "veterinarios");
+    }
+
+    private List<Veterinario> consultarLista(Query consulta, int... parametros) throws PersistenceException {
+        List<Veterinario> lista = new ArrayList<>();
 
         try (Connection conn = Conexion.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = Conexion.preparar(conn, consulta)) {
 
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+            for (int i = 0; i < parametros.length; i++) {
+                stmt.setInt(i + 1, parametros[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(mapearVeterinario(rs));
+                }
+            }
+            Conexion.registrarFilas(consulta, lista.size());
 
         } catch (SQLException | ClassNotFoundException e) {
-            throw new PersistenceException("Error al eliminar el veterinario con ID: " + id, e);
+            throw new PersistenceException("Error al obtener la página de veterinarios", e);
         }
+
+        return lista;
+    }
+
+    private Veterinario mapearVeterinario(ResultSet rs) throws SQLException {
+        Veterinario veterinario = new Veterinario();
+        veterinario.setIdVeterinario(rs.getInt("idVeterinario"));
+        veterinario.setNombre(rs.getString("nombre"));
+        veterinario.setEspecialidad(rs.getString("especialidad"));
+        veterinario.setTelefono(rs.getString("telefono"));
+        veterinario.setEmail(rs.getString("email"));
+        return veterinario;
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de inserción del veterinario.
+     *
+     * @param stmt        Sentencia preparada con la consulta de inserción
+     * @param veterinario El veterinario a insertar
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarInsercion(PreparedStatement stmt, Veterinario veterinario) throws SQLException {
+        stmt.setString(1, veterinario.getNombre());
+        stmt.setString(2, veterinario.getEspecialidad());
+        stmt.setString(3, veterinario.getTelefono());
+        stmt.setString(4, veterinario.getEmail());
+    }
+
+    /**
+     * Asigna los parámetros de la sentencia de actualización del veterinario, con su ID al final.
+     *
+     * @param stmt        Sentencia preparada con la consulta de actualización
+     * @param veterinario El veterinario con los datos actualizados
+     * @throws SQLException Si falla la asignación de algún parámetro
+     */
+    private static void asignarActualizacion(PreparedStatement stmt, Veterinario veterinario) throws SQLException {
+        stmt.setString(1, veterinario.getNombre());
+        stmt.setString(2, veterinario.getEspecialidad());
+        stmt.setString(3, veterinario.getTelefono());
+        stmt.setString(4, veterinario.getEmail());
+        stmt.setInt(5, veterinario.getIdVeterinario());
     }
 }
\ No newline at end of file
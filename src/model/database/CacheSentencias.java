@@ -0,0 +1,292 @@
+package model.database;
+
+import utils.Query;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché de sentencias preparadas de una conexión física del pool, indexada por la
+ * clave de {@code queries.properties}. Las sentencias entregadas vuelven a la caché al
+ * invocar {@link PreparedStatement#close()}, con sus parámetros limpios, y solo se
+ * cierran de verdad al ser desalojadas o al cerrarse la conexión.
+ * <p>
+ * El timeout y el tamaño de lectura de cada {@link Query} se aplican al preparar la
+ * sentencia. Quien la use no debe cambiar su configuración, ya que el cambio se
+ * conservaría para el siguiente uso.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class CacheSentencias {
+
+    private final Connection fisica;
+    private final Map<String, Sentencia> sentencias;
+
+    /**
+     * Constructor que crea una caché vacía para una conexión.
+     *
+     * @param fisica    Conexión física propietaria de las sentencias
+     * @param capacidad Número máximo de sentencias abiertas en la conexión
+     */
+    CacheSentencias(Connection fisica, int capacidad) {
+        this.fisica = fisica;
+        this.sentencias = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Sentencia> mayor) {
+                if (size() <= capacidad) {
+                    return false;
+                }
+                Sentencia desalojada = mayor.getValue();
+                if (desalojada.prestamo == null) {
+                    cerrarSilencioso(desalojada.real);
+                } else {
+                    // Se cerrará cuando quien la usa la devuelva
+                    desalojada.desalojada = true;
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Entrega la sentencia de una clave, preparándola en el servidor solo si no está en caché.
+     * Si la sentencia en caché ya está en uso se prepara una temporal que no se guarda.
+     *
+     * @param conexion        Conexión prestada por el pool, devuelta por {@code getConnection()}
+     * @param consulta        Consulta a preparar
+     * @param claveCache      Clave que identifica el texto SQL exacto en la caché
+     * @param sql             Texto SQL de la sentencia
+     * @param clavesGeneradas Constante de {@link java.sql.Statement} sobre las claves generadas
+     * @return Sentencia lista para usar; debe cerrarse para devolverla a la caché
+     * @throws SQLException Si falla la preparación
+     */
+    synchronized PreparedStatement preparar(Connection conexion, Query consulta, String claveCache,
+                                            String sql, int clavesGeneradas) throws SQLException {
+        EstadisticasSentencias.Metricas metricas = EstadisticasSentencias.de(consulta.getKey());
+        Sentencia sentencia = sentencias.get(claveCache);
+        if (sentencia != null && sentencia.prestamo == null) {
+            metricas.reutilizacion();
+            Prestamo prestamo = new Prestamo(this, conexion, consulta, metricas, sentencia.real, sentencia);
+            sentencia.prestamo = prestamo;
+            return prestamo.crearProxy();
+        }
+
+        PreparedStatement real = prepararReal(fisica, consulta, metricas, sql, clavesGeneradas);
+        if (sentencia != null) {
+            return new Prestamo(null, conexion, consulta, metricas, real, null).crearProxy();
+        }
+
+        sentencia = new Sentencia(real);
+        Prestamo prestamo = new Prestamo(this, conexion, consulta, metricas, real, sentencia);
+        sentencia.prestamo = prestamo;
+        sentencias.put(claveCache, sentencia);
+        return prestamo.crearProxy();
+    }
+
+    /**
+     * Recupera las sentencias que no se cerraron antes de devolver la conexión al pool.
+     * Los objetos entregados dejan de ser utilizables.
+     */
+    synchronized void liberar() {
+        List<Sentencia> enUso = new ArrayList<>();
+        for (Sentencia sentencia : sentencias.values()) {
+            if (sentencia.prestamo != null) {
+                enUso.add(sentencia);
+            }
+        }
+        for (Sentencia sentencia : enUso) {
+            sentencia.prestamo.cerrada = true;
+            devolver(sentencia);
+        }
+    }
+
+    /**
+     * Prepara una sentencia sin caché que se cierra al invocar {@link PreparedStatement#close()}.
+     * Se usa con conexiones que no vienen del pool; solo registra las estadísticas.
+     *
+     * @param conexion        Conexión en la que preparar la sentencia
+     * @param consulta        Consulta a preparar
+     * @param sql             Texto SQL de la sentencia
+     * @param clavesGeneradas Constante de {@link java.sql.Statement} sobre las claves generadas
+     * @return Sentencia lista para usar
+     * @throws SQLException Si falla la preparación
+     */
+    static PreparedStatement sinCache(Connection conexion, Query consulta, String sql, int clavesGeneradas)
+            throws SQLException {
+        EstadisticasSentencias.Metricas metricas = EstadisticasSentencias.de(consulta.getKey());
+        PreparedStatement real = prepararReal(conexion, consulta, metricas, sql, clavesGeneradas);
+        return new Prestamo(null, conexion, consulta, metricas, real, null).crearProxy();
+    }
+
+    private static PreparedStatement prepararReal(Connection conexion, Query consulta,
+                                                  EstadisticasSentencias.Metricas metricas,
+                                                  String sql, int clavesGeneradas) throws SQLException {
+        PreparedStatement real;
+        try {
+            real = conexion.prepareStatement(sql, clavesGeneradas);
+        } catch (SQLException e) {
+            metricas.error();
+            throw e;
+        }
+        metricas.preparacion();
+        try {
+            consulta.apply(real);
+        } catch (SQLException e) {
+            cerrarSilencioso(real);
+            throw e;
+        }
+        return real;
+    }
+
+    private synchronized void devolver(Sentencia sentencia) {
+        sentencia.prestamo = null;
+        if (sentencia.desalojada) {
+            cerrarSilencioso(sentencia.real);
+            return;
+        }
+        try {
+            sentencia.real.clearParameters();
+            sentencia.real.clearBatch();
+        } catch (SQLException e) {
+            // Una sentencia que no se puede limpiar no se vuelve a entregar
+            sentencias.values().remove(sentencia);
+            cerrarSilencioso(sentencia.real);
+        }
+    }
+
+    private static void cerrarSilencioso(PreparedStatement real) {
+        try {
+            real.close();
+        } catch (SQLException ignored) {
+            // La sentencia ya no es utilizable; no hay nada más que hacer
+        }
+    }
+
+    /**
+     * Sentencia guardada en la caché y el préstamo que la usa, si lo hay.
+     */
+    private static final class Sentencia {
+        private final PreparedStatement real;
+        private Prestamo prestamo;
+        private boolean desalojada;
+
+        private Sentencia(PreparedStatement real) {
+            this.real = real;
+        }
+    }
+
+    /**
+     * Envoltorio de una sentencia entregada que mide sus ejecuciones y, al cerrarse,
+     * la devuelve a la caché o la cierra si no pertenece a ella.
+     */
+    private static final class Prestamo implements InvocationHandler {
+        private final CacheSentencias cache;
+        private final Connection conexion;
+        private final String clave;
+        private final EstadisticasSentencias.Metricas metricas;
+        private final PreparedStatement real;
+        private final Sentencia sentencia;
+        private volatile boolean cerrada;
+
+        private Prestamo(CacheSentencias cache, Connection conexion, Query consulta,
+                         EstadisticasSentencias.Metricas metricas, PreparedStatement real, Sentencia sentencia) {
+            this.cache = cache;
+            this.conexion = conexion;
+            this.clave = consulta.getKey();
+            this.metricas = metricas;
+            this.real = real;
+            this.sentencia = sentencia;
+        }
+
+        private PreparedStatement crearProxy() {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    CacheSentencias.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String nombre = method.getName();
+            switch (nombre) {
+                case "close":
+                    if (!cerrada) {
+                        cerrada = true;
+                        if (sentencia != null) {
+                            cache.devolver(sentencia);
+                        } else {
+                            real.close();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return cerrada || real.isClosed();
+                case "getConnection":
+                    // Se entrega la conexión prestada para que cerrarla la devuelva al pool
+                    return conexion;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Sentencia[" + clave + "]";
+                default:
+                    break;
+            }
+
+            if (cerrada) {
+                throw new SQLException("La sentencia " + clave + " ya está cerrada");
+            }
+            if (!nombre.startsWith("execute")) {
+                try {
+                    return method.invoke(real, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+
+            long inicio = System.nanoTime();
+            Object resultado;
+            try {
+                resultado = method.invoke(real, args);
+            } catch (InvocationTargetException e) {
+                metricas.error();
+                throw e.getCause();
+            }
+            metricas.ejecucion(System.nanoTime() - inicio);
+            return contarFilas(resultado);
+        }
+
+        /**
+         * Suma las filas modificadas por una escritura. Las filas leídas las cuentan los
+         * DAO al recorrer el ResultSet (ver {@link Conexion#registrarFilas}).
+         */
+        private Object contarFilas(Object resultado) {
+            if (resultado instanceof Integer filas) {
+                metricas.filas(filas);
+            } else if (resultado instanceof Long filas) {
+                metricas.filas(filas);
+            } else if (resultado instanceof int[] lote) {
+                for (int filas : lote) {
+                    // Los valores negativos indican éxito sin número de filas o fallo
+                    metricas.filas(Math.max(0, filas));
+                }
+            } else if (resultado instanceof long[] lote) {
+                for (long filas : lote) {
+                    metricas.filas(Math.max(0, filas));
+                }
+            }
+            return resultado;
+        }
+    }
+}
@@ -1,18 +1,26 @@
 package model.database;
 
 import utils.DatabaseConfig;
+import utils.Query;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 
 /**
  * Clase de utilidad para manejar conexiones a la base de datos.
+ * Las conexiones se toman de un {@link ConnectionPool} compartido que se crea
+ * en el primer uso; al cerrarlas vuelven al pool en lugar de cerrarse.
  *
  * @author Saúl Maldonado
  * @version 1.0
  */
 public class Conexion {
 
+    private static volatile ConnectionPool pool;
+
     /**
      * Obtiene una conexión a la base de datos.
      *
@@ -21,14 +29,160 @@ public class Conexion {
      * @throws ClassNotFoundException Si no se encuentra el driver JDBC
      */
     public static Connection getConnection() throws SQLException, ClassNotFoundException {
-        // Cargar el driver de MySQL
-        Class.forName(DatabaseConfig.getDbDriver());
+        try {
+            return getPool().obtenerConexion();
+        } catch (SQLException | ClassNotFoundException e) {
+            // Los fallos y esperas agotadas no pertenecen a ninguna consulta todavía
+            EstadisticasSentencias.de(EstadisticasSentencias.CLAVE_POOL).error();
+            throw e;
+        }
+    }
+
+    /**
+     * Suma a las estadísticas de una consulta las filas leídas de su ResultSet. Lo llaman
+     * los recorridos de los DAO (listas paginadas, búsquedas por IDs y lecturas en streaming).
+     *
+     * @param consulta Consulta cuyas filas se leyeron
+     * @param filas    Número de filas leídas
+     */
+    public static void registrarFilas(Query consulta, long filas) {
+        EstadisticasSentencias.de(consulta.getKey()).filas(filas);
+    }
+
+    /**
+     * Prepara una consulta del registro {@link Query}, con su timeout y tamaño de lectura.
+     * Si la conexión viene del pool, la sentencia se reutiliza entre préstamos de la misma
+     * conexión física y cerrarla la devuelve a la caché.
+     *
+     * @param conn     Conexión en la que preparar la sentencia
+     * @param consulta Consulta a preparar
+     * @return Sentencia lista para usar; debe cerrarse al terminar
+     * @throws SQLException Si falla la preparación
+     */
+    public static PreparedStatement preparar(Connection conn, Query consulta) throws SQLException {
+        return preparar(conn, consulta, consulta.getKey(), consulta.getSql(), Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Prepara una consulta pidiendo las claves generadas por el insert.
+     *
+     * @param conn            Conexión en la que preparar la sentencia
+     * @param consulta        Consulta a preparar
+     * @param clavesGeneradas Constante de {@link Statement} sobre las claves generadas
+     * @return Sentencia lista para usar; debe cerrarse al terminar
+     * @throws SQLException Si falla la preparación
+     */
+    public static PreparedStatement preparar(Connection conn, Query consulta, int clavesGeneradas) throws SQLException {
+        return preparar(conn, consulta, consulta.getKey() + "#" + clavesGeneradas, consulta.getSql(), clavesGeneradas);
+    }
+
+    /**
+     * Prepara una consulta con lista {@code IN} y asigna los IDs a sus parámetros.
+     * La lista se redondea a la siguiente potencia de dos repitiendo el último ID, que
+     * no cambia el resultado, para que la caché guarde pocas variantes de cada consulta
+     * en lugar de una por cada cantidad de IDs.
+     *
+     * @param conn     Conexión en la que preparar la sentencia
+     * @param consulta Consulta con lista {@code IN} como único parámetro
+     * @param ids      IDs de la lista; no debe estar vacía
+     * @return Sentencia con los parámetros asignados; debe cerrarse al terminar
+     * @throws SQLException Si falla la preparación
+     */
+    public static PreparedStatement prepararIn(Connection conn, Query consulta, List<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException(consulta.getKey() + " necesita al menos un ID en su lista IN");
+        }
+        int cantidad = tamanoLista(ids.size());
+        PreparedStatement stmt = preparar(conn, consulta, consulta.getKey() + "[" + cantidad + "]",
+                consulta.getSql(cantidad), Statement.NO_GENERATED_KEYS);
+        try {
+            for (int i = 0; i < cantidad; i++) {
+                stmt.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+            }
+        } catch (SQLException e) {
+            stmt.close();
+            throw e;
+        }
+        return stmt;
+    }
+
+    /**
+     * Calcula el tamaño de lista {@code IN} con el que se prepara una cantidad de IDs.
+     *
+     * @param cantidad Número de IDs, al menos uno
+     * @return La menor potencia de dos mayor o igual que la cantidad
+     */
+    static int tamanoLista(int cantidad) {
+        return cantidad <= 1 ? 1 : Integer.highestOneBit(cantidad - 1) << 1;
+    }
+
+    private static PreparedStatement preparar(Connection conn, Query consulta, String claveCache,
+                                              String sql, int clavesGeneradas) throws SQLException {
+        // La espera por la conexión se atribuye a la primera consulta que se prepara en ella
+        long espera = ConnectionPool.tomarEspera(conn);
+        if (espera >= 0) {
+            EstadisticasSentencias.de(consulta.getKey()).esperaConexion(espera);
+        }
+
+        CacheSentencias cache = ConnectionPool.sentenciasDe(conn);
+        if (cache == null) {
+            return CacheSentencias.sinCache(conn, consulta, sql, clavesGeneradas);
+        }
+        return cache.preparar(conn, consulta, claveCache, sql, clavesGeneradas);
+    }
+
+    /**
+     * Obtiene el pool compartido, creándolo en la primera llamada.
+     *
+     * @return Pool de conexiones de la aplicación
+     * @throws ClassNotFoundException Si no se encuentra el driver JDBC
+     */
+    public static ConnectionPool getPool() throws ClassNotFoundException {
+        ConnectionPool actual = pool;
+        if (actual == null) {
+            synchronized (Conexion.class) {
+                actual = pool;
+                if (actual == null) {
+                    // Cargar el driver de MySQL una sola vez
+                    Class.forName(DatabaseConfig.getDbDriver());
 
-        // Obtener parámetros desde la configuración
-        String url = DatabaseConfig.getDbUrl();
-        String user = DatabaseConfig.getDbUser();
-        String password = DatabaseConfig.getDbPassword();
+                    actual = new ConnectionPool(
+                            DatabaseConfig.getDbUrl(),
+                            DatabaseConfig.getDbUser(),
+                            DatabaseConfig.getDbPassword(),
+                            DatabaseConfig.getMaxConnections(),
+                            DatabaseConfig.getPoolMaxWaitMs(),
+                            DatabaseConfig.getPoolIdleTimeoutMs(),
+                            DatabaseConfig.getPoolLeakThresholdMs(),
+                            DatabaseConfig.isPoolLeakTraceEnabled(),
+                            DatabaseConfig.getPoolLeakReclaimMs(),
+                            DatabaseConfig.getPoolValidationTimeoutS(),
+                            DatabaseConfig.getPoolStatementCacheSize()
+                    );
+                    Runtime.getRuntime().addShutdownHook(new Thread(actual::cerrar, "pool-cierre"));
+                    pool = actual;
+                }
+            }
+        }
+        return actual;
+    }
 
-        return DriverManager.getConnection(url, user, password);
+    /**
+     * Obtiene el pool compartido sin crearlo.
+     *
+     * @return Pool de conexiones, o null si aún no se ha usado
+     */
+    public static ConnectionPool getPoolActual() {
+        return pool;
+    }
+
+    /**
+     * Cierra el pool compartido y sus conexiones inactivas.
+     */
+    public static synchronized void cerrarPool() {
+        if (pool != null) {
+            pool.cerrar();
+            pool = null;
+        }
     }
-}
\ No newline at end of file
+}
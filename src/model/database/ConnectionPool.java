@@ -0,0 +1,396 @@
+package model.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Reutiliza conexiones físicas, las valida antes de prestarlas, cierra las que
+ * llevan demasiado tiempo inactivas y avisa de las que no se devuelven.
+ * Las conexiones entregadas vuelven al pool al invocar {@link Connection#close()}.
+ * Cada conexión física conserva además sus sentencias preparadas (ver {@link CacheSentencias}).
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class ConnectionPool {
+
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+    private final int maxConexiones;
+    private final long maxEsperaMs;
+    private final long inactividadMaxMs;
+    private final long umbralFugaMs;
+    private final boolean trazaFugas;
+    private final long recuperacionFugaMs;
+    private final int timeoutValidacionSeg;
+    private final int maxSentencias;
+
+    private final Semaphore permisos;
+    private final Deque<ConexionInactiva> inactivas = new ArrayDeque<>();
+    private final Set<ConexionPrestada> prestadas = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService mantenimiento;
+    private final Histograma espera = new Histograma();
+    private volatile boolean cerrado;
+
+    /**
+     * Constructor que inicializa el pool y su tarea de mantenimiento.
+     *
+     * @param url                  URL JDBC de la base de datos
+     * @param usuario              Usuario de la base de datos
+     * @param contrasena           Contraseña de la base de datos
+     * @param maxConexiones        Número máximo de conexiones abiertas a la vez
+     * @param maxEsperaMs          Tiempo máximo de espera por una conexión libre
+     * @param inactividadMaxMs     Tiempo tras el cual se cierra una conexión sin uso
+     * @param umbralFugaMs         Tiempo prestada tras el cual se reporta una posible fuga
+     * @param trazaFugas           Si se guarda la pila de cada préstamo para mostrarla al informar
+     *                             de una fuga; tiene un coste en cada préstamo
+     * @param recuperacionFugaMs   Tiempo prestada tras el cual la conexión se cierra y su permiso
+     *                             se libera aunque siga en uso, o 0 para no recuperarlas nunca
+     * @param timeoutValidacionSeg Timeout de la validación previa al préstamo
+     * @param maxSentencias        Sentencias preparadas que se conservan por conexión (0 para no conservarlas)
+     */
+    public ConnectionPool(String url, String usuario, String contrasena, int maxConexiones,
+                          long maxEsperaMs, long inactividadMaxMs, long umbralFugaMs, boolean trazaFugas,
+                          long recuperacionFugaMs, int timeoutValidacionSeg, int maxSentencias) {
+        if (maxConexiones <= 0) {
+            throw new IllegalArgumentException("El pool necesita al menos una conexión");
+        }
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+        this.maxConexiones = maxConexiones;
+        this.maxEsperaMs = maxEsperaMs;
+        this.inactividadMaxMs = inactividadMaxMs;
+        this.umbralFugaMs = umbralFugaMs;
+        this.trazaFugas = trazaFugas;
+        this.recuperacionFugaMs = recuperacionFugaMs;
+        this.timeoutValidacionSeg = timeoutValidacionSeg;
+        this.maxSentencias = maxSentencias;
+        this.permisos = new Semaphore(maxConexiones, true);
+
+        this.mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "pool-mantenimiento");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long periodo = Math.max(1000, Math.min(inactividadMaxMs, umbralFugaMs) / 2);
+        mantenimiento.scheduleWithFixedDelay(this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Presta una conexión del pool, abriendo una nueva si no hay ninguna inactiva válida.
+     *
+     * @return Conexión lista para usar; debe cerrarse para devolverla al pool
+     * @throws SQLException Si el pool está cerrado, se agota la espera o falla la conexión
+     */
+    public Connection obtenerConexion() throws SQLException {
+        if (cerrado) {
+            throw new SQLException("El pool de conexiones está cerrado");
+        }
+
+        long inicio = System.nanoTime();
+        try {
+            if (!permisos.tryAcquire(maxEsperaMs, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("No hay conexiones libres tras " + maxEsperaMs
+                        + " ms (" + maxConexiones + " en uso)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrumpido mientras se esperaba una conexión", e);
+        }
+
+        try {
+            ConexionPrestada prestamo = new ConexionPrestada(tomarValida(), System.nanoTime() - inicio);
+            espera.registrar(prestamo.esperaNs);
+            EstadisticasSentencias.de(EstadisticasSentencias.CLAVE_POOL).esperaConexion(prestamo.esperaNs);
+            prestadas.add(prestamo);
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    prestamo);
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene la caché de sentencias de una conexión prestada por un pool.
+     *
+     * @param conexion Conexión a consultar
+     * @return Caché de sentencias, o null si la conexión no viene de un pool, ya fue
+     * devuelta o el pool no conserva sentencias
+     */
+    static CacheSentencias sentenciasDe(Connection conexion) {
+        if (!Proxy.isProxyClass(conexion.getClass())
+                || !(Proxy.getInvocationHandler(conexion) instanceof ConnectionPool.ConexionPrestada prestamo)
+                || prestamo.devuelta) {
+            return null;
+        }
+        return prestamo.sentencias;
+    }
+
+    /**
+     * Obtiene, solo la primera vez que se consulta, cuánto esperó una conexión prestada
+     * hasta entregarse, incluida la apertura o validación de la conexión física.
+     *
+     * @param conexion Conexión a consultar
+     * @return Espera en nanosegundos, o -1 si la conexión no viene de un pool o ya se consultó
+     */
+    static long tomarEspera(Connection conexion) {
+        if (!Proxy.isProxyClass(conexion.getClass())
+                || !(Proxy.getInvocationHandler(conexion) instanceof ConnectionPool.ConexionPrestada prestamo)
+                || prestamo.esperaTomada) {
+            return -1;
+        }
+        prestamo.esperaTomada = true;
+        return prestamo.esperaNs;
+    }
+
+    /**
+     * Obtiene el histograma de esperas por una conexión de todos los préstamos.
+     *
+     * @return Histograma de esperas
+     */
+    public Histograma getEspera() {
+        return espera;
+    }
+
+    /**
+     * Obtiene el número de conexiones prestadas actualmente.
+     *
+     * @return Conexiones en uso
+     */
+    public int getConexionesActivas() {
+        return prestadas.size();
+    }
+
+    /**
+     * Obtiene el número de conexiones abiertas a la espera de ser reutilizadas.
+     *
+     * @return Conexiones inactivas
+     */
+    public int getConexionesInactivas() {
+        synchronized (inactivas) {
+            return inactivas.size();
+        }
+    }
+
+    /**
+     * Obtiene el tamaño máximo del pool.
+     *
+     * @return Número máximo de conexiones
+     */
+    public int getMaxConexiones() {
+        return maxConexiones;
+    }
+
+    /**
+     * Cierra el pool y todas sus conexiones inactivas.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void cerrar() {
+        cerrado = true;
+        mantenimiento.shutdownNow();
+        synchronized (inactivas) {
+            for (ConexionInactiva c : inactivas) {
+                cerrarSilencioso(c.fisica());
+            }
+            inactivas.clear();
+        }
+    }
+
+    private ConexionInactiva tomarValida() throws SQLException {
+        ConexionInactiva candidata;
+        while ((candidata = sacarInactiva()) != null) {
+            if (esValida(candidata.fisica())) {
+                return candidata;
+            }
+            cerrarSilencioso(candidata.fisica());
+        }
+        Connection nueva = DriverManager.getConnection(url, usuario, contrasena);
+        CacheSentencias sentencias = maxSentencias > 0 ? new CacheSentencias(nueva, maxSentencias) : null;
+        return new ConexionInactiva(nueva, sentencias, System.currentTimeMillis());
+    }
+
+    private ConexionInactiva sacarInactiva() {
+        synchronized (inactivas) {
+            return inactivas.pollFirst();
+        }
+    }
+
+    private boolean esValida(Connection fisica) {
+        try {
+            return fisica.isValid(timeoutValidacionSeg);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void devolver(ConexionPrestada prestamo) {
+        if (!prestadas.remove(prestamo)) {
+            return;
+        }
+
+        Connection fisica = prestamo.fisica;
+        try {
+            if (prestamo.sentencias != null) {
+                prestamo.sentencias.liberar();
+            }
+            if (!fisica.getAutoCommit()) {
+                fisica.rollback();
+                fisica.setAutoCommit(true);
+            }
+            fisica.clearWarnings();
+
+            if (cerrado || fisica.isClosed()) {
+                cerrarSilencioso(fisica);
+            } else {
+                synchronized (inactivas) {
+                    inactivas.addFirst(new ConexionInactiva(fisica, prestamo.sentencias, System.currentTimeMillis()));
+                }
+            }
+        } catch (SQLException e) {
+            cerrarSilencioso(fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    /**
+     * Cierra las conexiones inactivas caducadas, reporta préstamos sospechosos de fuga y,
+     * si está configurado, recupera los que superan el tiempo de recuperación.
+     */
+    private void mantener() {
+        long ahora = System.currentTimeMillis();
+
+        synchronized (inactivas) {
+            Iterator<ConexionInactiva> it = inactivas.descendingIterator();
+            while (it.hasNext()) {
+                ConexionInactiva c = it.next();
+                if (ahora - c.desde() < inactividadMaxMs) {
+                    break;
+                }
+                it.remove();
+                cerrarSilencioso(c.fisica());
+            }
+        }
+
+        for (ConexionPrestada prestamo : prestadas) {
+            long prestadaMs = ahora - prestamo.desde;
+            if (!prestamo.reportado && prestadaMs > umbralFugaMs) {
+                prestamo.reportado = true;
+                System.err.println("Posible fuga de conexión: prestada hace " + prestadaMs
+                        + " ms al hilo " + prestamo.hilo
+                        + (prestamo.origen == null ? " (pool.leak_trace=true muestra dónde se obtuvo)" : ""));
+                if (prestamo.origen != null) {
+                    prestamo.origen.printStackTrace();
+                }
+            }
+            if (recuperacionFugaMs > 0 && prestadaMs > recuperacionFugaMs) {
+                System.err.println("Conexión prestada hace " + prestadaMs + " ms al hilo " + prestamo.hilo
+                        + ": se cierra y se recupera su permiso");
+                recuperar(prestamo);
+            }
+        }
+    }
+
+    /**
+     * Cierra la conexión física de un préstamo perdido y libera su permiso. Quien la tenía
+     * recibe un error si vuelve a usarla, y cerrarla después ya no hace nada. Solo se usa
+     * con {@code pool.leak_reclaim_ms} activo, que debe superar la operación más larga.
+     */
+    private void recuperar(ConexionPrestada prestamo) {
+        if (!prestadas.remove(prestamo)) {
+            return;
+        }
+        prestamo.devuelta = true;
+        try {
+            cerrarSilencioso(prestamo.fisica);
+        } finally {
+            permisos.release();
+        }
+    }
+
+    private static void cerrarSilencioso(Connection fisica) {
+        try {
+            fisica.close();
+        } catch (SQLException ignored) {
+            // La conexión ya no es utilizable; no hay nada más que hacer
+        }
+    }
+
+    private record ConexionInactiva(Connection fisica, CacheSentencias sentencias, long desde) {}
+
+    /**
+     * Envoltorio de una conexión física prestada que la devuelve al pool al cerrarse.
+     * Guarda quién y cuándo la pidió para la detección de fugas, y dónde si está activa
+     * la traza de fugas.
+     */
+    private final class ConexionPrestada implements InvocationHandler {
+        private final Connection fisica;
+        private final CacheSentencias sentencias;
+        private final long esperaNs;
+        private final long desde = System.currentTimeMillis();
+        private final String hilo = Thread.currentThread().getName();
+        private final Throwable origen = trazaFugas ? new Throwable("Conexión obtenida aquí") : null;
+        private volatile boolean reportado;
+        private volatile boolean devuelta;
+        private boolean esperaTomada;
+
+        private ConexionPrestada(ConexionInactiva conexion, long esperaNs) {
+            this.fisica = conexion.fisica();
+            this.sentencias = conexion.sentencias();
+            this.esperaNs = esperaNs;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConexionPrestada[" + fisica + "]";
+                default:
+                    break;
+            }
+
+            if (devuelta) {
+                throw new SQLException("La conexión ya fue devuelta al pool");
+            }
+
+            try {
+                return method.invoke(fisica, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package model.database;
+
+/**
+ * Interfaz JMX con las métricas de una consulta de {@code queries.properties}.
+ * Cada consulta usada se publica como {@code veterinaria:type=Consulta,name=<clave>}.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public interface ConsultaMXBean {
+
+    /**
+     * @return Ejecuciones sin error
+     */
+    long getEjecuciones();
+
+    /**
+     * @return Preparaciones o ejecuciones que fallaron
+     */
+    long getErrores();
+
+    /**
+     * @return Filas leídas, o modificadas en las escrituras
+     */
+    long getFilas();
+
+    /**
+     * @return Veces que la sentencia se preparó en el servidor
+     */
+    long getPreparaciones();
+
+    /**
+     * @return Veces que la sentencia se sirvió desde la caché
+     */
+    long getReutilizaciones();
+
+    /**
+     * @return Mediana de la latencia de ejecución en milisegundos
+     */
+    double getLatenciaP50Ms();
+
+    /**
+     * @return Percentil 95 de la latencia de ejecución en milisegundos
+     */
+    double getLatenciaP95Ms();
+
+    /**
+     * @return Percentil 99 de la latencia de ejecución en milisegundos
+     */
+    double getLatenciaP99Ms();
+
+    /**
+     * @return Mayor latencia de ejecución en milisegundos
+     */
+    double getLatenciaMaximaMs();
+
+    /**
+     * @return Percentil 95 de la espera por una conexión en milisegundos
+     */
+    double getEsperaConexionP95Ms();
+
+    /**
+     * @return Mayor espera por una conexión en milisegundos
+     */
+    double getEsperaConexionMaximaMs();
+
+    /**
+     * Pone a cero las métricas de todas las consultas.
+     */
+    void reiniciarTodas();
+}
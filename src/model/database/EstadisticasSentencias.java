@@ -0,0 +1,256 @@
+package model.database;
+
+import utils.DatabaseConfig;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uso de las sentencias preparadas, agrupadas por la clave de
+ * {@code queries.properties}. Por cada consulta registra cuántas veces se preparó en el
+ * servidor y cuántas se reutilizó desde la caché, sus ejecuciones, errores y filas leídas
+ * o modificadas, y los histogramas de latencia de ejecución y de espera por una conexión.
+ * Las filas modificadas se cuentan al ejecutar y las leídas las registran los recorridos
+ * de los DAO. Bajo {@link #CLAVE_POOL} se acumulan la espera de todos los préstamos de
+ * conexión y los préstamos fallidos o agotados, que no llegan a ninguna consulta.
+ * Si {@code metrics.jmx.enabled} está activo, cada consulta se publica además por JMX
+ * (ver {@link ConsultaMXBean}).
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class EstadisticasSentencias {
+
+    /** Clave de las métricas del préstamo de conexiones del pool. */
+    public static final String CLAVE_POOL = "pool.conexion";
+
+    private static final String DOMINIO_JMX = "veterinaria";
+    private static final Map<String, Metricas> METRICAS = new ConcurrentHashMap<>();
+
+    private EstadisticasSentencias() {}
+
+    /**
+     * Obtiene las métricas de una consulta, creándolas en el primer uso.
+     *
+     * @param clave Clave de la consulta
+     * @return Métricas de la consulta
+     */
+    static Metricas de(String clave) {
+        Metricas metricas = METRICAS.get(clave);
+        if (metricas != null) {
+            return metricas;
+        }
+        Metricas nuevas = new Metricas();
+        metricas = METRICAS.putIfAbsent(clave, nuevas);
+        if (metricas != null) {
+            return metricas;
+        }
+        if (DatabaseConfig.isMetricsJmxEnabled()) {
+            publicarJmx(clave, nuevas);
+        }
+        return nuevas;
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas de todas las consultas usadas,
+     * ordenada de la más ejecutada a la menos ejecutada.
+     *
+     * @return Lista con el uso de cada clave de consulta
+     */
+    public static List<Uso> obtener() {
+        List<Uso> usos = new ArrayList<>();
+        for (Map.Entry<String, Metricas> entrada : METRICAS.entrySet()) {
+            usos.add(entrada.getValue().instantanea(entrada.getKey()));
+        }
+        usos.sort(Comparator.comparingLong(Uso::ejecuciones).reversed().thenComparing(Uso::clave));
+        return usos;
+    }
+
+    /**
+     * Pone a cero las métricas de todas las consultas.
+     */
+    public static void reiniciar() {
+        METRICAS.values().forEach(Metricas::reiniciar);
+    }
+
+    private static void publicarJmx(String clave, Metricas metricas) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nombre = new ObjectName(DOMINIO_JMX + ":type=Consulta,name=" + clave);
+            if (!servidor.isRegistered(nombre)) {
+                servidor.registerMBean(new ConsultaJmx(metricas), nombre);
+            }
+        } catch (JMException e) {
+            System.err.println("No se pudieron publicar por JMX las métricas de " + clave + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Contadores e histogramas de una consulta. Registrar una muestra no bloquea.
+     */
+    static final class Metricas {
+        private final LongAdder preparaciones = new LongAdder();
+        private final LongAdder reutilizaciones = new LongAdder();
+        private final LongAdder ejecuciones = new LongAdder();
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder filas = new LongAdder();
+        private final Histograma latencia = new Histograma();
+        private final Histograma esperaConexion = new Histograma();
+
+        void preparacion() {
+            preparaciones.increment();
+        }
+
+        void reutilizacion() {
+            reutilizaciones.increment();
+        }
+
+        void ejecucion(long nanos) {
+            ejecuciones.increment();
+            latencia.registrar(nanos);
+        }
+
+        void error() {
+            errores.increment();
+        }
+
+        void filas(long cantidad) {
+            filas.add(cantidad);
+        }
+
+        void esperaConexion(long nanos) {
+            esperaConexion.registrar(nanos);
+        }
+
+        private Uso instantanea(String clave) {
+            return new Uso(clave, preparaciones.sum(), reutilizaciones.sum(), ejecuciones.sum(),
+                    errores.sum(), filas.sum(), Latencia.de(latencia), Latencia.de(esperaConexion));
+        }
+
+        private void reiniciar() {
+            preparaciones.reset();
+            reutilizaciones.reset();
+            ejecuciones.reset();
+            errores.reset();
+            filas.reset();
+            latencia.reiniciar();
+            esperaConexion.reiniciar();
+        }
+    }
+
+    /**
+     * Adaptador JMX de las métricas de una consulta.
+     */
+    private static final class ConsultaJmx implements ConsultaMXBean {
+        private final Metricas metricas;
+
+        private ConsultaJmx(Metricas metricas) {
+            this.metricas = metricas;
+        }
+
+        @Override
+        public long getEjecuciones() {
+            return metricas.ejecuciones.sum();
+        }
+
+        @Override
+        public long getErrores() {
+            return metricas.errores.sum();
+        }
+
+        @Override
+        public long getFilas() {
+            return metricas.filas.sum();
+        }
+
+        @Override
+        public long getPreparaciones() {
+            return metricas.preparaciones.sum();
+        }
+
+        @Override
+        public long getReutilizaciones() {
+            return metricas.reutilizaciones.sum();
+        }
+
+        @Override
+        public double getLatenciaP50Ms() {
+            return metricas.latencia.percentilMs(0.50);
+        }
+
+        @Override
+        public double getLatenciaP95Ms() {
+            return metricas.latencia.percentilMs(0.95);
+        }
+
+        @Override
+        public double getLatenciaP99Ms() {
+            return metricas.latencia.percentilMs(0.99);
+        }
+
+        @Override
+        public double getLatenciaMaximaMs() {
+            return metricas.latencia.maximoMs();
+        }
+
+        @Override
+        public double getEsperaConexionP95Ms() {
+            return metricas.esperaConexion.percentilMs(0.95);
+        }
+
+        @Override
+        public double getEsperaConexionMaximaMs() {
+            return metricas.esperaConexion.maximoMs();
+        }
+
+        @Override
+        public void reiniciarTodas() {
+            reiniciar();
+        }
+    }
+
+    /**
+     * Percentiles de un histograma de duraciones.
+     *
+     * @param p50Ms  Mediana en milisegundos
+     * @param p95Ms  Percentil 95 en milisegundos
+     * @param p99Ms  Percentil 99 en milisegundos
+     * @param maxMs  Máximo en milisegundos
+     */
+    public record Latencia(double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+        /**
+         * Calcula los percentiles de un histograma.
+         *
+         * @param histograma Histograma a resumir
+         * @return Percentiles del histograma
+         */
+        public static Latencia de(Histograma histograma) {
+            return new Latencia(histograma.percentilMs(0.50), histograma.percentilMs(0.95),
+                    histograma.percentilMs(0.99), histograma.maximoMs());
+        }
+    }
+
+    /**
+     * Uso acumulado de una sentencia.
+     *
+     * @param clave           Clave de la consulta en {@code queries.properties}
+     * @param preparaciones   Veces que se preparó en el servidor
+     * @param reutilizaciones Veces que se sirvió desde la caché de sentencias
+     * @param ejecuciones     Veces que se ejecutó sin error
+     * @param errores         Preparaciones o ejecuciones que fallaron
+     * @param filas           Filas leídas, o modificadas en las escrituras
+     * @param latencia        Latencia de las ejecuciones
+     * @param esperaConexion  Espera por una conexión del pool antes de ejecutarla
+     */
+    public record Uso(String clave, long preparaciones, long reutilizaciones, long ejecuciones,
+                      long errores, long filas, Latencia latencia, Latencia esperaConexion) {}
+}
@@ -0,0 +1,96 @@
+package model.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma concurrente de duraciones con cubetas de crecimiento geométrico.
+ * Cada cubeta abarca un 10% más que la anterior, desde 1 µs hasta unos 190 s, por lo
+ * que los percentiles tienen un error relativo máximo del 10% con memoria constante.
+ * Registrar una muestra no bloquea.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class Histograma {
+
+    private static final double BASE = 1.1;
+    private static final double LOG_BASE = Math.log(BASE);
+    private static final int CUBETAS = 200;
+
+    private final AtomicLongArray cubetas = new AtomicLongArray(CUBETAS);
+    private final AtomicLong maximo = new AtomicLong();
+
+    /**
+     * Registra una duración.
+     *
+     * @param nanos Duración en nanosegundos
+     */
+    public void registrar(long nanos) {
+        double micros = Math.max(1, nanos / 1_000.0);
+        int cubeta = Math.min(CUBETAS - 1, (int) (Math.log(micros) / LOG_BASE));
+        cubetas.incrementAndGet(cubeta);
+        maximo.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Obtiene el número de duraciones registradas.
+     *
+     * @return Cantidad de muestras
+     */
+    public long cantidad() {
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            total += cubetas.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Estima el percentil indicado como el límite superior de la cubeta que lo contiene.
+     *
+     * @param p Percentil entre 0 y 1
+     * @return Duración estimada en milisegundos, o 0 si no hay muestras
+     */
+    public double percentilMs(double p) {
+        long[] copia = new long[CUBETAS];
+        long total = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            copia[i] = cubetas.get(i);
+            total += copia[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long objetivo = (long) Math.ceil(p * total);
+        long acumulado = 0;
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += copia[i];
+            if (acumulado >= objetivo) {
+                // El límite de la cubeta nunca supera la mayor duración vista
+                return Math.min(Math.pow(BASE, i + 1) / 1_000.0, maximoMs());
+            }
+        }
+        return maximoMs();
+    }
+
+    /**
+     * Obtiene la mayor duración registrada.
+     *
+     * @return Duración máxima en milisegundos
+     */
+    public double maximoMs() {
+        return maximo.get() / 1_000_000.0;
+    }
+
+    /**
+     * Descarta todas las muestras.
+     */
+    public void reiniciar() {
+        for (int i = 0; i < CUBETAS; i++) {
+            cubetas.set(i, 0);
+        }
+        maximo.set(0);
+    }
+}
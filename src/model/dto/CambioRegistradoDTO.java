@@ -0,0 +1,22 @@
+package model.dto;
+
+import model.events.CambioEntidad;
+
+/**
+ * DTO con una fila del registro de cambios compartido entre puestos.
+ *
+ * @param idCambio  Posición del cambio en el registro, creciente
+ * @param entidad   Nombre simple de la clase de la entidad cambiada, por ejemplo "Cliente"
+ * @param idEntidad ID de la entidad cambiada, o null en los cambios {@link CambioEntidad.Tipo#VARIOS}
+ * @param tipo      Tipo de cambio
+ * @param propio    true si el cambio lo escribió esta misma instancia de la aplicación
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record CambioRegistradoDTO(
+        long idCambio,
+        String entidad,
+        Integer idEntidad,
+        CambioEntidad.Tipo tipo,
+        boolean propio
+) {}
@@ -0,0 +1,34 @@
+package model.dto;
+
+import model.entities.Cita;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO de solo lectura con una cita y los nombres de su mascota, dueño y veterinario.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record CitaDetalleDTO(
+        int idCita,
+        LocalDateTime fechaHora,
+        String motivo,
+        String estado,
+        int idMascota,
+        String nombreMascota,
+        int idCliente,
+        String nombreCliente,
+        int idVeterinario,
+        String nombreVeterinario
+) {
+
+    /**
+     * Crea la entidad Cita con los datos propios de la cita, sin los nombres asociados.
+     *
+     * @return Cita equivalente
+     */
+    public Cita aCita() {
+        return new Cita(idCita, fechaHora, motivo, estado, idMascota, idVeterinario);
+    }
+}
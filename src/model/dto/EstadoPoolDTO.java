@@ -0,0 +1,20 @@
+package model.dto;
+
+import model.database.EstadisticasSentencias.Latencia;
+
+/**
+ * DTO con el estado del pool de conexiones para la ventana de diagnóstico.
+ *
+ * @param activas   Conexiones prestadas en este momento
+ * @param inactivas Conexiones abiertas a la espera de reutilizarse
+ * @param maximo    Tamaño máximo del pool
+ * @param espera    Espera por una conexión desde el arranque
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record EstadoPoolDTO(
+        int activas,
+        int inactivas,
+        int maximo,
+        Latencia espera
+) {}
@@ -0,0 +1,15 @@
+package model.dto;
+
+import java.util.List;
+
+/**
+ * DTO con las claves generadas al crear una factura junto con sus detalles.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record FacturaCreadaDTO(
+        int idFactura,
+        List<Integer> idsDetalles,
+        double total
+) {}
@@ -0,0 +1,60 @@
+package model.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Tamaño de los intervalos en que se agrupan las series de ventas.
+ * Las semanas empiezan en lunes y los meses el día 1.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public enum GranularidadVentas {
+    /** Un intervalo por día. */
+    DIA("Día"),
+    /** Un intervalo por semana, de lunes a domingo. */
+    SEMANA("Semana"),
+    /** Un intervalo por mes natural. */
+    MES("Mes");
+
+    private final String nombre;
+
+    GranularidadVentas(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Calcula el primer día del intervalo que contiene una fecha.
+     *
+     * @param fecha Fecha dentro del intervalo
+     * @return Primer día del intervalo
+     */
+    public LocalDate inicio(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha;
+            case SEMANA -> fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> fecha.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Calcula el primer día del intervalo siguiente.
+     *
+     * @param inicio Primer día de un intervalo
+     * @return Primer día del intervalo posterior
+     */
+    public LocalDate siguiente(LocalDate inicio) {
+        return switch (this) {
+            case DIA -> inicio.plusDays(1);
+            case SEMANA -> inicio.plusWeeks(1);
+            case MES -> inicio.plusMonths(1);
+        };
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
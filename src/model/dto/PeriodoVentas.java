@@ -0,0 +1,60 @@
+package model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Ventana de tiempo del reporte de medicamentos más vendidos.
+ * Cada periodo se guarda en la tabla VentaMedicamento con un código y una clave
+ * numérica calculada a partir de la fecha de emisión de la factura; el cálculo debe
+ * coincidir con el de las consultas {@code ventaMedicamento.*} de queries.properties.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public enum PeriodoVentas {
+    /** Un día, con clave yyyymmdd. */
+    DIA("D", "Día"),
+    /** Un mes, con clave yyyymm. */
+    MES("M", "Mes"),
+    /** Un año, con clave yyyy. */
+    ANIO("A", "Año"),
+    /** Todo el histórico, con clave 0. */
+    TOTAL("T", "Histórico");
+
+    private final String codigo;
+    private final String nombre;
+
+    PeriodoVentas(String codigo, String nombre) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+    }
+
+    /**
+     * Obtiene el código con el que se guarda el periodo.
+     *
+     * @return Código de una letra
+     */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    /**
+     * Calcula la clave del periodo que contiene una fecha.
+     *
+     * @param fecha Fecha dentro del periodo; se ignora en {@link #TOTAL}
+     * @return Clave del periodo
+     */
+    public int clave(LocalDate fecha) {
+        return switch (this) {
+            case DIA -> fecha.getYear() * 10000 + fecha.getMonthValue() * 100 + fecha.getDayOfMonth();
+            case MES -> fecha.getYear() * 100 + fecha.getMonthValue();
+            case ANIO -> fecha.getYear();
+            case TOTAL -> 0;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return nombre;
+    }
+}
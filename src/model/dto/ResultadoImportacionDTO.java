@@ -0,0 +1,34 @@
+package model.dto;
+
+import java.util.List;
+
+/**
+ * DTO con el resultado de una importación masiva desde CSV.
+ *
+ * @param filasLeidas Filas de datos leídas en esta ejecución, sin contar las omitidas
+ * @param insertadas  Filas insertadas en la base de datos
+ * @param rechazadas  Filas descartadas por no superar la validación
+ * @param omitidas    Filas saltadas por haberse importado en una ejecución anterior
+ * @param nanos       Duración de la importación en nanosegundos
+ * @param errores     Motivo de rechazo de las primeras filas rechazadas, con su número de fila
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record ResultadoImportacionDTO(
+        int filasLeidas,
+        int insertadas,
+        int rechazadas,
+        int omitidas,
+        long nanos,
+        List<String> errores
+) {
+
+    /**
+     * Calcula el rendimiento de la importación.
+     *
+     * @return Filas leídas por segundo
+     */
+    public double filasPorSegundo() {
+        return nanos <= 0 ? 0 : filasLeidas * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,49 @@
+package model.dto;
+
+/**
+ * Tipo de ítem vendido en un detalle de factura.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public enum TipoVenta {
+    /** Servicio veterinario, identificado por idServicio. */
+    SERVICIO("Servicio"),
+    /** Medicamento, identificado por idProducto. */
+    MEDICAMENTO("Medicamento");
+
+    private final String tipo;
+
+    TipoVenta(String tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Obtiene el valor de la columna tipo de DetalleFactura para este tipo.
+     *
+     * @return Tipo tal como se guarda en el detalle
+     */
+    public String getTipo() {
+        return tipo;
+    }
+
+    /**
+     * Obtiene el tipo de venta que corresponde al tipo de un detalle de factura.
+     *
+     * @param tipo Valor de la columna tipo, sin distinguir mayúsculas
+     * @return Tipo de venta, o null si el valor no es de ningún tipo conocido
+     */
+    public static TipoVenta de(String tipo) {
+        for (TipoVenta valor : values()) {
+            if (valor.tipo.equalsIgnoreCase(tipo)) {
+                return valor;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return tipo;
+    }
+}
@@ -0,0 +1,16 @@
+package model.dto;
+
+/**
+ * DTO con las ventas acumuladas de un servicio o medicamento en un rango de fechas.
+ *
+ * @param idItem    ID del servicio o del medicamento
+ * @param unidades  Unidades vendidas
+ * @param importe   Importe facturado, cantidad por precio unitario
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record VentasItemDTO(
+        int idItem,
+        long unidades,
+        double importe
+) {}
@@ -0,0 +1,18 @@
+package model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * DTO con las ventas de un intervalo de una serie temporal.
+ *
+ * @param inicio    Primer día del intervalo
+ * @param unidades  Unidades vendidas en el intervalo
+ * @param importe   Importe facturado en el intervalo
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record VentasPeriodoDTO(
+        LocalDate inicio,
+        long unidades,
+        double importe
+) {}
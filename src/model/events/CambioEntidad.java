@@ -0,0 +1,164 @@
+package model.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cambio confirmado en la base de datos sobre una o varias entidades del mismo tipo.
+ * Lo publican los servicios en {@link EventosDominio} tras cada escritura correcta.
+ * Las altas y las modificaciones llevan las entidades escritas, en el mismo orden
+ * que sus IDs; las bajas solo llevan los IDs. Un cambio de tipo {@link Tipo#VARIOS}
+ * no indica IDs: puede haber cambiado cualquier entidad del tipo, por ejemplo tras una
+ * actualización por rango de fechas.
+ *
+ * @param tipo    Tipo de cambio
+ * @param entidad Clase de las entidades cambiadas
+ * @param ids     IDs de las entidades cambiadas, sin repetidos; vacía en los cambios {@link Tipo#VARIOS}
+ * @param valores Entidades cambiadas tal como se escribieron, o lista vacía si no se conocen
+ * @param <T>     Tipo de entidad
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public record CambioEntidad<T>(
+        Tipo tipo,
+        Class<T> entidad,
+        List<Integer> ids,
+        List<T> valores
+) {
+
+    /**
+     * Tipos de cambio.
+     */
+    public enum Tipo {
+        /** Alta de entidades. */
+        CREADO,
+        /** Modificación de entidades identificadas. */
+        ACTUALIZADO,
+        /** Baja de entidades. */
+        ELIMINADO,
+        /** Modificación de entidades sin identificar. */
+        VARIOS
+    }
+
+    /**
+     * Constructor que copia las listas y comprueba que los valores correspondan a los IDs.
+     */
+    public CambioEntidad {
+        Objects.requireNonNull(tipo, "El tipo de cambio es requerido");
+        Objects.requireNonNull(entidad, "La clase de la entidad es requerida");
+        ids = List.copyOf(ids);
+        valores = List.copyOf(valores);
+        if (!valores.isEmpty() && valores.size() != ids.size()) {
+            throw new IllegalArgumentException("Se recibieron " + valores.size() + " entidades para " + ids.size() + " IDs");
+        }
+    }
+
+    /**
+     * Crea el cambio de un alta de entidades que ya tienen su ID asignado.
+     *
+     * @param entidad Clase de las entidades
+     * @param valores Entidades creadas
+     * @param id      Función que devuelve el ID de una entidad
+     * @param <T>     Tipo de entidad
+     * @return El cambio
+     */
+    public static <T> CambioEntidad<T> creados(Class<T> entidad, List<T> valores, ToIntFunction<T> id) {
+        return new CambioEntidad<>(Tipo.CREADO, entidad, ids(valores, id), valores);
+    }
+
+    /**
+     * Crea el cambio de una modificación de entidades de las que se conocen los datos nuevos.
+     *
+     * @param entidad Clase de las entidades
+     * @param valores Entidades con los datos escritos
+     * @param id      Función que devuelve el ID de una entidad
+     * @param <T>     Tipo de entidad
+     * @return El cambio
+     */
+    public static <T> CambioEntidad<T> actualizados(Class<T> entidad, List<T> valores, ToIntFunction<T> id) {
+        return new CambioEntidad<>(Tipo.ACTUALIZADO, entidad, ids(valores, id), valores);
+    }
+
+    /**
+     * Crea el cambio de una modificación de entidades de las que solo se conocen los IDs.
+     *
+     * @param entidad Clase de las entidades
+     * @param ids     IDs de las entidades modificadas; los nulos y repetidos se ignoran
+     * @param <T>     Tipo de entidad
+     * @return El cambio
+     */
+    public static <T> CambioEntidad<T> actualizados(Class<T> entidad, Collection<Integer> ids) {
+        return new CambioEntidad<>(Tipo.ACTUALIZADO, entidad, distintos(ids), List.of());
+    }
+
+    /**
+     * Crea el cambio de una modificación que puede afectar a cualquier entidad del tipo.
+     *
+     * @param entidad Clase de las entidades
+     * @param <T>     Tipo de entidad
+     * @return El cambio, sin IDs
+     */
+    public static <T> CambioEntidad<T> varios(Class<T> entidad) {
+        return new CambioEntidad<>(Tipo.VARIOS, entidad, List.of(), List.of());
+    }
+
+    /**
+     * Crea el cambio de una baja de entidades.
+     *
+     * @param entidad Clase de las entidades
+     * @param ids     IDs de las entidades eliminadas; los nulos y repetidos se ignoran
+     * @param <T>     Tipo de entidad
+     * @return El cambio
+     */
+    public static <T> CambioEntidad<T> eliminados(Class<T> entidad, Collection<Integer> ids) {
+        return new CambioEntidad<>(Tipo.ELIMINADO, entidad, distintos(ids), List.of());
+    }
+
+    /**
+     * Indica si el cambio no afecta a ninguna entidad, por ejemplo un lote vacío o un
+     * cambio filtrado sin coincidencias.
+     *
+     * @return true si no es de tipo {@link Tipo#VARIOS} y no tiene IDs
+     */
+    public boolean isVacio() {
+        return tipo != Tipo.VARIOS && ids.isEmpty();
+    }
+
+    /**
+     * Obtiene el cambio restringido a las entidades que cumplen un filtro, por ejemplo
+     * los detalles de una factura concreta. Si el cambio no lleva entidades se devuelve tal cual.
+     *
+     * @param filtro Condición que deben cumplir las entidades
+     * @return El cambio filtrado, que puede quedar vacío
+     */
+    public CambioEntidad<T> filtrar(Predicate<T> filtro) {
+        if (valores.isEmpty()) {
+            return this;
+        }
+        List<Integer> idsFiltrados = new ArrayList<>();
+        List<T> valoresFiltrados = new ArrayList<>();
+        for (int i = 0; i < valores.size(); i++) {
+            if (filtro.test(valores.get(i))) {
+                idsFiltrados.add(ids.get(i));
+                valoresFiltrados.add(valores.get(i));
+            }
+        }
+        return new CambioEntidad<>(tipo, entidad, idsFiltrados, valoresFiltrados);
+    }
+
+    private static <T> List<Integer> ids(List<T> valores, ToIntFunction<T> id) {
+        List<Integer> ids = new ArrayList<>(valores.size());
+        for (T valor : valores) {
+            ids.add(id.applyAsInt(valor));
+        }
+        return ids;
+    }
+
+    private static List<Integer> distintos(Collection<Integer> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+}
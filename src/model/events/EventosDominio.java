@@ -0,0 +1,121 @@
+package model.events;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Bus de eventos del dominio dentro del proceso. Los servicios publican en él un
+ * {@link CambioEntidad} después de cada escritura confirmada y las vistas se suscriben
+ * a los cambios del tipo de entidad que muestran, de modo que actualizan solo las filas
+ * afectadas en lugar de recargar la tabla entera. Cada suscriptor recibe los cambios en
+ * el ejecutor que indica, por ejemplo el hilo de eventos de Swing; un error en un
+ * suscriptor se informa por la salida de error y no afecta a la escritura ni a los demás.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class EventosDominio {
+
+    /**
+     * Suscripción activa a los cambios de un tipo de entidad.
+     */
+    @FunctionalInterface
+    public interface Suscripcion {
+
+        /**
+         * Deja de recibir cambios. Los ya programados en el ejecutor del suscriptor
+         * todavía pueden entregarse.
+         */
+        void cancelar();
+    }
+
+    private static final Map<Class<?>, List<Suscriptor<?>>> SUSCRIPTORES = new ConcurrentHashMap<>();
+
+    private EventosDominio() {}
+
+    /**
+     * Suscribe una acción a los cambios de un tipo de entidad.
+     *
+     * @param entidad  Clase de las entidades cuyos cambios se reciben
+     * @param ejecutor Ejecutor en el que se entrega cada cambio
+     * @param oyente   Acción que recibe cada cambio
+     * @param <T>      Tipo de entidad
+     * @return Suscripción que debe cancelarse cuando el oyente deja de existir, por ejemplo al cerrar su ventana
+     */
+    public static <T> Suscripcion suscribir(Class<T> entidad, Executor ejecutor, Consumer<CambioEntidad<T>> oyente) {
+        Suscriptor<T> suscriptor = new Suscriptor<>(entidad, ejecutor, oyente);
+        List<Suscriptor<?>> suscriptores = SUSCRIPTORES.computeIfAbsent(entidad, clase -> new CopyOnWriteArrayList<>());
+        suscriptores.add(suscriptor);
+        return () -> suscriptores.remove(suscriptor);
+    }
+
+    /**
+     * Indica si alguien sigue los cambios de un tipo de entidad, para no preparar cambios
+     * que nadie va a recibir.
+     *
+     * @param entidad Clase de las entidades
+     * @return true si hay al menos una suscripción activa al tipo
+     */
+    public static boolean tieneSuscriptores(Class<?> entidad) {
+        List<Suscriptor<?>> suscriptores = SUSCRIPTORES.get(entidad);
+        return suscriptores != null && !suscriptores.isEmpty();
+    }
+
+    /**
+     * Entrega un cambio a los suscriptores de su tipo de entidad. Los cambios vacíos se ignoran.
+     *
+     * @param cambio Cambio confirmado en la base de datos
+     * @param <T>    Tipo de entidad
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> void publicar(CambioEntidad<T> cambio) {
+        if (cambio.isVacio()) {
+            return;
+        }
+        List<Suscriptor<?>> suscriptores = SUSCRIPTORES.get(cambio.entidad());
+        if (suscriptores == null) {
+            return;
+        }
+        for (Suscriptor<?> suscriptor : suscriptores) {
+            ((Suscriptor<T>) suscriptor).entregar(cambio);
+        }
+    }
+
+    /**
+     * Oyente registrado con su ejecutor. Se compara por identidad para que cada
+     * suscripción cancele solo su propio registro.
+     */
+    private static final class Suscriptor<T> {
+        private final Class<T> entidad;
+        private final Executor ejecutor;
+        private final Consumer<CambioEntidad<T>> oyente;
+
+        Suscriptor(Class<T> entidad, Executor ejecutor, Consumer<CambioEntidad<T>> oyente) {
+            this.entidad = entidad;
+            this.ejecutor = ejecutor;
+            this.oyente = oyente;
+        }
+
+        void entregar(CambioEntidad<T> cambio) {
+            try {
+                ejecutor.execute(() -> {
+                    try {
+                        oyente.accept(cambio);
+                    } catch (RuntimeException e) {
+                        informar(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                informar(e);
+            }
+        }
+
+        private void informar(RuntimeException e) {
+            System.err.println("Error al notificar un cambio de " + entidad.getSimpleName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package model.events;
+
+import model.dao.CambioDAO;
+import model.dao.GenericDAO;
+import model.dto.CambioRegistradoDTO;
+import model.exceptions.PersistenceException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Mantiene esta instancia de la aplicación al tanto de las escrituras hechas desde
+ * otros puestos. Cada pocos segundos lee del registro de cambios las filas posteriores
+ * a la última que vio y, por cada entidad cambiada por otra instancia, ejecuta la
+ * invalidación local registrada para su tipo (cachés, cubo de ventas, agenda de citas),
+ * vuelve a leer las entidades creadas o modificadas y publica el cambio en
+ * {@link EventosDominio}, de modo que las ventanas abiertas actualizan solo las filas
+ * afectadas igual que con las escrituras propias.
+ * <p>
+ * Los IDs del registro se asignan al insertar y no al confirmar, así que una transacción
+ * puede hacer visible su cambio después de otro con un ID mayor. Por eso los huecos de la
+ * secuencia se vuelven a consultar durante {@link #ESPERA_HUECOS_MS} antes de darlos por
+ * descartados (transacciones deshechas o IDs reservados y no usados). Los DAO anotan el
+ * cambio justo antes de confirmar, por lo que esa ventana es muy corta en la práctica.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class SincronizadorCambios {
+
+    /** Cambios leídos por consulta al registro. */
+    private static final int TAMANO_LECTURA = 500;
+    /** Entidades a partir de las cuales un cambio se publica sin datos y las vistas se recargan. */
+    private static final int MAX_CARGADAS = 200;
+    /** Tiempo durante el que se espera a que aparezca un ID saltado de la secuencia. */
+    private static final long ESPERA_HUECOS_MS = 10_000;
+    /** Huecos pendientes como máximo; un salto mayor de la secuencia no se sigue entero. */
+    private static final int MAX_HUECOS = 10_000;
+    /** Cada cuánto se borran las filas antiguas del registro. */
+    private static final long PERIODO_PURGA_MS = 3_600_000;
+
+    private final CambioDAO cambioDAO;
+    private final long intervaloMs;
+    private final int retencionMinutos;
+    private final Map<String, Destino<?>> destinos = new ConcurrentHashMap<>();
+
+    // Estado del sondeo; solo lo usa el hilo del planificador, o quien llame a sondear()
+    private final NavigableMap<Long, Long> huecos = new TreeMap<>();
+    private long ultimoId = -1;
+    private long ultimaPurga;
+
+    private ScheduledExecutorService planificador;
+
+    /**
+     * Constructor con el DAO del registro y la configuración del sondeo.
+     *
+     * @param cambioDAO        DAO de lectura del registro de cambios
+     * @param intervaloMs      Espera entre dos sondeos, en milisegundos
+     * @param retencionMinutos Antigüedad a partir de la cual se purgan las filas del registro
+     */
+    public SincronizadorCambios(CambioDAO cambioDAO, long intervaloMs, int retencionMinutos) {
+        if (intervaloMs <= 0 || retencionMinutos <= 0) {
+            throw new IllegalArgumentException("El intervalo y la retención de la sincronización deben ser positivos");
+        }
+        this.cambioDAO = cambioDAO;
+        this.intervaloMs = intervaloMs;
+        this.retencionMinutos = retencionMinutos;
+    }
+
+    /**
+     * Registra un tipo de entidad cuyos cambios remotos se siguen. Los cambios de tipos
+     * no registrados se ignoran.
+     *
+     * @param entidad   Clase de la entidad, cuyo nombre simple es el que anotan los DAO
+     * @param dao       DAO con el que se vuelven a leer las entidades creadas o modificadas;
+     *                  si es una caché, se lee después de invalidarla y queda al día
+     * @param invalidar Acción que descarta los datos locales afectados por un cambio; recibe
+     *                  el cambio solo con los IDs y se ejecuta en el hilo del sincronizador
+     * @param <T>       Tipo de entidad
+     */
+    public <T> void registrar(Class<T> entidad, GenericDAO<T> dao, Consumer<CambioEntidad<T>> invalidar) {
+        destinos.put(entidad.getSimpleName(), new Destino<>(entidad, dao, invalidar));
+    }
+
+    /**
+     * Empieza a sondear el registro en un hilo de fondo. El primer sondeo solo toma la
+     * posición actual del registro: los cambios anteriores al arranque ya están en la base
+     * de datos que se va a leer. Si ya estaba iniciado no hace nada.
+     */
+    public synchronized void iniciar() {
+        if (planificador != null) {
+            return;
+        }
+        planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread hilo = new Thread(r, "sincronizador-cambios");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        planificador.scheduleWithFixedDelay(this::sondear, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Deja de sondear el registro. Un sondeo en curso termina normalmente.
+     */
+    public synchronized void detener() {
+        if (planificador != null) {
+            planificador.shutdown();
+            planificador = null;
+        }
+    }
+
+    /**
+     * Borra del registro los cambios más antiguos que la retención configurada. Se llama
+     * al arrancar la aplicación en cualquier modo, también en las importaciones por línea
+     * de comandos, y cada hora mientras se sondea; los errores solo se informan.
+     */
+    public void purgar() {
+        try {
+            cambioDAO.purgarAntiguos(retencionMinutos);
+        } catch (PersistenceException e) {
+            System.err.println("Error al purgar el registro de cambios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lee los cambios nuevos del registro y aplica los de otras instancias. Lo ejecuta
+     * periódicamente el hilo de fondo; los errores se informan por la salida de error y
+     * el siguiente sondeo vuelve a intentarlo desde la misma posición.
+     */
+    void sondear() {
+        try {
+            if (ultimoId < 0) {
+                ultimoId = cambioDAO.obtenerUltimoId();
+                ultimaPurga = System.currentTimeMillis();
+                return;
+            }
+
+            long cursor = huecos.isEmpty() ? ultimoId : Math.min(ultimoId, huecos.firstKey() - 1);
+            List<CambioRegistradoDTO> leidos;
+            do {
+                leidos = cambioDAO.obtenerDespuesDe(cursor, TAMANO_LECTURA);
+                if (!leidos.isEmpty()) {
+                    cursor = leidos.get(leidos.size() - 1).idCambio();
+                    aplicar(nuevos(leidos));
+                }
+            } while (leidos.size() == TAMANO_LECTURA);
+
+            long limite = System.currentTimeMillis() - ESPERA_HUECOS_MS;
+            huecos.values().removeIf(detectado -> detectado < limite);
+            purgarSiToca();
+        } catch (PersistenceException | RuntimeException e) {
+            // Una excepción no capturada cancelaría los sondeos siguientes
+            System.err.println("Error al sincronizar los cambios de otros puestos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Avanza la posición leída y devuelve los cambios no vistos antes que escribieron otras
+     * instancias, en orden de registro.
+     */
+    private List<CambioRegistradoDTO> nuevos(List<CambioRegistradoDTO> leidos) {
+        List<CambioRegistradoDTO> nuevos = new ArrayList<>();
+        long ahora = System.currentTimeMillis();
+        for (CambioRegistradoDTO cambio : leidos) {
+            long id = cambio.idCambio();
+            if (id <= ultimoId) {
+                if (huecos.remove(id) == null) {
+                    continue;
+                }
+            } else {
+                for (long hueco = ultimoId + 1; hueco < id && huecos.size() < MAX_HUECOS; hueco++) {
+                    huecos.put(hueco, ahora);
+                }
+                ultimoId = id;
+            }
+            if (!cambio.propio()) {
+                nuevos.add(cambio);
+            }
+        }
+        return nuevos;
+    }
+
+    /**
+     * Agrupa los cambios consecutivos de la misma entidad y tipo, para aplicar un lote
+     * como un único cambio sin alterar el orden relativo de altas y bajas.
+     */
+    private void aplicar(List<CambioRegistradoDTO> cambios) {
+        int inicio = 0;
+        while (inicio < cambios.size()) {
+            CambioRegistradoDTO primero = cambios.get(inicio);
+            List<Integer> ids = new ArrayList<>();
+            int fin = inicio;
+            while (fin < cambios.size()
+                    && cambios.get(fin).entidad().equals(primero.entidad())
+                    && cambios.get(fin).tipo() == primero.tipo()) {
+                ids.add(cambios.get(fin).idEntidad());
+                fin++;
+            }
+            Destino<?> destino = destinos.get(primero.entidad());
+            if (destino != null) {
+                destino.aplicar(primero.tipo(), ids);
+            }
+            inicio = fin;
+        }
+    }
+
+    private void purgarSiToca() throws PersistenceException {
+        long ahora = System.currentTimeMillis();
+        if (ahora - ultimaPurga >= PERIODO_PURGA_MS) {
+            ultimaPurga = ahora;
+            cambioDAO.purgarAntiguos(retencionMinutos);
+        }
+    }
+
+    /**
+     * Tipo de entidad seguido, con su DAO de lectura y su invalidación local.
+     */
+    private record Destino<T>(Class<T> entidad, GenericDAO<T> dao, Consumer<CambioEntidad<T>> invalidar) {
+
+        void aplicar(CambioEntidad.Tipo tipo, List<Integer> ids) {
+            CambioEntidad<T> cambio = switch (tipo) {
+                case CREADO, ACTUALIZADO -> new CambioEntidad<>(tipo, entidad,
+                        ids.stream().filter(Objects::nonNull).distinct().toList(), List.of());
+                case ELIMINADO -> CambioEntidad.eliminados(entidad, ids);
+                case VARIOS -> CambioEntidad.varios(entidad);
+            };
+            invalidar.accept(cambio);
+            EventosDominio.publicar(conValores(cambio));
+        }
+
+        /**
+         * Completa las altas y modificaciones con los datos actuales de las entidades, que
+         * las vistas necesitan para decidir si les afectan. Las que ya no existen se omiten:
+         * su baja llegará en un cambio posterior. Si ninguna vista sigue el tipo no se lee nada.
+         */
+        private CambioEntidad<T> conValores(CambioEntidad<T> cambio) {
+            if (cambio.tipo() != CambioEntidad.Tipo.CREADO && cambio.tipo() != CambioEntidad.Tipo.ACTUALIZADO
+                    || !EventosDominio.tieneSuscriptores(entidad)) {
+                return cambio;
+            }
+            if (cambio.ids().size() > MAX_CARGADAS) {
+                return CambioEntidad.varios(entidad);
+            }
+            Map<Integer, T> leidas;
+            try {
+                leidas = dao.buscarPorIds(cambio.ids());
+            } catch (PersistenceException e) {
+                System.err.println("Error al leer los cambios de " + entidad.getSimpleName() + ": " + e.getMessage());
+                return CambioEntidad.varios(entidad);
+            }
+            List<Integer> ids = new ArrayList<>();
+            List<T> valores = new ArrayList<>();
+            for (Integer id : cambio.ids()) {
+                T valor = leidas.get(id);
+                if (valor != null) {
+                    ids.add(id);
+                    valores.add(valor);
+                }
+            }
+            return new CambioEntidad<>(cambio.tipo(), entidad, ids, valores);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package model.services;
+
+import model.dto.GranularidadVentas;
+import model.dto.TipoVenta;
+import model.dto.VentasItemDTO;
+import model.dto.VentasPeriodoDTO;
+import model.exceptions.BusinessException;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Interfaz para el servicio de análisis de ventas de servicios y medicamentos.
+ * Las consultas se responden desde memoria, sin acceder a la base de datos salvo en la carga inicial.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public interface AnaliticaVentasService {
+
+    /**
+     * Obtiene las unidades y el importe vendidos de cada servicio o medicamento en un rango de fechas.
+     *
+     * @param tipo  el tipo de ítem
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return los ítems con ventas, del de mayor importe al de menor
+     * @throws BusinessException si los datos no son válidos o falla la carga de las ventas
+     */
+    List<VentasItemDTO> obtenerVentasPorItem(TipoVenta tipo, LocalDate desde, LocalDate hasta) throws BusinessException;
+
+    /**
+     * Obtiene la evolución de las ventas de un ítem, o de todos los de un tipo, por día, semana o mes.
+     *
+     * @param tipo         el tipo de ítem
+     * @param idItem       el ID del servicio o medicamento, o 0 para todos los del tipo
+     * @param granularidad el tamaño de los intervalos
+     * @param desde        la primera fecha de emisión
+     * @param hasta        la última fecha de emisión
+     * @return un intervalo por cada día, semana o mes del rango, ordenados por fecha
+     * @throws BusinessException si los datos no son válidos o falla la carga de las ventas
+     */
+    List<VentasPeriodoDTO> obtenerSerieVentas(TipoVenta tipo, int idItem, GranularidadVentas granularidad,
+                                              LocalDate desde, LocalDate hasta) throws BusinessException;
+
+    /**
+     * Vuelve a leer todas las ventas de la base de datos, por ejemplo para ver lo
+     * registrado desde otra instancia de la aplicación.
+     *
+     * @return el número de detalles de factura con venta cargados
+     * @throws BusinessException si falla la carga de las ventas
+     */
+    int recargarVentas() throws BusinessException;
+}
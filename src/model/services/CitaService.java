@@ -1,9 +1,13 @@
 package model.services;
 
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
 import model.exceptions.BusinessException;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de citas.
@@ -17,9 +21,20 @@ public interface CitaService {
      * Guarda una nueva cita en el sistema.
      *
      * @param cita el objeto Cita a guardar
+     * @return la cita guardada, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarCita(Cita cita) throws BusinessException;
+    Cita guardarCita(Cita cita) throws BusinessException;
+
+    /**
+     * Guarda varias citas en una sola operación por lotes. Si alguna no es válida o se
+     * solapa con otra, incluidas las del propio lote, no se guarda ninguna.
+     *
+     * @param citas las citas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no es válida o hay un error durante el guardado
+     */
+    List<Integer> guardarCitas(List<Cita> citas) throws BusinessException;
 
     /**
      * Obtiene todas las citas registradas en el sistema.
@@ -29,6 +44,88 @@ public interface CitaService {
      */
     List<Cita> obtenerTodasCitas() throws BusinessException;
 
+    /**
+     * Obtiene todas las citas con los nombres de mascota, dueño y veterinario ya resueltos.
+     *
+     * @return lista de citas detalladas
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladas() throws BusinessException;
+
+    /**
+     * Obtiene una página de citas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Obtiene la página de citas con ID mayor que el indicado (paginación por clave).
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasDespuesDe(int ultimoId, int limite) throws BusinessException;
+
+    /**
+     * Obtiene las citas detalladas del rango [desde, hasta), ordenadas por fecha y hora.
+     *
+     * @param desde inicio del rango, incluido
+     * @param hasta fin del rango, excluido
+     * @return lista de citas detalladas del rango
+     * @throws BusinessException si el rango no es válido o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasEnRango(LocalDateTime desde, LocalDateTime hasta) throws BusinessException;
+
+    /**
+     * Obtiene las citas detalladas de un veterinario en el rango [desde, hasta).
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param desde         inicio del rango, incluido
+     * @param hasta         fin del rango, excluido
+     * @return lista de citas detalladas del veterinario
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasPorVeterinario(int idVeterinario, LocalDateTime desde,
+                                                              LocalDateTime hasta) throws BusinessException;
+
+    /**
+     * Obtiene las citas detalladas de una mascota en el rango [desde, hasta).
+     *
+     * @param idMascota el ID de la mascota
+     * @param desde     inicio del rango, incluido
+     * @param hasta     fin del rango, excluido
+     * @return lista de citas detalladas de la mascota
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasPorMascota(int idMascota, LocalDateTime desde,
+                                                          LocalDateTime hasta) throws BusinessException;
+
+    /**
+     * Obtiene las citas detalladas con un estado en el rango [desde, hasta).
+     *
+     * @param estado el estado de las citas
+     * @param desde  inicio del rango, incluido
+     * @param hasta  fin del rango, excluido
+     * @return lista de citas detalladas con ese estado
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<CitaDetalleDTO> obtenerCitasDetalladasPorEstado(String estado, LocalDateTime desde,
+                                                         LocalDateTime hasta) throws BusinessException;
+
+    /**
+     * Cuenta las citas registradas en el sistema.
+     *
+     * @return número total de citas
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarCitas() throws BusinessException;
+
     /**
      * Busca una cita por su ID.
      *
@@ -38,6 +135,15 @@ public interface CitaService {
      */
     Cita buscarCitaPorId(int id) throws BusinessException;
 
+    /**
+     * Busca las citas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cita con las citas encontradas
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Cita> buscarCitasPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de una cita existente.
      *
@@ -46,6 +152,15 @@ public interface CitaService {
      */
     void actualizarCita(Cita cita) throws BusinessException;
 
+    /**
+     * Actualiza varias citas en una sola operación por lotes. Si alguna no es válida o se
+     * solapa con otra no se actualiza ninguna.
+     *
+     * @param citas las citas con los datos actualizados
+     * @throws BusinessException si alguna no es válida o hay un error durante la actualización
+     */
+    void actualizarCitas(List<Cita> citas) throws BusinessException;
+
     /**
      * Elimina una cita del sistema.
      *
@@ -53,4 +168,24 @@ public interface CitaService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarCita(int id) throws BusinessException;
+
+    /**
+     * Elimina varias citas en una sola operación por lotes.
+     *
+     * @param ids los IDs de las citas a eliminar
+     * @throws BusinessException si alguna no existe o hay un error durante la eliminación
+     */
+    void eliminarCitas(Collection<Integer> ids) throws BusinessException;
+
+    /**
+     * Busca la primera hora, a partir de la indicada, en la que ni el veterinario ni la
+     * mascota tienen una cita que se solape con una nueva.
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param idMascota     el ID de la mascota, o 0 para tener en cuenta solo al veterinario
+     * @param desde         la primera hora aceptable
+     * @return la hora de inicio del primer hueco libre
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    LocalDateTime buscarSiguienteHuecoLibre(int idVeterinario, int idMascota, LocalDateTime desde) throws BusinessException;
 }
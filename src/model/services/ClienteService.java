@@ -3,7 +3,9 @@ package model.services;
 import model.entities.Cliente;
 import model.exceptions.BusinessException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de clientes.
@@ -17,9 +19,19 @@ public interface ClienteService {
      * Guarda un nuevo cliente en el sistema.
      *
      * @param cliente el objeto Cliente a guardar
+     * @return el cliente guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarCliente(Cliente cliente) throws BusinessException;
+    Cliente guardarCliente(Cliente cliente) throws BusinessException;
+
+    /**
+     * Guarda varios clientes en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param clientes los clientes a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarClientes(List<Cliente> clientes) throws BusinessException;
 
     /**
      * Obtiene todos los clientes registrados en el sistema.
@@ -29,6 +41,24 @@ public interface ClienteService {
      */
     List<Cliente> obtenerTodosLosClientes() throws BusinessException;
 
+    /**
+     * Obtiene una página de clientes ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Cliente> obtenerClientesPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Cuenta los clientes registrados en el sistema.
+     *
+     * @return número total de clientes
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarClientes() throws BusinessException;
+
     /**
      * Busca un cliente por su ID.
      *
@@ -38,6 +68,15 @@ public interface ClienteService {
      */
     Cliente buscarClientePorId(int id) throws BusinessException;
 
+    /**
+     * Busca los clientes con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cliente con los clientes encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Cliente> buscarClientesPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de un cliente existente.
      *
@@ -46,6 +85,14 @@ public interface ClienteService {
      */
     void actualizarCliente(Cliente cliente) throws BusinessException;
 
+    /**
+     * Actualiza varios clientes en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param clientes los clientes con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarClientes(List<Cliente> clientes) throws BusinessException;
+
     /**
      * Elimina un cliente del sistema.
      *
@@ -53,4 +100,20 @@ public interface ClienteService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarCliente(int id) throws BusinessException;
-}
\ No newline at end of file
+
+    /**
+     * Elimina varios clientes en una sola operación por lotes.
+     *
+     * @param ids los IDs de los clientes a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarClientes(Collection<Integer> ids) throws BusinessException;
+
+    /**
+     * Comprueba que un cliente cumpla las reglas de negocio, sin guardarlo.
+     *
+     * @param cliente el objeto Cliente a validar
+     * @throws BusinessException si no cumple alguna regla
+     */
+    void validarCliente(Cliente cliente) throws BusinessException;
+}
@@ -2,8 +2,13 @@ package model.services;
 
 import model.entities.DetalleFactura;
 import model.exceptions.BusinessException;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de detalles de factura.
@@ -17,9 +22,19 @@ public interface DetalleFacturaService {
      * Guarda un nuevo detalle de factura en el sistema.
      *
      * @param detalleFactura el objeto DetalleFactura a guardar
+     * @return el detalle guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarDetalleFactura(DetalleFactura detalleFactura) throws BusinessException;
+    DetalleFactura guardarDetalleFactura(DetalleFactura detalleFactura) throws BusinessException;
+
+    /**
+     * Guarda varios detalles de factura en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param detalles los detalles a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarDetallesFactura(List<DetalleFactura> detalles) throws BusinessException;
 
     /**
      * Obtiene todos los detalles de factura registrados en el sistema.
@@ -29,6 +44,26 @@ public interface DetalleFacturaService {
      */
     List<DetalleFactura> obtenerTodosLosDetallesFactura() throws BusinessException;
 
+    /**
+     * Obtiene una página de detalles factura ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<DetalleFactura> obtenerDetallesFacturaPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Obtiene la página de detalles factura con ID mayor que el indicado (paginación por clave).
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<DetalleFactura> obtenerDetallesFacturaDespuesDe(int ultimoId, int limite) throws BusinessException;
+
     /**
      * Busca un detalle de factura por su ID.
      *
@@ -38,6 +73,15 @@ public interface DetalleFacturaService {
      */
     DetalleFactura buscarDetalleFacturaPorId(int id) throws BusinessException;
 
+    /**
+     * Busca los detalles de factura con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a detalle con los detalles de factura encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, DetalleFactura> buscarDetallesFacturaPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Obtiene los detalles de factura asociados a una factura específica.
      *
@@ -47,6 +91,19 @@ public interface DetalleFacturaService {
      */
     List<DetalleFactura> obtenerDetalleFacturaPorIdFactura(int idFactura) throws BusinessException;
 
+    /**
+     * Exporta a un fichero CSV los detalles de las facturas emitidas entre dos fechas,
+     * ambas incluidas. Los detalles se leen y escriben uno a uno, sin cargarlos todos en memoria.
+     *
+     * @param desde    la primera fecha de emisión de la factura
+     * @param hasta    la última fecha de emisión de la factura
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de detalles exportados
+     * @throws BusinessException si los datos no son válidos o falla la exportación
+     */
+    long exportarDetallesFacturaCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) throws BusinessException;
+
     /**
      * Actualiza los datos de un detalle de factura existente.
      *
@@ -55,6 +112,14 @@ public interface DetalleFacturaService {
      */
     void actualizarDetalleFactura(DetalleFactura detalleFactura) throws BusinessException;
 
+    /**
+     * Actualiza varios detalles de factura en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param detalles los detalles con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarDetallesFactura(List<DetalleFactura> detalles) throws BusinessException;
+
     /**
      * Elimina un detalle de factura del sistema.
      *
@@ -62,4 +127,12 @@ public interface DetalleFacturaService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarDetalleFactura(int id) throws BusinessException;
+
+    /**
+     * Elimina varios detalles de factura en una sola operación por lotes.
+     *
+     * @param ids los IDs de los detalles a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarDetallesFactura(Collection<Integer> ids) throws BusinessException;
 }
\ No newline at end of file
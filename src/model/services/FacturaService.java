@@ -1,9 +1,16 @@
 package model.services;
 
+import model.dto.FacturaCreadaDTO;
+import model.entities.DetalleFactura;
 import model.entities.Factura;
 import model.exceptions.BusinessException;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de facturas.
@@ -17,9 +24,30 @@ public interface FacturaService {
      * Guarda una nueva factura en el sistema.
      *
      * @param factura el objeto Factura a guardar
+     * @return la factura guardada, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarFactura(Factura factura) throws BusinessException;
+    Factura guardarFactura(Factura factura) throws BusinessException;
+
+    /**
+     * Guarda varias facturas sin detalles en una sola operación por lotes. Si alguna no es válida no se guarda ninguna.
+     *
+     * @param facturas las facturas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no es válida o hay un error durante el guardado
+     */
+    List<Integer> guardarFacturas(List<Factura> facturas) throws BusinessException;
+
+    /**
+     * Crea una factura junto con todos sus detalles en una sola transacción.
+     * El total de la factura se calcula a partir de los detalles.
+     *
+     * @param factura  la factura a crear
+     * @param detalles los detalles de la factura
+     * @return las claves generadas y el total calculado
+     * @throws BusinessException si los datos no son válidos o falla la transacción
+     */
+    FacturaCreadaDTO crearFacturaConDetalles(Factura factura, List<DetalleFactura> detalles) throws BusinessException;
 
     /**
      * Obtiene todas las facturas registradas en el sistema.
@@ -29,6 +57,34 @@ public interface FacturaService {
      */
     List<Factura> obtenerTodasLasFacturas() throws BusinessException;
 
+    /**
+     * Obtiene una página de facturas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Factura> obtenerFacturasPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Obtiene la página de facturas con ID mayor que el indicado (paginación por clave).
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Factura> obtenerFacturasDespuesDe(int ultimoId, int limite) throws BusinessException;
+
+    /**
+     * Cuenta las facturas registradas en el sistema.
+     *
+     * @return número total de facturas
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarFacturas() throws BusinessException;
+
     /**
      * Busca una factura por su ID.
      *
@@ -38,6 +94,57 @@ public interface FacturaService {
      */
     Factura buscarFacturaPorId(int id) throws BusinessException;
 
+    /**
+     * Busca las facturas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a factura con las facturas encontradas
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Factura> buscarFacturasPorIds(Collection<Integer> ids) throws BusinessException;
+
+    /**
+     * Recalcula el total de una factura a partir de sus detalles.
+     *
+     * @param idFactura el ID de la factura
+     * @return el nuevo total de la factura
+     * @throws BusinessException si la factura no existe o falla la actualización
+     */
+    double recalcularTotalFactura(int idFactura) throws BusinessException;
+
+    /**
+     * Recalcula los totales de varias facturas a partir de sus detalles.
+     *
+     * @param ids los IDs de las facturas
+     * @return el número de facturas recalculadas
+     * @throws BusinessException si falla la actualización
+     */
+    int recalcularTotalesFacturas(Collection<Integer> ids) throws BusinessException;
+
+    /**
+     * Recalcula los totales de las facturas emitidas entre dos fechas, ambas incluidas,
+     * por ejemplo para la conciliación de cierre del día.
+     *
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return el número de facturas recalculadas
+     * @throws BusinessException si el rango no es válido o falla la actualización
+     */
+    int recalcularTotalesFacturasEntre(LocalDate desde, LocalDate hasta) throws BusinessException;
+
+    /**
+     * Exporta a un fichero CSV las facturas emitidas entre dos fechas, ambas incluidas.
+     * Las facturas se leen y escriben una a una, sin cargarlas todas en memoria.
+     *
+     * @param desde    la primera fecha de emisión
+     * @param hasta    la última fecha de emisión
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de facturas exportadas
+     * @throws BusinessException si los datos no son válidos o falla la exportación
+     */
+    long exportarFacturasCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) throws BusinessException;
+
     /**
      * Actualiza los datos de una factura existente.
      *
@@ -46,6 +153,14 @@ public interface FacturaService {
      */
     void actualizarFactura(Factura factura) throws BusinessException;
 
+    /**
+     * Actualiza varias facturas en una sola operación por lotes. Si alguna no es válida no se actualiza ninguna.
+     *
+     * @param facturas las facturas con los datos actualizados
+     * @throws BusinessException si alguna no es válida o hay un error durante la actualización
+     */
+    void actualizarFacturas(List<Factura> facturas) throws BusinessException;
+
     /**
      * Elimina una factura del sistema.
      *
@@ -53,4 +168,12 @@ public interface FacturaService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarFactura(int id) throws BusinessException;
+
+    /**
+     * Elimina varias facturas en una sola operación por lotes.
+     *
+     * @param ids los IDs de las facturas a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarFacturas(Collection<Integer> ids) throws BusinessException;
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package model.services;
+
+import model.dto.ResultadoImportacionDTO;
+import model.exceptions.BusinessException;
+
+import java.nio.file.Path;
+
+/**
+ * Interfaz para el servicio de importación masiva de clientes y mascotas desde CSV.
+ * Cada importación pertenece a un lote (por ejemplo, la clínica que se incorpora):
+ * las mascotas de un lote pueden indicar su dueño con la referencia que tenía en el
+ * fichero de clientes del mismo lote, y repetir la importación de un fichero del lote
+ * continúa donde se quedó la anterior.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public interface ImportacionService {
+
+    /**
+     * Importa clientes desde un CSV con las columnas {@code nombre} (obligatoria),
+     * {@code telefono} y {@code referencia}.
+     *
+     * @param archivo  el fichero CSV, con cabecera
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación
+     * @throws BusinessException si el fichero no es válido o falla la escritura; lo ya
+     *                           confirmado se conserva y se omite al repetir la importación
+     */
+    ResultadoImportacionDTO importarClientes(Path archivo, String lote, ProgresoImportacion progreso) throws BusinessException;
+
+    /**
+     * Importa mascotas desde un CSV con las columnas {@code nombre} (obligatoria),
+     * {@code especie}, {@code raza}, {@code edad}, {@code sexo} y el dueño, indicado con
+     * {@code referenciaCliente} (referencia del fichero de clientes del lote) o con
+     * {@code idCliente} (cliente ya existente).
+     *
+     * @param archivo  el fichero CSV, con cabecera
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación
+     * @throws BusinessException si el fichero no es válido o falla la escritura; lo ya
+     *                           confirmado se conserva y se omite al repetir la importación
+     */
+    ResultadoImportacionDTO importarMascotas(Path archivo, String lote, ProgresoImportacion progreso) throws BusinessException;
+
+    /**
+     * Receptor del progreso de una importación. Se invoca desde el hilo que importa
+     * cada vez que se confirma un bloque de filas.
+     */
+    @FunctionalInterface
+    interface ProgresoImportacion {
+
+        /**
+         * Informa del avance de la importación.
+         *
+         * @param filasLeidas     Filas de datos leídas hasta el momento en esta ejecución
+         * @param insertadas      Filas insertadas hasta el momento
+         * @param rechazadas      Filas rechazadas hasta el momento
+         * @param filasPorSegundo Rendimiento medio desde el inicio
+         */
+        void avance(int filasLeidas, int insertadas, int rechazadas, double filasPorSegundo);
+    }
+}
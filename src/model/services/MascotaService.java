@@ -3,7 +3,9 @@ package model.services;
 import model.entities.Mascota;
 import model.exceptions.BusinessException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de mascotas.
@@ -17,9 +19,19 @@ public interface MascotaService {
      * Guarda una nueva mascota en el sistema.
      *
      * @param mascota el objeto Mascota a guardar
+     * @return la mascota guardada, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarMascota(Mascota mascota) throws BusinessException;
+    Mascota guardarMascota(Mascota mascota) throws BusinessException;
+
+    /**
+     * Guarda varias mascotas en una sola operación por lotes. Si alguna no es válida no se guarda ninguna.
+     *
+     * @param mascotas las mascotas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no es válida o hay un error durante el guardado
+     */
+    List<Integer> guardarMascotas(List<Mascota> mascotas) throws BusinessException;
 
     /**
      * Obtiene todas las mascotas registradas en el sistema.
@@ -29,6 +41,24 @@ public interface MascotaService {
      */
     List<Mascota> obtenerTodosLasMascotas() throws BusinessException;
 
+    /**
+     * Obtiene una página de mascotas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Mascota> obtenerMascotasPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Cuenta las mascotas registradas en el sistema.
+     *
+     * @return número total de mascotas
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarMascotas() throws BusinessException;
+
     /**
      * Busca una mascota por su ID.
      *
@@ -38,6 +68,15 @@ public interface MascotaService {
      */
     Mascota buscarMascotaPorId(int id) throws BusinessException;
 
+    /**
+     * Busca las mascotas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a mascota con las mascotas encontradas
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Mascota> buscarMascotasPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de una mascota existente.
      *
@@ -46,6 +85,14 @@ public interface MascotaService {
      */
     void actualizarMascota(Mascota mascota) throws BusinessException;
 
+    /**
+     * Actualiza varias mascotas en una sola operación por lotes. Si alguna no es válida no se actualiza ninguna.
+     *
+     * @param mascotas las mascotas con los datos actualizados
+     * @throws BusinessException si alguna no es válida o hay un error durante la actualización
+     */
+    void actualizarMascotas(List<Mascota> mascotas) throws BusinessException;
+
     /**
      * Elimina una mascota del sistema.
      *
@@ -53,4 +100,20 @@ public interface MascotaService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarMascota(int id) throws BusinessException;
-}
\ No newline at end of file
+
+    /**
+     * Elimina varias mascotas en una sola operación por lotes.
+     *
+     * @param ids los IDs de las mascotas a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarMascotas(Collection<Integer> ids) throws BusinessException;
+
+    /**
+     * Comprueba que una mascota cumpla las reglas de negocio, sin guardarla.
+     *
+     * @param mascota el objeto Mascota a validar
+     * @throws BusinessException si no cumple alguna regla
+     */
+    void validarMascota(Mascota mascota) throws BusinessException;
+}
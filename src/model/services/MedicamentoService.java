@@ -1,10 +1,14 @@
 package model.services;
 
 import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
 import model.entities.Medicamento;
 import model.exceptions.BusinessException;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de medicamentos.
@@ -18,9 +22,19 @@ public interface MedicamentoService {
      * Guarda un nuevo medicamento en el sistema.
      *
      * @param medicamento el objeto Medicamento a guardar
+     * @return el medicamento guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarMedicamento(Medicamento medicamento) throws BusinessException;
+    Medicamento guardarMedicamento(Medicamento medicamento) throws BusinessException;
+
+    /**
+     * Guarda varios medicamentos en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param medicamentos los medicamentos a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarMedicamentos(List<Medicamento> medicamentos) throws BusinessException;
 
     /**
      * Obtiene todos los medicamentos registrados en el sistema.
@@ -30,6 +44,24 @@ public interface MedicamentoService {
      */
     List<Medicamento> obtenerTodosLosMedicamentos() throws BusinessException;
 
+    /**
+     * Obtiene una página de medicamentos ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Medicamento> obtenerMedicamentosPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Cuenta los medicamentos registrados en el sistema.
+     *
+     * @return número total de medicamentos
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarMedicamentos() throws BusinessException;
+
     /**
      * Busca un medicamento por su ID.
      *
@@ -39,6 +71,15 @@ public interface MedicamentoService {
      */
     Medicamento buscarMedicamentoPorId(int id) throws BusinessException;
 
+    /**
+     * Busca los medicamentos con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a medicamento con los medicamentos encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Medicamento> buscarMedicamentosPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de un medicamento existente.
      *
@@ -47,6 +88,14 @@ public interface MedicamentoService {
      */
     void actualizarMedicamento(Medicamento medicamento) throws BusinessException;
 
+    /**
+     * Actualiza varios medicamentos en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param medicamentos los medicamentos con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarMedicamentos(List<Medicamento> medicamentos) throws BusinessException;
+
     /**
      * Elimina un medicamento del sistema.
      *
@@ -55,6 +104,14 @@ public interface MedicamentoService {
      */
     void eliminarMedicamento(int id) throws BusinessException;
 
+    /**
+     * Elimina varios medicamentos en una sola operación por lotes.
+     *
+     * @param ids los IDs de los medicamentos a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarMedicamentos(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Obtiene un reporte de los medicamentos más vendidos.
      *
@@ -62,4 +119,22 @@ public interface MedicamentoService {
      * @throws BusinessException si ocurre un error durante la consulta
      */
     List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos() throws BusinessException;
+
+    /**
+     * Obtiene un reporte de los medicamentos más vendidos en el día, mes o año que
+     * contiene una fecha.
+     *
+     * @param periodo la ventana de tiempo del reporte
+     * @param fecha   una fecha contenida en la ventana
+     * @return lista de DTOs con información de medicamentos más vendidos
+     * @throws BusinessException si los datos no son válidos o falla la consulta
+     */
+    List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos(PeriodoVentas periodo, LocalDate fecha) throws BusinessException;
+
+    /**
+     * Vuelve a calcular las ventas acumuladas de medicamentos a partir de las facturas.
+     *
+     * @throws BusinessException si ocurre un error durante la reconstrucción
+     */
+    void reconstruirVentasMedicamentos() throws BusinessException;
 }
\ No newline at end of file
@@ -3,7 +3,9 @@ package model.services;
 import model.entities.Servicio;
 import model.exceptions.BusinessException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de servicios.
@@ -17,9 +19,19 @@ public interface ServicioService {
      * Guarda un nuevo servicio en el sistema.
      *
      * @param servicio el objeto Servicio a guardar
+     * @return el servicio guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarServicio(Servicio servicio) throws BusinessException;
+    Servicio guardarServicio(Servicio servicio) throws BusinessException;
+
+    /**
+     * Guarda varios servicios en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param servicios los servicios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarServicios(List<Servicio> servicios) throws BusinessException;
 
     /**
      * Obtiene todos los servicios registrados en el sistema.
@@ -29,6 +41,24 @@ public interface ServicioService {
      */
     List<Servicio> obtenerTodosLosServicios() throws BusinessException;
 
+    /**
+     * Obtiene una página de servicios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Servicio> obtenerServiciosPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Cuenta los servicios registrados en el sistema.
+     *
+     * @return número total de servicios
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarServicios() throws BusinessException;
+
     /**
      * Busca un servicio por su ID.
      *
@@ -38,6 +68,15 @@ public interface ServicioService {
      */
     Servicio buscarServicioPorId(int id) throws BusinessException;
 
+    /**
+     * Busca los servicios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a servicio con los servicios encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Servicio> buscarServiciosPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de un servicio existente.
      *
@@ -46,6 +85,14 @@ public interface ServicioService {
      */
     void actualizarServicio(Servicio servicio) throws BusinessException;
 
+    /**
+     * Actualiza varios servicios en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param servicios los servicios con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarServicios(List<Servicio> servicios) throws BusinessException;
+
     /**
      * Elimina un servicio del sistema.
      *
@@ -53,4 +100,12 @@ public interface ServicioService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarServicio(int id) throws BusinessException;
+
+    /**
+     * Elimina varios servicios en una sola operación por lotes.
+     *
+     * @param ids los IDs de los servicios a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarServicios(Collection<Integer> ids) throws BusinessException;
 }
\ No newline at end of file
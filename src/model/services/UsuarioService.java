@@ -3,7 +3,9 @@ package model.services;
 import model.entities.Usuario;
 import model.exceptions.BusinessException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de usuarios.
@@ -17,9 +19,19 @@ public interface UsuarioService {
      * Guarda un nuevo usuario en el sistema.
      *
      * @param usuario el objeto Usuario a guardar
+     * @return el usuario guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarUsuario(Usuario usuario) throws BusinessException;
+    Usuario guardarUsuario(Usuario usuario) throws BusinessException;
+
+    /**
+     * Guarda varios usuarios en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param usuarios los usuarios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarUsuarios(List<Usuario> usuarios) throws BusinessException;
 
     /**
      * Obtiene todos los usuarios registrados en el sistema.
@@ -38,6 +50,15 @@ public interface UsuarioService {
      */
     Usuario buscarUsuarioPorId(int id) throws BusinessException;
 
+    /**
+     * Busca los usuarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a usuario con los usuarios encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Usuario> buscarUsuariosPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Busca un usuario por su nombre de usuario.
      *
@@ -54,4 +75,12 @@ public interface UsuarioService {
      * @throws BusinessException si ocurre un error durante la actualización
      */
     void actualizarUsuario(Usuario usuario) throws BusinessException;
+
+    /**
+     * Actualiza varios usuarios en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param usuarios los usuarios con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarUsuarios(List<Usuario> usuarios) throws BusinessException;
 }
\ No newline at end of file
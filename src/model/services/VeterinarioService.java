@@ -3,7 +3,9 @@ package model.services;
 import model.entities.Veterinario;
 import model.exceptions.BusinessException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interfaz para el servicio de gestión de veterinarios.
@@ -17,9 +19,19 @@ public interface VeterinarioService {
      * Guarda un nuevo veterinario en el sistema.
      *
      * @param veterinario el objeto Veterinario a guardar
+     * @return el veterinario guardado, con su ID asignado
      * @throws BusinessException si ocurre un error durante el guardado
      */
-    void guardarVeterinario(Veterinario veterinario) throws BusinessException;
+    Veterinario guardarVeterinario(Veterinario veterinario) throws BusinessException;
+
+    /**
+     * Guarda varios veterinarios en una sola operación por lotes. Si alguno no es válido no se guarda ninguno.
+     *
+     * @param veterinarios los veterinarios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no es válido o hay un error durante el guardado
+     */
+    List<Integer> guardarVeterinarios(List<Veterinario> veterinarios) throws BusinessException;
 
     /**
      * Obtiene todos los veterinarios registrados en el sistema.
@@ -29,6 +41,24 @@ public interface VeterinarioService {
      */
     List<Veterinario> obtenerTodosLosVeterinarios() throws BusinessException;
 
+    /**
+     * Obtiene una página de veterinarios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o falla la consulta
+     */
+    List<Veterinario> obtenerVeterinariosPagina(int offset, int limite) throws BusinessException;
+
+    /**
+     * Cuenta los veterinarios registrados en el sistema.
+     *
+     * @return número total de veterinarios
+     * @throws BusinessException si ocurre un error durante la consulta
+     */
+    int contarVeterinarios() throws BusinessException;
+
     /**
      * Busca un veterinario por su ID.
      *
@@ -38,6 +68,15 @@ public interface VeterinarioService {
      */
     Veterinario buscarVeterinarioPorId(int id) throws BusinessException;
 
+    /**
+     * Busca los veterinarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a veterinario con los veterinarios encontrados
+     * @throws BusinessException si ocurre un error durante la búsqueda
+     */
+    Map<Integer, Veterinario> buscarVeterinariosPorIds(Collection<Integer> ids) throws BusinessException;
+
     /**
      * Actualiza los datos de un veterinario existente.
      *
@@ -46,6 +85,14 @@ public interface VeterinarioService {
      */
     void actualizarVeterinario(Veterinario veterinario) throws BusinessException;
 
+    /**
+     * Actualiza varios veterinarios en una sola operación por lotes. Si alguno no es válido no se actualiza ninguno.
+     *
+     * @param veterinarios los veterinarios con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay un error durante la actualización
+     */
+    void actualizarVeterinarios(List<Veterinario> veterinarios) throws BusinessException;
+
     /**
      * Elimina un veterinario del sistema.
      *
@@ -53,4 +100,12 @@ public interface VeterinarioService {
      * @throws BusinessException si ocurre un error durante la eliminación
      */
     void eliminarVeterinario(int id) throws BusinessException;
+
+    /**
+     * Elimina varios veterinarios en una sola operación por lotes.
+     *
+     * @param ids los IDs de los veterinarios a eliminar
+     * @throws BusinessException si ocurre un error durante la eliminación
+     */
+    void eliminarVeterinarios(Collection<Integer> ids) throws BusinessException;
 }
\ No newline at end of file
@@ -0,0 +1,176 @@
+package model.services.impl;
+
+import model.entities.Cita;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Índice en memoria de las citas de cada veterinario y de cada mascota, ordenadas por
+ * fecha y hora, para detectar reservas solapadas sin recorrer todas las citas.
+ * Todas las citas duran lo mismo, así que una cita que empieza en {@code t} choca con
+ * otra que empieza en {@code s} si y solo si {@code s - duracion < t < s + duracion};
+ * basta con buscar en el conjunto ordenado la primera cita posterior a {@code s - duracion},
+ * lo que cuesta O(log n).
+ * <p>
+ * Las citas canceladas no ocupan hueco y no se indexan. Las de un lote que aún no se ha
+ * guardado se pueden reservar con IDs negativos provisionales. La clase no es segura entre hilos;
+ * {@link CitaServiceImpl} la usa siempre bajo su propio bloqueo.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+final class AgendaCitas {
+
+    private static final Comparator<Reserva> ORDEN = Comparator.comparing(Reserva::inicio).thenComparingInt(Reserva::idCita);
+
+    private final Duration duracion;
+    private final Map<Integer, NavigableSet<Reserva>> porVeterinario = new HashMap<>();
+    private final Map<Integer, NavigableSet<Reserva>> porMascota = new HashMap<>();
+    private final Map<Integer, Cita> porId = new HashMap<>();
+
+    /**
+     * Constructor que crea una agenda vacía.
+     *
+     * @param duracion Duración de cada cita
+     */
+    AgendaCitas(Duration duracion) {
+        this.duracion = duracion;
+    }
+
+    /**
+     * Indexa un conjunto de citas, por ejemplo las leídas al cargar la agenda.
+     *
+     * @param citas Citas a indexar
+     */
+    void registrarTodas(Collection<Cita> citas) {
+        citas.forEach(this::registrar);
+    }
+
+    /**
+     * Indexa una cita, sustituyendo la versión anterior con el mismo ID si la hay.
+     *
+     * @param cita Cita guardada, con su ID asignado, o reservada con un ID provisional negativo
+     */
+    void registrar(Cita cita) {
+        quitar(cita.getIdCita());
+        if (cita.getIdCita() == 0 || cita.getFechaHora() == null || esCancelada(cita)) {
+            return;
+        }
+        // Se guarda una copia para que cambiar la entidad fuera no desordene los conjuntos
+        Cita copia = new Cita(cita.getIdCita(), cita.getFechaHora(), cita.getMotivo(), cita.getEstado(),
+                cita.getIdMascota(), cita.getIdVeterinario());
+        porId.put(copia.getIdCita(), copia);
+        Reserva reserva = new Reserva(copia.getFechaHora(), copia.getIdCita());
+        porVeterinario.computeIfAbsent(copia.getIdVeterinario(), id -> new TreeSet<>(ORDEN)).add(reserva);
+        porMascota.computeIfAbsent(copia.getIdMascota(), id -> new TreeSet<>(ORDEN)).add(reserva);
+    }
+
+    /**
+     * Quita una cita del índice, si está.
+     *
+     * @param idCita ID de la cita
+     */
+    void quitar(int idCita) {
+        Cita anterior = porId.remove(idCita);
+        if (anterior == null) {
+            return;
+        }
+        Reserva reserva = new Reserva(anterior.getFechaHora(), idCita);
+        quitar(porVeterinario, anterior.getIdVeterinario(), reserva);
+        quitar(porMascota, anterior.getIdMascota(), reserva);
+    }
+
+    /**
+     * Busca una cita del veterinario que se solape con una cita que empiece a la hora indicada.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param inicio        Fecha y hora de inicio de la cita a comprobar
+     * @param ignorar       ID de una cita que no cuenta como conflicto (la propia al editarla), o 0
+     * @return La cita que se solapa, o null si el hueco está libre
+     */
+    Cita conflictoVeterinario(int idVeterinario, LocalDateTime inicio, int ignorar) {
+        return conflicto(porVeterinario.get(idVeterinario), inicio, ignorar);
+    }
+
+    /**
+     * Busca una cita de la mascota que se solape con una cita que empiece a la hora indicada.
+     *
+     * @param idMascota ID de la mascota
+     * @param inicio    Fecha y hora de inicio de la cita a comprobar
+     * @param ignorar   ID de una cita que no cuenta como conflicto (la propia al editarla), o 0
+     * @return La cita que se solapa, o null si el hueco está libre
+     */
+    Cita conflictoMascota(int idMascota, LocalDateTime inicio, int ignorar) {
+        return conflicto(porMascota.get(idMascota), inicio, ignorar);
+    }
+
+    /**
+     * Busca la primera hora, a partir de la indicada, en la que el veterinario y la mascota
+     * están libres durante una cita completa. Cada conflicto hace saltar al final de la cita
+     * que lo provoca, así que el coste es O(log n) por cada cita seguida que haya que saltar.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param idMascota     ID de la mascota, o 0 para tener en cuenta solo al veterinario
+     * @param desde         Primera hora posible
+     * @param ignorar       ID de una cita que no ocupa hueco (la propia al moverla), o 0
+     * @return Hora de inicio del primer hueco libre
+     */
+    LocalDateTime siguienteHuecoLibre(int idVeterinario, int idMascota, LocalDateTime desde, int ignorar) {
+        LocalDateTime candidata = desde;
+        while (true) {
+            Cita ocupada = conflictoVeterinario(idVeterinario, candidata, ignorar);
+            if (ocupada == null && idMascota > 0) {
+                ocupada = conflictoMascota(idMascota, candidata, ignorar);
+            }
+            if (ocupada == null) {
+                return candidata;
+            }
+            candidata = ocupada.getFechaHora().plus(duracion);
+        }
+    }
+
+    private Cita conflicto(NavigableSet<Reserva> agenda, LocalDateTime inicio, int ignorar) {
+        if (agenda == null) {
+            return null;
+        }
+        LocalDateTime fin = inicio.plus(duracion);
+        // Primera cita que empieza después de inicio - duración, es decir, que aún no ha terminado
+        Reserva desde = new Reserva(inicio.minus(duracion), Integer.MAX_VALUE);
+        for (Reserva reserva : agenda.tailSet(desde, false)) {
+            if (!reserva.inicio().isBefore(fin)) {
+                return null;
+            }
+            if (reserva.idCita() != ignorar) {
+                return porId.get(reserva.idCita());
+            }
+        }
+        return null;
+    }
+
+    private static void quitar(Map<Integer, NavigableSet<Reserva>> indice, int clave, Reserva reserva) {
+        NavigableSet<Reserva> agenda = indice.get(clave);
+        if (agenda != null) {
+            agenda.remove(reserva);
+            if (agenda.isEmpty()) {
+                indice.remove(clave);
+            }
+        }
+    }
+
+    private static boolean esCancelada(Cita cita) {
+        return cita.getEstado() != null && cita.getEstado().trim().equalsIgnoreCase("cancelada");
+    }
+
+    /**
+     * Entrada de los conjuntos ordenados: la hora de inicio y el ID de la cita, que
+     * desempata las citas que empiezan a la misma hora.
+     */
+    private record Reserva(LocalDateTime inicio, int idCita) {}
+}
@@ -0,0 +1,127 @@
+package model.services.impl;
+
+import model.dao.CuboVentas;
+import model.dto.GranularidadVentas;
+import model.dto.TipoVenta;
+import model.dto.VentasItemDTO;
+import model.dto.VentasPeriodoDTO;
+import model.exceptions.BusinessException;
+import model.exceptions.PersistenceException;
+import model.services.AnaliticaVentasService;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Implementación del servicio de análisis de ventas sobre un {@link CuboVentas}.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class AnaliticaVentasServiceImpl implements AnaliticaVentasService {
+
+    /** Número máximo de intervalos de una serie, para no generar series de días de décadas. */
+    private static final int MAX_INTERVALOS = 1000;
+
+    private final CuboVentas cuboVentas;
+
+    /**
+     * Constructor que inicializa el servicio con el cubo de ventas.
+     *
+     * @param cuboVentas el cubo en memoria que responde las consultas
+     */
+    public AnaliticaVentasServiceImpl(CuboVentas cuboVentas) {
+        this.cuboVentas = cuboVentas;
+    }
+
+    /**
+     * Obtiene las unidades y el importe vendidos de cada servicio o medicamento en un rango de fechas.
+     *
+     * @param tipo  el tipo de ítem
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return los ítems con ventas, del de mayor importe al de menor
+     * @throws BusinessException si los datos no son válidos o falla la carga de las ventas
+     */
+    @Override
+    public List<VentasItemDTO> obtenerVentasPorItem(TipoVenta tipo, LocalDate desde, LocalDate hasta) throws BusinessException {
+        validarConsulta(tipo, desde, hasta);
+        try {
+            return cuboVentas.totalesPorItem(tipo, desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener las ventas por ítem: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene la evolución de las ventas de un ítem, o de todos los de un tipo, por día, semana o mes.
+     *
+     * @param tipo         el tipo de ítem
+     * @param idItem       el ID del servicio o medicamento, o 0 para todos los del tipo
+     * @param granularidad el tamaño de los intervalos
+     * @param desde        la primera fecha de emisión
+     * @param hasta        la última fecha de emisión
+     * @return un intervalo por cada día, semana o mes del rango, ordenados por fecha
+     * @throws BusinessException si los datos no son válidos, el rango tiene demasiados
+     *                           intervalos o falla la carga de las ventas
+     */
+    @Override
+    public List<VentasPeriodoDTO> obtenerSerieVentas(TipoVenta tipo, int idItem, GranularidadVentas granularidad,
+                                                     LocalDate desde, LocalDate hasta) throws BusinessException {
+        validarConsulta(tipo, desde, hasta);
+        if (granularidad == null) {
+            throw new BusinessException("La granularidad es requerida");
+        }
+        if (idItem < 0) {
+            throw new BusinessException("El ID del ítem no puede ser negativo");
+        }
+        LocalDate limite = desde;
+        for (int i = 0; i < MAX_INTERVALOS; i++) {
+            limite = granularidad.siguiente(limite);
+        }
+        if (!hasta.isBefore(limite)) {
+            throw new BusinessException("El rango tiene más de " + MAX_INTERVALOS + " intervalos; elija una granularidad mayor");
+        }
+        try {
+            return cuboVentas.serie(tipo, idItem, granularidad, desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener la serie de ventas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a leer todas las ventas de la base de datos.
+     *
+     * @return el número de detalles de factura con venta cargados
+     * @throws BusinessException si falla la carga de las ventas
+     */
+    @Override
+    public int recargarVentas() throws BusinessException {
+        try {
+            cuboVentas.cargar();
+            return cuboVentas.getDetalles();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al recargar las ventas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Valida el tipo y el rango de fechas de una consulta.
+     *
+     * @param tipo  el tipo de ítem, requerido
+     * @param desde primera fecha del rango, requerida
+     * @param hasta última fecha del rango, requerida y no anterior a la primera
+     * @throws BusinessException si algún dato no es válido
+     */
+    private void validarConsulta(TipoVenta tipo, LocalDate desde, LocalDate hasta) throws BusinessException {
+        if (tipo == null) {
+            throw new BusinessException("El tipo de venta es requerido");
+        }
+        if (desde == null || hasta == null) {
+            throw new BusinessException("Las fechas del rango son requeridas");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final");
+        }
+    }
+}
@@ -2,11 +2,15 @@ package model.services.impl;
 
 import model.dao.UsuarioDAO;
 import model.entities.Usuario;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.AuthException;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.AuthService;
 
+import java.util.List;
+
 /**
  * Implementación del servicio de autenticación para usuarios del sistema veterinario.
  * Proporciona métodos para autenticación, registro y verificación de estado de usuarios.
@@ -78,6 +82,8 @@ public class AuthServiceImpl implements AuthService {
             }
 
             usuarioDAO.guardar(usuario);
+
+            EventosDominio.publicar(CambioEntidad.creados(Usuario.class, List.of(usuario), Usuario::getIdUsuario));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al registrar usuario: " + e.getMessage());
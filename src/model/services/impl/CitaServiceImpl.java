@@ -1,17 +1,28 @@
 package model.services.impl;
 
 import model.dao.CitaDAO;
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.CitaService;
+import utils.DatabaseConfig;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de citas médicas veterinarias.
  * Proporciona operaciones CRUD para citas con validaciones de negocio.
+ * Antes de guardar o mover una cita comprueba en una agenda en memoria que ni el
+ * veterinario ni la mascota tengan otra cita que se solape; la agenda se carga la
+ * primera vez que se necesita y se mantiene al guardar, actualizar y eliminar.
  *
  * @author Saúl Maldonado
  * @version 1.0
@@ -19,32 +30,103 @@ import java.util.List;
  */
 public class CitaServiceImpl implements CitaService {
 
+    /**
+     * Amplitud máxima, en días, de las consultas por rango de fechas.
+     */
+    public static final int MAX_DIAS_RANGO = 366;
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     private final CitaDAO citaDAO;
+    private final Duration duracionCita;
+
+    // Agenda de reservas; null hasta la primera comprobación o tras invalidarla.
+    // Se accede siempre con el monitor de bloqueoAgenda, que también serializa
+    // la comprobación y la escritura para que dos reservas no ocupen el mismo hueco.
+    private final Object bloqueoAgenda = new Object();
+    private AgendaCitas agenda;
 
     /**
-     * Constructor que inicializa el servicio con un DAO de citas.
+     * Constructor que inicializa el servicio con un DAO de citas y la duración
+     * de cita configurada.
      *
      * @param citaDAO el DAO que manejará las operaciones de persistencia
      */
     public CitaServiceImpl(CitaDAO citaDAO) {
+        this(citaDAO, Duration.ofMinutes(DatabaseConfig.getCitaDuracionMinutos()));
+    }
+
+    /**
+     * Constructor que inicializa el servicio con un DAO de citas y una duración de cita.
+     *
+     * @param citaDAO      el DAO que manejará las operaciones de persistencia
+     * @param duracionCita duración de cada cita, usada para detectar solapamientos
+     */
+    public CitaServiceImpl(CitaDAO citaDAO, Duration duracionCita) {
         this.citaDAO = citaDAO;
+        this.duracionCita = duracionCita;
     }
 
     /**
      * Guarda una nueva cita después de validar sus datos.
      *
      * @param cita la cita a guardar
+     * @return la cita guardada, con su ID asignado
      * @throws BusinessException si la cita no cumple las validaciones o hay error de persistencia
      * @see #validarCita(Cita)
      */
     @Override
-    public void guardarCita(Cita cita) throws BusinessException {
+    public Cita guardarCita(Cita cita) throws BusinessException {
         validarCita(cita);
-        try {
-            citaDAO.guardar(cita);
-        } catch (PersistenceException e) {
-            throw new BusinessException("Error al guardar la cita: " + e.getMessage());
+        synchronized (bloqueoAgenda) {
+            validarHueco(cita);
+            try {
+                citaDAO.guardar(cita);
+            } catch (PersistenceException e) {
+                throw new BusinessException("Error al guardar la cita: " + e.getMessage());
+            }
+            registrarEnAgenda(cita);
         }
+        EventosDominio.publicar(CambioEntidad.creados(Cita.class, List.of(cita), Cita::getIdCita));
+        return cita;
+    }
+
+    /**
+     * Guarda varias citas con inserciones por lotes después de validarlas todas. Cada cita
+     * se reserva en la agenda con un ID provisional mientras se validan las siguientes, de
+     * modo que también se detectan los solapamientos dentro del lote.
+     *
+     * @param citas las citas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no cumple las validaciones, se solapa con otra o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarCitas(List<Cita> citas) throws BusinessException {
+        for (Cita cita : citas) {
+            validarCita(cita);
+        }
+        List<Integer> ids;
+        synchronized (bloqueoAgenda) {
+            AgendaCitas agendaActual = obtenerAgenda();
+            try {
+                for (int i = 0; i < citas.size(); i++) {
+                    Cita cita = citas.get(i);
+                    validarHueco(cita);
+                    agendaActual.registrar(new Cita(-(i + 1), cita.getFechaHora(), cita.getMotivo(), cita.getEstado(),
+                            cita.getIdMascota(), cita.getIdVeterinario()));
+                }
+                ids = citaDAO.guardarTodos(citas);
+            } catch (PersistenceException e) {
+                throw new BusinessException("Error al guardar las citas: " + e.getMessage());
+            } finally {
+                for (int i = 0; i < citas.size(); i++) {
+                    agendaActual.quitar(-(i + 1));
+                }
+            }
+            citas.forEach(this::registrarEnAgenda);
+        }
+        EventosDominio.publicar(CambioEntidad.creados(Cita.class, citas, Cita::getIdCita));
+        return ids;
     }
 
     /**
@@ -62,6 +144,161 @@ public class CitaServiceImpl implements CitaService {
         }
     }
 
+    /**
+     * Obtiene todas las citas con los nombres de mascota, dueño y veterinario
+     * resueltos en una sola consulta.
+     *
+     * @return lista de citas detalladas
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladas() throws BusinessException {
+        try {
+            return citaDAO.obtenerCitasDetalladas();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener citas detalladas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene una página de citas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return citaDAO.obtenerCitasDetalladasPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de citas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene la página de citas con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasDespuesDe(int ultimoId, int limite) throws BusinessException {
+        validarPagina(ultimoId, limite);
+        try {
+            return citaDAO.obtenerCitasDetalladasDespuesDe(ultimoId, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de citas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas del rango [desde, hasta), ordenadas por fecha y hora.
+     *
+     * @param desde inicio del rango, incluido
+     * @param hasta fin del rango, excluido
+     * @return lista de citas detalladas del rango
+     * @throws BusinessException si el rango no es válido o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasEnRango(LocalDateTime desde, LocalDateTime hasta)
+            throws BusinessException {
+        validarRango(desde, hasta);
+        try {
+            return citaDAO.obtenerCitasDetalladasEnRango(desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener citas del rango: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas de un veterinario en el rango [desde, hasta).
+     *
+     * @param idVeterinario el ID del veterinario
+     * @param desde         inicio del rango, incluido
+     * @param hasta         fin del rango, excluido
+     * @return lista de citas detalladas del veterinario
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorVeterinario(int idVeterinario, LocalDateTime desde,
+                                                                     LocalDateTime hasta) throws BusinessException {
+        if (idVeterinario <= 0) {
+            throw new BusinessException("El ID del veterinario debe ser positivo");
+        }
+        validarRango(desde, hasta);
+        try {
+            return citaDAO.obtenerCitasDetalladasPorVeterinario(idVeterinario, desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener citas del veterinario: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas de una mascota en el rango [desde, hasta).
+     *
+     * @param idMascota el ID de la mascota
+     * @param desde     inicio del rango, incluido
+     * @param hasta     fin del rango, excluido
+     * @return lista de citas detalladas de la mascota
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorMascota(int idMascota, LocalDateTime desde,
+                                                                 LocalDateTime hasta) throws BusinessException {
+        if (idMascota <= 0) {
+            throw new BusinessException("El ID de la mascota debe ser positivo");
+        }
+        validarRango(desde, hasta);
+        try {
+            return citaDAO.obtenerCitasDetalladasPorMascota(idMascota, desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener citas de la mascota: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las citas detalladas con un estado en el rango [desde, hasta).
+     *
+     * @param estado el estado de las citas
+     * @param desde  inicio del rango, incluido
+     * @param hasta  fin del rango, excluido
+     * @return lista de citas detalladas con ese estado
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<CitaDetalleDTO> obtenerCitasDetalladasPorEstado(String estado, LocalDateTime desde,
+                                                                LocalDateTime hasta) throws BusinessException {
+        if (estado == null || estado.trim().isEmpty()) {
+            throw new BusinessException("El estado es requerido");
+        }
+        validarRango(desde, hasta);
+        try {
+            return citaDAO.obtenerCitasDetalladasPorEstado(estado.trim(), desde, hasta);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener citas por estado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta las citas registradas en el sistema.
+     *
+     * @return número total de citas
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarCitas() throws BusinessException {
+        try {
+            return citaDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar citas: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca una cita por su ID en la base de datos.
      *
@@ -85,6 +322,22 @@ public class CitaServiceImpl implements CitaService {
         }
     }
 
+    /**
+     * Busca las citas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cita con las citas encontradas
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Cita> buscarCitasPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return citaDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar citas: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de una cita existente.
      *
@@ -93,16 +346,65 @@ public class CitaServiceImpl implements CitaService {
      */
     @Override
     public void actualizarCita(Cita cita) throws BusinessException {
+        if (cita.getFechaHora() == null) {
+            throw new BusinessException("La fecha/hora es requerida");
+        }
+
         if (cita.getMotivo() == null || cita.getMotivo().trim().isEmpty()) {
             throw new BusinessException("El motivo es requerido");
         }
 
-        try {
-            citaDAO.actualizar(cita);
+        synchronized (bloqueoAgenda) {
+            validarHueco(cita);
+            try {
+                citaDAO.actualizar(cita);
+            }
+            catch (PersistenceException e) {
+                throw new BusinessException("Error al actualizar cita: " + e.getMessage());
+            }
+            registrarEnAgenda(cita);
         }
-        catch (PersistenceException e) {
-            throw new BusinessException("Error al actualizar cita: " + e.getMessage());
+        EventosDominio.publicar(CambioEntidad.actualizados(Cita.class, List.of(cita), Cita::getIdCita));
+    }
+
+    /**
+     * Actualiza varias citas con sentencias por lotes después de validarlas todas. Cada
+     * cita ocupa su nuevo hueco en la agenda antes de validar la siguiente.
+     *
+     * @param citas las citas con los datos actualizados
+     * @throws BusinessException si alguna no es válida, se solapa con otra o hay error de persistencia
+     */
+    @Override
+    public void actualizarCitas(List<Cita> citas) throws BusinessException {
+        for (Cita cita : citas) {
+            if (cita.getFechaHora() == null) {
+                throw new BusinessException("La fecha/hora es requerida");
+            }
+            if (cita.getMotivo() == null || cita.getMotivo().trim().isEmpty()) {
+                throw new BusinessException("El motivo es requerido");
+            }
+        }
+
+        synchronized (bloqueoAgenda) {
+            AgendaCitas agendaActual = obtenerAgenda();
+            boolean actualizadas = false;
+            try {
+                for (Cita cita : citas) {
+                    validarHueco(cita);
+                    agendaActual.registrar(cita);
+                }
+                citaDAO.actualizarTodos(citas);
+                actualizadas = true;
+            } catch (PersistenceException e) {
+                throw new BusinessException("Error al actualizar las citas: " + e.getMessage());
+            } finally {
+                if (!actualizadas) {
+                    // La agenda ya refleja parte del lote; se vuelve a leer en la siguiente comprobación
+                    agenda = null;
+                }
+            }
         }
+        EventosDominio.publicar(CambioEntidad.actualizados(Cita.class, citas, Cita::getIdCita));
     }
 
     /**
@@ -125,6 +427,157 @@ public class CitaServiceImpl implements CitaService {
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar cita: " + e.getMessage());
         }
+
+        synchronized (bloqueoAgenda) {
+            if (agenda != null) {
+                agenda.quitar(id);
+            }
+        }
+        EventosDominio.publicar(CambioEntidad.eliminados(Cita.class, List.of(id)));
+    }
+
+    /**
+     * Elimina varias citas con sentencias por lotes después de comprobar que existen todas.
+     *
+     * @param ids los IDs de las citas a eliminar
+     * @throws BusinessException si alguna no existe o falla la operación en la BD
+     */
+    @Override
+    public void eliminarCitas(Collection<Integer> ids) throws BusinessException {
+        try {
+            Map<Integer, Cita> existentes = citaDAO.buscarPorIds(ids);
+            List<Integer> inexistentes = ids.stream()
+                    .filter(id -> id != null && !existentes.containsKey(id))
+                    .distinct()
+                    .toList();
+
+            if (!inexistentes.isEmpty()) {
+                throw new BusinessException("No existen citas con los IDs: " + inexistentes);
+            }
+
+            citaDAO.eliminarTodos(ids);
+        }
+        catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar las citas: " + e.getMessage());
+        }
+
+        synchronized (bloqueoAgenda) {
+            if (agenda != null) {
+                for (Integer id : ids) {
+                    if (id != null) {
+                        agenda.quitar(id);
+                    }
+                }
+            }
+        }
+        EventosDominio.publicar(CambioEntidad.eliminados(Cita.class, ids));
+    }
+
+    /**
+     * Busca la primera hora, a partir de la indicada, en la que el veterinario y la
+     * mascota no tienen ninguna cita que se solape con una nueva.
+     *
+     * @param idVeterinario ID del veterinario
+     * @param idMascota     ID de la mascota, o 0 para tener en cuenta solo al veterinario
+     * @param desde         primera hora aceptable
+     * @return hora de inicio del primer hueco libre
+     * @throws BusinessException si los parámetros no son válidos o no se puede cargar la agenda
+     */
+    @Override
+    public LocalDateTime buscarSiguienteHuecoLibre(int idVeterinario, int idMascota, LocalDateTime desde)
+            throws BusinessException {
+        if (idVeterinario <= 0) {
+            throw new BusinessException("El ID del veterinario debe ser positivo");
+        }
+        if (idMascota < 0) {
+            throw new BusinessException("El ID de la mascota no puede ser negativo");
+        }
+        if (desde == null) {
+            throw new BusinessException("La fecha/hora es requerida");
+        }
+        synchronized (bloqueoAgenda) {
+            return obtenerAgenda().siguienteHuecoLibre(idVeterinario, idMascota, desde, 0);
+        }
+    }
+
+    /**
+     * Descarta la agenda en memoria para que se vuelva a leer de la base de datos en la
+     * siguiente comprobación. Útil si las citas se han modificado fuera de este servicio.
+     */
+    public void invalidarAgenda() {
+        synchronized (bloqueoAgenda) {
+            agenda = null;
+        }
+    }
+
+    /**
+     * Comprueba que ni el veterinario ni la mascota tengan otra cita que se solape con
+     * la indicada. Las citas canceladas no ocupan hueco. Debe llamarse con el monitor
+     * de la agenda tomado.
+     *
+     * @param cita la cita a reservar; su propio ID no cuenta como conflicto
+     * @throws BusinessException si el hueco está ocupado o no se puede cargar la agenda
+     */
+    private void validarHueco(Cita cita) throws BusinessException {
+        if (esCancelada(cita)) {
+            return;
+        }
+        AgendaCitas agendaActual = obtenerAgenda();
+        LocalDateTime inicio = cita.getFechaHora();
+
+        Cita ocupada = agendaActual.conflictoVeterinario(cita.getIdVeterinario(), inicio, cita.getIdCita());
+        String quien = "El veterinario";
+        if (ocupada == null) {
+            ocupada = agendaActual.conflictoMascota(cita.getIdMascota(), inicio, cita.getIdCita());
+            quien = "La mascota";
+        }
+        if (ocupada != null) {
+            LocalDateTime libre = agendaActual.siguienteHuecoLibre(cita.getIdVeterinario(), cita.getIdMascota(),
+                    inicio, cita.getIdCita());
+            throw new BusinessException(quien + " ya tiene una cita el " + ocupada.getFechaHora().format(FORMATO_HORA)
+                    + "; el siguiente hueco libre es el " + libre.format(FORMATO_HORA));
+        }
+    }
+
+    /**
+     * Indexa en la agenda la cita recién guardada o actualizada. Si no se conoce su ID
+     * la agenda se descarta para que la siguiente comprobación la lea completa.
+     *
+     * @param cita la cita guardada
+     */
+    private void registrarEnAgenda(Cita cita) {
+        if (agenda == null) {
+            return;
+        }
+        if (cita.getIdCita() > 0) {
+            agenda.registrar(cita);
+        } else {
+            agenda = null;
+        }
+    }
+
+    /**
+     * Obtiene la agenda, leyendo de la base de datos las citas que aún no han terminado
+     * si todavía no está cargada. Debe llamarse con el monitor de la agenda tomado.
+     *
+     * @return la agenda de reservas
+     * @throws BusinessException si no se pueden leer las citas
+     */
+    private AgendaCitas obtenerAgenda() throws BusinessException {
+        if (agenda == null) {
+            AgendaCitas nueva = new AgendaCitas(duracionCita);
+            try {
+                nueva.registrarTodas(citaDAO.obtenerDesde(LocalDateTime.now().minus(duracionCita)));
+            } catch (PersistenceException e) {
+                throw new BusinessException("Error al cargar la agenda de citas: " + e.getMessage());
+            }
+            agenda = nueva;
+        }
+        return agenda;
+    }
+
+    private static boolean esCancelada(Cita cita) {
+        return cita.getEstado() != null && cita.getEstado().trim().equalsIgnoreCase("cancelada");
     }
 
     /**
@@ -134,7 +587,11 @@ public class CitaServiceImpl implements CitaService {
      * @throws BusinessException si la cita no cumple con las validaciones requeridas
      */
     private void validarCita(Cita cita) throws BusinessException {
-        if (!cita.getFechaHora().isBefore(LocalDateTime.now().plusMinutes(1))) {
+        if (cita.getFechaHora() == null) {
+            throw new BusinessException("La fecha/hora es requerida");
+        }
+
+        if (cita.getFechaHora().isBefore(LocalDateTime.now().minusMinutes(1))) {
             throw new BusinessException("La fecha/hora no puede estar en el pasado");
         }
 
@@ -163,4 +620,39 @@ public class CitaServiceImpl implements CitaService {
             throw new BusinessException("El ID del veterinario debe ser positivo");
         }
     }
+
+    /**
+     * Valida un rango de fechas [desde, hasta) para las consultas por rango.
+     *
+     * @param desde inicio del rango
+     * @param hasta fin del rango, posterior al inicio y a no más de {@link #MAX_DIAS_RANGO} días
+     * @throws BusinessException si el rango no es válido
+     */
+    private void validarRango(LocalDateTime desde, LocalDateTime hasta) throws BusinessException {
+        if (desde == null || hasta == null) {
+            throw new BusinessException("El rango de fechas es requerido");
+        }
+        if (!hasta.isAfter(desde)) {
+            throw new BusinessException("La fecha final debe ser posterior a la inicial");
+        }
+        if (hasta.isAfter(desde.plusDays(MAX_DIAS_RANGO))) {
+            throw new BusinessException("El rango de fechas no puede superar " + MAX_DIAS_RANGO + " días");
+        }
+    }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset o último ID leído, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
\ No newline at end of file
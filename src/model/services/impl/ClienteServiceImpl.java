@@ -1,12 +1,16 @@
 package model.services.impl;
 
-import model.dao.ClienteDAO;
+import model.dao.GenericDAO;
 import model.entities.Cliente;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.ClienteService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de clientes de la veterinaria.
@@ -18,14 +22,14 @@ import java.util.List;
  */
 public class ClienteServiceImpl implements ClienteService {
 
-    private final ClienteDAO clienteDAO;
+    private final GenericDAO<Cliente> clienteDAO;
 
     /**
      * Constructor que inicializa el servicio con un DAO de clientes.
      *
      * @param clienteDAO el DAO que manejará las operaciones de persistencia
      */
-    public ClienteServiceImpl(ClienteDAO clienteDAO) {
+    public ClienteServiceImpl(GenericDAO<Cliente> clienteDAO) {
         this.clienteDAO = clienteDAO;
     }
 
@@ -33,17 +37,41 @@ public class ClienteServiceImpl implements ClienteService {
      * Guarda un nuevo cliente después de validar sus datos.
      *
      * @param cliente el cliente a guardar
+     * @return el cliente guardado, con su ID asignado
      * @throws BusinessException si el cliente no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarCliente(Cliente cliente) throws BusinessException {
+    public Cliente guardarCliente(Cliente cliente) throws BusinessException {
         validarCliente(cliente);
         try {
             clienteDAO.guardar(cliente);
+            EventosDominio.publicar(CambioEntidad.creados(Cliente.class, List.of(cliente), Cliente::getIdCliente));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al guardar la cliente: " + e.getMessage());
         }
+        return cliente;
+    }
+
+    /**
+     * Guarda varios clientes con inserciones por lotes después de validarlos todos.
+     *
+     * @param clientes los clientes a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarClientes(List<Cliente> clientes) throws BusinessException {
+        for (Cliente cliente : clientes) {
+            validarCliente(cliente);
+        }
+        try {
+            List<Integer> ids = clienteDAO.guardarTodos(clientes);
+            EventosDominio.publicar(CambioEntidad.creados(Cliente.class, clientes, Cliente::getIdCliente));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los clientes: " + e.getMessage());
+        }
     }
 
     /**
@@ -62,6 +90,39 @@ public class ClienteServiceImpl implements ClienteService {
         }
     }
 
+    /**
+     * Obtiene una página de clientes ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Cliente> obtenerClientesPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return clienteDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de clientes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta los clientes registrados en el sistema.
+     *
+     * @return número total de clientes
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarClientes() throws BusinessException {
+        try {
+            return clienteDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar clientes: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un cliente por su ID en la base de datos.
      *
@@ -79,6 +140,22 @@ public class ClienteServiceImpl implements ClienteService {
         }
     }
 
+    /**
+     * Busca los clientes con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a cliente con los clientes encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Cliente> buscarClientesPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return clienteDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar clientes: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de un cliente existente.
      *
@@ -90,12 +167,32 @@ public class ClienteServiceImpl implements ClienteService {
         validarCliente(cliente);
         try {
             clienteDAO.actualizar(cliente);
+            EventosDominio.publicar(CambioEntidad.actualizados(Cliente.class, List.of(cliente), Cliente::getIdCliente));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar cliente: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios clientes con sentencias por lotes después de validarlos todos.
+     *
+     * @param clientes los clientes con los datos actualizados
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarClientes(List<Cliente> clientes) throws BusinessException {
+        for (Cliente cliente : clientes) {
+            validarCliente(cliente);
+        }
+        try {
+            clienteDAO.actualizarTodos(clientes);
+            EventosDominio.publicar(CambioEntidad.actualizados(Cliente.class, clientes, Cliente::getIdCliente));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los clientes: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina un cliente existente.
      *
@@ -106,21 +203,55 @@ public class ClienteServiceImpl implements ClienteService {
     public void eliminarCliente(int id) throws BusinessException {
         try{
             clienteDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Cliente.class, List.of(id)));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al eliminar cliente: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varios clientes con sentencias por lotes.
+     *
+     * @param ids los IDs de los clientes a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarClientes(Collection<Integer> ids) throws BusinessException {
+        try {
+            clienteDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Cliente.class, ids));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar los clientes: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un cliente sean correctos.
      *
      * @param cliente el cliente a validar
      * @throws BusinessException si el cliente no cumple con las validaciones requeridas
      */
-    private void validarCliente(Cliente cliente) throws BusinessException {
+    @Override
+    public void validarCliente(Cliente cliente) throws BusinessException {
         if (cliente.getNombre() == null || cliente.getNombre().trim().isEmpty()) {
             throw new BusinessException("El nombre del cliente es requerido");
         }
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset de la página, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
\ No newline at end of file
@@ -1,12 +1,24 @@
 package model.services.impl;
 
+import model.dao.CuboVentas;
 import model.dao.DetalleFacturaDAO;
 import model.entities.DetalleFactura;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.DetalleFacturaService;
+import utils.EscritorCsv;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de detalles de factura.
@@ -19,6 +31,7 @@ import java.util.List;
 public class DetalleFacturaServiceImpl implements DetalleFacturaService {
 
     private final DetalleFacturaDAO detalleFacturaDAO;
+    private final CuboVentas cuboVentas;
 
     /**
      * Constructor que inicializa el servicio con un DAO de detalles de factura.
@@ -26,23 +39,65 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
      * @param detalleFacturaDAO el DAO que manejará las operaciones de persistencia
      */
     public DetalleFacturaServiceImpl(DetalleFacturaDAO detalleFacturaDAO) {
+        this(detalleFacturaDAO, null);
+    }
+
+    /**
+     * Constructor que inicializa el servicio con un DAO de detalles de factura y el cubo
+     * de ventas que debe refrescarse tras cada escritura.
+     *
+     * @param detalleFacturaDAO el DAO que manejará las operaciones de persistencia
+     * @param cuboVentas        el cubo de ventas en memoria, o null si no se usa
+     */
+    public DetalleFacturaServiceImpl(DetalleFacturaDAO detalleFacturaDAO, CuboVentas cuboVentas) {
         this.detalleFacturaDAO = detalleFacturaDAO;
+        this.cuboVentas = cuboVentas;
     }
 
     /**
      * Guarda un nuevo detalle de factura después de validar sus datos.
      *
      * @param detalleFactura el detalle a guardar
+     * @return el detalle guardado, con su ID asignado
      * @throws BusinessException si el detalle no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarDetalleFactura(DetalleFactura detalleFactura) throws BusinessException {
+    public DetalleFactura guardarDetalleFactura(DetalleFactura detalleFactura) throws BusinessException {
         validarDetalleFactura(detalleFactura);
         try {
             detalleFacturaDAO.guardar(detalleFactura);
+            EventosDominio.publicar(CambioEntidad.creados(DetalleFactura.class, List.of(detalleFactura), DetalleFactura::getIdDetalle));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarDetalle(detalleFactura.getIdDetalle());
+            }
         } catch (PersistenceException e) {
             throw new BusinessException("Error al guardar el detalle factura: " + e.getMessage());
         }
+        return detalleFactura;
+    }
+
+    /**
+     * Guarda varios detalles de factura con inserciones por lotes después de validarlos todos.
+     *
+     * @param detalles los detalles a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarDetallesFactura(List<DetalleFactura> detalles) throws BusinessException {
+        for (DetalleFactura detalleFactura : detalles) {
+            validarDetalleFactura(detalleFactura);
+        }
+        try {
+            List<Integer> ids = detalleFacturaDAO.guardarTodos(detalles);
+            EventosDominio.publicar(CambioEntidad.creados(DetalleFactura.class, detalles, DetalleFactura::getIdDetalle));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarDetalles(ids);
+            }
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los detalles factura: " + e.getMessage());
+        }
     }
 
     /**
@@ -60,6 +115,42 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
         }
     }
 
+    /**
+     * Obtiene una página de detalles factura ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<DetalleFactura> obtenerDetallesFacturaPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return detalleFacturaDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de detalles factura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene la página de detalles factura con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<DetalleFactura> obtenerDetallesFacturaDespuesDe(int ultimoId, int limite) throws BusinessException {
+        validarPagina(ultimoId, limite);
+        try {
+            return detalleFacturaDAO.obtenerPaginaDespuesDe(ultimoId, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de detalles factura: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un detalle de factura por su ID en la base de datos.
      *
@@ -76,6 +167,22 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
         }
     }
 
+    /**
+     * Busca los detalles de factura con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a detalle con los detalles de factura encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, DetalleFactura> buscarDetallesFacturaPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return detalleFacturaDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar detalles de factura: " + e.getMessage());
+        }
+    }
+
     /**
      * Obtiene todos los detalles de factura asociados a una factura específica.
      *
@@ -93,6 +200,45 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
         }
     }
 
+    /**
+     * Exporta a CSV los detalles de las facturas emitidas entre dos fechas, leyéndolos
+     * en modo streaming. Si la exportación falla se borra el fichero incompleto.
+     *
+     * @param desde    la primera fecha de emisión de la factura
+     * @param hasta    la última fecha de emisión de la factura
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de detalles exportados
+     * @throws BusinessException si los datos no son válidos o falla la exportación
+     */
+    @Override
+    public long exportarDetallesFacturaCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) throws BusinessException {
+        if (desde == null || hasta == null) {
+            throw new BusinessException("Las fechas del rango son requeridas");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final");
+        }
+        if (destino == null) {
+            throw new BusinessException("El fichero de destino es requerido");
+        }
+        try {
+            int total = detalleFacturaDAO.contarEntre(desde, hasta);
+            try (EscritorCsv csv = new EscritorCsv(destino, total, progreso,
+                    "idDetalle", "idFactura", "tipo", "idServicio", "idProducto", "cantidad", "subtotal")) {
+                detalleFacturaDAO.recorrerEntre(desde, hasta, d ->
+                        csv.escribirFila(d.getIdDetalle(), d.getIdFactura(), d.getTipo(), d.getIdServicio(),
+                                d.getIdMedicamento(), d.getCantidad(), d.getSubtotal()));
+                return csv.getFilas();
+            } catch (PersistenceException | IOException | UncheckedIOException e) {
+                descartar(destino);
+                throw e;
+            }
+        } catch (PersistenceException | IOException | UncheckedIOException e) {
+            throw new BusinessException("Error al exportar los detalles de factura: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de un detalle de factura existente.
      *
@@ -104,12 +250,37 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
         validarDetalleFactura(detalleFactura);
         try {
             detalleFacturaDAO.actualizar(detalleFactura);
+            EventosDominio.publicar(CambioEntidad.actualizados(DetalleFactura.class, List.of(detalleFactura), DetalleFactura::getIdDetalle));
+            refrescarVentas(detalleFactura.getIdDetalle());
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar detalle factura: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios detalles de factura con sentencias por lotes después de validarlos todos.
+     *
+     * @param detalles los detalles con los datos actualizados
+     * @throws BusinessException si alguno no es válido o hay error de persistencia
+     */
+    @Override
+    public void actualizarDetallesFactura(List<DetalleFactura> detalles) throws BusinessException {
+        for (DetalleFactura detalleFactura : detalles) {
+            validarDetalleFactura(detalleFactura);
+        }
+        try {
+            detalleFacturaDAO.actualizarTodos(detalles);
+            EventosDominio.publicar(CambioEntidad.actualizados(DetalleFactura.class, detalles, DetalleFactura::getIdDetalle));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarDetalles(detalles.stream().map(DetalleFactura::getIdDetalle).toList());
+            }
+        }
+        catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los detalles factura: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina un detalle de factura existente.
      *
@@ -120,12 +291,58 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
     public void eliminarDetalleFactura(int id) throws BusinessException {
         try {
             detalleFacturaDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(DetalleFactura.class, List.of(id)));
+            refrescarVentas(id);
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar detalle factura: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varios detalles de factura con sentencias por lotes.
+     *
+     * @param ids los IDs de los detalles a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarDetallesFactura(Collection<Integer> ids) throws BusinessException {
+        try {
+            detalleFacturaDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(DetalleFactura.class, ids));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarDetalles(ids);
+            }
+        }
+        catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar los detalles factura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Actualiza en el cubo de ventas, si lo hay, un detalle recién modificado o eliminado.
+     *
+     * @param idDetalle el ID del detalle
+     */
+    private void refrescarVentas(int idDetalle) {
+        if (cuboVentas != null) {
+            cuboVentas.refrescarDetalle(idDetalle);
+        }
+    }
+
+    /**
+     * Borra el fichero incompleto de una exportación fallida.
+     *
+     * @param fichero el fichero a borrar
+     */
+    private void descartar(Path fichero) {
+        try {
+            Files.deleteIfExists(fichero);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el fichero incompleto " + fichero + ": " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un detalle de factura sean correctos.
      *
@@ -137,4 +354,20 @@ public class DetalleFacturaServiceImpl implements DetalleFacturaService {
             throw new BusinessException("El tipo de detalle factura no puede ser nulo");
         }
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset o último ID leído, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
@@ -1,12 +1,26 @@
 package model.services.impl;
 
+import model.dao.CuboVentas;
 import model.dao.FacturaDAO;
+import model.dto.FacturaCreadaDTO;
+import model.entities.DetalleFactura;
 import model.entities.Factura;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.FacturaService;
+import utils.EscritorCsv;
+import utils.EscritorCsv.ProgresoExportacion;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de facturas de la veterinaria.
@@ -19,6 +33,7 @@ import java.util.List;
 public class FacturaServiceImpl implements FacturaService {
 
     private final FacturaDAO facturaDAO;
+    private final CuboVentas cuboVentas;
 
     /**
      * Constructor que inicializa el servicio con un DAO de facturas.
@@ -26,23 +41,93 @@ public class FacturaServiceImpl implements FacturaService {
      * @param facturaDAO el DAO que manejará las operaciones de persistencia
      */
     public FacturaServiceImpl(FacturaDAO facturaDAO) {
+        this(facturaDAO, null);
+    }
+
+    /**
+     * Constructor que inicializa el servicio con un DAO de facturas y el cubo de ventas
+     * que debe refrescarse tras cada escritura.
+     *
+     * @param facturaDAO el DAO que manejará las operaciones de persistencia
+     * @param cuboVentas el cubo de ventas en memoria, o null si no se usa
+     */
+    public FacturaServiceImpl(FacturaDAO facturaDAO, CuboVentas cuboVentas) {
         this.facturaDAO = facturaDAO;
+        this.cuboVentas = cuboVentas;
     }
 
     /**
      * Guarda una nueva factura después de validar sus datos.
      *
      * @param factura la factura a guardar
+     * @return la factura guardada, con su ID asignado
      * @throws BusinessException si la factura no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarFactura(Factura factura) throws BusinessException {
+    public Factura guardarFactura(Factura factura) throws BusinessException {
         validarFactura(factura);
         try {
             facturaDAO.guardar(factura);
+            EventosDominio.publicar(CambioEntidad.creados(Factura.class, List.of(factura), Factura::getIdFactura));
         } catch (PersistenceException e) {
             throw new BusinessException("Error al guardar la factura: " + e.getMessage());
         }
+        return factura;
+    }
+
+    /**
+     * Guarda varias facturas sin detalles con inserciones por lotes después de validarlas todas.
+     *
+     * @param facturas las facturas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarFacturas(List<Factura> facturas) throws BusinessException {
+        for (Factura factura : facturas) {
+            validarFactura(factura);
+        }
+        try {
+            List<Integer> ids = facturaDAO.guardarTodos(facturas);
+            EventosDominio.publicar(CambioEntidad.creados(Factura.class, facturas, Factura::getIdFactura));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar las facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Crea una factura con todos sus detalles en una sola transacción. El total se
+     * calcula como la suma de cantidad por precio unitario de cada detalle.
+     *
+     * @param factura  la factura a crear
+     * @param detalles los detalles de la factura
+     * @return las claves generadas y el total calculado
+     * @throws BusinessException si los datos no son válidos o hay error de persistencia
+     */
+    @Override
+    public FacturaCreadaDTO crearFacturaConDetalles(Factura factura, List<DetalleFactura> detalles) throws BusinessException {
+        validarFactura(factura);
+        if (detalles == null || detalles.isEmpty()) {
+            throw new BusinessException("La factura debe tener al menos un detalle");
+        }
+
+        double total = 0;
+        for (DetalleFactura detalle : detalles) {
+            validarDetalle(detalle);
+            total += detalle.getCantidad() * detalle.getSubtotal();
+        }
+        factura.setTotal(total);
+
+        try {
+            FacturaCreadaDTO creada = facturaDAO.guardarConDetalles(factura, detalles);
+            EventosDominio.publicar(CambioEntidad.creados(Factura.class, List.of(factura), Factura::getIdFactura));
+            EventosDominio.publicar(CambioEntidad.creados(DetalleFactura.class, detalles, DetalleFactura::getIdDetalle));
+            refrescarVentas(creada.idFactura());
+            return creada;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al crear la factura: " + e.getMessage());
+        }
     }
 
     /**
@@ -60,6 +145,57 @@ public class FacturaServiceImpl implements FacturaService {
         }
     }
 
+    /**
+     * Obtiene una página de facturas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Factura> obtenerFacturasPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return facturaDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene la página de facturas con ID mayor que el indicado.
+     *
+     * @param ultimoId ID del último registro ya leído (0 para empezar)
+     * @param limite   tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Factura> obtenerFacturasDespuesDe(int ultimoId, int limite) throws BusinessException {
+        validarPagina(ultimoId, limite);
+        try {
+            return facturaDAO.obtenerPaginaDespuesDe(ultimoId, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta las facturas registradas en el sistema.
+     *
+     * @return número total de facturas
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarFacturas() throws BusinessException {
+        try {
+            return facturaDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar facturas: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca una factura por su ID en la base de datos.
      *
@@ -76,6 +212,113 @@ public class FacturaServiceImpl implements FacturaService {
         }
     }
 
+    /**
+     * Busca las facturas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a factura con las facturas encontradas
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Factura> buscarFacturasPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return facturaDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula el total de una factura con una sentencia de agregación en la base de datos.
+     *
+     * @param idFactura el ID de la factura
+     * @return el nuevo total de la factura
+     * @throws BusinessException si la factura no existe o hay error de persistencia
+     */
+    @Override
+    public double recalcularTotalFactura(int idFactura) throws BusinessException {
+        try {
+            double total = facturaDAO.recalcularTotal(idFactura);
+            EventosDominio.publicar(CambioEntidad.actualizados(Factura.class, List.of(idFactura)));
+            return total;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al recalcular el total de la factura: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula los totales de varias facturas en la base de datos.
+     *
+     * @param ids los IDs de las facturas
+     * @return el número de facturas recalculadas
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public int recalcularTotalesFacturas(Collection<Integer> ids) throws BusinessException {
+        try {
+            int recalculadas = facturaDAO.recalcularTotales(ids);
+            EventosDominio.publicar(CambioEntidad.actualizados(Factura.class, ids));
+            return recalculadas;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al recalcular los totales de las facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula los totales de las facturas emitidas entre dos fechas en la base de datos.
+     *
+     * @param desde la primera fecha de emisión
+     * @param hasta la última fecha de emisión
+     * @return el número de facturas recalculadas
+     * @throws BusinessException si el rango no es válido o hay error de persistencia
+     */
+    @Override
+    public int recalcularTotalesFacturasEntre(LocalDate desde, LocalDate hasta) throws BusinessException {
+        validarRango(desde, hasta);
+        try {
+            int recalculadas = facturaDAO.recalcularTotalesEntre(desde, hasta);
+            if (recalculadas > 0) {
+                EventosDominio.publicar(CambioEntidad.varios(Factura.class));
+            }
+            return recalculadas;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al recalcular los totales de las facturas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta a CSV las facturas emitidas entre dos fechas, leyéndolas en modo streaming.
+     * Si la exportación falla se borra el fichero incompleto.
+     *
+     * @param desde    la primera fecha de emisión
+     * @param hasta    la última fecha de emisión
+     * @param destino  el fichero CSV a crear o sobrescribir
+     * @param progreso receptor del progreso de la exportación, o null
+     * @return el número de facturas exportadas
+     * @throws BusinessException si los datos no son válidos o falla la exportación
+     */
+    @Override
+    public long exportarFacturasCsv(LocalDate desde, LocalDate hasta, Path destino, ProgresoExportacion progreso) throws BusinessException {
+        validarRango(desde, hasta);
+        if (destino == null) {
+            throw new BusinessException("El fichero de destino es requerido");
+        }
+        try {
+            int total = facturaDAO.contarEntre(desde, hasta);
+            try (EscritorCsv csv = new EscritorCsv(destino, total, progreso,
+                    "idFactura", "fechaEmision", "idCliente", "total")) {
+                facturaDAO.recorrerEntre(desde, hasta, f ->
+                        csv.escribirFila(f.getIdFactura(), f.getFechaEmision(), f.getIdCliente(), f.getTotal()));
+                return csv.getFilas();
+            } catch (PersistenceException | IOException | UncheckedIOException e) {
+                descartar(destino);
+                throw e;
+            }
+        } catch (PersistenceException | IOException | UncheckedIOException e) {
+            throw new BusinessException("Error al exportar las facturas: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de una factura existente.
      *
@@ -87,12 +330,37 @@ public class FacturaServiceImpl implements FacturaService {
         validarFactura(factura);
         try {
             facturaDAO.actualizar(factura);
+            EventosDominio.publicar(CambioEntidad.actualizados(Factura.class, List.of(factura), Factura::getIdFactura));
+            refrescarVentas(factura.getIdFactura());
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar factura: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varias facturas con sentencias por lotes después de validarlas todas.
+     *
+     * @param facturas las facturas con los datos actualizados
+     * @throws BusinessException si alguna no es válida o hay error de persistencia
+     */
+    @Override
+    public void actualizarFacturas(List<Factura> facturas) throws BusinessException {
+        for (Factura factura : facturas) {
+            validarFactura(factura);
+        }
+        try {
+            facturaDAO.actualizarTodos(facturas);
+            EventosDominio.publicar(CambioEntidad.actualizados(Factura.class, facturas, Factura::getIdFactura));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarFacturas(facturas.stream().map(Factura::getIdFactura).toList());
+            }
+        }
+        catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar las facturas: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina una factura existente.
      *
@@ -103,12 +371,34 @@ public class FacturaServiceImpl implements FacturaService {
     public void eliminarFactura(int id) throws BusinessException {
         try {
             facturaDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Factura.class, List.of(id)));
+            refrescarVentas(id);
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar factura: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varias facturas con sentencias por lotes.
+     *
+     * @param ids los IDs de las facturas a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarFacturas(Collection<Integer> ids) throws BusinessException {
+        try {
+            facturaDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Factura.class, ids));
+            if (cuboVentas != null) {
+                cuboVentas.refrescarFacturas(ids);
+            }
+        }
+        catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar las facturas: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de una factura sean correctos.
      * (Implementación pendiente de validaciones específicas)
@@ -119,4 +409,81 @@ public class FacturaServiceImpl implements FacturaService {
     private void validarFactura(Factura factura) throws BusinessException {
 
     }
+
+    /**
+     * Valida que un detalle tenga tipo, el ítem correspondiente a su tipo y una cantidad positiva.
+     *
+     * @param detalle el detalle a validar
+     * @throws BusinessException si el detalle no cumple con las validaciones requeridas
+     */
+    private void validarDetalle(DetalleFactura detalle) throws BusinessException {
+        if (detalle.getTipo() == null) {
+            throw new BusinessException("El tipo de detalle factura no puede ser nulo");
+        }
+        if ("Servicio".equalsIgnoreCase(detalle.getTipo()) && detalle.getIdServicio() == null) {
+            throw new BusinessException("El detalle de tipo Servicio requiere un servicio");
+        }
+        if ("Medicamento".equalsIgnoreCase(detalle.getTipo()) && detalle.getIdMedicamento() == null) {
+            throw new BusinessException("El detalle de tipo Medicamento requiere un medicamento");
+        }
+        if (detalle.getCantidad() <= 0) {
+            throw new BusinessException("La cantidad del detalle debe ser mayor que cero");
+        }
+    }
+
+    /**
+     * Valida un rango de fechas.
+     *
+     * @param desde primera fecha del rango, requerida
+     * @param hasta última fecha del rango, requerida y no anterior a la primera
+     * @throws BusinessException si el rango no es válido
+     */
+    private void validarRango(LocalDate desde, LocalDate hasta) throws BusinessException {
+        if (desde == null || hasta == null) {
+            throw new BusinessException("Las fechas del rango son requeridas");
+        }
+        if (desde.isAfter(hasta)) {
+            throw new BusinessException("La fecha inicial no puede ser posterior a la final");
+        }
+    }
+
+    /**
+     * Actualiza en el cubo de ventas, si lo hay, los detalles de una factura recién escrita.
+     *
+     * @param idFactura el ID de la factura
+     */
+    private void refrescarVentas(int idFactura) {
+        if (cuboVentas != null) {
+            cuboVentas.refrescarFactura(idFactura);
+        }
+    }
+
+    /**
+     * Borra el fichero incompleto de una exportación fallida.
+     *
+     * @param fichero el fichero a borrar
+     */
+    private void descartar(Path fichero) {
+        try {
+            Files.deleteIfExists(fichero);
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar el fichero incompleto " + fichero + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset o último ID leído, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
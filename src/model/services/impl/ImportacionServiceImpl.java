@@ -0,0 +1,503 @@
+package model.services.impl;
+
+import model.dao.ImportacionDAO;
+import model.dto.ResultadoImportacionDTO;
+import model.entities.Cliente;
+import model.entities.Mascota;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
+import model.exceptions.BusinessException;
+import model.exceptions.PersistenceException;
+import model.services.ClienteService;
+import model.services.ImportacionService;
+import model.services.MascotaService;
+import utils.DatabaseConfig;
+import utils.LectorCsv;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * Implementación del servicio de importación masiva de clientes y mascotas desde CSV.
+ * El fichero se lee en streaming por bloques de {@code importacion.tamano_lote} filas.
+ * Las filas de cada bloque se validan en paralelo con las mismas reglas que
+ * {@link ClienteServiceImpl} y {@link MascotaServiceImpl}, y el bloque se inserta con
+ * sentencias por lotes en una transacción que también guarda el progreso. Mientras un
+ * bloque se escribe en la base de datos, se lee y valida el siguiente.
+ * <p>
+ * Las filas que no superan la validación se rechazan sin detener la importación; un
+ * error de base de datos la detiene, y al repetirla se continúa tras el último bloque
+ * confirmado.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class ImportacionServiceImpl implements ImportacionService {
+
+    /**
+     * Número máximo de motivos de rechazo que se devuelven en el resultado.
+     */
+    public static final int MAX_ERRORES = 100;
+
+    private static final int MAX_LONGITUD_LOTE = 100;
+
+    private final ImportacionDAO importacionDAO;
+    private final ClienteService clienteService;
+    private final MascotaService mascotaService;
+    private final int tamanoLote;
+
+    /**
+     * Constructor que inicializa el servicio con el tamaño de bloque configurado.
+     *
+     * @param importacionDAO el DAO que escribe los bloques y el progreso
+     * @param clienteService el servicio cuyas reglas validan los clientes
+     * @param mascotaService el servicio cuyas reglas validan las mascotas
+     */
+    public ImportacionServiceImpl(ImportacionDAO importacionDAO, ClienteService clienteService,
+                                  MascotaService mascotaService) {
+        this(importacionDAO, clienteService, mascotaService, DatabaseConfig.getImportacionTamanoLote());
+    }
+
+    /**
+     * Constructor que inicializa el servicio con un tamaño de bloque.
+     *
+     * @param importacionDAO el DAO que escribe los bloques y el progreso
+     * @param clienteService el servicio cuyas reglas validan los clientes
+     * @param mascotaService el servicio cuyas reglas validan las mascotas
+     * @param tamanoLote     filas validadas e insertadas por transacción
+     */
+    public ImportacionServiceImpl(ImportacionDAO importacionDAO, ClienteService clienteService,
+                                  MascotaService mascotaService, int tamanoLote) {
+        if (tamanoLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor que cero");
+        }
+        this.importacionDAO = importacionDAO;
+        this.clienteService = clienteService;
+        this.mascotaService = mascotaService;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Importa clientes desde un CSV. Cada referencia debe ser única dentro del lote.
+     *
+     * @param archivo  el fichero CSV, con cabecera
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación
+     * @throws BusinessException si el fichero no es válido o falla la escritura
+     */
+    @Override
+    public ResultadoImportacionDTO importarClientes(Path archivo, String lote, ProgresoImportacion progreso)
+            throws BusinessException {
+        String nombreLote = validarParametros(archivo, lote);
+        Set<String> referencias;
+        try {
+            referencias = new HashSet<>(importacionDAO.obtenerReferencias(nombreLote).keySet());
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al importar clientes: " + e.getMessage());
+        }
+        return new ImportacionClientes(nombreLote, referencias).ejecutar(archivo, progreso);
+    }
+
+    /**
+     * Importa mascotas desde un CSV. El dueño se resuelve con la referencia del fichero
+     * de clientes del lote o, si no se indica, con el ID de un cliente existente.
+     *
+     * @param archivo  el fichero CSV, con cabecera
+     * @param lote     el nombre del lote
+     * @param progreso receptor del progreso, o null si no interesa
+     * @return el resultado de la importación
+     * @throws BusinessException si el fichero no es válido o falla la escritura
+     */
+    @Override
+    public ResultadoImportacionDTO importarMascotas(Path archivo, String lote, ProgresoImportacion progreso)
+            throws BusinessException {
+        String nombreLote = validarParametros(archivo, lote);
+        Map<String, Integer> referencias;
+        try {
+            referencias = importacionDAO.obtenerReferencias(nombreLote);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al importar mascotas: " + e.getMessage());
+        }
+        return new ImportacionMascotas(nombreLote, referencias).ejecutar(archivo, progreso);
+    }
+
+    /**
+     * Valida el fichero y el nombre del lote.
+     *
+     * @param archivo el fichero CSV
+     * @param lote    el nombre del lote
+     * @return el nombre del lote sin espacios al principio ni al final
+     * @throws BusinessException si falta alguno o el nombre del lote es demasiado largo
+     */
+    private String validarParametros(Path archivo, String lote) throws BusinessException {
+        if (archivo == null) {
+            throw new BusinessException("El fichero es requerido");
+        }
+        if (lote == null || lote.trim().isEmpty()) {
+            throw new BusinessException("El nombre del lote es requerido");
+        }
+        if (lote.trim().length() > MAX_LONGITUD_LOTE) {
+            throw new BusinessException("El nombre del lote no puede superar " + MAX_LONGITUD_LOTE + " caracteres");
+        }
+        return lote.trim();
+    }
+
+    /**
+     * Importación de clientes: la referencia de cada fila se registra en el lote para
+     * que el fichero de mascotas pueda usarla.
+     */
+    private final class ImportacionClientes extends Importacion<Cliente> {
+        private final String lote;
+        private final Set<String> referencias;
+
+        ImportacionClientes(String lote, Set<String> referencias) {
+            super(lote + ":clientes", "nombre");
+            this.lote = lote;
+            this.referencias = referencias;
+        }
+
+        @Override
+        Cliente convertir(Fila<Cliente> fila) throws BusinessException {
+            Cliente cliente = new Cliente(campo(fila, "nombre"), campo(fila, "telefono"));
+            clienteService.validarCliente(cliente);
+            fila.referencia = campo(fila, "referencia");
+            return cliente;
+        }
+
+        @Override
+        void depurar(List<Fila<Cliente>> filas) {
+            for (Fila<Cliente> fila : filas) {
+                if (fila.error == null && fila.referencia != null && !referencias.add(fila.referencia)) {
+                    fila.error = "La referencia '" + fila.referencia + "' ya está en uso en el lote";
+                }
+            }
+        }
+
+        @Override
+        void guardar(List<Fila<Cliente>> validas, int filasProcesadas) throws PersistenceException {
+            List<Cliente> clientes = new ArrayList<>(validas.size());
+            List<String> referenciasBloque = new ArrayList<>(validas.size());
+            for (Fila<Cliente> fila : validas) {
+                clientes.add(fila.entidad);
+                referenciasBloque.add(fila.referencia);
+            }
+            importacionDAO.guardarClientes(lote, getClave(), filasProcesadas, clientes, referenciasBloque);
+            EventosDominio.publicar(CambioEntidad.creados(Cliente.class, clientes, Cliente::getIdCliente));
+        }
+    }
+
+    /**
+     * Importación de mascotas: el dueño se resuelve por referencia en memoria y los IDs
+     * de cliente explícitos se comprueban con una consulta por bloque.
+     */
+    private final class ImportacionMascotas extends Importacion<Mascota> {
+        private final String lote;
+        private final Map<String, Integer> referencias;
+
+        ImportacionMascotas(String lote, Map<String, Integer> referencias) {
+            super(lote + ":mascotas", "nombre");
+            this.lote = lote;
+            this.referencias = referencias;
+        }
+
+        @Override
+        Mascota convertir(Fila<Mascota> fila) throws BusinessException {
+            Mascota mascota = new Mascota();
+            mascota.setNombre(campo(fila, "nombre"));
+            mascota.setEspecie(campo(fila, "especie"));
+            mascota.setRaza(campo(fila, "raza"));
+            mascota.setSexo(campo(fila, "sexo"));
+            mascota.setEdad(entero(campo(fila, "edad"), "La edad"));
+            if (mascota.getEdad() < 0) {
+                throw new BusinessException("La edad no puede ser negativa");
+            }
+
+            String referencia = campo(fila, "referenciaCliente");
+            if (referencia != null) {
+                Integer idCliente = referencias.get(referencia);
+                if (idCliente == null) {
+                    throw new BusinessException("No existe la referencia de cliente '" + referencia + "' en el lote " + lote);
+                }
+                mascota.setIdCliente(idCliente);
+            } else {
+                String idCliente = campo(fila, "idCliente");
+                if (idCliente == null) {
+                    throw new BusinessException("Se debe indicar referenciaCliente o idCliente");
+                }
+                mascota.setIdCliente(entero(idCliente, "El ID del cliente"));
+            }
+
+            mascotaService.validarMascota(mascota);
+            return mascota;
+        }
+
+        @Override
+        void depurar(List<Fila<Mascota>> filas) throws BusinessException {
+            // Solo las filas con ID explícito; las referencias del lote ya apuntan a clientes importados
+            Set<Integer> ids = new HashSet<>();
+            for (Fila<Mascota> fila : filas) {
+                if (porId(fila)) {
+                    ids.add(fila.entidad.getIdCliente());
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            Map<Integer, Cliente> existentes = clienteService.buscarClientesPorIds(ids);
+            for (Fila<Mascota> fila : filas) {
+                if (porId(fila) && !existentes.containsKey(fila.entidad.getIdCliente())) {
+                    fila.error = "No existe el cliente con ID " + fila.entidad.getIdCliente();
+                }
+            }
+        }
+
+        private boolean porId(Fila<Mascota> fila) {
+            return fila.error == null && campo(fila, "referenciaCliente") == null;
+        }
+
+        @Override
+        void guardar(List<Fila<Mascota>> validas, int filasProcesadas) throws PersistenceException {
+            List<Mascota> mascotas = new ArrayList<>(validas.size());
+            for (Fila<Mascota> fila : validas) {
+                mascotas.add(fila.entidad);
+            }
+            importacionDAO.guardarMascotas(getClave(), filasProcesadas, mascotas);
+            EventosDominio.publicar(CambioEntidad.creados(Mascota.class, mascotas, Mascota::getIdMascota));
+        }
+    }
+
+    /**
+     * Recorrido común de una importación: lee el fichero por bloques, valida cada bloque
+     * en paralelo y lo escribe en un hilo propio mientras se prepara el siguiente. Los
+     * bloques se escriben de uno en uno y en orden, así que el progreso guardado siempre
+     * corresponde a un prefijo del fichero.
+     *
+     * @param <E> Tipo de entidad importada
+     */
+    private abstract class Importacion<E> {
+        private final String clave;
+        private final String[] obligatorias;
+        private final Map<String, Integer> columnas = new HashMap<>();
+        private final List<String> errores = new ArrayList<>();
+        private int insertadas;
+        private int rechazadas;
+
+        Importacion(String clave, String... obligatorias) {
+            this.clave = clave;
+            this.obligatorias = obligatorias;
+        }
+
+        /**
+         * Convierte y valida una fila. Se invoca en paralelo, así que no debe modificar
+         * estado compartido salvo la propia fila.
+         */
+        abstract E convertir(Fila<E> fila) throws BusinessException;
+
+        /**
+         * Aplica a un bloque ya validado las comprobaciones que dependen de otras filas o
+         * de la base de datos, marcando con un error las filas que no las superan.
+         * Se invoca en orden desde el hilo de escritura.
+         */
+        void depurar(List<Fila<E>> filas) throws BusinessException {}
+
+        /**
+         * Inserta las filas válidas de un bloque y guarda el progreso en una transacción.
+         */
+        abstract void guardar(List<Fila<E>> validas, int filasProcesadas) throws PersistenceException;
+
+        String getClave() {
+            return clave;
+        }
+
+        /**
+         * Obtiene el valor de una columna sin espacios al principio ni al final.
+         *
+         * @return El valor, o null si la columna no existe o el campo está vacío
+         */
+        String campo(Fila<E> fila, String columna) {
+            Integer indice = columnas.get(columna.toLowerCase(Locale.ROOT));
+            if (indice == null || indice >= fila.campos.length) {
+                return null;
+            }
+            String valor = fila.campos[indice].trim();
+            return valor.isEmpty() ? null : valor;
+        }
+
+        ResultadoImportacionDTO ejecutar(Path archivo, ProgresoImportacion progreso) throws BusinessException {
+            ExecutorService escritor = Executors.newSingleThreadExecutor(r -> {
+                Thread hilo = new Thread(r, "importacion-" + clave);
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            try (LectorCsv lector = new LectorCsv(archivo)) {
+                leerCabecera(lector);
+                int procesadas = importacionDAO.obtenerFilasProcesadas(clave);
+                int saltadas = 0;
+                while (saltadas < procesadas && lector.siguienteFila() != null) {
+                    saltadas++;
+                }
+                int omitidas = saltadas;
+
+                long inicio = System.nanoTime();
+                int leidas = 0;
+                Future<?> escritura = null;
+                List<String[]> bloque = leerBloque(lector);
+                while (!bloque.isEmpty()) {
+                    List<Fila<E>> filas = validar(bloque, omitidas + leidas + 1);
+                    leidas += bloque.size();
+                    esperar(escritura);
+
+                    int leidasHastaAqui = leidas;
+                    escritura = escritor.submit(() -> {
+                        escribir(filas, omitidas + leidasHastaAqui);
+                        if (progreso != null) {
+                            progreso.avance(leidasHastaAqui, insertadas, rechazadas,
+                                    leidasHastaAqui * 1_000_000_000.0 / Math.max(1, System.nanoTime() - inicio));
+                        }
+                        return null;
+                    });
+                    bloque = leerBloque(lector);
+                }
+                esperar(escritura);
+
+                return new ResultadoImportacionDTO(leidas, insertadas, rechazadas, omitidas,
+                        System.nanoTime() - inicio, List.copyOf(errores));
+            } catch (IOException e) {
+                throw new BusinessException("Error al leer el fichero " + archivo + ": " + e.getMessage());
+            } catch (PersistenceException e) {
+                throw new BusinessException("Error al importar " + clave + ": " + e.getMessage());
+            } finally {
+                escritor.shutdownNow();
+            }
+        }
+
+        private void leerCabecera(LectorCsv lector) throws IOException, BusinessException {
+            String[] cabecera = lector.siguienteFila();
+            if (cabecera == null) {
+                throw new BusinessException("El fichero está vacío");
+            }
+            for (int i = 0; i < cabecera.length; i++) {
+                columnas.putIfAbsent(cabecera[i].trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String obligatoria : obligatorias) {
+                if (!columnas.containsKey(obligatoria.toLowerCase(Locale.ROOT))) {
+                    throw new BusinessException("Falta la columna obligatoria '" + obligatoria + "'");
+                }
+            }
+        }
+
+        private List<String[]> leerBloque(LectorCsv lector) throws IOException {
+            List<String[]> bloque = new ArrayList<>(tamanoLote);
+            String[] campos;
+            while (bloque.size() < tamanoLote && (campos = lector.siguienteFila()) != null) {
+                bloque.add(campos);
+            }
+            return bloque;
+        }
+
+        private List<Fila<E>> validar(List<String[]> bloque, int primeraFila) {
+            return IntStream.range(0, bloque.size()).parallel()
+                    .mapToObj(i -> {
+                        Fila<E> fila = new Fila<>(primeraFila + i, bloque.get(i));
+                        try {
+                            fila.entidad = convertir(fila);
+                        } catch (BusinessException e) {
+                            fila.error = e.getMessage();
+                        }
+                        return fila;
+                    })
+                    .toList();
+        }
+
+        private void escribir(List<Fila<E>> filas, int filasProcesadas) throws BusinessException, PersistenceException {
+            depurar(filas);
+            List<Fila<E>> validas = new ArrayList<>(filas.size());
+            List<Fila<E>> invalidas = new ArrayList<>();
+            for (Fila<E> fila : filas) {
+                (fila.error == null ? validas : invalidas).add(fila);
+            }
+
+            guardar(validas, filasProcesadas);
+
+            insertadas += validas.size();
+            rechazadas += invalidas.size();
+            for (Fila<E> fila : invalidas) {
+                if (errores.size() < MAX_ERRORES) {
+                    errores.add("Fila " + fila.numero + ": " + fila.error);
+                }
+            }
+        }
+
+        /**
+         * Espera a que termine la escritura del bloque anterior y propaga su error.
+         */
+        private void esperar(Future<?> escritura) throws BusinessException, PersistenceException {
+            if (escritura == null) {
+                return;
+            }
+            try {
+                escritura.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new BusinessException("La importación de " + clave + " se interrumpió");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof BusinessException causa) {
+                    throw causa;
+                }
+                if (e.getCause() instanceof PersistenceException causa) {
+                    throw causa;
+                }
+                throw new BusinessException("Error al importar " + clave + ": " + e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Fila de datos del fichero, numerada desde 1 sin contar la cabecera, con la entidad
+     * convertida o el motivo de su rechazo.
+     */
+    private static final class Fila<E> {
+        final int numero;
+        final String[] campos;
+        E entidad;
+        String referencia; // Referencia del cliente en el fichero de clientes
+        String error;
+
+        Fila(int numero, String[] campos) {
+            this.numero = numero;
+            this.campos = campos;
+        }
+    }
+
+    /**
+     * Convierte un campo en entero.
+     *
+     * @param valor  el valor del campo, o null si está vacío
+     * @param nombre el nombre del dato para el mensaje de error
+     * @return el entero, 0 si el campo está vacío
+     * @throws BusinessException si el valor no es un entero
+     */
+    private static int entero(String valor, String nombre) throws BusinessException {
+        if (valor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new BusinessException(nombre + " debe ser un número entero");
+        }
+    }
+}
@@ -1,12 +1,16 @@
 package model.services.impl;
 
-import model.dao.MascotaDAO;
+import model.dao.GenericDAO;
 import model.entities.Mascota;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.MascotaService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de mascotas en la veterinaria.
@@ -18,14 +22,14 @@ import java.util.List;
  */
 public class MascotaServiceImpl implements MascotaService {
 
-    private final MascotaDAO mascotaDAO;
+    private final GenericDAO<Mascota> mascotaDAO;
 
     /**
      * Constructor que inicializa el servicio con un DAO de mascotas.
      *
      * @param mascotaDAO el DAO que manejará las operaciones de persistencia
      */
-    public MascotaServiceImpl (MascotaDAO mascotaDAO) {
+    public MascotaServiceImpl (GenericDAO<Mascota> mascotaDAO) {
         this.mascotaDAO = mascotaDAO;
     }
 
@@ -33,18 +37,41 @@ public class MascotaServiceImpl implements MascotaService {
      * Guarda una nueva mascota después de validar sus datos.
      *
      * @param mascota la mascota a guardar
+     * @return la mascota guardada, con su ID asignado
      * @throws BusinessException si la mascota no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarMascota(Mascota mascota) throws BusinessException {
+    public Mascota guardarMascota(Mascota mascota) throws BusinessException {
         validarMascota(mascota);
         try{
             mascotaDAO.guardar(mascota);
+            EventosDominio.publicar(CambioEntidad.creados(Mascota.class, List.of(mascota), Mascota::getIdMascota));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al guardar la mascota: " + e.getMessage());
         }
+        return mascota;
+    }
 
+    /**
+     * Guarda varias mascotas con inserciones por lotes después de validarlas todas.
+     *
+     * @param mascotas las mascotas a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguna no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarMascotas(List<Mascota> mascotas) throws BusinessException {
+        for (Mascota mascota : mascotas) {
+            validarMascota(mascota);
+        }
+        try {
+            List<Integer> ids = mascotaDAO.guardarTodos(mascotas);
+            EventosDominio.publicar(CambioEntidad.creados(Mascota.class, mascotas, Mascota::getIdMascota));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar las mascotas: " + e.getMessage());
+        }
     }
 
     /**
@@ -63,6 +90,39 @@ public class MascotaServiceImpl implements MascotaService {
         }
     }
 
+    /**
+     * Obtiene una página de mascotas ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Mascota> obtenerMascotasPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return mascotaDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de mascotas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta las mascotas registradas en el sistema.
+     *
+     * @return número total de mascotas
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarMascotas() throws BusinessException {
+        try {
+            return mascotaDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar mascotas: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca una mascota por su ID en la base de datos.
      *
@@ -81,6 +141,22 @@ public class MascotaServiceImpl implements MascotaService {
 
     }
 
+    /**
+     * Busca las mascotas con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a mascota con las mascotas encontradas
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Mascota> buscarMascotasPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return mascotaDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar mascotas: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de una mascota existente.
      *
@@ -92,6 +168,7 @@ public class MascotaServiceImpl implements MascotaService {
         validarMascota(mascota);
         try{
             mascotaDAO.actualizar(mascota);
+            EventosDominio.publicar(CambioEntidad.actualizados(Mascota.class, List.of(mascota), Mascota::getIdMascota));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al actualizar mascota: " + e.getMessage());
@@ -99,6 +176,25 @@ public class MascotaServiceImpl implements MascotaService {
 
     }
 
+    /**
+     * Actualiza varias mascotas con sentencias por lotes después de validarlas todas.
+     *
+     * @param mascotas las mascotas con los datos actualizados
+     * @throws BusinessException si alguna no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarMascotas(List<Mascota> mascotas) throws BusinessException {
+        for (Mascota mascota : mascotas) {
+            validarMascota(mascota);
+        }
+        try {
+            mascotaDAO.actualizarTodos(mascotas);
+            EventosDominio.publicar(CambioEntidad.actualizados(Mascota.class, mascotas, Mascota::getIdMascota));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar las mascotas: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina una mascota existente.
      *
@@ -109,19 +205,37 @@ public class MascotaServiceImpl implements MascotaService {
     public void eliminarMascota(int id) throws BusinessException {
         try{
             mascotaDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Mascota.class, List.of(id)));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al eliminar cita: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varias mascotas con sentencias por lotes.
+     *
+     * @param ids los IDs de las mascotas a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarMascotas(Collection<Integer> ids) throws BusinessException {
+        try {
+            mascotaDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Mascota.class, ids));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar las mascotas: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de una mascota sean correctos.
      *
      * @param mascota la mascota a validar
      * @throws BusinessException si la mascota no cumple con las validaciones requeridas
      */
-    private void validarMascota(Mascota mascota) throws BusinessException {
+    @Override
+    public void validarMascota(Mascota mascota) throws BusinessException {
         if (mascota.getNombre() == null || mascota.getNombre().trim().isEmpty()) {
             throw new BusinessException("El nombre de la mascota es requerido");
         }
@@ -129,4 +243,20 @@ public class MascotaServiceImpl implements MascotaService {
             throw new BusinessException("Se debe asignar un cliente válido");
         }
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset de la página, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
@@ -1,13 +1,20 @@
 package model.services.impl;
 
+import model.dao.GenericDAO;
 import model.dao.MedicamentoDAO;
 import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
 import model.entities.Medicamento;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.MedicamentoService;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de medicamentos en la veterinaria.
@@ -19,7 +26,8 @@ import java.util.List;
  */
 public class MedicamentoServiceImpl implements MedicamentoService {
 
-    private final MedicamentoDAO medicamentoDAO;
+    private final GenericDAO<Medicamento> medicamentoDAO;
+    private final MedicamentoDAO reportesDAO;
 
     /**
      * Constructor que inicializa el servicio con un DAO de medicamentos.
@@ -27,23 +35,59 @@ public class MedicamentoServiceImpl implements MedicamentoService {
      * @param medicamentoDAO el DAO que manejará las operaciones de persistencia
      */
     public MedicamentoServiceImpl(MedicamentoDAO medicamentoDAO) {
+        this(medicamentoDAO, medicamentoDAO);
+    }
+
+    /**
+     * Constructor que separa el DAO de las operaciones CRUD, que puede estar
+     * envuelto en una caché, del DAO que genera los reportes de ventas.
+     *
+     * @param medicamentoDAO el DAO que manejará las operaciones CRUD
+     * @param reportesDAO    el DAO que generará los reportes de ventas
+     */
+    public MedicamentoServiceImpl(GenericDAO<Medicamento> medicamentoDAO, MedicamentoDAO reportesDAO) {
         this.medicamentoDAO = medicamentoDAO;
+        this.reportesDAO = reportesDAO;
     }
 
     /**
      * Guarda un nuevo medicamento después de validar sus datos.
      *
      * @param medicamento el medicamento a guardar
+     * @return el medicamento guardado, con su ID asignado
      * @throws BusinessException si el medicamento no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarMedicamento(Medicamento medicamento) throws BusinessException {
+    public Medicamento guardarMedicamento(Medicamento medicamento) throws BusinessException {
         validarMedicamento(medicamento);
         try {
             medicamentoDAO.guardar(medicamento);
+            EventosDominio.publicar(CambioEntidad.creados(Medicamento.class, List.of(medicamento), Medicamento::getIdMedicamento));
         } catch (PersistenceException e) {
             throw new BusinessException("Error al guardar el medicamento: " + e.getMessage());
         }
+        return medicamento;
+    }
+
+    /**
+     * Guarda varios medicamentos con inserciones por lotes después de validarlos todos.
+     *
+     * @param medicamentos los medicamentos a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarMedicamentos(List<Medicamento> medicamentos) throws BusinessException {
+        for (Medicamento medicamento : medicamentos) {
+            validarMedicamento(medicamento);
+        }
+        try {
+            List<Integer> ids = medicamentoDAO.guardarTodos(medicamentos);
+            EventosDominio.publicar(CambioEntidad.creados(Medicamento.class, medicamentos, Medicamento::getIdMedicamento));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los medicamentos: " + e.getMessage());
+        }
     }
 
     /**
@@ -61,6 +105,39 @@ public class MedicamentoServiceImpl implements MedicamentoService {
         }
     }
 
+    /**
+     * Obtiene una página de medicamentos ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Medicamento> obtenerMedicamentosPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return medicamentoDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de medicamentos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta los medicamentos registrados en el sistema.
+     *
+     * @return número total de medicamentos
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarMedicamentos() throws BusinessException {
+        try {
+            return medicamentoDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar medicamentos: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un medicamento por su ID en la base de datos.
      *
@@ -77,6 +154,22 @@ public class MedicamentoServiceImpl implements MedicamentoService {
         }
     }
 
+    /**
+     * Busca los medicamentos con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a medicamento con los medicamentos encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Medicamento> buscarMedicamentosPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return medicamentoDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar medicamentos: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de un medicamento existente.
      *
@@ -88,12 +181,32 @@ public class MedicamentoServiceImpl implements MedicamentoService {
         validarMedicamento(medicamento);
         try {
             medicamentoDAO.actualizar(medicamento);
+            EventosDominio.publicar(CambioEntidad.actualizados(Medicamento.class, List.of(medicamento), Medicamento::getIdMedicamento));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar medicamento: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios medicamentos con sentencias por lotes después de validarlos todos.
+     *
+     * @param medicamentos los medicamentos con los datos actualizados
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarMedicamentos(List<Medicamento> medicamentos) throws BusinessException {
+        for (Medicamento medicamento : medicamentos) {
+            validarMedicamento(medicamento);
+        }
+        try {
+            medicamentoDAO.actualizarTodos(medicamentos);
+            EventosDominio.publicar(CambioEntidad.actualizados(Medicamento.class, medicamentos, Medicamento::getIdMedicamento));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los medicamentos: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina un medicamento existente.
      *
@@ -104,12 +217,29 @@ public class MedicamentoServiceImpl implements MedicamentoService {
     public void eliminarMedicamento(int id) throws BusinessException {
         try {
             medicamentoDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Medicamento.class, List.of(id)));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar medicamento: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varios medicamentos con sentencias por lotes.
+     *
+     * @param ids los IDs de los medicamentos a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarMedicamentos(Collection<Integer> ids) throws BusinessException {
+        try {
+            medicamentoDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Medicamento.class, ids));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar los medicamentos: " + e.getMessage());
+        }
+    }
+
     /**
      * Obtiene un reporte de los medicamentos más vendidos.
      *
@@ -119,12 +249,49 @@ public class MedicamentoServiceImpl implements MedicamentoService {
     @Override
     public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos() throws BusinessException {
         try {
-            return medicamentoDAO.buscarMedicamentosMasVendidos();
+            return reportesDAO.buscarMedicamentosMasVendidos();
         } catch (PersistenceException e) {
             throw new BusinessException("Error al obtener los medicamentos más vendidos" + e.getMessage());
         }
     }
 
+    /**
+     * Obtiene un reporte de los medicamentos más vendidos en una ventana de tiempo.
+     *
+     * @param periodo la ventana de tiempo del reporte
+     * @param fecha   una fecha contenida en la ventana
+     * @return Lista de DTOs con información de medicamentos más vendidos
+     * @throws BusinessException Si los datos no son válidos o ocurre un error al generar el reporte
+     */
+    @Override
+    public List<MedicamentoMasVendidoDTO> buscarMedicamentosMasVendidos(PeriodoVentas periodo, LocalDate fecha) throws BusinessException {
+        if (periodo == null) {
+            throw new BusinessException("El periodo del reporte es requerido");
+        }
+        if (fecha == null && periodo != PeriodoVentas.TOTAL) {
+            throw new BusinessException("La fecha del reporte es requerida");
+        }
+        try {
+            return reportesDAO.buscarMedicamentosMasVendidos(periodo, fecha != null ? fecha : LocalDate.now());
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener los medicamentos más vendidos: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Vuelve a calcular las ventas acumuladas de medicamentos a partir de las facturas.
+     *
+     * @throws BusinessException Si ocurre un error durante la reconstrucción
+     */
+    @Override
+    public void reconstruirVentasMedicamentos() throws BusinessException {
+        try {
+            reportesDAO.reconstruirVentas();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al reconstruir las ventas de medicamentos: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un medicamento sean correctos.
      * (Implementación pendiente de validaciones específicas)
@@ -135,4 +302,20 @@ public class MedicamentoServiceImpl implements MedicamentoService {
     private void validarMedicamento(Medicamento medicamento) throws BusinessException {
 
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset de la página, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
@@ -1,12 +1,16 @@
 package model.services.impl;
 
-import model.dao.ServicioDAO;
+import model.dao.GenericDAO;
 import model.entities.Servicio;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.ServicioService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de servicios de la veterinaria.
@@ -18,14 +22,14 @@ import java.util.List;
  */
 public class ServicioServiceImpl implements ServicioService {
 
-    private final ServicioDAO servicioDAO;
+    private final GenericDAO<Servicio> servicioDAO;
 
     /**
      * Constructor que inicializa el servicio con un DAO de servicios.
      *
      * @param servicioDAO el DAO que manejará las operaciones de persistencia
      */
-    public ServicioServiceImpl(ServicioDAO servicioDAO) {
+    public ServicioServiceImpl(GenericDAO<Servicio> servicioDAO) {
         this.servicioDAO = servicioDAO;
     }
 
@@ -33,16 +37,40 @@ public class ServicioServiceImpl implements ServicioService {
      * Guarda un nuevo servicio después de validar sus datos.
      *
      * @param servicio el servicio a guardar
+     * @return el servicio guardado, con su ID asignado
      * @throws BusinessException si el servicio no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarServicio(Servicio servicio) throws BusinessException {
+    public Servicio guardarServicio(Servicio servicio) throws BusinessException {
         validarServicio(servicio);
         try {
             servicioDAO.guardar(servicio);
+            EventosDominio.publicar(CambioEntidad.creados(Servicio.class, List.of(servicio), Servicio::getIdServicio));
         } catch (PersistenceException e) {
             throw new BusinessException("Error al guardar el servicio: " + e.getMessage());
         }
+        return servicio;
+    }
+
+    /**
+     * Guarda varios servicios con inserciones por lotes después de validarlos todos.
+     *
+     * @param servicios los servicios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarServicios(List<Servicio> servicios) throws BusinessException {
+        for (Servicio servicio : servicios) {
+            validarServicio(servicio);
+        }
+        try {
+            List<Integer> ids = servicioDAO.guardarTodos(servicios);
+            EventosDominio.publicar(CambioEntidad.creados(Servicio.class, servicios, Servicio::getIdServicio));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los servicios: " + e.getMessage());
+        }
     }
 
     /**
@@ -60,6 +88,39 @@ public class ServicioServiceImpl implements ServicioService {
         }
     }
 
+    /**
+     * Obtiene una página de servicios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Servicio> obtenerServiciosPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return servicioDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de servicios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta los servicios registrados en el sistema.
+     *
+     * @return número total de servicios
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarServicios() throws BusinessException {
+        try {
+            return servicioDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar servicios: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un servicio por su ID en la base de datos.
      *
@@ -76,6 +137,22 @@ public class ServicioServiceImpl implements ServicioService {
         }
     }
 
+    /**
+     * Busca los servicios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a servicio con los servicios encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Servicio> buscarServiciosPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return servicioDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar servicios: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de un servicio existente.
      *
@@ -87,12 +164,32 @@ public class ServicioServiceImpl implements ServicioService {
         validarServicio(servicio);
         try {
             servicioDAO.actualizar(servicio);
+            EventosDominio.publicar(CambioEntidad.actualizados(Servicio.class, List.of(servicio), Servicio::getIdServicio));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar servicio: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios servicios con sentencias por lotes después de validarlos todos.
+     *
+     * @param servicios los servicios con los datos actualizados
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarServicios(List<Servicio> servicios) throws BusinessException {
+        for (Servicio servicio : servicios) {
+            validarServicio(servicio);
+        }
+        try {
+            servicioDAO.actualizarTodos(servicios);
+            EventosDominio.publicar(CambioEntidad.actualizados(Servicio.class, servicios, Servicio::getIdServicio));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los servicios: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina un servicio existente.
      *
@@ -103,12 +200,29 @@ public class ServicioServiceImpl implements ServicioService {
     public void eliminarServicio(int id) throws BusinessException {
         try {
             servicioDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Servicio.class, List.of(id)));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar servicio: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varios servicios con sentencias por lotes.
+     *
+     * @param ids los IDs de los servicios a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarServicios(Collection<Integer> ids) throws BusinessException {
+        try {
+            servicioDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Servicio.class, ids));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar los servicios: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un servicio sean correctos.
      * (Implementación pendiente de validaciones específicas)
@@ -119,4 +233,20 @@ public class ServicioServiceImpl implements ServicioService {
     private void validarServicio(Servicio servicio) throws BusinessException {
 
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset de la página, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
@@ -2,11 +2,15 @@ package model.services.impl;
 
 import model.dao.UsuarioDAO;
 import model.entities.Usuario;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.UsuarioService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de usuarios del sistema.
@@ -33,16 +37,40 @@ public class UsuarioServiceImpl implements UsuarioService {
      * Guarda un nuevo usuario después de validar sus datos.
      *
      * @param usuario el usuario a guardar
+     * @return el usuario guardado, con su ID asignado
      * @throws BusinessException si el usuario no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarUsuario(Usuario usuario) throws BusinessException {
+    public Usuario guardarUsuario(Usuario usuario) throws BusinessException {
         validarUsuario(usuario);
         try {
             usuarioDAO.guardar(usuario);
+            EventosDominio.publicar(CambioEntidad.creados(Usuario.class, List.of(usuario), Usuario::getIdUsuario));
         } catch (PersistenceException e) {
             throw new BusinessException("Error al guardar el usuario: " + e.getMessage());
         }
+        return usuario;
+    }
+
+    /**
+     * Guarda varios usuarios con inserciones por lotes después de validarlos todos.
+     *
+     * @param usuarios los usuarios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarUsuarios(List<Usuario> usuarios) throws BusinessException {
+        for (Usuario usuario : usuarios) {
+            validarUsuario(usuario);
+        }
+        try {
+            List<Integer> ids = usuarioDAO.guardarTodos(usuarios);
+            EventosDominio.publicar(CambioEntidad.creados(Usuario.class, usuarios, Usuario::getIdUsuario));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los usuarios: " + e.getMessage());
+        }
     }
 
     /**
@@ -76,6 +104,22 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
     }
 
+    /**
+     * Busca los usuarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a usuario con los usuarios encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Usuario> buscarUsuariosPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return usuarioDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar usuarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un usuario por su nombre de usuario en la base de datos.
      *
@@ -103,12 +147,32 @@ public class UsuarioServiceImpl implements UsuarioService {
         validarUsuario(usuario);
         try {
             usuarioDAO.actualizar(usuario);
+            EventosDominio.publicar(CambioEntidad.actualizados(Usuario.class, List.of(usuario), Usuario::getIdUsuario));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar usuario: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios usuarios con sentencias por lotes después de validarlos todos.
+     *
+     * @param usuarios los usuarios con los datos actualizados
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarUsuarios(List<Usuario> usuarios) throws BusinessException {
+        for (Usuario usuario : usuarios) {
+            validarUsuario(usuario);
+        }
+        try {
+            usuarioDAO.actualizarTodos(usuarios);
+            EventosDominio.publicar(CambioEntidad.actualizados(Usuario.class, usuarios, Usuario::getIdUsuario));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los usuarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un usuario sean correctos.
      *
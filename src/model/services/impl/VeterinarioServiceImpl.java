@@ -1,12 +1,16 @@
 package model.services.impl;
 
-import model.dao.VeterinarioDAO;
+import model.dao.GenericDAO;
 import model.entities.Veterinario;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
 import model.services.VeterinarioService;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Implementación del servicio para gestión de veterinarios.
@@ -18,14 +22,14 @@ import java.util.List;
  */
 public class VeterinarioServiceImpl implements VeterinarioService {
 
-    private final VeterinarioDAO veterinarioDAO;
+    private final GenericDAO<Veterinario> veterinarioDAO;
 
     /**
      * Constructor que inicializa el servicio con un DAO de veterinarios.
      *
      * @param veterinarioDAO el DAO que manejará las operaciones de persistencia
      */
-    public VeterinarioServiceImpl(VeterinarioDAO veterinarioDAO) {
+    public VeterinarioServiceImpl(GenericDAO<Veterinario> veterinarioDAO) {
         this.veterinarioDAO = veterinarioDAO;
     }
 
@@ -33,18 +37,41 @@ public class VeterinarioServiceImpl implements VeterinarioService {
      * Guarda un nuevo veterinario después de validar sus datos.
      *
      * @param veterinario el veterinario a guardar
+     * @return el veterinario guardado, con su ID asignado
      * @throws BusinessException si el veterinario no cumple validaciones o hay error de persistencia
      */
     @Override
-    public void guardarVeterinario(Veterinario veterinario) throws BusinessException {
+    public Veterinario guardarVeterinario(Veterinario veterinario) throws BusinessException {
         validarVeterinario(veterinario);
         try{
             veterinarioDAO.guardar(veterinario);
+            EventosDominio.publicar(CambioEntidad.creados(Veterinario.class, List.of(veterinario), Veterinario::getIdVeterinario));
         }
         catch (PersistenceException e){
             throw new BusinessException("Error al guardar el veterinario: " + e.getMessage());
         }
+        return veterinario;
+    }
 
+    /**
+     * Guarda varios veterinarios con inserciones por lotes después de validarlos todos.
+     *
+     * @param veterinarios los veterinarios a guardar
+     * @return los IDs generados, en el orden de la lista
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public List<Integer> guardarVeterinarios(List<Veterinario> veterinarios) throws BusinessException {
+        for (Veterinario veterinario : veterinarios) {
+            validarVeterinario(veterinario);
+        }
+        try {
+            List<Integer> ids = veterinarioDAO.guardarTodos(veterinarios);
+            EventosDominio.publicar(CambioEntidad.creados(Veterinario.class, veterinarios, Veterinario::getIdVeterinario));
+            return ids;
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al guardar los veterinarios: " + e.getMessage());
+        }
     }
 
     /**
@@ -63,6 +90,39 @@ public class VeterinarioServiceImpl implements VeterinarioService {
         }
     }
 
+    /**
+     * Obtiene una página de veterinarios ordenada por ID.
+     *
+     * @param offset número de filas a saltar
+     * @param limite tamaño de la página
+     * @return lista con la página solicitada
+     * @throws BusinessException si los parámetros no son válidos o hay error de persistencia
+     */
+    @Override
+    public List<Veterinario> obtenerVeterinariosPagina(int offset, int limite) throws BusinessException {
+        validarPagina(offset, limite);
+        try {
+            return veterinarioDAO.obtenerPagina(offset, limite);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al obtener página de veterinarios: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cuenta los veterinarios registrados en el sistema.
+     *
+     * @return número total de veterinarios
+     * @throws BusinessException si ocurre un error al acceder a los datos
+     */
+    @Override
+    public int contarVeterinarios() throws BusinessException {
+        try {
+            return veterinarioDAO.contar();
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al contar veterinarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Busca un veterinario por su ID en la base de datos.
      *
@@ -79,6 +139,22 @@ public class VeterinarioServiceImpl implements VeterinarioService {
         }
     }
 
+    /**
+     * Busca los veterinarios con los IDs indicados en una sola consulta.
+     *
+     * @param ids los IDs a buscar
+     * @return mapa de ID a veterinario con los veterinarios encontrados
+     * @throws BusinessException si hay error de persistencia
+     */
+    @Override
+    public Map<Integer, Veterinario> buscarVeterinariosPorIds(Collection<Integer> ids) throws BusinessException {
+        try {
+            return veterinarioDAO.buscarPorIds(ids);
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al buscar veterinarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Actualiza los datos de un veterinario existente.
      *
@@ -90,12 +166,32 @@ public class VeterinarioServiceImpl implements VeterinarioService {
         validarVeterinario(veterinario);
         try {
             veterinarioDAO.actualizar(veterinario);
+            EventosDominio.publicar(CambioEntidad.actualizados(Veterinario.class, List.of(veterinario), Veterinario::getIdVeterinario));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al actualizar veterinario: " + e.getMessage());
         }
     }
 
+    /**
+     * Actualiza varios veterinarios con sentencias por lotes después de validarlos todos.
+     *
+     * @param veterinarios los veterinarios con los datos actualizados
+     * @throws BusinessException si alguno no cumple validaciones o hay error de persistencia
+     */
+    @Override
+    public void actualizarVeterinarios(List<Veterinario> veterinarios) throws BusinessException {
+        for (Veterinario veterinario : veterinarios) {
+            validarVeterinario(veterinario);
+        }
+        try {
+            veterinarioDAO.actualizarTodos(veterinarios);
+            EventosDominio.publicar(CambioEntidad.actualizados(Veterinario.class, veterinarios, Veterinario::getIdVeterinario));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al actualizar los veterinarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Elimina un veterinario existente.
      *
@@ -106,12 +202,29 @@ public class VeterinarioServiceImpl implements VeterinarioService {
     public void eliminarVeterinario(int id) throws  BusinessException{
         try {
             veterinarioDAO.eliminar(id);
+            EventosDominio.publicar(CambioEntidad.eliminados(Veterinario.class, List.of(id)));
         }
         catch (PersistenceException e) {
             throw new BusinessException("Error al eliminar veterinario: " + e.getMessage());
         }
     }
 
+    /**
+     * Elimina varios veterinarios con sentencias por lotes.
+     *
+     * @param ids los IDs de los veterinarios a eliminar
+     * @throws BusinessException si falla la operación en la base de datos
+     */
+    @Override
+    public void eliminarVeterinarios(Collection<Integer> ids) throws BusinessException {
+        try {
+            veterinarioDAO.eliminarTodos(ids);
+            EventosDominio.publicar(CambioEntidad.eliminados(Veterinario.class, ids));
+        } catch (PersistenceException e) {
+            throw new BusinessException("Error al eliminar los veterinarios: " + e.getMessage());
+        }
+    }
+
     /**
      * Valida que los datos básicos de un veterinario sean correctos.
      *
@@ -123,4 +236,20 @@ public class VeterinarioServiceImpl implements VeterinarioService {
             throw new BusinessException("El nombre del veterinario es requerido");
         }
     }
+
+    /**
+     * Valida los parámetros de paginación.
+     *
+     * @param inicio offset de la página, nunca negativo
+     * @param limite tamaño de la página, mayor que cero
+     * @throws BusinessException si alguno de los parámetros no es válido
+     */
+    private void validarPagina(int inicio, int limite) throws BusinessException {
+        if (inicio < 0) {
+            throw new BusinessException("El inicio de la página no puede ser negativo");
+        }
+        if (limite <= 0) {
+            throw new BusinessException("El tamaño de página debe ser mayor que cero");
+        }
+    }
 }
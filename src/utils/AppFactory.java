@@ -2,9 +2,17 @@ package utils;
 
 import controller.*;
 import model.dao.*;
+import model.entities.*;
+import model.events.CambioEntidad;
+import model.events.SincronizadorCambios;
 import model.services.*;
 import model.services.impl.*;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
 /**
  * Factory class for creating and managing all application components (DAOs, Services, and Controllers).
  * Implements the Factory pattern to centralize object creation and provide easy access to all components.
@@ -25,6 +33,17 @@ public class AppFactory {
     private static FacturaDAO facturaDAO;
     private static DetalleFacturaDAO detalleFacturaDAO;
 
+    //In-memory sales analytics, refreshed by the invoice services after each write
+    private static CuboVentas cuboVentas;
+    private static ImportacionDAO importacionDAO;
+
+    //Entity caches (only for the entities enabled in config.properties)
+    private static Map<String, CacheDAO<?>> caches;
+
+    //Shared change log, polled to learn about the writes of other workstations
+    private static CambioDAO cambioDAO;
+    private static SincronizadorCambios sincronizador;
+
     //Services
     private static UsuarioService usuarioService;
     private static ClienteService clienteService;
@@ -36,6 +55,8 @@ public class AppFactory {
     private static FacturaService facturaService;
     private static DetalleFacturaService detalleFacturaService;
     private static AuthService authService;
+    private static AnaliticaVentasService analiticaVentasService;
+    private static ImportacionService importacionService;
 
     //Controllers
     private static UsuarioController usuarioController;
@@ -48,6 +69,9 @@ public class AppFactory {
     private static FacturaController facturaController;
     private static DetalleFacturaController detalleFacturaController;
     private static AuthController authController;
+    private static DiagnosticoController diagnosticoController;
+    private static AnaliticaVentasController analiticaVentasController;
+    private static ImportacionController importacionController;
 
     static {
         initialize();
@@ -57,6 +81,9 @@ public class AppFactory {
      * Initializes all components with their default implementations.
      */
     private static void initialize() {
+        // Fail at startup, not on first use, if queries.properties is out of date
+        Query.validateAll();
+
         usuarioDAO = new UsuarioDAO();
         clienteDAO = new ClienteDAO();
         mascotaDAO = new MascotaDAO();
@@ -66,17 +93,52 @@ public class AppFactory {
         servicioDAO = new ServicioDAO();
         facturaDAO = new FacturaDAO();
         detalleFacturaDAO = new DetalleFacturaDAO();
+        cuboVentas = new CuboVentas(detalleFacturaDAO);
+        importacionDAO = new ImportacionDAO();
+        cambioDAO = new CambioDAO();
+
+        caches = new LinkedHashMap<>();
+        GenericDAO<Cliente> clientes = conCache("cliente", clienteDAO, Cliente::getIdCliente);
+        GenericDAO<Mascota> mascotas = conCache("mascota", mascotaDAO, Mascota::getIdMascota);
+        GenericDAO<Veterinario> veterinarios = conCache("veterinario", veterinarioDAO, Veterinario::getIdVeterinario);
+        GenericDAO<Medicamento> medicamentos = conCache("medicamento", medicamentoDAO, Medicamento::getIdMedicamento);
+        GenericDAO<Servicio> servicios = conCache("servicio", servicioDAO, Servicio::getIdServicio);
+        caches = Collections.unmodifiableMap(caches);
 
         usuarioService = new UsuarioServiceImpl(usuarioDAO);
-        clienteService = new ClienteServiceImpl(clienteDAO);
-        mascotaService = new MascotaServiceImpl(mascotaDAO);
-        veterinarioService = new VeterinarioServiceImpl(veterinarioDAO);
-        citaService = new CitaServiceImpl(citaDAO);
-        medicamentoService = new MedicamentoServiceImpl(medicamentoDAO);
-        servicioService = new ServicioServiceImpl(servicioDAO);
-        facturaService = new FacturaServiceImpl(facturaDAO);
-        detalleFacturaService = new DetalleFacturaServiceImpl(detalleFacturaDAO);
+        clienteService = new ClienteServiceImpl(clientes);
+        mascotaService = new MascotaServiceImpl(mascotas);
+        veterinarioService = new VeterinarioServiceImpl(veterinarios);
+        CitaServiceImpl citas = new CitaServiceImpl(citaDAO);
+        citaService = citas;
+        medicamentoService = new MedicamentoServiceImpl(medicamentos, medicamentoDAO);
+        servicioService = new ServicioServiceImpl(servicios);
+        facturaService = new FacturaServiceImpl(facturaDAO, cuboVentas);
+        detalleFacturaService = new DetalleFacturaServiceImpl(detalleFacturaDAO, cuboVentas);
         authService = new AuthServiceImpl(usuarioDAO);
+        analiticaVentasService = new AnaliticaVentasServiceImpl(cuboVentas);
+        importacionService = new ImportacionServiceImpl(importacionDAO, clienteService, mascotaService);
+
+        // A reset must not leave the previous poller running against the old components
+        if (sincronizador != null) {
+            sincronizador.detener();
+        }
+        sincronizador = new SincronizadorCambios(cambioDAO, DatabaseConfig.getSyncIntervaloMs(),
+                DatabaseConfig.getSyncRetencionMinutos());
+        sincronizador.registrar(Usuario.class, usuarioDAO, cambio -> {});
+        sincronizador.registrar(Cliente.class, clientes, cambio -> invalidarCache("cliente", cambio));
+        sincronizador.registrar(Mascota.class, mascotas, cambio -> invalidarCache("mascota", cambio));
+        sincronizador.registrar(Veterinario.class, veterinarios, cambio -> invalidarCache("veterinario", cambio));
+        sincronizador.registrar(Medicamento.class, medicamentos, cambio -> invalidarCache("medicamento", cambio));
+        sincronizador.registrar(Servicio.class, servicios, cambio -> invalidarCache("servicio", cambio));
+        sincronizador.registrar(Cita.class, citaDAO, cambio -> citas.invalidarAgenda());
+        sincronizador.registrar(Factura.class, facturaDAO, cambio -> {
+            // Changes without IDs only recalculate totals, which the sales cube does not keep
+            if (cambio.tipo() != CambioEntidad.Tipo.VARIOS) {
+                cuboVentas.refrescarFacturas(cambio.ids());
+            }
+        });
+        sincronizador.registrar(DetalleFactura.class, detalleFacturaDAO, cambio -> cuboVentas.refrescarDetalles(cambio.ids()));
 
         usuarioController = new UsuarioController(usuarioService);
         clienteController = new ClienteController(clienteService);
@@ -88,6 +150,45 @@ public class AppFactory {
         facturaController = new FacturaController(facturaService);
         detalleFacturaController = new DetalleFacturaController(detalleFacturaService);
         authController = new AuthController(authService);
+        diagnosticoController = new DiagnosticoController(caches);
+        analiticaVentasController = new AnaliticaVentasController(analiticaVentasService);
+        importacionController = new ImportacionController(importacionService);
+    }
+
+    /**
+     * Wraps a DAO in a read-through cache when caching is enabled for the entity.
+     *
+     * @param entity the entity key used in config.properties
+     * @param dao    the DAO to wrap
+     * @param id     function returning the ID of an entity
+     * @param <T>    the entity type
+     * @return the cached DAO, or the given DAO if caching is disabled for the entity
+     */
+    private static <T> GenericDAO<T> conCache(String entity, GenericDAO<T> dao, ToIntFunction<T> id) {
+        if (!DatabaseConfig.isCacheEnabled(entity)) {
+            return dao;
+        }
+        CacheDAO<T> cache = new CacheDAO<>(dao, id, DatabaseConfig.getCacheMaxEntries(), DatabaseConfig.getCacheTtlMs());
+        caches.put(entity, cache);
+        return cache;
+    }
+
+    /**
+     * Drops the cached entities touched by a change made on another workstation.
+     *
+     * @param entity the entity key used in config.properties
+     * @param cambio the change, with the IDs of the entities
+     */
+    private static void invalidarCache(String entity, CambioEntidad<?> cambio) {
+        CacheDAO<?> cache = caches.get(entity);
+        if (cache == null) {
+            return;
+        }
+        if (cambio.tipo() == CambioEntidad.Tipo.VARIOS) {
+            cache.limpiar();
+        } else {
+            cache.invalidarTodos(cambio.ids());
+        }
     }
 
     // DAO Getters
@@ -110,6 +211,17 @@ public class AppFactory {
         return clienteDAO;
     }
 
+    /**
+     * Gets the DAO to use for Cliente lookups by ID: the cached one if caching is enabled for clients.
+     *
+     * @return the cached Cliente DAO, or the ClienteDAO instance
+     */
+    public static GenericDAO<Cliente> getClienteLookupDAO() {
+        @SuppressWarnings("unchecked")
+        GenericDAO<Cliente> cache = (GenericDAO<Cliente>) caches.get("cliente");
+        return cache != null ? cache : clienteDAO;
+    }
+
     /**
      * Gets the MascotaDAO instance.
      *
@@ -173,6 +285,52 @@ public class AppFactory {
         return detalleFacturaDAO;
     }
 
+    /**
+     * Gets the in-memory sales analytics cube.
+     *
+     * @return the CuboVentas instance
+     */
+    public static CuboVentas getCuboVentas() {
+        return cuboVentas;
+    }
+
+    /**
+     * Gets the ImportacionDAO instance.
+     *
+     * @return the ImportacionDAO instance
+     */
+    public static ImportacionDAO getImportacionDAO() {
+        return importacionDAO;
+    }
+
+    /**
+     * Gets the entity caches currently enabled, keyed by entity name.
+     *
+     * @return an unmodifiable map of the enabled caches
+     */
+    public static Map<String, CacheDAO<?>> getCaches() {
+        return caches;
+    }
+
+    /**
+     * Gets the CambioDAO instance.
+     *
+     * @return the CambioDAO instance
+     */
+    public static CambioDAO getCambioDAO() {
+        return cambioDAO;
+    }
+
+    /**
+     * Gets the poller that applies the changes made on other workstations. It is created
+     * stopped; the interactive application starts it when sync is enabled.
+     *
+     * @return the SincronizadorCambios instance
+     */
+    public static SincronizadorCambios getSincronizadorCambios() {
+        return sincronizador;
+    }
+
     // Service Getters
 
     /**
@@ -256,6 +414,24 @@ public class AppFactory {
         return detalleFacturaService;
     }
 
+    /**
+     * Gets the AnaliticaVentasService instance.
+     *
+     * @return the AnaliticaVentasService instance
+     */
+    public static AnaliticaVentasService getAnaliticaVentasService() {
+        return analiticaVentasService;
+    }
+
+    /**
+     * Gets the ImportacionService instance.
+     *
+     * @return the ImportacionService instance
+     */
+    public static ImportacionService getImportacionService() {
+        return importacionService;
+    }
+
     // Controller Getters
 
     /**
@@ -348,6 +524,33 @@ public class AppFactory {
         return authController;
     }
 
+    /**
+     * Gets the DiagnosticoController instance.
+     *
+     * @return the DiagnosticoController instance
+     */
+    public static DiagnosticoController getDiagnosticoController() {
+        return diagnosticoController;
+    }
+
+    /**
+     * Gets the AnaliticaVentasController instance.
+     *
+     * @return the AnaliticaVentasController instance
+     */
+    public static AnaliticaVentasController getAnaliticaVentasController() {
+        return analiticaVentasController;
+    }
+
+    /**
+     * Gets the ImportacionController instance.
+     *
+     * @return the ImportacionController instance
+     */
+    public static ImportacionController getImportacionController() {
+        return importacionController;
+    }
+
     /**
      * Injects a mock ClienteController for testing purposes.
      *
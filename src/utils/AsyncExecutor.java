@@ -0,0 +1,135 @@
+package utils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor compartido para sacar el acceso a datos del hilo de eventos de Swing (EDT).
+ * Los controladores lo usan en sus variantes asíncronas ({@code xxxAsync}), que devuelven
+ * un {@link CompletableFuture}. Las vistas le pasan los métodos síncronos con
+ * {@link #cargar} o {@link #ejecutar(Component, Runnable)}, que además muestran el
+ * cursor de espera y entregan el resultado o el error en el EDT; {@link #EDT} sirve
+ * para aplicar en él los resultados de otros futuros.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class AsyncExecutor {
+
+    /**
+     * Ejecutor que programa las tareas en el hilo de eventos de Swing.
+     */
+    public static final Executor EDT = SwingUtilities::invokeLater;
+
+    private static final AtomicInteger CONTADOR_HILOS = new AtomicInteger();
+
+    // Más hilos que conexiones en el pool solo harían esperar a los sobrantes
+    private static final ExecutorService EJECUTOR = Executors.newFixedThreadPool(
+            DatabaseConfig.getMaxConnections(),
+            r -> {
+                Thread hilo = new Thread(r, "datos-" + CONTADOR_HILOS.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            });
+
+    private AsyncExecutor() {}
+
+    /**
+     * Ejecuta una consulta en segundo plano.
+     *
+     * @param consulta Consulta a ejecutar
+     * @param <T>      Tipo del resultado
+     * @return Futuro con el resultado de la consulta
+     */
+    public static <T> CompletableFuture<T> consultar(Supplier<T> consulta) {
+        return CompletableFuture.supplyAsync(consulta, EJECUTOR);
+    }
+
+    /**
+     * Ejecuta una operación sin resultado en segundo plano.
+     *
+     * @param operacion Operación a ejecutar
+     * @return Futuro que se completa al terminar la operación
+     */
+    public static CompletableFuture<Void> ejecutar(Runnable operacion) {
+        return CompletableFuture.runAsync(operacion, EJECUTOR);
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano y entrega su resultado en el EDT.
+     * Mientras dura, la ventana indicada muestra el cursor de espera. Si la consulta
+     * lanza una excepción se muestra un mensaje de error. Debe invocarse desde el EDT.
+     *
+     * @param ventana  Componente que indica la carga, o null
+     * @param consulta Consulta a ejecutar fuera del EDT
+     * @param enEdt    Acción que recibe el resultado en el EDT
+     * @param <T>      Tipo del resultado
+     * @return Futuro que se completa cuando la acción termina en el EDT
+     */
+    public static <T> CompletableFuture<Void> cargar(Component ventana, Supplier<T> consulta, Consumer<T> enEdt) {
+        return cargar(ventana, consulta, enEdt, AsyncExecutor::mostrarError);
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano y entrega en el EDT su resultado o, si
+     * lanza una excepción, la causa del error. Mientras dura, la ventana indicada
+     * muestra el cursor de espera. Debe invocarse desde el EDT.
+     *
+     * @param ventana  Componente que indica la carga, o null
+     * @param consulta Consulta a ejecutar fuera del EDT
+     * @param enEdt    Acción que recibe el resultado en el EDT
+     * @param enError  Acción que recibe la excepción de la consulta en el EDT
+     * @param <T>      Tipo del resultado
+     * @return Futuro que se completa cuando la acción termina en el EDT
+     */
+    public static <T> CompletableFuture<Void> cargar(Component ventana, Supplier<T> consulta, Consumer<T> enEdt,
+                                                     Consumer<Throwable> enError) {
+        SwingUtils.mostrarCargando(ventana, true);
+        return consultar(consulta)
+                .handleAsync((resultado, error) -> {
+                    SwingUtils.mostrarCargando(ventana, false);
+                    if (error != null) {
+                        enError.accept(error instanceof CompletionException && error.getCause() != null
+                                ? error.getCause() : error);
+                    } else {
+                        enEdt.accept(resultado);
+                    }
+                    return null;
+                }, EDT);
+    }
+
+    /**
+     * Ejecuta una operación sin resultado en segundo plano, como una escritura, con el
+     * cursor de espera en la ventana indicada. Si la operación lanza una excepción se
+     * muestra un mensaje de error. Debe invocarse desde el EDT.
+     *
+     * @param ventana   Componente que indica la carga, o null
+     * @param operacion Operación a ejecutar fuera del EDT
+     * @return Futuro que se completa cuando la operación termina y el EDT lo ha procesado
+     */
+    public static CompletableFuture<Void> ejecutar(Component ventana, Runnable operacion) {
+        return cargar(ventana, () -> {
+            operacion.run();
+            return null;
+        }, sinResultado -> {});
+    }
+
+    /**
+     * Informa de un error de una tarea en segundo plano en la salida de error y con un
+     * mensaje en pantalla.
+     *
+     * @param error Excepción lanzada por la tarea
+     */
+    public static void mostrarError(Throwable error) {
+        System.err.println("Error en tarea en segundo plano: " + error);
+        SwingUtils.mostrarError("No se pudo completar la operación: " + error.getMessage(), "Error");
+    }
+}
@@ -5,7 +5,8 @@ import java.util.Properties;
 
 /**
  * Utility class for loading and accessing database configuration properties.
- * Reads configuration from a properties file in the classpath.
+ * Reads configuration from a properties file in the classpath; any key can be
+ * overridden with a system property of the same name.
  *
  * @author Saúl Maldonado
  * @version 1.0
@@ -23,6 +24,14 @@ public class DatabaseConfig {
         } catch (Exception e) {
             throw new RuntimeException("Error cargando configuración", e);
         }
+
+        // System properties override the file, e.g. -Ddb.url=... for benchmarks or load tests
+        for (String key : properties.stringPropertyNames()) {
+            String override = System.getProperty(key);
+            if (override != null) {
+                properties.setProperty(key, override);
+            }
+        }
     }
 
     /**
@@ -60,4 +69,184 @@ public class DatabaseConfig {
     public static String getDbDriver() {
         return properties.getProperty("db.driver");
     }
+
+    /**
+     * Gets the maximum number of simultaneous database connections.
+     *
+     * @return the connection pool size
+     */
+    public static int getMaxConnections() {
+        return getInt("app.max_connections", 10);
+    }
+
+    /**
+     * Gets how long a caller may wait for a free pooled connection.
+     *
+     * @return the maximum wait in milliseconds
+     */
+    public static long getPoolMaxWaitMs() {
+        return getLong("pool.max_wait_ms", 5000);
+    }
+
+    /**
+     * Gets how long an unused pooled connection is kept open before eviction.
+     *
+     * @return the idle timeout in milliseconds
+     */
+    public static long getPoolIdleTimeoutMs() {
+        return getLong("pool.idle_timeout_ms", 300000);
+    }
+
+    /**
+     * Gets how long a connection may stay borrowed before it is reported as a possible leak.
+     *
+     * @return the leak detection threshold in milliseconds
+     */
+    public static long getPoolLeakThresholdMs() {
+        return getLong("pool.leak_threshold_ms", 60000);
+    }
+
+    /**
+     * Checks whether the pool records the stack trace of every borrow, so that a leak
+     * report shows where the connection was obtained. Off by default because it costs
+     * a stack walk per borrow.
+     *
+     * @return true if borrow stack traces should be captured
+     */
+    public static boolean isPoolLeakTraceEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("pool.leak_trace", "false").trim());
+    }
+
+    /**
+     * Gets how long a connection may stay borrowed before the pool closes it and frees its
+     * slot, even if it is still in use. It must exceed the longest legitimate operation
+     * (CSV exports, the sales cube build, bulk imports).
+     *
+     * @return the reclaim threshold in milliseconds, or 0 to never reclaim leaked connections
+     */
+    public static long getPoolLeakReclaimMs() {
+        return getLong("pool.leak_reclaim_ms", 0);
+    }
+
+    /**
+     * Gets the timeout used to validate a pooled connection before handing it out.
+     *
+     * @return the validation timeout in seconds
+     */
+    public static int getPoolValidationTimeoutS() {
+        return getInt("pool.validation_timeout_s", 2);
+    }
+
+    /**
+     * Gets the maximum number of prepared statements kept open on each pooled connection.
+     *
+     * @return the statement cache capacity per connection, or 0 to disable it
+     */
+    public static int getPoolStatementCacheSize() {
+        return getInt("pool.statement_cache_size", 64);
+    }
+
+    /**
+     * Gets the length of an appointment, used to detect overlapping appointments.
+     *
+     * @return the appointment length in minutes
+     */
+    public static int getCitaDuracionMinutos() {
+        return getInt("cita.duracion_minutos", 30);
+    }
+
+    /**
+     * Gets the number of CSV rows validated and inserted per transaction during a bulk import.
+     *
+     * @return the rows per import chunk
+     */
+    public static int getImportacionTamanoLote() {
+        return getInt("importacion.tamano_lote", 1000);
+    }
+
+    /**
+     * Gets the number of statements sent per {@code executeBatch} call by the DAO batch writes.
+     *
+     * @return the statements per batch round trip
+     */
+    public static int getDaoTamanoTramo() {
+        return getInt("dao.tamano_tramo", 500);
+    }
+
+    /**
+     * Checks whether the per-query metrics are published through JMX.
+     *
+     * @return true if an MBean should be registered for each query
+     */
+    public static boolean isMetricsJmxEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("metrics.jmx.enabled", "false").trim());
+    }
+
+    /**
+     * Checks whether the read-through entity cache is enabled for an entity.
+     *
+     * @param entity the entity key used in the properties, e.g. "cliente"
+     * @return true if lookups by ID of that entity should be cached
+     */
+    public static boolean isCacheEnabled(String entity) {
+        String value = properties.getProperty("cache." + entity + ".enabled");
+        return value != null && Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Gets the maximum number of entities kept by each entity cache.
+     *
+     * @return the cache capacity per entity
+     */
+    public static int getCacheMaxEntries() {
+        return getInt("cache.max_entries", 500);
+    }
+
+    /**
+     * Gets how long a cached entity is served before it is read again from the database.
+     *
+     * @return the time to live in milliseconds
+     */
+    public static long getCacheTtlMs() {
+        return getLong("cache.ttl_ms", 300000);
+    }
+
+    /**
+     * Checks whether this workstation logs its writes to the shared change log and polls
+     * it to learn about the writes made by other workstations. Off unless configured, since
+     * the RegistroCambio table may not exist in older databases.
+     *
+     * @return true if writes should be logged and the change log poller started
+     */
+    public static boolean isSyncEnabled() {
+        return Boolean.parseBoolean(properties.getProperty("sync.enabled", "false").trim());
+    }
+
+    /**
+     * Gets how often the change log is polled for writes made by other workstations.
+     *
+     * @return the polling interval in milliseconds
+     */
+    public static long getSyncIntervaloMs() {
+        return getLong("sync.intervalo_ms", 2000);
+    }
+
+    /**
+     * Gets how long change log rows are kept before being purged.
+     *
+     * @return the retention in minutes
+     */
+    public static int getSyncRetencionMinutos() {
+        return getInt("sync.retencion_minutos", 1440);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long getLong(String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
 }
\ No newline at end of file
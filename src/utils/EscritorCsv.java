@@ -0,0 +1,180 @@
+package utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Escritor de ficheros CSV en UTF-8 sobre un {@link FileChannel}.
+ * Cada fila se codifica en un búfer de tamaño fijo que se vuelca al canal al llenarse,
+ * de modo que la memoria usada no depende del número de filas. Los campos se separan
+ * con comas y se entrecomillan solo si contienen comas, comillas o saltos de línea.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class EscritorCsv implements Closeable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int FILAS_POR_AVISO = 1000;
+
+    private final FileChannel canal;
+    private final CharsetEncoder codificador = StandardCharsets.UTF_8.newEncoder();
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+    private final StringBuilder linea = new StringBuilder(256);
+    private final long totalFilas;
+    private final ProgresoExportacion progreso;
+    private long filas;
+
+    /**
+     * Crea el fichero, o lo vacía si ya existe, y escribe la cabecera.
+     *
+     * @param destino    Ruta del fichero CSV
+     * @param totalFilas Número de filas esperado, para informar del progreso
+     * @param progreso   Receptor del progreso, o null si no interesa
+     * @param columnas   Nombres de las columnas de la cabecera
+     * @throws IOException Si no se puede crear o escribir el fichero
+     */
+    public EscritorCsv(Path destino, long totalFilas, ProgresoExportacion progreso, String... columnas)
+            throws IOException {
+        this.canal = FileChannel.open(destino, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.totalFilas = totalFilas;
+        this.progreso = progreso;
+        try {
+            escribirLinea(columnas);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Escribe una fila. Los valores null se escriben como campos vacíos.
+     * Lanza una excepción no comprobada para poder usarse desde los recorridos de los DAO.
+     *
+     * @param valores Valores de la fila, en el orden de la cabecera
+     * @throws UncheckedIOException Si falla la escritura en el fichero
+     */
+    public void escribirFila(Object... valores) {
+        try {
+            escribirLinea(valores);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        filas++;
+        if (progreso != null && filas % FILAS_POR_AVISO == 0) {
+            progreso.avance(filas, totalFilas);
+        }
+    }
+
+    /**
+     * Obtiene el número de filas escritas, sin contar la cabecera.
+     *
+     * @return Filas escritas
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Vuelca lo pendiente al fichero, informa del progreso final y cierra el canal.
+     *
+     * @throws IOException Si falla la escritura o el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        try (canal) {
+            codificar(CharBuffer.allocate(0), true);
+            while (codificador.flush(bytes) == CoderResult.OVERFLOW) {
+                volcar();
+            }
+            volcar();
+        }
+        if (progreso != null) {
+            progreso.avance(filas, totalFilas);
+        }
+    }
+
+    private void escribirLinea(Object[] valores) throws IOException {
+        linea.setLength(0);
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                linea.append(',');
+            }
+            agregarCampo(valores[i]);
+        }
+        linea.append("\r\n");
+        codificar(CharBuffer.wrap(linea), false);
+    }
+
+    private void agregarCampo(Object valor) {
+        if (valor == null) {
+            return;
+        }
+        String texto = valor.toString();
+        boolean entrecomillar = false;
+        for (int i = 0; i < texto.length() && !entrecomillar; i++) {
+            char c = texto.charAt(i);
+            entrecomillar = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!entrecomillar) {
+            linea.append(texto);
+            return;
+        }
+        linea.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                linea.append('"');
+            }
+            linea.append(c);
+        }
+        linea.append('"');
+    }
+
+    private void codificar(CharBuffer caracteres, boolean fin) throws IOException {
+        while (true) {
+            CoderResult resultado = codificador.encode(caracteres, bytes, fin);
+            if (resultado.isOverflow()) {
+                volcar();
+            } else if (resultado.isError()) {
+                resultado.throwException();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void volcar() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            canal.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Receptor del progreso de una exportación. Se invoca desde el hilo que escribe,
+     * cada cierto número de filas y una última vez al cerrar el fichero.
+     */
+    @FunctionalInterface
+    public interface ProgresoExportacion {
+
+        /**
+         * Informa del avance de la exportación.
+         *
+         * @param filasEscritas Filas escritas hasta el momento
+         * @param totalFilas    Filas esperadas en total
+         */
+        void avance(long filasEscritas, long totalFilas);
+    }
+}
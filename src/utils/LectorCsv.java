@@ -0,0 +1,128 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector de ficheros CSV en UTF-8 que devuelve las filas de una en una, de modo que la
+ * memoria usada no depende del tamaño del fichero. Acepta el formato que genera
+ * {@link EscritorCsv} y las hojas de cálculo habituales: campos separados por comas,
+ * entrecomillados opcionales con comillas dobles escapadas duplicándolas, saltos de
+ * línea dentro de campos entrecomillados, finales de línea CRLF o LF y marca BOM inicial.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public final class LectorCsv implements Closeable {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final BufferedReader lector;
+    private final StringBuilder campo = new StringBuilder(64);
+    private long filas;
+    private boolean inicio = true;
+
+    /**
+     * Abre el fichero para leerlo fila a fila.
+     *
+     * @param origen Ruta del fichero CSV
+     * @throws IOException Si no se puede abrir el fichero
+     */
+    public LectorCsv(Path origen) throws IOException {
+        this.lector = new BufferedReader(Files.newBufferedReader(origen, StandardCharsets.UTF_8), TAMANO_BUFFER);
+    }
+
+    /**
+     * Lee la siguiente fila. Las líneas vacías se saltan.
+     *
+     * @return Campos de la fila, o null si no quedan filas
+     * @throws IOException Si falla la lectura o un campo entrecomillado no se cierra
+     */
+    public String[] siguienteFila() throws IOException {
+        List<String> campos = new ArrayList<>();
+        campo.setLength(0);
+        boolean entreComillas = false;
+        boolean hayDatos = false;
+
+        while (true) {
+            int c = lector.read();
+            if (inicio) {
+                inicio = false;
+                if (c == '\uFEFF') {
+                    c = lector.read();
+                }
+            }
+            if (c == -1) {
+                if (entreComillas) {
+                    throw new IOException("Campo entrecomillado sin cerrar en la fila " + (filas + 1));
+                }
+                if (!hayDatos) {
+                    return null;
+                }
+                campos.add(campo.toString());
+                break;
+            }
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append((char) c);
+                    continue;
+                }
+                lector.mark(1);
+                if (lector.read() == '"') {
+                    campo.append('"');
+                } else {
+                    lector.reset();
+                    entreComillas = false;
+                }
+                continue;
+            }
+            if (c == '\r') {
+                continue;
+            }
+            if (c == '\n') {
+                if (!hayDatos) {
+                    continue;
+                }
+                campos.add(campo.toString());
+                break;
+            }
+            hayDatos = true;
+            if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '"' && campo.length() == 0) {
+                entreComillas = true;
+            } else {
+                campo.append((char) c);
+            }
+        }
+
+        filas++;
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * Obtiene el número de filas leídas, incluida la cabecera si se ha leído.
+     *
+     * @return Filas leídas
+     */
+    public long getFilas() {
+        return filas;
+    }
+
+    /**
+     * Cierra el fichero.
+     *
+     * @throws IOException Si falla el cierre
+     */
+    @Override
+    public void close() throws IOException {
+        lector.close();
+    }
+}
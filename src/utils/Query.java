@@ -0,0 +1,349 @@
+package utils;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Typed registry of the SQL queries in queries.properties.
+ * Every constant is resolved and validated once, when the enum is first used, so a
+ * missing key, an unknown key or a query whose placeholders do not match the declared
+ * parameters fails at startup instead of on the first call. After that, reading the
+ * SQL is a plain field access. Each query also carries the timeout and fetch size that
+ * {@link #apply(Statement)} sets on its statements.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public enum Query {
+
+    // Usuario queries
+    USUARIO_INSERT("usuario.insert", 3),
+    USUARIO_SELECT_ALL("usuario.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    USUARIO_SELECT_BY_ID("usuario.select.byId", 1),
+    USUARIO_SELECT_BY_IDS("usuario.select.byIds", 0, Query.LIST),
+    USUARIO_SELECT_POR_NOMBRE_USUARIO("usuario.select.porNombreUsuario", 1),
+    USUARIO_UPDATE("usuario.update", 4),
+    USUARIO_SELECT_PAGE("usuario.select.page", 2),
+    USUARIO_SELECT_AFTER_ID("usuario.select.afterId", 2),
+    USUARIO_COUNT("usuario.count", 0),
+
+    // Cliente queries
+    CLIENTE_INSERT("cliente.insert", 2),
+    CLIENTE_SELECT_ALL("cliente.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    CLIENTE_SELECT_BY_ID("cliente.select.byId", 1),
+    CLIENTE_SELECT_BY_IDS("cliente.select.byIds", 0, Query.LIST),
+    CLIENTE_UPDATE("cliente.update", 3),
+    CLIENTE_DELETE("cliente.delete", 1),
+    CLIENTE_SELECT_PAGE("cliente.select.page", 2),
+    CLIENTE_SELECT_AFTER_ID("cliente.select.afterId", 2),
+    CLIENTE_COUNT("cliente.count", 0),
+
+    // Mascota queries
+    MASCOTA_INSERT("mascota.insert", 6),
+    MASCOTA_SELECT_ALL("mascota.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    MASCOTA_SELECT_BY_ID("mascota.select.byId", 1),
+    MASCOTA_SELECT_BY_IDS("mascota.select.byIds", 0, Query.LIST),
+    MASCOTA_UPDATE("mascota.update", 7),
+    MASCOTA_DELETE("mascota.delete", 1),
+    MASCOTA_SELECT_PAGE("mascota.select.page", 2),
+    MASCOTA_SELECT_AFTER_ID("mascota.select.afterId", 2),
+    MASCOTA_COUNT("mascota.count", 0),
+
+    // Veterinario queries
+    VETERINARIO_INSERT("veterinario.insert", 4),
+    VETERINARIO_SELECT_ALL("veterinario.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    VETERINARIO_SELECT_BY_ID("veterinario.select.byId", 1),
+    VETERINARIO_SELECT_BY_IDS("veterinario.select.byIds", 0, Query.LIST),
+    VETERINARIO_UPDATE("veterinario.update", 5),
+    VETERINARIO_DELETE("veterinario.delete", 1),
+    VETERINARIO_SELECT_PAGE("veterinario.select.page", 2),
+    VETERINARIO_SELECT_AFTER_ID("veterinario.select.afterId", 2),
+    VETERINARIO_COUNT("veterinario.count", 0),
+
+    // Cita queries
+    CITA_INSERT("cita.insert", 5),
+    CITA_SELECT_ALL("cita.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    CITA_SELECT_BY_ID("cita.select.byId", 1),
+    CITA_SELECT_BY_IDS("cita.select.byIds", 0, Query.LIST),
+    CITA_UPDATE("cita.update", 6),
+    CITA_DELETE("cita.delete", 1),
+    CITA_SELECT_DETALLADO("cita.select.detallado", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    CITA_SELECT_PAGE("cita.select.page", 2),
+    CITA_SELECT_AFTER_ID("cita.select.afterId", 2),
+    CITA_COUNT("cita.count", 0),
+    CITA_SELECT_DESDE("cita.select.desde", 1, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    CITA_SELECT_DETALLADO_PAGE("cita.select.detallado.page", 2),
+    CITA_SELECT_DETALLADO_AFTER_ID("cita.select.detallado.afterId", 2),
+    CITA_SELECT_DETALLADO_RANGO("cita.select.detallado.rango", 2),
+    CITA_SELECT_DETALLADO_RANGO_VETERINARIO("cita.select.detallado.rango.veterinario", 3),
+    CITA_SELECT_DETALLADO_RANGO_MASCOTA("cita.select.detallado.rango.mascota", 3),
+    CITA_SELECT_DETALLADO_RANGO_ESTADO("cita.select.detallado.rango.estado", 3),
+
+    // Medicamento queries
+    MEDICAMENTO_INSERT("medicamento.insert", 3),
+    MEDICAMENTO_SELECT_ALL("medicamento.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    MEDICAMENTO_SELECT_BY_ID("medicamento.select.byId", 1),
+    MEDICAMENTO_SELECT_BY_IDS("medicamento.select.byIds", 0, Query.LIST),
+    MEDICAMENTO_UPDATE("medicamento.update", 4),
+    MEDICAMENTO_DELETE("medicamento.delete", 1),
+    MEDICAMENTO_SELECT_PAGE("medicamento.select.page", 2),
+    MEDICAMENTO_SELECT_AFTER_ID("medicamento.select.afterId", 2),
+    MEDICAMENTO_COUNT("medicamento.count", 0),
+
+    // Servicio queries
+    SERVICIO_INSERT("servicio.insert", 3),
+    SERVICIO_SELECT_ALL("servicio.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    SERVICIO_SELECT_BY_ID("servicio.select.byId", 1),
+    SERVICIO_SELECT_BY_IDS("servicio.select.byIds", 0, Query.LIST),
+    SERVICIO_UPDATE("servicio.update", 4),
+    SERVICIO_DELETE("servicio.delete", 1),
+    SERVICIO_SELECT_PAGE("servicio.select.page", 2),
+    SERVICIO_SELECT_AFTER_ID("servicio.select.afterId", 2),
+    SERVICIO_COUNT("servicio.count", 0),
+
+    // Factura queries
+    FACTURA_INSERT("factura.insert", 3),
+    FACTURA_SELECT_ALL("factura.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    FACTURA_SELECT_BY_ID("factura.select.byId", 1),
+    FACTURA_SELECT_BY_IDS("factura.select.byIds", 0, Query.LIST),
+    FACTURA_UPDATE("factura.update", 4),
+    FACTURA_DELETE("factura.delete", 1),
+    FACTURA_SELECT_PAGE("factura.select.page", 2),
+    FACTURA_SELECT_AFTER_ID("factura.select.afterId", 2),
+    FACTURA_COUNT("factura.count", 0),
+    FACTURA_UPDATE_TOTAL("factura.update.total", 1),
+    FACTURA_UPDATE_TOTAL_BY_IDS("factura.update.total.byIds", 0, Query.LIST, Query.BULK_TIMEOUT_S, 0),
+    FACTURA_UPDATE_TOTAL_BY_FECHA("factura.update.total.byFecha", 2, Query.BULK_TIMEOUT_S, 0),
+    FACTURA_SELECT_TOTAL("factura.select.total", 1),
+    FACTURA_COUNT_BY_FECHA("factura.count.byFecha", 2),
+    FACTURA_EXPORT_BY_FECHA("factura.export.byFecha", 2, 0, Query.STREAMING_FETCH_SIZE),
+
+    // DetalleFactura queries
+    DETALLE_FACTURA_INSERT("detalleFactura.insert", 6),
+    DETALLE_FACTURA_SELECT_ALL("detalleFactura.select.all", 0, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+    DETALLE_FACTURA_SELECT_BY_ID("detalleFactura.select.byId", 1),
+    DETALLE_FACTURA_SELECT_BY_IDS("detalleFactura.select.byIds", 0, Query.LIST),
+    DETALLE_FACTURA_SELECT_BY_ID_FACTURA("detalleFactura.select.ByIdFactura", 1),
+    DETALLE_FACTURA_UPDATE("detalleFactura.update", 7),
+    DETALLE_FACTURA_DELETE("detalleFactura.delete", 1),
+    DETALLE_FACTURA_SELECT_PAGE("detalleFactura.select.page", 2),
+    DETALLE_FACTURA_SELECT_AFTER_ID("detalleFactura.select.afterId", 2),
+    DETALLE_FACTURA_COUNT("detalleFactura.count", 0),
+    DETALLE_FACTURA_COUNT_BY_FECHA("detalleFactura.count.byFecha", 2),
+    DETALLE_FACTURA_EXPORT_BY_FECHA("detalleFactura.export.byFecha", 2, 0, Query.STREAMING_FETCH_SIZE),
+    DETALLE_FACTURA_SELECT_VENTAS("detalleFactura.select.ventas", 0, 0, Query.STREAMING_FETCH_SIZE),
+    DETALLE_FACTURA_SELECT_VENTAS_BY_FACTURA("detalleFactura.select.ventas.byFactura", 1),
+    DETALLE_FACTURA_SELECT_VENTAS_BY_ID("detalleFactura.select.ventas.byId", 1),
+
+    // VentaMedicamento queries
+    VENTA_MEDICAMENTO_SELECT_MAS_VENDIDOS("ventaMedicamento.select.masVendidos", 2),
+    VENTA_MEDICAMENTO_APLICAR_BY_DETALLE("ventaMedicamento.aplicar.byDetalle", 2),
+    VENTA_MEDICAMENTO_APLICAR_BY_FACTURA("ventaMedicamento.aplicar.byFactura", 2),
+    VENTA_MEDICAMENTO_DELETE_ALL("ventaMedicamento.delete.all", 0, Query.BULK_TIMEOUT_S, 0),
+    VENTA_MEDICAMENTO_REBUILD("ventaMedicamento.rebuild", 0, Query.BULK_TIMEOUT_S, 0),
+
+    // Importacion queries
+    IMPORTACION_PROGRESO_SELECT("importacion.progreso.select", 1),
+    IMPORTACION_PROGRESO_UPSERT("importacion.progreso.upsert", 2),
+    IMPORTACION_REFERENCIA_INSERT("importacion.referencia.insert", 3),
+    IMPORTACION_REFERENCIA_SELECT_BY_LOTE("importacion.referencia.select.byLote", 1, Query.REPORT_TIMEOUT_S, Query.REPORT_FETCH_SIZE),
+
+    // RegistroCambio queries
+    CAMBIO_INSERT("cambio.insert", 4),
+    CAMBIO_SELECT_AFTER_ID("cambio.select.afterId", 2),
+    CAMBIO_SELECT_MAX("cambio.select.max", 0),
+    CAMBIO_DELETE_ANTIGUOS("cambio.delete.antiguos", 1, Query.BULK_TIMEOUT_S, 0);
+
+    // Qualified in the constants above, since enum constants cannot reference them by simple name
+    private static final boolean LIST = true;
+    private static final int REPORT_TIMEOUT_S = 30;
+    private static final int REPORT_FETCH_SIZE = 500;
+    // Asks MySQL Connector/J to stream rows one by one instead of buffering the whole result
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int BULK_TIMEOUT_S = 60;
+    private static final String IDS_MARKER = "{ids}";
+    private static final Set<String> STATEMENT_TYPES = Set.of("SELECT", "INSERT", "UPDATE", "DELETE");
+
+    private final String key;
+    private final int parameters;
+    private final boolean list;
+    private final int timeoutSeconds;
+    private final int fetchSize;
+    private String sql;
+
+    Query(String key, int parameters) {
+        this(key, parameters, false, 0, 0);
+    }
+
+    Query(String key, int parameters, boolean list) {
+        this(key, parameters, list, 0, 0);
+    }
+
+    Query(String key, int parameters, int timeoutSeconds, int fetchSize) {
+        this(key, parameters, false, timeoutSeconds, fetchSize);
+    }
+
+    Query(String key, int parameters, boolean list, int timeoutSeconds, int fetchSize) {
+        this.key = key;
+        this.parameters = parameters;
+        this.list = list;
+        this.timeoutSeconds = timeoutSeconds;
+        this.fetchSize = fetchSize;
+    }
+
+    static {
+        List<String> errors = new ArrayList<>();
+        Set<String> known = new HashSet<>();
+        for (Query query : values()) {
+            known.add(query.key);
+            String sql = QueryManager.findQuery(query.key);
+            if (sql == null || sql.isBlank()) {
+                errors.add(query.key + ": missing from queries.properties");
+                continue;
+            }
+            query.sql = sql.trim();
+            query.validate(errors);
+        }
+        for (String key : QueryManager.getKeys()) {
+            if (!known.contains(key)) {
+                errors.add(key + ": not declared in " + Query.class.getSimpleName());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Invalid queries.properties:\n  " + String.join("\n  ", errors));
+        }
+    }
+
+    /**
+     * Forces the registry to load, so invalid queries are reported at startup.
+     */
+    public static void validateAll() {
+        // Class initialization already did the work
+    }
+
+    /**
+     * Gets the key of the query in queries.properties.
+     *
+     * @return the query key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the SQL of the query.
+     *
+     * @return the SQL string
+     * @throws IllegalStateException if the query has an {@code IN} list; use {@link #getSql(int)}
+     */
+    public String getSql() {
+        if (list) {
+            throw new IllegalStateException(key + " needs the size of its IN list");
+        }
+        return sql;
+    }
+
+    /**
+     * Gets the SQL of an {@code IN} list query with its {@code {ids}} marker expanded
+     * to the given number of placeholders.
+     *
+     * @param count the number of placeholders to generate
+     * @return the SQL string with {@code count} placeholders
+     * @throws IllegalStateException if the query has no {@code IN} list
+     */
+    public String getSql(int count) {
+        if (!list) {
+            throw new IllegalStateException(key + " has no IN list");
+        }
+        return sql.replace(IDS_MARKER, String.join(", ", Collections.nCopies(count, "?")));
+    }
+
+    /**
+     * Gets the number of parameters the query expects, not counting its {@code IN} list.
+     *
+     * @return the number of fixed parameters
+     */
+    public int getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Checks whether the query has an {@code IN} list marker.
+     *
+     * @return true if the SQL must be obtained with {@link #getSql(int)}
+     */
+    public boolean isList() {
+        return list;
+    }
+
+    /**
+     * Gets the query timeout applied to its statements.
+     *
+     * @return the timeout in seconds, or 0 for no timeout
+     */
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    /**
+     * Gets the fetch size hint applied to its statements.
+     *
+     * @return the fetch size, 0 to keep the driver default, or {@link Integer#MIN_VALUE}
+     *         for a streaming result set
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Applies the timeout and fetch size of the query to a statement.
+     *
+     * @param statement the statement prepared for this query
+     * @throws SQLException if the driver rejects a setting
+     */
+    public void apply(Statement statement) throws SQLException {
+        if (timeoutSeconds > 0) {
+            statement.setQueryTimeout(timeoutSeconds);
+        }
+        if (fetchSize != 0) {
+            statement.setFetchSize(fetchSize);
+        }
+    }
+
+    private void validate(List<String> errors) {
+        String type = sql.split("\\s+", 2)[0].toUpperCase(Locale.ROOT);
+        if (!STATEMENT_TYPES.contains(type)) {
+            errors.add(key + ": unexpected statement type " + type);
+        }
+        if (sql.contains(IDS_MARKER) != list) {
+            errors.add(key + (list ? ": missing the " : ": unexpected ") + IDS_MARKER + " marker");
+        }
+
+        int placeholders = 0;
+        int depth = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '?') {
+                placeholders++;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')' && --depth < 0) {
+                break;
+            }
+        }
+        if (quoted || depth != 0) {
+            errors.add(key + ": unbalanced quotes or parentheses");
+        }
+        if (placeholders != parameters) {
+            errors.add(key + ": expects " + parameters + " parameters but has " + placeholders);
+        }
+    }
+}
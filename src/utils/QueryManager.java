@@ -2,25 +2,37 @@ package utils;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Utility class for managing SQL queries loaded from a properties file.
  * Implements the Singleton pattern to provide centralized access to all queries.
+ * DAOs use the validated constants of {@link Query}; this class only loads the file.
  *
  * @author Saúl Maldonado
  * @version 1.0
  * @since 2023
  */
 public class QueryManager {
-    private static final Properties queries = new Properties();
+    private static final Map<String, String> queries;
 
     static {
         try (InputStream input = QueryManager.class.getClassLoader().getResourceAsStream("queries.properties")) {
             if (input == null) {
                 throw new RuntimeException("No se encontró queries.properties");
             }
-            queries.load(input);
+            Properties properties = new Properties();
+            properties.load(input);
+
+            // Copy into an immutable map so lookups do not lock like Properties does
+            Map<String, String> loaded = new HashMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                loaded.put(key, properties.getProperty(key));
+            }
+            queries = Map.copyOf(loaded);
         } catch (IOException e) {
             throw new RuntimeException("Error al cargar queries.properties", e);
         }
@@ -34,10 +46,29 @@ public class QueryManager {
      * @throws RuntimeException if the query key is not found
      */
     public static String getQuery(String key) {
-        String query = queries.getProperty(key);
+        String query = queries.get(key);
         if (query == null) {
             throw new RuntimeException("Query no encontrado: " + key);
         }
         return query;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets a SQL query by its key, or null if it is not defined.
+     *
+     * @param key the key identifying the query
+     * @return the SQL query string, or null
+     */
+    static String findQuery(String key) {
+        return queries.get(key);
+    }
+
+    /**
+     * Gets all the query keys defined in the file.
+     *
+     * @return the query keys
+     */
+    static Set<String> getKeys() {
+        return queries.keySet();
+    }
+}
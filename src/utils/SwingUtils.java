@@ -2,6 +2,8 @@ package utils;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Utility class providing common Swing component styling and positioning methods.
@@ -111,4 +113,48 @@ public class SwingUtils {
             frame.setExtendedState(JFrame.NORMAL);
         }
     }
+
+    /**
+     * Muestra un mensaje de error desde cualquier hilo.
+     * Si no se invoca en el EDT, el diálogo se programa en él.
+     *
+     * @param mensaje Texto del mensaje
+     * @param titulo  Título del diálogo
+     */
+    public static void mostrarError(String mensaje, String titulo) {
+        Runnable mostrar = () -> JOptionPane.showMessageDialog(null, mensaje, titulo, JOptionPane.ERROR_MESSAGE);
+        if (SwingUtilities.isEventDispatchThread()) {
+            mostrar.run();
+        } else {
+            SwingUtilities.invokeLater(mostrar);
+        }
+    }
+
+    /**
+     * Indica en una ventana que hay una carga en curso mostrando el cursor de espera.
+     *
+     * @param componente Componente sobre el que se indica la carga
+     * @param cargando   true mientras dura la carga
+     */
+    public static void mostrarCargando(Component componente, boolean cargando) {
+        if (componente == null) return;
+
+        componente.setCursor(cargando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    }
+
+    /**
+     * Ejecuta una acción cuando se cierra una ventana, por ejemplo para cancelar sus
+     * suscripciones a cambios del dominio.
+     *
+     * @param ventana Ventana que se cierra con {@code DISPOSE_ON_CLOSE}
+     * @param accion  Acción a ejecutar en el EDT al cerrarse
+     */
+    public static void alCerrar(Window ventana, Runnable accion) {
+        ventana.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                accion.run();
+            }
+        });
+    }
 }
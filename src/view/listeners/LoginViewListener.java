@@ -3,12 +3,13 @@ package view.listeners;
 import controller.UsuarioController;
 import model.dto.LoginDTO;
 import model.dto.UsuarioDTO;
-import model.entities.Usuario;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SessionManager;
 import view.views.IndexView;
 
 import javax.swing.*;
+import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
@@ -47,27 +48,34 @@ public class LoginViewListener implements ActionListener {
         String contrasena = new String(loginDTO.txtPassword().getPassword());
         boolean recordarSesion = loginDTO.chkRecordar().isSelected();
 
-        // Autenticar con el AuthController
-        if (loginDTO.authController().autenticarUsuario(nombreUsuario, contrasena)) {
+        Component ventana = loginDTO.txtUsername().getTopLevelAncestor();
 
-            JOptionPane.showMessageDialog(null, "Bienvenido, " + nombreUsuario);
-            // Aquí podrías abrir otra vista, por ejemplo, el menú principal
+        // Autenticar con el AuthController fuera del EDT; null si las credenciales no son válidas
+        AsyncExecutor.cargar(ventana,
+                () -> loginDTO.authController().autenticarUsuario(nombreUsuario, contrasena)
+                        ? usuarioController.buscarUsuarioPorNombreUsuario(nombreUsuario)
+                        : null,
+                usuario -> {
+                    if (usuario != null) {
 
-            if(recordarSesion){
-                SessionManager.guardarCredenciales(nombreUsuario, contrasena);
-            }
+                        JOptionPane.showMessageDialog(null, "Bienvenido, " + nombreUsuario);
+                        // Aquí podrías abrir otra vista, por ejemplo, el menú principal
 
-            loginDTO.txtUsername().getTopLevelAncestor().setVisible(false);
+                        if(recordarSesion){
+                            SessionManager.guardarCredenciales(nombreUsuario, contrasena);
+                        }
 
-            Usuario usuario = usuarioController.buscarUsuarioPorNombreUsuario(loginDTO.txtUsername().getText());
-            UsuarioDTO usuarioDTO = new UsuarioDTO(usuario.getNombreUsuario(), usuario.getRol());
+                        ventana.setVisible(false);
 
-            IndexView  indexView = new IndexView(usuarioDTO);
-            indexView.setVisible(true);
+                        UsuarioDTO usuarioDTO = new UsuarioDTO(usuario.getNombreUsuario(), usuario.getRol());
 
-        }
-        else {
-            JOptionPane.showMessageDialog(null, "Credenciales incorrectas", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+                        IndexView  indexView = new IndexView(usuarioDTO);
+                        indexView.setVisible(true);
+
+                    }
+                    else {
+                        JOptionPane.showMessageDialog(null, "Credenciales incorrectas", "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
     }
 }
@@ -0,0 +1,682 @@
+package view.tables;
+
+import model.events.CambioEntidad;
+import utils.AsyncExecutor;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Modelo de tabla virtual que solo lee y formatea las filas que se muestran.
+ * Las filas se piden a la fuente de datos por bloques y se guardan en una caché
+ * LRU de pocos bloques, de modo que la memoria usada no depende del total de registros.
+ * La fuente se consulta en segundo plano con {@link AsyncExecutor}; mientras un bloque
+ * se carga sus filas muestran {@link #CARGANDO}. El modelo solo debe usarse desde el EDT.
+ * Las entidades de los bloques cargados quedan indexadas por ID, de modo que una fila
+ * seleccionada se resuelve sin volver a consultar la base de datos.
+ * Los cambios publicados por los servicios se aplican con {@link #aplicar(CambioEntidad)}
+ * sin recargar la tabla: se reescriben o quitan solo las filas afectadas y las altas se
+ * añaden al final, por lo que la fuente debe devolver las filas ordenadas por ID.
+ *
+ * @param <T> Tipo de entidad mostrada en cada fila
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class LazyTableModel<T> extends AbstractTableModel {
+
+    /**
+     * Tamaño de bloque por defecto.
+     */
+    public static final int TAMANO_BLOQUE = 100;
+
+    /**
+     * Número de bloques que se mantienen en memoria por defecto.
+     */
+    public static final int MAX_BLOQUES = 5;
+
+    /**
+     * Texto que se muestra en las filas cuyo bloque aún se está cargando.
+     */
+    public static final String CARGANDO = "Cargando…";
+
+    /**
+     * Consulta que devuelve como máximo {@code limite} filas a partir de {@code inicio}.
+     *
+     * @param <T> Tipo de entidad
+     */
+    @FunctionalInterface
+    public interface Pagina<T> {
+        List<T> cargar(int inicio, int limite);
+    }
+
+    /**
+     * Convierte un bloque completo de entidades en los valores de sus celdas.
+     * Permite resolver datos relacionados de todo el bloque en una sola consulta.
+     *
+     * @param <T> Tipo de entidad
+     */
+    @FunctionalInterface
+    public interface FormateadorBloque<T> {
+        Object[][] formatear(List<T> filas);
+    }
+
+    /**
+     * Origen de las filas del modelo.
+     *
+     * @param <T> Tipo de entidad
+     */
+    public interface FuenteDatos<T> {
+
+        /**
+         * Cuenta las filas disponibles. El modelo lo invoca al refrescarse, antes de cargar bloques.
+         *
+         * @return Número total de filas
+         */
+        int contar();
+
+        /**
+         * Carga un bloque de filas por posición.
+         *
+         * @param offset Posición de la primera fila
+         * @param limite Número máximo de filas
+         * @return Filas del bloque
+         */
+        List<T> cargar(int offset, int limite);
+
+        /**
+         * Carga el bloque que sigue a una fila ya conocida. Por defecto equivale a
+         * {@link #cargar(int, int)}; las fuentes con clave ordenada lo reemplazan por
+         * una consulta por clave, cuyo costo no crece con el offset.
+         *
+         * @param anterior Última fila del bloque anterior
+         * @param offset   Posición de la primera fila
+         * @param limite   Número máximo de filas
+         * @return Filas del bloque
+         */
+        default List<T> cargarDespuesDe(T anterior, int offset, int limite) {
+            return cargar(offset, limite);
+        }
+
+        /**
+         * Descarta lo que la fuente guarde de consultas anteriores. El modelo lo invoca
+         * cuando un cambio le obliga a releer bloques sin volver a contar las filas.
+         * Por defecto no hace nada.
+         */
+        default void invalidar() {
+        }
+
+        /**
+         * Crea una fuente paginada por offset.
+         *
+         * @param contar    Consulta del total de filas
+         * @param porOffset Consulta de una página por offset
+         * @param <T>       Tipo de entidad
+         * @return Fuente de datos
+         */
+        static <T> FuenteDatos<T> de(IntSupplier contar, Pagina<T> porOffset) {
+            return new FuenteDatos<>() {
+                @Override
+                public int contar() {
+                    return contar.getAsInt();
+                }
+
+                @Override
+                public List<T> cargar(int offset, int limite) {
+                    return porOffset.cargar(offset, limite);
+                }
+            };
+        }
+
+        /**
+         * Crea una fuente que usa paginación por clave al avanzar de un bloque al siguiente
+         * y por offset solo cuando se salta directamente a un bloque.
+         *
+         * @param contar      Consulta del total de filas
+         * @param porOffset   Consulta de una página por offset
+         * @param id          Clave de cada fila, en el mismo orden que las consultas
+         * @param despuesDeId Consulta de las filas con clave mayor que la indicada
+         * @param <T>         Tipo de entidad
+         * @return Fuente de datos
+         */
+        static <T> FuenteDatos<T> porClave(IntSupplier contar, Pagina<T> porOffset,
+                                           ToIntFunction<T> id, Pagina<T> despuesDeId) {
+            return new FuenteDatos<>() {
+                @Override
+                public int contar() {
+                    return contar.getAsInt();
+                }
+
+                @Override
+                public List<T> cargar(int offset, int limite) {
+                    return porOffset.cargar(offset, limite);
+                }
+
+                @Override
+                public List<T> cargarDespuesDe(T anterior, int offset, int limite) {
+                    return despuesDeId.cargar(id.applyAsInt(anterior), limite);
+                }
+            };
+        }
+
+        /**
+         * Crea una fuente sobre una lista ya cargada, que se vuelve a pedir en cada refresco
+         * y al cargar un bloque después de una invalidación.
+         * Útil para conjuntos pequeños, como los detalles de una factura.
+         *
+         * @param filas Proveedor de la lista completa
+         * @param <T>   Tipo de entidad
+         * @return Fuente de datos
+         */
+        static <T> FuenteDatos<T> enMemoria(Supplier<List<T>> filas) {
+            return new FuenteDatos<>() {
+                // null tras una invalidación: el siguiente bloque vuelve a pedir la lista
+                private volatile List<T> actuales = List.of();
+
+                @Override
+                public int contar() {
+                    actuales = filas.get();
+                    return actuales.size();
+                }
+
+                @Override
+                public List<T> cargar(int offset, int limite) {
+                    List<T> lista = actuales;
+                    if (lista == null) {
+                        lista = filas.get();
+                        actuales = lista;
+                    }
+                    int desde = Math.min(offset, lista.size());
+                    int hasta = Math.min(offset + limite, lista.size());
+                    return lista.subList(desde, hasta);
+                }
+
+                @Override
+                public void invalidar() {
+                    actuales = null;
+                }
+            };
+        }
+    }
+
+    private final FuenteDatos<T> fuente;
+    private final ToIntFunction<T> clave;
+    private final String[] columnas;
+    private final FormateadorBloque<T> formateador;
+    private final int tamanoBloque;
+    private final Map<Integer, Bloque<T>> bloques;
+    private final Map<Integer, Integer> filaPorId = new HashMap<>();
+    private final Set<Integer> pendientes = new HashSet<>();
+    private int totalFilas;
+    // Cambia en cada refresco; descarta conteos, bloques y cambios de filas anteriores
+    private int generacion;
+    // Cambia también cuando las filas se desplazan; descarta los bloques que se estaban leyendo
+    private int generacionBloques;
+    private boolean contando;
+    // Solo se muestra un mensaje por refresco aunque fallen varios bloques
+    private boolean errorMostrado;
+    // Cada reescritura de filas espera a la anterior para que se apliquen en orden
+    private CompletableFuture<Void> reescrituras = CompletableFuture.completedFuture(null);
+    private Consumer<Boolean> indicadorCarga = cargando -> {};
+
+    /**
+     * Constructor con el tamaño de bloque y la caché por defecto.
+     *
+     * @param fuente      Origen de las filas
+     * @param clave       ID de cada entidad
+     * @param columnas    Nombres de las columnas
+     * @param formateador Convierte una entidad en los valores de sus celdas
+     */
+    public LazyTableModel(FuenteDatos<T> fuente, ToIntFunction<T> clave, String[] columnas,
+                          Function<T, Object[]> formateador) {
+        this(fuente, clave, columnas, formateador, TAMANO_BLOQUE, MAX_BLOQUES);
+    }
+
+    /**
+     * Constructor completo.
+     *
+     * @param fuente       Origen de las filas
+     * @param clave        ID de cada entidad
+     * @param columnas     Nombres de las columnas
+     * @param formateador  Convierte una entidad en los valores de sus celdas
+     * @param tamanoBloque Filas por bloque
+     * @param maxBloques   Bloques que se mantienen en memoria
+     */
+    public LazyTableModel(FuenteDatos<T> fuente, ToIntFunction<T> clave, String[] columnas,
+                          Function<T, Object[]> formateador, int tamanoBloque, int maxBloques) {
+        this(fuente, clave, columnas, tamanoBloque, maxBloques,
+                filas -> filas.stream().map(formateador).toArray(Object[][]::new));
+    }
+
+    private LazyTableModel(FuenteDatos<T> fuente, ToIntFunction<T> clave, String[] columnas,
+                           int tamanoBloque, int maxBloques, FormateadorBloque<T> formateador) {
+        if (tamanoBloque <= 0 || maxBloques <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque y la caché deben ser mayores que cero");
+        }
+        this.fuente = fuente;
+        this.clave = clave;
+        this.columnas = columnas.clone();
+        this.formateador = formateador;
+        this.tamanoBloque = tamanoBloque;
+        this.bloques = new LinkedHashMap<>(maxBloques + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Bloque<T>> eldest) {
+                if (size() <= maxBloques) return false;
+
+                desindexar(eldest.getValue(), eldest.getKey() * tamanoBloque);
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Crea un modelo, con el tamaño de bloque y la caché por defecto, cuyas filas se
+     * formatean por bloques en lugar de una a una.
+     *
+     * @param fuente      Origen de las filas
+     * @param clave       ID de cada entidad
+     * @param columnas    Nombres de las columnas
+     * @param formateador Convierte cada bloque de entidades en los valores de sus celdas
+     * @param <T>         Tipo de entidad mostrada en cada fila
+     * @return Modelo de tabla
+     */
+    public static <T> LazyTableModel<T> porBloques(FuenteDatos<T> fuente, ToIntFunction<T> clave, String[] columnas,
+                                                   FormateadorBloque<T> formateador) {
+        return new LazyTableModel<>(fuente, clave, columnas, TAMANO_BLOQUE, MAX_BLOQUES, formateador);
+    }
+
+    /**
+     * Registra quién debe mostrar el estado de carga, por ejemplo un cursor de espera.
+     * Recibe true al empezar a cargar y false cuando no queda nada pendiente.
+     *
+     * @param indicadorCarga Acción que se invoca en el EDT al cambiar el estado
+     */
+    public void setIndicadorCarga(Consumer<Boolean> indicadorCarga) {
+        this.indicadorCarga = indicadorCarga != null ? indicadorCarga : cargando -> {};
+    }
+
+    /**
+     * Indica si hay alguna consulta en curso.
+     *
+     * @return true mientras se cuenta o se carga algún bloque
+     */
+    public boolean isCargando() {
+        return contando || !pendientes.isEmpty();
+    }
+
+    /**
+     * Descarta los bloques en memoria y vuelve a contar las filas en segundo plano.
+     * Los bloques visibles se cargan de nuevo cuando la tabla los pinta; los
+     * resultados de cargas anteriores al refresco se descartan.
+     */
+    public void refrescar() {
+        int actual = ++generacion;
+        generacionBloques++;
+        errorMostrado = false;
+        bloques.clear();
+        filaPorId.clear();
+        pendientes.clear();
+        contando = true;
+        indicadorCarga.accept(true);
+
+        AsyncExecutor.consultar(fuente::contar)
+                .whenCompleteAsync((total, error) -> {
+                    if (actual != generacion) return;
+
+                    contando = false;
+                    if (error != null) {
+                        informarError(error);
+                        total = 0;
+                    }
+                    totalFilas = Math.max(0, total);
+                    fireTableDataChanged();
+                    notificarCarga();
+                }, AsyncExecutor.EDT);
+    }
+
+    @Override
+    public int getRowCount() {
+        return totalFilas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnas.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnas[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    /**
+     * Obtiene la entidad mostrada en una fila, sin consultar la base de datos.
+     *
+     * @param fila Índice de la fila en el modelo
+     * @return La entidad, o null si la fila no existe o su bloque aún no está cargado
+     */
+    public T getFila(int fila) {
+        if (fila < 0 || fila >= totalFilas) return null;
+
+        Bloque<T> bloque = bloques.get(fila / tamanoBloque);
+        int posicion = fila % tamanoBloque;
+        return bloque != null && posicion < bloque.filas().size() ? bloque.filas().get(posicion) : null;
+    }
+
+    /**
+     * Busca entre las filas cargadas la entidad con el ID indicado.
+     *
+     * @param id ID de la entidad
+     * @return Índice de su fila, o -1 si no está entre las filas cargadas
+     */
+    public int getFilaPorId(int id) {
+        return filaPorId.getOrDefault(id, -1);
+    }
+
+    /**
+     * Aplica a las filas un cambio publicado por la capa de servicios: las altas se añaden
+     * al final, las modificaciones reescriben las filas cargadas, las bajas las quitan y un
+     * cambio {@link CambioEntidad.Tipo#VARIOS} refresca el modelo. Debe invocarse desde el EDT.
+     *
+     * @param cambio Cambio confirmado en la base de datos
+     */
+    public void aplicar(CambioEntidad<T> cambio) {
+        if (cambio.isVacio()) return;
+
+        switch (cambio.tipo()) {
+            case CREADO -> agregarFilas(cambio.ids().size());
+            case ACTUALIZADO -> {
+                if (cambio.valores().isEmpty()) {
+                    recargarFilas(cambio.ids());
+                } else {
+                    reemplazarFilas(cambio.valores());
+                }
+            }
+            case ELIMINADO -> quitarFilas(cambio.ids());
+            case VARIOS -> refrescar();
+        }
+    }
+
+    /**
+     * Añade filas nuevas al final sin volver a contar. Solo se descarta el último bloque,
+     * si estaba incompleto, para que se vuelva a leer con las filas nuevas cuando se muestre.
+     *
+     * @param cantidad Número de filas añadidas en la fuente
+     */
+    public void agregarFilas(int cantidad) {
+        if (cantidad <= 0) return;
+        if (contando) {
+            // No se sabe si el conteo en curso incluye ya las filas nuevas
+            refrescar();
+            return;
+        }
+
+        int inicio = totalFilas;
+        descartarBloquesDesde(inicio / tamanoBloque);
+        totalFilas += cantidad;
+        fireTableRowsInserted(inicio, totalFilas - 1);
+    }
+
+    /**
+     * Reescribe las filas cargadas de las entidades indicadas con sus datos nuevos. Las
+     * que no están cargadas se ignoran, ya que se leerán actualizadas cuando se muestren.
+     * Las celdas se formatean en segundo plano.
+     *
+     * @param filas Entidades con los datos actualizados
+     */
+    public void reemplazarFilas(List<T> filas) {
+        List<T> cargadas = new ArrayList<>();
+        for (T fila : filas) {
+            if (filaPorId.containsKey(clave.applyAsInt(fila))) {
+                cargadas.add(fila);
+            }
+        }
+        if (cargadas.isEmpty()) return;
+
+        int actual = generacion;
+        reescrituras = reescrituras
+                .thenCompose(anterior -> AsyncExecutor.consultar(() -> formateador.formatear(cargadas)))
+                .handleAsync((valores, error) -> {
+                    if (actual != generacion) return null;
+
+                    if (error != null) {
+                        System.err.println("Error al formatear las filas actualizadas: " + error.getMessage());
+                        recargarFilas(cargadas.stream().map(fila -> clave.applyAsInt(fila)).toList());
+                    } else {
+                        reescribir(cargadas, valores);
+                    }
+                    return null;
+                }, AsyncExecutor.EDT);
+    }
+
+    /**
+     * Descarta los bloques cargados que contienen las entidades indicadas para que se
+     * vuelvan a leer cuando se muestren. Sirve para los cambios de los que solo se conocen los IDs.
+     *
+     * @param ids IDs de las entidades modificadas
+     */
+    public void recargarFilas(Collection<Integer> ids) {
+        Set<Integer> indices = new HashSet<>();
+        for (Integer id : ids) {
+            Integer fila = filaPorId.get(id);
+            if (fila != null) {
+                indices.add(fila / tamanoBloque);
+            }
+        }
+        if (indices.isEmpty()) return;
+
+        fuente.invalidar();
+        for (int indice : indices) {
+            descartarBloque(indice);
+            int offset = indice * tamanoBloque;
+            fireTableRowsUpdated(offset, Math.min(offset + tamanoBloque, totalFilas) - 1);
+        }
+    }
+
+    /**
+     * Quita las filas de las entidades eliminadas sin volver a contar. Los bloques desde la
+     * primera fila quitada se vuelven a leer cuando se muestren, ya que sus filas se desplazan.
+     * Si alguna entidad no está cargada y el modelo no tiene todas sus filas en memoria, no
+     * se sabe en qué posición estaba y el modelo se refresca.
+     *
+     * @param ids IDs de las entidades eliminadas
+     */
+    public void quitarFilas(Collection<Integer> ids) {
+        if (contando) {
+            refrescar();
+            return;
+        }
+
+        List<Integer> filas = new ArrayList<>();
+        boolean desconocidas = false;
+        for (Integer id : ids) {
+            Integer fila = filaPorId.get(id);
+            if (fila != null) {
+                filas.add(fila);
+            } else {
+                desconocidas = true;
+            }
+        }
+        if (desconocidas && !todasCargadas()) {
+            refrescar();
+            return;
+        }
+        if (filas.isEmpty()) return;
+
+        filas.sort(Comparator.reverseOrder());
+        descartarBloquesDesde(filas.get(filas.size() - 1) / tamanoBloque);
+        totalFilas -= filas.size();
+        for (int fila : filas) {
+            fireTableRowsDeleted(fila, fila);
+        }
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int indice = rowIndex / tamanoBloque;
+        Bloque<T> bloque = bloques.get(indice);
+        if (bloque == null) {
+            cargarBloque(indice);
+            return columnIndex == 0 ? CARGANDO : null;
+        }
+
+        int posicion = rowIndex % tamanoBloque;
+        // La fuente puede tener menos filas que al contar si se borraron registros entre medias
+        return posicion < bloque.valores().length ? bloque.valores()[posicion][columnIndex] : null;
+    }
+
+    private void cargarBloque(int indice) {
+        if (!pendientes.add(indice)) return;
+        if (pendientes.size() == 1 && !contando) {
+            indicadorCarga.accept(true);
+        }
+
+        int actual = generacionBloques;
+        int offset = indice * tamanoBloque;
+        Bloque<T> anterior = indice > 0 ? bloques.get(indice - 1) : null;
+        T ultimaAnterior = anterior != null && anterior.completo(tamanoBloque) ? anterior.ultima() : null;
+
+        AsyncExecutor.consultar(() -> leerBloque(ultimaAnterior, offset))
+                .whenCompleteAsync((bloque, error) -> {
+                    if (actual != generacionBloques) return;
+
+                    pendientes.remove(indice);
+                    if (error != null) {
+                        informarError(error);
+                        bloque = new Bloque<>(List.of(), new int[0], new Object[0][]);
+                    }
+                    bloques.put(indice, bloque);
+                    indexar(bloque, offset);
+
+                    int ultimaFila = Math.min(offset + tamanoBloque, totalFilas) - 1;
+                    if (offset <= ultimaFila) {
+                        fireTableRowsUpdated(offset, ultimaFila);
+                    }
+                    notificarCarga();
+                }, AsyncExecutor.EDT);
+    }
+
+    /**
+     * Lee y formatea un bloque. Se ejecuta fuera del EDT.
+     */
+    private Bloque<T> leerBloque(T ultimaAnterior, int offset) {
+        List<T> filas = ultimaAnterior != null
+                ? fuente.cargarDespuesDe(ultimaAnterior, offset, tamanoBloque)
+                : fuente.cargar(offset, tamanoBloque);
+
+        Object[][] valores = filas.isEmpty() ? new Object[0][] : formateador.formatear(filas);
+        int[] ids = new int[filas.size()];
+        for (int i = 0; i < filas.size(); i++) {
+            ids[i] = clave.applyAsInt(filas.get(i));
+        }
+        return new Bloque<>(new ArrayList<>(filas), ids, valores);
+    }
+
+    private void indexar(Bloque<T> bloque, int offset) {
+        int[] ids = bloque.ids();
+        for (int i = 0; i < ids.length; i++) {
+            filaPorId.put(ids[i], offset + i);
+        }
+    }
+
+    private void desindexar(Bloque<T> bloque, int offset) {
+        int[] ids = bloque.ids();
+        for (int i = 0; i < ids.length; i++) {
+            filaPorId.remove(ids[i], offset + i);
+        }
+    }
+
+    private void reescribir(List<T> filas, Object[][] valores) {
+        for (int i = 0; i < filas.size(); i++) {
+            T entidad = filas.get(i);
+            Integer fila = filaPorId.get(clave.applyAsInt(entidad));
+            if (fila == null) continue;
+
+            Bloque<T> bloque = bloques.get(fila / tamanoBloque);
+            int posicion = fila % tamanoBloque;
+            bloque.filas().set(posicion, entidad);
+            bloque.valores()[posicion] = valores[i];
+            fireTableRowsUpdated(fila, fila);
+        }
+    }
+
+    private void descartarBloque(int indice) {
+        Bloque<T> bloque = bloques.remove(indice);
+        if (bloque != null) {
+            desindexar(bloque, indice * tamanoBloque);
+        }
+    }
+
+    /**
+     * Descarta los bloques desde el indicado, cuyas filas cambian de posición, y las
+     * lecturas en curso, que ya no corresponden a sus posiciones. Los bloques visibles
+     * se vuelven a pedir cuando la tabla los pinta.
+     */
+    private void descartarBloquesDesde(int primero) {
+        for (int indice : new ArrayList<>(bloques.keySet())) {
+            if (indice >= primero) {
+                descartarBloque(indice);
+            }
+        }
+        fuente.invalidar();
+        generacionBloques++;
+        pendientes.clear();
+        notificarCarga();
+    }
+
+    /**
+     * Muestra el error de una consulta de la tabla, una sola vez por refresco, para que
+     * una carga fallida no se confunda con una tabla vacía. Se ejecuta en el EDT.
+     */
+    private void informarError(Throwable error) {
+        if (!errorMostrado) {
+            errorMostrado = true;
+            AsyncExecutor.mostrarError(error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error);
+        }
+    }
+
+    private boolean todasCargadas() {
+        int numBloques = (totalFilas + tamanoBloque - 1) / tamanoBloque;
+        return pendientes.isEmpty() && bloques.size() == numBloques;
+    }
+
+    private void notificarCarga() {
+        if (!isCargando()) {
+            indicadorCarga.accept(false);
+        }
+    }
+
+    /**
+     * Bloque de filas leído de la fuente junto con sus IDs y sus celdas ya formateadas.
+     * Sus filas solo se reescriben en el EDT, al aplicar una modificación.
+     */
+    private record Bloque<T>(List<T> filas, int[] ids, Object[][] valores) {
+        boolean completo(int tamano) {
+            return filas.size() == tamano;
+        }
+
+        T ultima() {
+            return filas.get(filas.size() - 1);
+        }
+    }
+}
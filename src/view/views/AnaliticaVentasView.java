@@ -0,0 +1,257 @@
+package view.views;
+
+import controller.AnaliticaVentasController;
+import controller.MedicamentoController;
+import controller.ServicioController;
+import model.dto.GranularidadVentas;
+import model.dto.TipoVenta;
+import model.dto.VentasItemDTO;
+import model.dto.VentasPeriodoDTO;
+import model.entities.Medicamento;
+import model.entities.Servicio;
+import utils.AppFactory;
+import utils.AsyncExecutor;
+import utils.SwingUtils;
+import utils.SwingUtils.ColorTipo;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vista del panel de análisis de ventas.
+ * Muestra las unidades e importe vendidos de cada servicio o medicamento en un rango
+ * de fechas y, para el ítem seleccionado o para todos, su evolución por día, semana o mes.
+ * Las consultas se responden desde memoria; "Recargar" vuelve a leer las ventas de la base de datos.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class AnaliticaVentasView extends JFrame {
+    private JPanel contentPane;
+    private JComboBox<TipoVenta> comboTipo;
+    private JComboBox<GranularidadVentas> comboGranularidad;
+    private JTextField txtDesde, txtHasta;
+    private JTable tblItems, tblSerie;
+    private JLabel lblEstado;
+    private JButton btnConsultar, btnRecargar;
+
+    private final AnaliticaVentasController analiticaVentasController;
+    private final MedicamentoController medicamentoController;
+    private final ServicioController servicioController;
+    private final DefaultTableModel modeloItems;
+    private final DefaultTableModel modeloSerie;
+    private final List<Integer> idsItems = new ArrayList<>();
+
+    // Rango de la última consulta, para que la serie coincida con la tabla de ítems
+    private TipoVenta tipoConsultado;
+    private LocalDate desdeConsultado, hastaConsultado;
+
+    /**
+     * Constructor que inicializa la vista del panel de ventas.
+     */
+    public AnaliticaVentasView() {
+        setTitle("Análisis de Ventas");
+        setBounds(100, 100, 1000, 600);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        contentPane = new JPanel(new BorderLayout());
+        setContentPane(contentPane);
+
+        analiticaVentasController = AppFactory.getAnaliticaVentasController();
+        medicamentoController = AppFactory.getMedicamentoController();
+        servicioController = AppFactory.getServicioController();
+
+        SwingUtils.centrarVentana(this);
+
+        // Filtros de la consulta
+        JPanel panelFiltros = new JPanel();
+        comboTipo = new JComboBox<>(TipoVenta.values());
+        comboTipo.setSelectedItem(TipoVenta.MEDICAMENTO);
+        comboGranularidad = new JComboBox<>(GranularidadVentas.values());
+        comboGranularidad.setSelectedItem(GranularidadVentas.SEMANA);
+        txtDesde = new JTextField(LocalDate.now().minusMonths(3).withDayOfMonth(1).toString(), 8);
+        txtHasta = new JTextField(LocalDate.now().toString(), 8);
+        btnConsultar = new JButton("Consultar");
+        btnRecargar = new JButton("Recargar");
+
+        SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnConsultar, true);
+        SwingUtils.aplicarEstilo(ColorTipo.VERDE, btnRecargar, true);
+
+        panelFiltros.add(new JLabel("Tipo:"));
+        panelFiltros.add(comboTipo);
+        panelFiltros.add(new JLabel("Desde (yyyy-MM-dd):"));
+        panelFiltros.add(txtDesde);
+        panelFiltros.add(new JLabel("Hasta:"));
+        panelFiltros.add(txtHasta);
+        panelFiltros.add(new JLabel("Agrupar por:"));
+        panelFiltros.add(comboGranularidad);
+        panelFiltros.add(btnConsultar);
+        panelFiltros.add(btnRecargar);
+        contentPane.add(panelFiltros, BorderLayout.NORTH);
+
+        // Tabla de ítems y serie temporal del ítem seleccionado
+        modeloItems = crearModelo("Ítem", "Unidades", "Importe");
+        tblItems = new JTable(modeloItems);
+        tblItems.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+
+        modeloSerie = crearModelo("Desde", "Unidades", "Importe");
+        tblSerie = new JTable(modeloSerie);
+
+        JSplitPane divisor = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(tblItems), new JScrollPane(tblSerie));
+        divisor.setResizeWeight(0.5);
+        contentPane.add(divisor, BorderLayout.CENTER);
+
+        lblEstado = new JLabel(" ");
+        lblEstado.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        contentPane.add(lblEstado, BorderLayout.SOUTH);
+
+        btnConsultar.addActionListener(e -> consultar());
+        btnRecargar.addActionListener(e -> recargar());
+        comboGranularidad.addActionListener(e -> cargarSerie());
+        tblItems.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                cargarSerie();
+            }
+        });
+
+        consultar();
+
+        // Mostrar la ventana
+        setVisible(true);
+    }
+
+    /**
+     * Lee los filtros y consulta las ventas por ítem y la serie de todos los ítems.
+     */
+    private void consultar() {
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            desde = LocalDate.parse(txtDesde.getText().trim());
+            hasta = LocalDate.parse(txtHasta.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Las fechas deben tener el formato yyyy-MM-dd.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (desde.isAfter(hasta)) {
+            JOptionPane.showMessageDialog(this, "La fecha inicial no puede ser posterior a la final.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        TipoVenta tipo = (TipoVenta) comboTipo.getSelectedItem();
+
+        AsyncExecutor.cargar(this, () -> {
+            long inicio = System.nanoTime();
+            List<VentasItemDTO> ventas = analiticaVentasController.obtenerVentasPorItem(tipo, desde, hasta);
+            long nanos = System.nanoTime() - inicio;
+            return new Resultado(ventas, nombres(tipo, ventas), nanos);
+        }, resultado -> {
+            tipoConsultado = tipo;
+            desdeConsultado = desde;
+            hastaConsultado = hasta;
+            mostrarItems(resultado);
+        });
+    }
+
+    /**
+     * Vuelve a leer las ventas de la base de datos y repite la consulta.
+     */
+    private void recargar() {
+        AsyncExecutor.cargar(this, analiticaVentasController::recargarVentas, detalles -> {
+            if (detalles < 0) {
+                JOptionPane.showMessageDialog(this, "No se pudieron recargar las ventas.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            consultar();
+        });
+    }
+
+    /**
+     * Consulta la serie del ítem seleccionado, o la de todos si no hay selección.
+     */
+    private void cargarSerie() {
+        if (tipoConsultado == null) {
+            return;
+        }
+        int fila = tblItems.getSelectedRow();
+        int idItem = fila < 0 ? 0 : idsItems.get(tblItems.convertRowIndexToModel(fila));
+        TipoVenta tipo = tipoConsultado;
+        GranularidadVentas granularidad = (GranularidadVentas) comboGranularidad.getSelectedItem();
+        LocalDate desde = desdeConsultado;
+        LocalDate hasta = hastaConsultado;
+
+        AsyncExecutor.cargar(this,
+                () -> analiticaVentasController.obtenerSerieVentas(tipo, idItem, granularidad, desde, hasta),
+                this::mostrarSerie);
+    }
+
+    private void mostrarItems(Resultado resultado) {
+        modeloItems.setRowCount(0);
+        idsItems.clear();
+        long unidades = 0;
+        double importe = 0;
+        for (VentasItemDTO venta : resultado.ventas()) {
+            idsItems.add(venta.idItem());
+            modeloItems.addRow(new Object[]{
+                    resultado.nombres().getOrDefault(venta.idItem(), "ID " + venta.idItem()),
+                    venta.unidades(), redondear(venta.importe())
+            });
+            unidades += venta.unidades();
+            importe += venta.importe();
+        }
+        lblEstado.setText(String.format("%d ítems, %d unidades, importe %.2f | Consulta resuelta en memoria en %d µs",
+                resultado.ventas().size(), unidades, importe, resultado.nanos() / 1000));
+        // Sin selección, la serie muestra todos los ítems del tipo
+        cargarSerie();
+    }
+
+    private void mostrarSerie(List<VentasPeriodoDTO> serie) {
+        modeloSerie.setRowCount(0);
+        for (VentasPeriodoDTO periodo : serie) {
+            modeloSerie.addRow(new Object[]{periodo.inicio(), periodo.unidades(), redondear(periodo.importe())});
+        }
+    }
+
+    /**
+     * Obtiene el nombre de los ítems vendidos; se ejecuta fuera del EDT.
+     */
+    private Map<Integer, String> nombres(TipoVenta tipo, List<VentasItemDTO> ventas) {
+        List<Integer> ids = new ArrayList<>();
+        ventas.forEach(venta -> ids.add(venta.idItem()));
+        Map<Integer, String> nombres = new HashMap<>();
+        if (tipo == TipoVenta.SERVICIO) {
+            for (Servicio servicio : servicioController.buscarServiciosPorIds(ids).values()) {
+                nombres.put(servicio.getIdServicio(), servicio.getNombreServicio());
+            }
+        } else {
+            for (Medicamento medicamento : medicamentoController.buscarMedicamentosPorIds(ids).values()) {
+                nombres.put(medicamento.getIdMedicamento(), medicamento.getNombre());
+            }
+        }
+        return nombres;
+    }
+
+    private static DefaultTableModel crearModelo(String... columnas) {
+        return new DefaultTableModel(columnas, 0) {
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return false;
+            }
+        };
+    }
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    /**
+     * Resultado de la consulta de ventas por ítem, con los nombres ya resueltos.
+     */
+    private record Resultado(List<VentasItemDTO> ventas, Map<Integer, String> nombres, long nanos) {}
+}
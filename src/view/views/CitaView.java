@@ -4,22 +4,36 @@ import controller.CitaController;
 import controller.ClienteController;
 import controller.MascotaController;
 import controller.VeterinarioController;
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
 import model.entities.Cliente;
 import model.entities.Mascota;
 import model.entities.Veterinario;
+import model.events.CambioEntidad;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Vista para la gestión de citas médicas veterinarias.
- * Permite listar, crear, editar y eliminar citas.
+ * Permite listar, crear, editar y eliminar citas. La tabla muestra solo las citas de
+ * un rango de fechas, por defecto la semana que empieza hoy, opcionalmente filtradas
+ * por veterinario y estado; cada filtro se resuelve con una consulta indexada.
+ * Los cambios de citas publicados por los servicios se aplican solo a las filas afectadas
+ * mientras no cambien el orden por fecha de la tabla.
  *
  * @author Saúl Maldonado
  * @version 1.0
@@ -28,18 +42,30 @@ import java.util.List;
 public class CitaView extends JFrame {
     private JPanel contentPane;
     private JTable tblCitas;
-    private JButton btnNuevaCita, btnEditarCita, btnEliminarCita;
+    private JButton btnNuevaCita, btnEditarCita, btnEliminarCita, btnFiltrar;
+    private JTextField txtDesde, txtHasta;
+    private JComboBox<String> comboVeterinario, comboEstado;
     private CitaController citaController;
     private MascotaController mascotaController;
     private VeterinarioController veterinarioController;
     private ClienteController clienteController;
 
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int DIAS_POR_DEFECTO = 7;
+    private static final String TODOS = "Todos";
+    private LazyTableModel<CitaDetalleDTO> modeloCitas;
+    private final List<Integer> idsVeterinarios = new ArrayList<>();
+
+    // Filtro aplicado; se fija en el EDT y se lee al cargar la tabla en segundo plano
+    private volatile FiltroCitas filtro = new FiltroCitas(LocalDate.now().atStartOfDay(),
+            LocalDate.now().plusDays(DIAS_POR_DEFECTO).atStartOfDay(), 0, null);
+
     /**
      * Constructor que inicializa la vista de gestión de citas.
      */
     public CitaView() {
         setTitle("Gestión de Citas");
-        setBounds(100, 100, 900, 400);
+        setBounds(100, 100, 1000, 450);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         contentPane = new JPanel(new BorderLayout());
         setContentPane(contentPane);
@@ -52,7 +78,41 @@ public class CitaView extends JFrame {
         veterinarioController = AppFactory.getVeterinarioController();
         clienteController = AppFactory.getClienteController();
 
-        tblCitas = new JTable();
+        // Filtros: rango de fechas (fin incluido), veterinario y estado
+        JPanel panelFiltros = new JPanel();
+        txtDesde = new JTextField(filtro.desde().toLocalDate().toString(), 8);
+        txtHasta = new JTextField(filtro.hasta().toLocalDate().minusDays(1).toString(), 8);
+        comboVeterinario = new JComboBox<>(new String[]{TODOS});
+        comboEstado = new JComboBox<>(new String[]{TODOS, "Pendiente", "Confirmada", "Cancelada"});
+        btnFiltrar = new JButton("Filtrar");
+        SwingUtils.aplicarEstilo(SwingUtils.ColorTipo.VERDE, btnFiltrar, true);
+
+        panelFiltros.add(new JLabel("Desde (yyyy-MM-dd):"));
+        panelFiltros.add(txtDesde);
+        panelFiltros.add(new JLabel("Hasta:"));
+        panelFiltros.add(txtHasta);
+        panelFiltros.add(new JLabel("Veterinario:"));
+        panelFiltros.add(comboVeterinario);
+        panelFiltros.add(new JLabel("Estado:"));
+        panelFiltros.add(comboEstado);
+        panelFiltros.add(btnFiltrar);
+        contentPane.add(panelFiltros, BorderLayout.NORTH);
+
+        modeloCitas = new LazyTableModel<>(
+                FuenteDatos.enMemoria(this::cargarCitasFiltradas),
+                CitaDetalleDTO::idCita,
+                new String[]{"Fecha y Hora", "Motivo", "Estado", "Mascota", "Veterinario"},
+                c -> new Object[]{
+                        c.fechaHora().format(FORMATO_FECHA),
+                        c.motivo(),
+                        c.estado(),
+                        c.nombreMascota() + " - " + c.nombreCliente(),
+                        c.nombreVeterinario()
+                });
+        tblCitas = new JTable(modeloCitas);
+        modeloCitas.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Cita.class, AsyncExecutor.EDT, this::aplicarCambio);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblCitas), BorderLayout.CENTER);
 
         JPanel panelBotones = new JPanel();
@@ -71,52 +131,145 @@ public class CitaView extends JFrame {
         contentPane.add(panelBotones, BorderLayout.SOUTH);
 
         agregarListeners();
+        cargarVeterinarios();
         actualizarTabla();
         setVisible(true);
     }
 
+    /**
+     * Lee los filtros del formulario y, si son válidos, vuelve a cargar la tabla con ellos.
+     */
+    private void aplicarFiltro() {
+        LocalDate desde;
+        LocalDate hasta;
+        try {
+            desde = LocalDate.parse(txtDesde.getText().trim());
+            hasta = LocalDate.parse(txtHasta.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Las fechas deben tener el formato yyyy-MM-dd.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        if (desde.isAfter(hasta)) {
+            JOptionPane.showMessageDialog(this, "La fecha inicial no puede ser posterior a la final.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        int indiceVeterinario = comboVeterinario.getSelectedIndex();
+        int idVeterinario = indiceVeterinario > 0 ? idsVeterinarios.get(indiceVeterinario - 1) : 0;
+        String estado = comboEstado.getSelectedIndex() > 0 ? (String) comboEstado.getSelectedItem() : null;
+
+        filtro = new FiltroCitas(desde.atStartOfDay(), hasta.plusDays(1).atStartOfDay(), idVeterinario, estado);
+        actualizarTabla();
+    }
+
+    /**
+     * Carga las citas que cumplen el filtro actual; se ejecuta fuera del EDT.
+     * Con veterinario se consulta por veterinario y el estado se filtra aquí, ya que
+     * la agenda de un veterinario en el rango es pequeña.
+     *
+     * @return Citas del rango que cumplen el filtro, ordenadas por fecha y hora
+     */
+    private List<CitaDetalleDTO> cargarCitasFiltradas() {
+        FiltroCitas actual = filtro;
+        if (actual.idVeterinario() > 0) {
+            List<CitaDetalleDTO> citas = citaController.obtenerCitasDetalladasPorVeterinario(
+                    actual.idVeterinario(), actual.desde(), actual.hasta());
+            if (actual.estado() == null) {
+                return citas;
+            }
+            return citas.stream().filter(c -> actual.estado().equalsIgnoreCase(c.estado())).toList();
+        }
+        if (actual.estado() != null) {
+            return citaController.obtenerCitasDetalladasPorEstado(actual.estado(), actual.desde(), actual.hasta());
+        }
+        return citaController.obtenerCitasDetalladasEnRango(actual.desde(), actual.hasta());
+    }
+
+    /**
+     * Carga en segundo plano los veterinarios que se ofrecen en el filtro.
+     */
+    private void cargarVeterinarios() {
+        AsyncExecutor.cargar(this, veterinarioController::obtenerTodosVeterinarios, veterinarios -> {
+            for (Veterinario v : veterinarios) {
+                idsVeterinarios.add(v.getIdVeterinario());
+                comboVeterinario.addItem(v.getIdVeterinario() + " - " + v.getNombre());
+            }
+        });
+    }
+
     /**
      * Actualiza la tabla con los datos de las citas existentes.
      */
     private void actualizarTabla() {
-        List<Cita> citas = citaController.obtenerTodasCitas();
-        Object[][] data = new Object[citas.size()][5];
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
-        for (int i = 0; i < citas.size(); i++) {
-            data[i][0] = citas.get(i).getFechaHora().format(formatter);
-            data[i][1] = citas.get(i).getMotivo();
-            data[i][2] = citas.get(i).getEstado();
-            data[i][3] = mascotaController.buscarMascotaPorId(citas.get(i).getIdMascota()).getNombre()+" - "+clienteController.buscarClientePorId(
-                    mascotaController.buscarMascotaPorId(
-                            citas.get(i).getIdMascota()
-                    ).getIdCliente()
-            ).getNombre();
-            data[i][4] = veterinarioController.buscarVeterinarioPorId(citas.get(i).getIdVeterinario()).getNombre();
-        }
+        modeloCitas.refrescar();
+    }
 
-        String[] columnas = {"Fecha y Hora", "Motivo", "Estado", "Mascota", "Veterinario"};
-        tblCitas.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+    /**
+     * Aplica un cambio de citas a la tabla. Las bajas, y las modificaciones que dejan la
+     * cita en la misma fecha, se aplican sobre sus filas; las citas que dejan de cumplir el
+     * filtro se quitan. Una alta o un cambio de fecha dentro del filtro pueden alterar el
+     * orden, así que vuelven a cargar la lista filtrada; fuera del filtro se ignoran.
+     *
+     * @param cambio Cambio publicado por el servicio de citas
+     */
+    private void aplicarCambio(CambioEntidad<Cita> cambio) {
+        FiltroCitas actual = filtro;
+        switch (cambio.tipo()) {
+            case ELIMINADO -> modeloCitas.quitarFilas(cambio.ids());
+            case VARIOS -> actualizarTabla();
+            case CREADO -> {
+                if (cambio.valores().stream().anyMatch(actual::incluye)) {
+                    actualizarTabla();
+                }
+            }
+            case ACTUALIZADO -> {
+                if (cambio.valores().isEmpty()) {
+                    modeloCitas.recargarFilas(cambio.ids());
+                    return;
+                }
+                List<Integer> recargar = new ArrayList<>();
+                List<Integer> quitar = new ArrayList<>();
+                for (Cita cita : cambio.valores()) {
+                    int fila = modeloCitas.getFilaPorId(cita.getIdCita());
+                    CitaDetalleDTO mostrada = fila != -1 ? modeloCitas.getFila(fila) : null;
+                    if (!actual.incluye(cita)) {
+                        if (mostrada != null) {
+                            quitar.add(cita.getIdCita());
+                        }
+                    } else if (mostrada != null && mostrada.fechaHora().equals(cita.getFechaHora())) {
+                        recargar.add(cita.getIdCita());
+                    } else {
+                        actualizarTabla();
+                        return;
+                    }
+                }
+                modeloCitas.quitarFilas(quitar);
+                modeloCitas.recargarFilas(recargar);
+            }
+        }
     }
 
     /**
      * Muestra un diálogo para agregar una nueva cita.
      */
     private void agregarNuevaCita() {
+        AsyncExecutor.cargar(this, this::cargarOpciones, this::agregarNuevaCita);
+    }
+
+    /**
+     * Muestra el diálogo de nueva cita con las mascotas y veterinarios ya cargados.
+     *
+     * @param opciones Mascotas y veterinarios disponibles
+     */
+    private void agregarNuevaCita(OpcionesCita opciones) {
         JTextField fechaHoraField = new JTextField(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
         JTextField motivoField = new JTextField();
         JTextField estadoField = new JTextField("Pendiente");
 
-        List<Mascota> mascotas = mascotaController.obtenerTodasMascotas();
-        List<Veterinario> veterinarios = veterinarioController.obtenerTodosVeterinarios();
+        List<Mascota> mascotas = opciones.mascotas();
+        List<Veterinario> veterinarios = opciones.veterinarios();
 
         JComboBox<String> comboMascotas = new JComboBox<>();
-
-
-        for (Mascota m : mascotas){
-            Cliente c = clienteController.buscarClientePorId(m.getIdCliente());
-            comboMascotas.addItem(m.getIdMascota() + " - " + m.getNombre() + " - " +c.getNombre());
-        }
+        for (String etiqueta : opciones.etiquetasMascotas()) comboMascotas.addItem(etiqueta);
 
         JComboBox<String> comboVeterinarios = new JComboBox<>();
         for (Veterinario v : veterinarios) comboVeterinarios.addItem(v.getIdVeterinario() + " - " + v.getNombre());
@@ -142,8 +295,7 @@ public class CitaView extends JFrame {
             int selectedIndexVeterinario = comboVeterinarios.getSelectedIndex();
             c.setIdVeterinario(veterinarios.get(selectedIndexVeterinario).getIdVeterinario());
 
-            citaController.guardarCita(c);
-            actualizarTabla();
+            AsyncExecutor.ejecutar(this, () -> citaController.guardarCita(c));
         }
     }
 
@@ -152,49 +304,61 @@ public class CitaView extends JFrame {
      */
     private void editarCitaSeleccionada() {
         int row = tblCitas.getSelectedRow();
-        if (row != -1) {
-            Cita cita = citaController.obtenerTodasCitas().get(row);
-
-            JTextField fechaHoraField = new JTextField(cita.getFechaHora().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-            JTextField motivoField = new JTextField(cita.getMotivo());
-            JTextField estadoField = new JTextField(cita.getEstado());
+        CitaDetalleDTO seleccionada = row != -1 ? modeloCitas.getFila(row) : null;
+        if (seleccionada != null) {
+            Cita cita = seleccionada.aCita();
+            AsyncExecutor.cargar(this, this::cargarOpciones, opciones -> editarCita(cita, opciones));
+        } else {
+            JOptionPane.showMessageDialog(null, "Selecciona una cita para editar.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            List<Mascota> mascotas = mascotaController.obtenerTodasMascotas();
-            JComboBox<String> comboMascotas = new JComboBox<>();
+    /**
+     * Muestra el diálogo de edición de una cita con las mascotas y veterinarios ya cargados.
+     *
+     * @param cita     La cita a editar
+     * @param opciones Mascotas y veterinarios disponibles
+     */
+    private void editarCita(Cita cita, OpcionesCita opciones) {
+        JTextField fechaHoraField = new JTextField(cita.getFechaHora().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+        JTextField motivoField = new JTextField(cita.getMotivo());
+        JTextField estadoField = new JTextField(cita.getEstado());
 
-            for (Mascota m : mascotas){
-                Cliente c = clienteController.buscarClientePorId(m.getIdCliente());
-                comboMascotas.addItem(m.getIdMascota() + " - " + m.getNombre() + " - " +c.getNombre());
+        List<Mascota> mascotas = opciones.mascotas();
+        JComboBox<String> comboMascotas = new JComboBox<>();
+        for (int i = 0; i < mascotas.size(); i++) {
+            comboMascotas.addItem(opciones.etiquetasMascotas().get(i));
+            if (mascotas.get(i).getIdMascota() == cita.getIdMascota()) {
+                comboMascotas.setSelectedIndex(i);
             }
-            comboMascotas.setSelectedItem(cita.getIdCita()+" - "+mascotaController.buscarMascotaPorId(cita.getIdMascota()).getNombre());
-
-            List<Veterinario> veterinarios = veterinarioController.obtenerTodosVeterinarios();
-            JComboBox<String> comboVeterinarios = new JComboBox<>();
-            for(Veterinario v : veterinarios)
-                comboVeterinarios.addItem(v.getIdVeterinario()+" - "+v.getNombre());
-            comboVeterinarios.setSelectedItem(cita.getIdCita()+" - "+veterinarioController.buscarVeterinarioPorId(cita.getIdVeterinario()).getNombre());
-
-            Object[] message = {
-                    "Fecha y Hora (yyyy-MM-dd HH:mm):", fechaHoraField,
-                    "Motivo:", motivoField,
-                    "Estado:", estadoField,
-                    "Mascota:", comboMascotas,
-                    "Veterinario:", comboVeterinarios
-            };
-
-            int option = JOptionPane.showConfirmDialog(null, message, "Editar Cita", JOptionPane.OK_CANCEL_OPTION);
-            if (option == JOptionPane.OK_OPTION) {
-                cita.setFechaHora(LocalDateTime.parse(fechaHoraField.getText(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-                cita.setMotivo(motivoField.getText());
-                cita.setEstado(estadoField.getText());
-                cita.setIdMascota(mascotas.get(comboMascotas.getSelectedIndex()).getIdMascota());
-                cita.setIdVeterinario(veterinarios.get(comboVeterinarios.getSelectedIndex()).getIdVeterinario());
-
-                citaController.actualizarCita(cita);
-                actualizarTabla();
+        }
+
+        List<Veterinario> veterinarios = opciones.veterinarios();
+        JComboBox<String> comboVeterinarios = new JComboBox<>();
+        for (Veterinario v : veterinarios) {
+            comboVeterinarios.addItem(v.getIdVeterinario() + " - " + v.getNombre());
+            if (v.getIdVeterinario() == cita.getIdVeterinario()) {
+                comboVeterinarios.setSelectedIndex(comboVeterinarios.getItemCount() - 1);
             }
-        } else {
-            JOptionPane.showMessageDialog(null, "Selecciona una cita para editar.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+
+        Object[] message = {
+                "Fecha y Hora (yyyy-MM-dd HH:mm):", fechaHoraField,
+                "Motivo:", motivoField,
+                "Estado:", estadoField,
+                "Mascota:", comboMascotas,
+                "Veterinario:", comboVeterinarios
+        };
+
+        int option = JOptionPane.showConfirmDialog(null, message, "Editar Cita", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION) {
+            cita.setFechaHora(LocalDateTime.parse(fechaHoraField.getText(), DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
+            cita.setMotivo(motivoField.getText());
+            cita.setEstado(estadoField.getText());
+            cita.setIdMascota(mascotas.get(comboMascotas.getSelectedIndex()).getIdMascota());
+            cita.setIdVeterinario(veterinarios.get(comboVeterinarios.getSelectedIndex()).getIdVeterinario());
+
+            AsyncExecutor.ejecutar(this, () -> citaController.actualizarCita(cita));
         }
     }
 
@@ -203,18 +367,39 @@ public class CitaView extends JFrame {
      */
     private void eliminarCitaSeleccionada() {
         int row = tblCitas.getSelectedRow();
-        if (row != -1) {
-            Cita seleccionada = citaController.obtenerTodasCitas().get(row);
+        CitaDetalleDTO seleccionada = row != -1 ? modeloCitas.getFila(row) : null;
+        if (seleccionada != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Eliminar esta cita?", "Confirmar", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                citaController.eliminarCita(seleccionada.getIdCita());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> citaController.eliminarCita(seleccionada.idCita()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona una cita para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Carga las mascotas, con el nombre de su dueño, y los veterinarios que se ofrecen
+     * en los diálogos. Se ejecuta fuera del EDT.
+     *
+     * @return Mascotas y veterinarios disponibles
+     */
+    private OpcionesCita cargarOpciones() {
+        List<Mascota> mascotas = mascotaController.obtenerTodasMascotas();
+        List<Integer> idsClientes = new ArrayList<>();
+        for (Mascota m : mascotas) {
+            idsClientes.add(m.getIdCliente());
+        }
+        Map<Integer, Cliente> clientes = clienteController.buscarClientesPorIds(idsClientes);
+
+        List<String> etiquetas = new ArrayList<>();
+        for (Mascota m : mascotas) {
+            Cliente c = clientes.get(m.getIdCliente());
+            etiquetas.add(m.getIdMascota() + " - " + m.getNombre() + " - " + (c != null ? c.getNombre() : ""));
+        }
+        return new OpcionesCita(mascotas, etiquetas, veterinarioController.obtenerTodosVeterinarios());
+    }
+
     /**
      * Agrega los listeners a los botones de la interfaz.
      */
@@ -222,5 +407,30 @@ public class CitaView extends JFrame {
         btnNuevaCita.addActionListener(e -> agregarNuevaCita());
         btnEditarCita.addActionListener(e -> editarCitaSeleccionada());
         btnEliminarCita.addActionListener(e -> eliminarCitaSeleccionada());
+        btnFiltrar.addActionListener(e -> aplicarFiltro());
+    }
+
+    /**
+     * Mascotas, con su etiqueta para el combo, y veterinarios que se pueden asignar a una cita.
+     */
+    private record OpcionesCita(List<Mascota> mascotas, List<String> etiquetasMascotas, List<Veterinario> veterinarios) {}
+
+    /**
+     * Filtro de la tabla: rango [desde, hasta), veterinario (0 para todos) y estado (null para todos).
+     */
+    private record FiltroCitas(LocalDateTime desde, LocalDateTime hasta, int idVeterinario, String estado) {
+
+        /**
+         * Indica si una cita cumple el filtro.
+         *
+         * @param cita Cita a comprobar
+         * @return true si la cita debe mostrarse con este filtro
+         */
+        boolean incluye(Cita cita) {
+            LocalDateTime fechaHora = cita.getFechaHora();
+            return fechaHora != null && !fechaHora.isBefore(desde) && fechaHora.isBefore(hasta)
+                    && (idVeterinario == 0 || cita.getIdVeterinario() == idVeterinario)
+                    && (estado == null || estado.equalsIgnoreCase(cita.getEstado()));
+        }
     }
 }
@@ -2,15 +2,19 @@ package view.views;
 
 import controller.ClienteController;
 import model.entities.Cliente;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
 import utils.SwingUtils.*;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.List;
 
 /**
  * Vista para la gestión de clientes de la veterinaria.
@@ -26,6 +30,7 @@ public class ClienteView extends JFrame {
     private JButton btnNuevoCliente, btnEditarCliente, btnEliminarCliente;
 
     private final ClienteController clienteController;
+    private LazyTableModel<Cliente> modeloClientes;
 
     /**
      * Constructor que inicializa la vista de gestión de clientes.
@@ -43,7 +48,15 @@ public class ClienteView extends JFrame {
         SwingUtils.bloquearRedimension(this, true);
 
         // Crear tabla de clientes
-        tblClientes = new JTable();
+        modeloClientes = new LazyTableModel<>(
+                FuenteDatos.de(clienteController::contarClientes, clienteController::obtenerClientesPagina),
+                Cliente::getIdCliente,
+                new String[]{"Nombre", "Teléfono"},
+                c -> new Object[]{c.getNombre(), c.getTelefono()});
+        tblClientes = new JTable(modeloClientes);
+        modeloClientes.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Cliente.class, AsyncExecutor.EDT, modeloClientes::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblClientes), BorderLayout.CENTER);
 
         // Crear panel de botones
@@ -92,16 +105,7 @@ public class ClienteView extends JFrame {
      * Actualiza la tabla con los datos de los clientes existentes.
      */
     private void actualizarTabla() {
-        List<Cliente> clientes = clienteController.obtenerTodosClientes();
-        Object[][] data = new Object[clientes.size()][2];
-
-        for (int i = 0; i < clientes.size(); i++) {
-            data[i][0] = clientes.get(i).getNombre();
-            data[i][1] = clientes.get(i).getTelefono();
-        }
-
-        String[] columnNames = {"Nombre", "Teléfono"};
-        tblClientes.setModel(new javax.swing.table.DefaultTableModel(data, columnNames));
+        modeloClientes.refrescar();
     }
 
     /**
@@ -122,8 +126,11 @@ public class ClienteView extends JFrame {
             String telefono = telefonoField.getText();
 
             Cliente nuevoCliente = new Cliente(nombre, telefono);
-            clienteController.guardarCliente(nuevoCliente);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> clienteController.guardarCliente(nuevoCliente), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar el cliente.", "Error");
+                }
+            });
         }
     }
 
@@ -132,9 +139,9 @@ public class ClienteView extends JFrame {
      */
     private void editarClienteSeleccionado() {
         int row = tblClientes.getSelectedRow();
-        if (row != -1) {
-            // Obtener el cliente seleccionado
-            Cliente clienteSeleccionado = clienteController.obtenerTodosClientes().get(row);
+        // Obtener el cliente seleccionado
+        Cliente clienteSeleccionado = row != -1 ? modeloClientes.getFila(row) : null;
+        if (clienteSeleccionado != null) {
 
             // Crear formulario de edición
             JTextField nombreField = new JTextField(clienteSeleccionado.getNombre());
@@ -150,8 +157,7 @@ public class ClienteView extends JFrame {
                 clienteSeleccionado.setNombre(nombreField.getText());
                 clienteSeleccionado.setTelefono(telefonoField.getText());
 
-                clienteController.actualizarCliente(clienteSeleccionado);
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> clienteController.actualizarCliente(clienteSeleccionado));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un cliente para editar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -163,14 +169,13 @@ public class ClienteView extends JFrame {
      */
     private void eliminarClienteSeleccionado() {
         int row = tblClientes.getSelectedRow();
-        if (row != -1) {
-            // Obtener el cliente seleccionado
-            Cliente clienteSeleccionado = clienteController.obtenerTodosClientes().get(row);
+        // Obtener el cliente seleccionado
+        Cliente clienteSeleccionado = row != -1 ? modeloClientes.getFila(row) : null;
+        if (clienteSeleccionado != null) {
 
             int option = JOptionPane.showConfirmDialog(null, "¿Estás seguro de eliminar este cliente?", "Confirmar eliminación", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                clienteController.eliminarCliente(clienteSeleccionado.getIdCliente());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> clienteController.eliminarCliente(clienteSeleccionado.getIdCliente()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un cliente para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
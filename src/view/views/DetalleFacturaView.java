@@ -5,19 +5,26 @@ import controller.FacturaController;
 import controller.MedicamentoController;
 import controller.ServicioController;
 import model.entities.DetalleFactura;
-import model.entities.Factura;
 import model.entities.Medicamento;
 import model.entities.Servicio;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Vista para la gestión de detalles de factura.
- * Permite agregar, eliminar y actualizar detalles de factura.
+ * Permite agregar, eliminar y actualizar detalles de factura. Los cambios de los
+ * detalles y del total llegan a las demás vistas abiertas por {@link EventosDominio}.
  *
  * @author Saúl Maldonado
  * @version 1.0
@@ -33,8 +40,7 @@ public class DetalleFacturaView extends JFrame {
     private ServicioController servicioController;
     private MedicamentoController medicamentoController;
     private FacturaController facturaController;
-
-    private FacturaView facturaView;
+    private LazyTableModel<DetalleFactura> modeloDetalles;
 
     /**
      * Constructor que inicializa la vista de detalles de factura.
@@ -51,7 +57,6 @@ public class DetalleFacturaView extends JFrame {
         servicioController = AppFactory.getServicioController();
         medicamentoController = AppFactory.getMedicamentoController();
         facturaController = AppFactory.getFacturaController();
-        facturaView = new FacturaView();
 
         contentPane = new JPanel(new BorderLayout());
         setContentPane(contentPane);
@@ -59,7 +64,16 @@ public class DetalleFacturaView extends JFrame {
         SwingUtils.centrarVentana(this);
         SwingUtils.bloquearRedimension(this, true);
 
-        tblDetalles = new JTable();
+        modeloDetalles = LazyTableModel.porBloques(
+                FuenteDatos.enMemoria(() -> detalleFacturaController.obtenerDetallesPorFactura(idFactura)),
+                DetalleFactura::getIdDetalle,
+                new String[]{"Nombre", "Tipo", "Cantidad", "Precio Unitario", "Subtotal"},
+                this::formatearDetalles);
+        tblDetalles = new JTable(modeloDetalles);
+        modeloDetalles.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(DetalleFactura.class, AsyncExecutor.EDT,
+                cambio -> modeloDetalles.aplicar(cambio.filtrar(detalle -> detalle.getIdFactura() == idFactura)));
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblDetalles), BorderLayout.CENTER);
 
         JPanel panelBotones = new JPanel();
@@ -89,8 +103,19 @@ public class DetalleFacturaView extends JFrame {
      * Muestra un diálogo para agregar un nuevo detalle a la factura.
      */
     private void agregarDetalle() {
-        List<Servicio> servicios = servicioController.obtenerTodosServicios();
-        List<Medicamento> medicamentos = medicamentoController.obtenerTodosMedicamentos();
+        AsyncExecutor.cargar(this,
+                () -> new OpcionesDetalle(servicioController.obtenerTodosServicios(), medicamentoController.obtenerTodosMedicamentos()),
+                this::agregarDetalle);
+    }
+
+    /**
+     * Muestra el diálogo de nuevo detalle con los servicios y medicamentos ya cargados.
+     *
+     * @param opciones Servicios y medicamentos disponibles
+     */
+    private void agregarDetalle(OpcionesDetalle opciones) {
+        List<Servicio> servicios = opciones.servicios();
+        List<Medicamento> medicamentos = opciones.medicamentos();
 
         JComboBox<String> comboTipo = new JComboBox<>(new String[]{"Servicio", "Medicamento"});
         JComboBox<String> comboItems = new JComboBox<>();
@@ -135,8 +160,11 @@ public class DetalleFacturaView extends JFrame {
                 detalle.setIdServicio(null);
             }
 
-            detalleFacturaController.guardarDetalleFactura(detalle);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> detalleFacturaController.guardarDetalleFactura(detalle), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar el detalle.", "Error");
+                }
+            });
         }
     }
 
@@ -145,12 +173,11 @@ public class DetalleFacturaView extends JFrame {
      */
     private void eliminarDetalle() {
         int row = tblDetalles.getSelectedRow();
-        if (row != -1) {
-            DetalleFactura detalle = detalleFacturaController.obtenerDetallesPorFactura(idFactura).get(row);
+        DetalleFactura detalle = row != -1 ? modeloDetalles.getFila(row) : null;
+        if (detalle != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Eliminar este detalle?", "Confirmar", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                detalleFacturaController.eliminarDetalleFactura(detalle.getIdDetalle());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> detalleFacturaController.eliminarDetalleFactura(detalle.getIdDetalle()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un detalle para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -158,54 +185,68 @@ public class DetalleFacturaView extends JFrame {
     }
 
     /**
-     * Actualiza el total de la factura sumando todos los detalles.
+     * Recalcula en la base de datos el total de la factura a partir de sus detalles.
      */
     private void actualizarTotalFactura() {
-        List<DetalleFactura> detalles = detalleFacturaController.obtenerDetallesPorFactura(idFactura);
-        double total = 0;
-
-        for (DetalleFactura d : detalles) {
-            total += d.getCantidad() * d.getSubtotal();
-        }
-
-        Factura factura = facturaController.buscarFacturaPorId(idFactura);
-        factura.setTotal(total);
-        facturaController.actualizarFactura(factura);
-
-        JOptionPane.showMessageDialog(null, "Total actualizado: $" + total);
-        actualizarTabla();
-        facturaView.actualizarTabla();
+        AsyncExecutor.cargar(this, () -> facturaController.recalcularTotalFactura(idFactura), total -> {
+            if (total == null) {
+                JOptionPane.showMessageDialog(null, "No se pudo actualizar el total.", "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            JOptionPane.showMessageDialog(null, "Total actualizado: $" + total);
+        });
     }
 
     /**
      * Actualiza la tabla con los detalles de la factura.
      */
     private void actualizarTabla() {
-        List<DetalleFactura> detalles = detalleFacturaController.obtenerDetallesPorFactura(idFactura);
-        Object[][] data = new Object[detalles.size()][5];
+        modeloDetalles.refrescar();
+    }
 
+    /**
+     * Convierte un bloque de detalles en los valores de sus filas, resolviendo los nombres
+     * de todos los servicios y medicamentos con una consulta por tipo. Se ejecuta fuera del EDT.
+     *
+     * @param detalles Los detalles a mostrar
+     * @return Valores de las celdas de cada fila
+     */
+    private Object[][] formatearDetalles(List<DetalleFactura> detalles) {
+        List<Integer> idsServicios = new ArrayList<>();
+        List<Integer> idsMedicamentos = new ArrayList<>();
+        for (DetalleFactura d : detalles) {
+            if ("Servicio".equalsIgnoreCase(d.getTipo())) {
+                idsServicios.add(d.getIdServicio());
+            } else if ("Medicamento".equalsIgnoreCase(d.getTipo())) {
+                idsMedicamentos.add(d.getIdMedicamento());
+            }
+        }
+        Map<Integer, Servicio> servicios = idsServicios.isEmpty()
+                ? Map.of() : servicioController.buscarServiciosPorIds(idsServicios);
+        Map<Integer, Medicamento> medicamentos = idsMedicamentos.isEmpty()
+                ? Map.of() : medicamentoController.buscarMedicamentosPorIds(idsMedicamentos);
+
+        Object[][] filas = new Object[detalles.size()][];
         for (int i = 0; i < detalles.size(); i++) {
             DetalleFactura d = detalles.get(i);
             String nombreItem = "";
             String tipo = d.getTipo();
 
             if ("Servicio".equalsIgnoreCase(tipo)) {
-                Servicio servicio = servicioController.buscarServicioPorId(d.getIdServicio());
+                Servicio servicio = servicios.get(d.getIdServicio());
                 nombreItem = (servicio != null) ? servicio.getNombreServicio() : "Servicio no encontrado";
             } else if ("Medicamento".equalsIgnoreCase(tipo)) {
-                Medicamento medicamento = medicamentoController.buscarMedicamentoPorId(d.getIdMedicamento());
+                Medicamento medicamento = medicamentos.get(d.getIdMedicamento());
                 nombreItem = (medicamento != null) ? medicamento.getNombre() : "Medicamento no encontrado";
             }
 
-            data[i][0] = nombreItem;
-            data[i][1] = tipo;
-            data[i][2] = d.getCantidad();
-            data[i][3] = d.getSubtotal();
-            data[i][4] = d.getCantidad() * d.getSubtotal();
+            filas[i] = new Object[]{nombreItem, tipo, d.getCantidad(), d.getSubtotal(), d.getCantidad() * d.getSubtotal()};
         }
-
-        String[] columnas = {"Nombre", "Tipo", "Cantidad", "Precio Unitario", "Subtotal"};
-        tblDetalles.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+        return filas;
     }
-}
 
+    /**
+     * Servicios y medicamentos que se pueden agregar como detalle.
+     */
+    private record OpcionesDetalle(List<Servicio> servicios, List<Medicamento> medicamentos) {}
+}
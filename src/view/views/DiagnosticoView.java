@@ -0,0 +1,161 @@
+package view.views;
+
+import controller.DiagnosticoController;
+import model.dao.CacheDAO;
+import model.database.EstadisticasSentencias.Latencia;
+import model.database.EstadisticasSentencias.Uso;
+import model.dto.EstadoPoolDTO;
+import utils.AppFactory;
+import utils.SwingUtils;
+import utils.SwingUtils.ColorTipo;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.Map;
+
+/**
+ * Vista de diagnóstico del acceso a datos.
+ * Muestra las métricas de cada consulta, el estado del pool de conexiones y las
+ * estadísticas de las cachés de entidades, y las actualiza periódicamente.
+ *
+ * @author Saúl Maldonado
+ * @version 1.0
+ */
+public class DiagnosticoView extends JFrame {
+    private static final int INTERVALO_ACTUALIZACION_MS = 2000;
+
+    private JPanel contentPane;
+    private JTable tblConsultas, tblCaches;
+    private JLabel lblPool;
+    private JButton btnActualizar, btnReiniciar;
+
+    private final DiagnosticoController diagnosticoController;
+    private final DefaultTableModel modeloConsultas;
+    private final DefaultTableModel modeloCaches;
+    private final Timer temporizador;
+
+    /**
+     * Constructor que inicializa la vista de diagnóstico.
+     */
+    public DiagnosticoView() {
+        setTitle("Diagnóstico");
+        setBounds(100, 100, 1100, 600);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        contentPane = new JPanel(new BorderLayout());
+        setContentPane(contentPane);
+
+        diagnosticoController = AppFactory.getDiagnosticoController();
+
+        SwingUtils.centrarVentana(this);
+
+        // Estado del pool de conexiones
+        lblPool = new JLabel();
+        lblPool.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+        contentPane.add(lblPool, BorderLayout.NORTH);
+
+        // Tablas de consultas y cachés
+        modeloConsultas = crearModelo("Consulta", "Ejecuciones", "Errores", "Filas", "p50 ms", "p95 ms",
+                "p99 ms", "Máx ms", "Espera conexión p95 ms", "Preparaciones", "Reutilizaciones");
+        tblConsultas = new JTable(modeloConsultas);
+        tblConsultas.setAutoCreateRowSorter(true);
+
+        modeloCaches = crearModelo("Entidad", "Entradas", "Máx. entradas", "Aciertos", "Fallos",
+                "Tasa de aciertos", "Desalojos", "Expiraciones");
+        tblCaches = new JTable(modeloCaches);
+
+        JSplitPane divisor = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(tblConsultas), new JScrollPane(tblCaches));
+        divisor.setResizeWeight(0.75);
+        contentPane.add(divisor, BorderLayout.CENTER);
+
+        // Crear panel de botones
+        JPanel panelBotones = new JPanel();
+        contentPane.add(panelBotones, BorderLayout.SOUTH);
+
+        btnActualizar = new JButton("Actualizar");
+        btnReiniciar = new JButton("Reiniciar métricas");
+
+        SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnActualizar, true);
+        SwingUtils.aplicarEstilo(ColorTipo.ROJO, btnReiniciar, true);
+
+        panelBotones.add(btnActualizar);
+        panelBotones.add(btnReiniciar);
+
+        btnActualizar.addActionListener(e -> actualizar());
+        btnReiniciar.addActionListener(e -> {
+            diagnosticoController.reiniciarMetricas();
+            actualizar();
+        });
+
+        // Las métricas se leen de memoria, así que refrescarlas en el EDT es barato
+        temporizador = new Timer(INTERVALO_ACTUALIZACION_MS, e -> actualizar());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                temporizador.stop();
+            }
+        });
+
+        actualizar();
+        temporizador.start();
+
+        // Mostrar la ventana
+        setVisible(true);
+    }
+
+    /**
+     * Vuelve a leer todas las métricas y las muestra.
+     */
+    private void actualizar() {
+        modeloConsultas.setRowCount(0);
+        for (Uso uso : diagnosticoController.obtenerMetricasConsultas()) {
+            Latencia latencia = uso.latencia();
+            modeloConsultas.addRow(new Object[]{
+                    uso.clave(), uso.ejecuciones(), uso.errores(), uso.filas(),
+                    ms(latencia.p50Ms()), ms(latencia.p95Ms()), ms(latencia.p99Ms()), ms(latencia.maxMs()),
+                    ms(uso.esperaConexion().p95Ms()), uso.preparaciones(), uso.reutilizaciones()
+            });
+        }
+
+        modeloCaches.setRowCount(0);
+        for (Map.Entry<String, CacheDAO.Estadisticas> entrada : diagnosticoController.obtenerEstadisticasCaches().entrySet()) {
+            CacheDAO.Estadisticas estadisticas = entrada.getValue();
+            modeloCaches.addRow(new Object[]{
+                    entrada.getKey(), estadisticas.entradas(), estadisticas.maxEntradas(),
+                    estadisticas.aciertos(), estadisticas.fallos(),
+                    String.format("%.1f %%", estadisticas.tasaAciertos() * 100),
+                    estadisticas.desalojos(), estadisticas.expiraciones()
+            });
+        }
+
+        EstadoPoolDTO pool = diagnosticoController.obtenerEstadoPool();
+        if (pool == null) {
+            lblPool.setText("Pool de conexiones: sin conexiones abiertas");
+        } else {
+            lblPool.setText(String.format(
+                    "Pool de conexiones: %d activas, %d inactivas, máximo %d | Espera p95 %.2f ms, máx %.2f ms",
+                    pool.activas(), pool.inactivas(), pool.maximo(), pool.espera().p95Ms(), pool.espera().maxMs()));
+        }
+    }
+
+    private static DefaultTableModel crearModelo(String... columnas) {
+        return new DefaultTableModel(columnas, 0) {
+            @Override
+            public boolean isCellEditable(int fila, int columna) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int columna) {
+                return getRowCount() == 0 ? Object.class : getValueAt(0, columna).getClass();
+            }
+        };
+    }
+
+    private static double ms(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+}
@@ -2,17 +2,30 @@ package view.views;
 
 import controller.ClienteController;
 import controller.CitaController;
+import controller.DetalleFacturaController;
 import controller.FacturaController;
 import model.entities.Cliente;
 import model.entities.Cita;
 import model.entities.Factura;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
+import utils.EscritorCsv.ProgresoExportacion;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
+import java.io.File;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Vista para la gestión de facturas.
@@ -25,11 +38,14 @@ import java.util.List;
 public class FacturaView extends JFrame {
     private JPanel contentPane;
     private JTable tblFacturas;
-    private JButton btnNuevaFactura, btnEliminarFactura, btnVerDetalles;
+    private JButton btnNuevaFactura, btnEliminarFactura, btnVerDetalles, btnExportar;
     private FacturaController facturaController;
+    private DetalleFacturaController detalleFacturaController;
     private ClienteController clienteController;
     private CitaController citaController;
 
+    private LazyTableModel<Factura> modeloFacturas;
+
     /**
      * Constructor que inicializa la vista de gestión de facturas.
      */
@@ -44,23 +60,36 @@ public class FacturaView extends JFrame {
         SwingUtils.bloquearRedimension(this, true);
 
         facturaController = AppFactory.getFacturaController();
+        detalleFacturaController = AppFactory.getDetalleFacturaController();
         clienteController = AppFactory.getClienteController();
         citaController = AppFactory.getCitaController();
 
-        tblFacturas = new JTable();
+        modeloFacturas = LazyTableModel.porBloques(
+                FuenteDatos.porClave(facturaController::contarFacturas, facturaController::obtenerFacturasPagina,
+                        Factura::getIdFactura, facturaController::obtenerFacturasDespuesDe),
+                Factura::getIdFactura,
+                new String[]{"ID", "Fecha", "Cliente", "Total"},
+                this::formatearFacturas);
+        tblFacturas = new JTable(modeloFacturas);
+        modeloFacturas.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Factura.class, AsyncExecutor.EDT, modeloFacturas::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblFacturas), BorderLayout.CENTER);
 
         JPanel panelBotones = new JPanel();
         btnNuevaFactura = new JButton("Nueva Factura");
         btnEliminarFactura = new JButton("Eliminar Factura");
         btnVerDetalles = new JButton("Ver Detalles");
+        btnExportar = new JButton("Exportar CSV");
 
         SwingUtils.aplicarEstilo(SwingUtils.ColorTipo.AZUL, btnNuevaFactura, true);
         SwingUtils.aplicarEstilo(SwingUtils.ColorTipo.VERDE, btnVerDetalles, true);
+        SwingUtils.aplicarEstilo(SwingUtils.ColorTipo.AZUL, btnExportar, true);
         SwingUtils.aplicarEstilo(SwingUtils.ColorTipo.ROJO, btnEliminarFactura, true);
 
         panelBotones.add(btnNuevaFactura);
         panelBotones.add(btnVerDetalles);
+        panelBotones.add(btnExportar);
         panelBotones.add(btnEliminarFactura);
 
         contentPane.add(panelBotones, BorderLayout.SOUTH);
@@ -68,6 +97,7 @@ public class FacturaView extends JFrame {
         btnNuevaFactura.addActionListener(e -> crearFactura());
         btnEliminarFactura.addActionListener(e -> eliminarFactura());
         btnVerDetalles.addActionListener(e -> verDetallesFactura());
+        btnExportar.addActionListener(e -> exportarCsv());
 
         actualizarTabla();
         setVisible(true);
@@ -77,8 +107,17 @@ public class FacturaView extends JFrame {
      * Muestra un diálogo para crear una nueva factura.
      */
     private void crearFactura() {
-        List<Cliente> clientes = clienteController.obtenerTodosClientes();
-        List<Cita> citas = citaController.obtenerTodasCitas();
+        AsyncExecutor.cargar(this, this::cargarOpciones, this::crearFactura);
+    }
+
+    /**
+     * Muestra el diálogo de nueva factura con los clientes y citas ya cargados.
+     *
+     * @param opciones Clientes y citas disponibles
+     */
+    private void crearFactura(OpcionesFactura opciones) {
+        List<Cliente> clientes = opciones.clientes();
+        List<Cita> citas = opciones.citas();
 
         JComboBox<String> comboClientes = new JComboBox<>();
         for (Cliente c : clientes) comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
@@ -102,8 +141,18 @@ public class FacturaView extends JFrame {
             f.setIdCliente(clientes.get(comboClientes.getSelectedIndex()).getIdCliente());
             f.setIdCita(citas.get(comboCitas.getSelectedIndex()).getIdCita());
 
-            facturaController.guardarFactura(f);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> facturaController.guardarFactura(f), creada -> {
+                if (creada == null) {
+                    SwingUtils.mostrarError("No se pudo guardar la factura.", "Error");
+                    return;
+                }
+                // La factura vuelve con su ID generado, así que sus detalles se abren sin buscarla en la tabla
+                if (JOptionPane.showConfirmDialog(null,
+                        "¿Añadir ahora los detalles de la factura #" + creada.getIdFactura() + "?",
+                        "Factura creada", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+                    new DetalleFacturaView(creada.getIdFactura());
+                }
+            });
         }
     }
 
@@ -112,40 +161,55 @@ public class FacturaView extends JFrame {
      */
     private void editarFactura() {
         int row = tblFacturas.getSelectedRow();
-        if (row != -1) {
-            Factura factura = facturaController.obtenerTodasFacturas().get(row);
-
-            List<Cliente> clientes = clienteController.obtenerTodosClientes();
-            List<Cita> citas = citaController.obtenerTodasCitas();
+        Factura factura = row != -1 ? modeloFacturas.getFila(row) : null;
+        if (factura != null) {
+            AsyncExecutor.cargar(this, this::cargarOpciones, opciones -> editarFactura(factura, opciones));
+        } else {
+            JOptionPane.showMessageDialog(null, "Selecciona una factura para editar.", "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
 
-            JComboBox<String> comboClientes = new JComboBox<>();
-            for (Cliente c : clientes) comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
+    /**
+     * Muestra el diálogo de edición de una factura con los clientes y citas ya cargados.
+     *
+     * @param factura  La factura a editar
+     * @param opciones Clientes y citas disponibles
+     */
+    private void editarFactura(Factura factura, OpcionesFactura opciones) {
+        List<Cliente> clientes = opciones.clientes();
+        List<Cita> citas = opciones.citas();
 
-            JComboBox<String> comboCitas = new JComboBox<>();
-            for (Cita c : citas) comboCitas.addItem(c.getIdCita() + " - " + c.getMotivo());
+        JComboBox<String> comboClientes = new JComboBox<>();
+        for (Cliente c : clientes) {
+            comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
+            if (c.getIdCliente() == factura.getIdCliente()) {
+                comboClientes.setSelectedIndex(comboClientes.getItemCount() - 1);
+            }
+        }
 
-            comboClientes.setSelectedIndex(clientes.indexOf(clienteController.buscarClientePorId(factura.getIdCliente())));
-            comboCitas.setSelectedIndex(citas.indexOf(citaController.buscarCitaPorId(factura.getIdCita())));
+        JComboBox<String> comboCitas = new JComboBox<>();
+        for (Cita c : citas) {
+            comboCitas.addItem(c.getIdCita() + " - " + c.getMotivo());
+            if (c.getIdCita() == factura.getIdCita()) {
+                comboCitas.setSelectedIndex(comboCitas.getItemCount() - 1);
+            }
+        }
 
-            JTextField totalField = new JTextField(String.valueOf(factura.getTotal()));
+        JTextField totalField = new JTextField(String.valueOf(factura.getTotal()));
 
-            Object[] message = {
-                    "Cliente:", comboClientes,
-                    "Cita:", comboCitas,
-                    "Total:", totalField
-            };
+        Object[] message = {
+                "Cliente:", comboClientes,
+                "Cita:", comboCitas,
+                "Total:", totalField
+        };
 
-            int option = JOptionPane.showConfirmDialog(null, message, "Editar Factura", JOptionPane.OK_CANCEL_OPTION);
-            if (option == JOptionPane.OK_OPTION) {
-                factura.setIdCliente(clientes.get(comboClientes.getSelectedIndex()).getIdCliente());
-                factura.setIdCita(citas.get(comboCitas.getSelectedIndex()).getIdCita());
-                factura.setTotal(Double.parseDouble(totalField.getText()));
+        int option = JOptionPane.showConfirmDialog(null, message, "Editar Factura", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION) {
+            factura.setIdCliente(clientes.get(comboClientes.getSelectedIndex()).getIdCliente());
+            factura.setIdCita(citas.get(comboCitas.getSelectedIndex()).getIdCita());
+            factura.setTotal(Double.parseDouble(totalField.getText()));
 
-                facturaController.actualizarFactura(factura);
-                actualizarTabla();
-            }
-        } else {
-            JOptionPane.showMessageDialog(null, "Selecciona una factura para editar.", "Error", JOptionPane.ERROR_MESSAGE);
+            AsyncExecutor.ejecutar(this, () -> facturaController.actualizarFactura(factura));
         }
     }
 
@@ -154,12 +218,11 @@ public class FacturaView extends JFrame {
      */
     private void eliminarFactura() {
         int row = tblFacturas.getSelectedRow();
-        if (row != -1) {
-            Factura factura = facturaController.obtenerTodasFacturas().get(row);
+        Factura factura = row != -1 ? modeloFacturas.getFila(row) : null;
+        if (factura != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Eliminar factura seleccionada?", "Confirmar", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                facturaController.eliminarFactura(factura.getIdFactura());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> facturaController.eliminarFactura(factura.getIdFactura()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona una factura para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -170,30 +233,131 @@ public class FacturaView extends JFrame {
      */
     private void verDetallesFactura() {
         int row = tblFacturas.getSelectedRow();
-        if (row != -1) {
-            Factura factura = facturaController.obtenerTodasFacturas().get(row);
+        Factura factura = row != -1 ? modeloFacturas.getFila(row) : null;
+        if (factura != null) {
             new DetalleFacturaView(factura.getIdFactura()); // Vista detallada por factura
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona una factura para ver detalles.", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    /**
+     * Exporta a CSV las facturas, o sus detalles, emitidas en un rango de fechas.
+     * La exportación se hace en segundo plano mientras un diálogo muestra su progreso.
+     */
+    private void exportarCsv() {
+        LocalDate hoy = LocalDate.now();
+        JTextField desdeField = new JTextField(hoy.withDayOfYear(1).toString());
+        JTextField hastaField = new JTextField(hoy.toString());
+        JComboBox<String> comboContenido = new JComboBox<>(new String[]{"Facturas", "Detalles de factura"});
+
+        Object[] message = {
+                "Desde (yyyy-MM-dd):", desdeField,
+                "Hasta (yyyy-MM-dd):", hastaField,
+                "Contenido:", comboContenido
+        };
+
+        int option = JOptionPane.showConfirmDialog(null, message, "Exportar CSV", JOptionPane.OK_CANCEL_OPTION);
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate desde, hasta;
+        try {
+            desde = LocalDate.parse(desdeField.getText().trim());
+            hasta = LocalDate.parse(hastaField.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(null, "Las fechas deben tener el formato yyyy-MM-dd.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+
+        boolean soloFacturas = comboContenido.getSelectedIndex() == 0;
+        JFileChooser selector = new JFileChooser();
+        selector.setSelectedFile(new File((soloFacturas ? "facturas_" : "detalles_factura_") + desde + "_" + hasta + ".csv"));
+        if (selector.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        Path destino = selector.getSelectedFile().toPath();
+
+        JProgressBar barra = new JProgressBar(0, 100);
+        barra.setStringPainted(true);
+        barra.setString("Iniciando...");
+        JDialog dialogo = new JDialog(this, "Exportando CSV", false);
+        dialogo.add(barra);
+        dialogo.setSize(320, 80);
+        dialogo.setLocationRelativeTo(this);
+        dialogo.setVisible(true);
+        btnExportar.setEnabled(false);
+
+        ProgresoExportacion progreso = (escritas, total) -> SwingUtilities.invokeLater(() -> {
+            barra.setValue(total == 0 ? 100 : (int) Math.min(100, escritas * 100 / total));
+            barra.setString(escritas + " de " + total + " filas");
+        });
+        Supplier<Long> exportacion = soloFacturas
+                ? () -> facturaController.exportarFacturasCsv(desde, hasta, destino, progreso)
+                : () -> detalleFacturaController.exportarDetallesFacturaCsv(desde, hasta, destino, progreso);
+
+        AsyncExecutor.cargar(this, exportacion, filas -> {
+            dialogo.dispose();
+            btnExportar.setEnabled(true);
+            if (filas == null) {
+                JOptionPane.showMessageDialog(null, "No se pudo exportar el fichero CSV.", "Error", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(null, "Se exportaron " + filas + " filas a " + destino);
+            }
+        }, error -> {
+            dialogo.dispose();
+            btnExportar.setEnabled(true);
+            AsyncExecutor.mostrarError(error);
+        });
+    }
+
     /**
      * Actualizar tabla.
      */
-    public void actualizarTabla() {
-        List<Factura> facturas = facturaController.obtenerTodasFacturas();
-        Object[][] data = new Object[facturas.size()][4];
+    private void actualizarTabla() {
+        modeloFacturas.refrescar();
+    }
 
+    /**
+     * Convierte un bloque de facturas en los valores de sus filas, resolviendo los
+     * nombres de todos los clientes en una sola consulta. Se ejecuta fuera del EDT.
+     *
+     * @param facturas Las facturas a mostrar
+     * @return Valores de las celdas de cada fila
+     */
+    private Object[][] formatearFacturas(List<Factura> facturas) {
+        List<Integer> idsClientes = new ArrayList<>();
+        for (Factura f : facturas) {
+            idsClientes.add(f.getIdCliente());
+        }
+        Map<Integer, Cliente> clientes = clienteController.buscarClientesPorIds(idsClientes);
+
+        Object[][] filas = new Object[facturas.size()][];
         for (int i = 0; i < facturas.size(); i++) {
             Factura f = facturas.get(i);
-            data[i][0] = f.getIdFactura();
-            data[i][1] = f.getFechaEmision();
-            data[i][2] = clienteController.buscarClientePorId(f.getIdCliente()).getNombre();
-            data[i][3] = f.getTotal();
+            Cliente cliente = clientes.get(f.getIdCliente());
+            filas[i] = new Object[]{
+                    f.getIdFactura(),
+                    f.getFechaEmision(),
+                    cliente != null ? cliente.getNombre() : "",
+                    f.getTotal()
+            };
         }
+        return filas;
+    }
 
-        String[] columnas = {"ID", "Fecha", "Cliente", "Total"};
-        tblFacturas.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+    /**
+     * Carga los clientes y citas que se ofrecen en los diálogos. Se ejecuta fuera del EDT.
+     *
+     * @return Clientes y citas disponibles
+     */
+    private OpcionesFactura cargarOpciones() {
+        return new OpcionesFactura(clienteController.obtenerTodosClientes(), citaController.obtenerTodasCitas());
     }
+
+    /**
+     * Clientes y citas que se pueden asignar a una factura.
+     */
+    private record OpcionesFactura(List<Cliente> clientes, List<Cita> citas) {}
 }
@@ -21,7 +21,7 @@ public class IndexView extends JFrame {
     private JPanel contentPane;
     private JPanel northPanel, centerPanel, southPanel;
     private JLabel lblUsername, lblRol;
-    private JButton btnClientes, btnMascotas, btnCitas, btnFacturas, btnMedicamentos, btnServicios, btnVeterinarios, btnCerrarSesion;
+    private JButton btnClientes, btnMascotas, btnCitas, btnFacturas, btnMedicamentos, btnServicios, btnVeterinarios, btnVentas, btnDiagnostico, btnCerrarSesion;
 
     /**
      * Constructor que inicializa la vista principal del sistema.
@@ -30,7 +30,7 @@ public class IndexView extends JFrame {
      */
     public IndexView(UsuarioDTO usuarioDTO) {
         setTitle("Panel de Administración");
-        setBounds(100, 100, 400, 400);
+        setBounds(100, 100, 400, 480);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         contentPane = new JPanel(new BorderLayout());
         contentPane.setBackground(Color.WHITE);
@@ -62,7 +62,7 @@ public class IndexView extends JFrame {
         centerPanel.setBackground(Color.WHITE);
         contentPane.add(centerPanel, BorderLayout.CENTER);
 
-        northPanel = new JPanel(new GridLayout(8, 1));
+        northPanel = new JPanel(new GridLayout(10, 1));
         northPanel.setBackground(Color.WHITE);
         centerPanel.add(northPanel);
 
@@ -80,6 +80,8 @@ public class IndexView extends JFrame {
         btnMedicamentos = new JButton("Medicamentos");
         btnServicios = new JButton("Servicios Veterinarios");
         btnFacturas = new JButton("Facturas");
+        btnVentas = new JButton("Análisis de Ventas");
+        btnDiagnostico = new JButton("Diagnóstico");
         btnCerrarSesion = new JButton("Cerrar sesión");
 
         northPanel.add(btnClientes);
@@ -89,6 +91,8 @@ public class IndexView extends JFrame {
         northPanel.add(btnMedicamentos);
         northPanel.add(btnServicios);
         northPanel.add(btnFacturas);
+        northPanel.add(btnVentas);
+        northPanel.add(btnDiagnostico);
         northPanel.add(btnCerrarSesion);
 
         SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnClientes, true);
@@ -98,6 +102,8 @@ public class IndexView extends JFrame {
         SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnMedicamentos, true);
         SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnServicios, true);
         SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnFacturas, true);
+        SwingUtils.aplicarEstilo(ColorTipo.AZUL, btnVentas, true);
+        SwingUtils.aplicarEstilo(ColorTipo.VERDE, btnDiagnostico, true);
         SwingUtils.aplicarEstilo(ColorTipo.ROJO,btnCerrarSesion, true);
 
         southPanel.add(lblUsername);
@@ -111,6 +117,8 @@ public class IndexView extends JFrame {
         btnMedicamentos.addActionListener(e -> new MedicamentoView().setVisible(true));
         btnServicios.addActionListener(e -> new ServicioView().setVisible(true));
         btnVeterinarios.addActionListener(e -> new VeterinarioView().setVisible(true));
+        btnVentas.addActionListener(e -> new AnaliticaVentasView().setVisible(true));
+        btnDiagnostico.addActionListener(e -> new DiagnosticoView().setVisible(true));
         btnCerrarSesion.addActionListener(e -> {
             SessionManager.eliminarSesion();
             this.dispose();
@@ -4,12 +4,19 @@ import controller.MascotaController;
 import controller.ClienteController;
 import model.entities.Cliente;
 import model.entities.Mascota;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The type Mascota view.
@@ -20,6 +27,7 @@ public class MascotaView extends JFrame {
     private JButton btnNuevaMascota, btnEditarMascota, btnEliminarMascota;
     private MascotaController mascotaController = AppFactory.getMascotaController();
     private ClienteController clienteController = AppFactory.getClienteController();
+    private LazyTableModel<Mascota> modeloMascotas;
 
     /**
      * Instantiates a new Mascota view.
@@ -35,7 +43,15 @@ public class MascotaView extends JFrame {
         SwingUtils.bloquearRedimension(this, true);
 
         // Tabla de mascotas
-        tblMascotas = new JTable();
+        modeloMascotas = LazyTableModel.porBloques(
+                FuenteDatos.de(mascotaController::contarMascotas, mascotaController::obtenerMascotasPagina),
+                Mascota::getIdMascota,
+                new String[]{"Nombre", "Especie", "Raza", "Edad", "Sexo", "Cliente"},
+                this::formatearMascotas);
+        tblMascotas = new JTable(modeloMascotas);
+        modeloMascotas.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Mascota.class, AsyncExecutor.EDT, modeloMascotas::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblMascotas), BorderLayout.CENTER);
 
         // Botones
@@ -64,13 +80,16 @@ public class MascotaView extends JFrame {
     }
 
     private void crearMascota() {
+        AsyncExecutor.cargar(this, clienteController::obtenerTodosClientes, this::crearMascota);
+    }
+
+    private void crearMascota(List<Cliente> clientes) {
         JTextField nombreField = new JTextField();
         JTextField especieField = new JTextField();
         JTextField razaField = new JTextField();
         JTextField edadField = new JTextField();
         JTextField sexoField = new JTextField();
 
-        List<Cliente> clientes = clienteController.obtenerTodosClientes();
         JComboBox<String> comboClientes = new JComboBox<>();
         for (Cliente c : clientes) comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
 
@@ -95,62 +114,68 @@ public class MascotaView extends JFrame {
             int selectedIndex = comboClientes.getSelectedIndex();
             m.setIdCliente(clientes.get(selectedIndex).getIdCliente());
 
-            mascotaController.guardarMascota(m);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> mascotaController.guardarMascota(m), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar la mascota.", "Error");
+                }
+            });
         }
     }
 
     private void editarMascota() {
         int row = tblMascotas.getSelectedRow();
-        if (row != -1) {
-            Mascota mascota = mascotaController.obtenerTodasMascotas().get(row);
-
-            JTextField nombreField = new JTextField(mascota.getNombre());
-            JTextField especieField = new JTextField(mascota.getEspecie());
-            JTextField razaField = new JTextField(mascota.getRaza());
-            JTextField edadField = new JTextField(String.valueOf(mascota.getEdad()));
-            JTextField sexoField = new JTextField(mascota.getSexo());
-
-            List<Cliente> clientes = clienteController.obtenerTodosClientes();
-            JComboBox<String> comboClientes = new JComboBox<>();
-            for (Cliente c : clientes)
-                comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
-            comboClientes.setSelectedItem(mascota.getIdCliente() + " - " + clienteController.buscarClientePorId(mascota.getIdCliente()).getNombre());
-
-            Object[] message = {
-                    "Nombre:", nombreField,
-                    "Especie:", especieField,
-                    "Raza:", razaField,
-                    "Edad:", edadField,
-                    "Sexo:", sexoField,
-                    "Cliente:", comboClientes
-            };
-
-            int option = JOptionPane.showConfirmDialog(null, message, "Editar Mascota", JOptionPane.OK_CANCEL_OPTION);
-            if (option == JOptionPane.OK_OPTION) {
-                mascota.setNombre(nombreField.getText());
-                mascota.setEspecie(especieField.getText());
-                mascota.setRaza(razaField.getText());
-                mascota.setEdad(Integer.parseInt(edadField.getText()));
-                mascota.setSexo(sexoField.getText());
-                mascota.setIdCliente(clientes.get(comboClientes.getSelectedIndex()).getIdCliente());
-
-                mascotaController.actualizarMascota(mascota);
-                actualizarTabla();
-            }
+        Mascota mascota = row != -1 ? modeloMascotas.getFila(row) : null;
+        if (mascota != null) {
+            AsyncExecutor.cargar(this, clienteController::obtenerTodosClientes, clientes -> editarMascota(mascota, clientes));
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona una mascota para editar.", "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private void editarMascota(Mascota mascota, List<Cliente> clientes) {
+        JTextField nombreField = new JTextField(mascota.getNombre());
+        JTextField especieField = new JTextField(mascota.getEspecie());
+        JTextField razaField = new JTextField(mascota.getRaza());
+        JTextField edadField = new JTextField(String.valueOf(mascota.getEdad()));
+        JTextField sexoField = new JTextField(mascota.getSexo());
+
+        JComboBox<String> comboClientes = new JComboBox<>();
+        for (Cliente c : clientes) {
+            comboClientes.addItem(c.getIdCliente() + " - " + c.getNombre());
+            if (c.getIdCliente() == mascota.getIdCliente()) {
+                comboClientes.setSelectedIndex(comboClientes.getItemCount() - 1);
+            }
+        }
+
+        Object[] message = {
+                "Nombre:", nombreField,
+                "Especie:", especieField,
+                "Raza:", razaField,
+                "Edad:", edadField,
+                "Sexo:", sexoField,
+                "Cliente:", comboClientes
+        };
+
+        int option = JOptionPane.showConfirmDialog(null, message, "Editar Mascota", JOptionPane.OK_CANCEL_OPTION);
+        if (option == JOptionPane.OK_OPTION) {
+            mascota.setNombre(nombreField.getText());
+            mascota.setEspecie(especieField.getText());
+            mascota.setRaza(razaField.getText());
+            mascota.setEdad(Integer.parseInt(edadField.getText()));
+            mascota.setSexo(sexoField.getText());
+            mascota.setIdCliente(clientes.get(comboClientes.getSelectedIndex()).getIdCliente());
+
+            AsyncExecutor.ejecutar(this, () -> mascotaController.actualizarMascota(mascota));
+        }
+    }
+
     private void eliminarMascota() {
         int row = tblMascotas.getSelectedRow();
-        if (row != -1) {
-            Mascota mascota = mascotaController.obtenerTodasMascotas().get(row);
+        Mascota mascota = row != -1 ? modeloMascotas.getFila(row) : null;
+        if (mascota != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Eliminar mascota seleccionada?", "Confirmar", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                mascotaController.eliminarMascota(mascota.getIdMascota());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> mascotaController.eliminarMascota(mascota.getIdMascota()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona una mascota para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -158,20 +183,36 @@ public class MascotaView extends JFrame {
     }
 
     private void actualizarTabla() {
-        List<Mascota> mascotas = mascotaController.obtenerTodasMascotas();
-        Object[][] data = new Object[mascotas.size()][6];
+        modeloMascotas.refrescar();
+    }
 
+    /**
+     * Convierte un bloque de mascotas en los valores de sus filas, resolviendo los
+     * nombres de todos los dueños en una sola consulta. Se ejecuta fuera del EDT.
+     *
+     * @param mascotas Las mascotas a mostrar
+     * @return Valores de las celdas de cada fila
+     */
+    private Object[][] formatearMascotas(List<Mascota> mascotas) {
+        List<Integer> idsClientes = new ArrayList<>();
+        for (Mascota m : mascotas) {
+            idsClientes.add(m.getIdCliente());
+        }
+        Map<Integer, Cliente> clientes = clienteController.buscarClientesPorIds(idsClientes);
+
+        Object[][] filas = new Object[mascotas.size()][];
         for (int i = 0; i < mascotas.size(); i++) {
             Mascota m = mascotas.get(i);
-            data[i][0] = m.getNombre();
-            data[i][1] = m.getEspecie();
-            data[i][2] = m.getRaza();
-            data[i][3] = m.getEdad();
-            data[i][4] = m.getSexo();
-            data[i][5] = clienteController.buscarClientePorId(m.getIdCliente()).getNombre();
+            Cliente cliente = clientes.get(m.getIdCliente());
+            filas[i] = new Object[]{
+                    m.getNombre(),
+                    m.getEspecie(),
+                    m.getRaza(),
+                    m.getEdad(),
+                    m.getSexo(),
+                    cliente != null ? cliente.getNombre() : ""
+            };
         }
-
-        String[] columnas = {"Nombre", "Especie", "Raza", "Edad", "Sexo", "Cliente"};
-        tblMascotas.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+        return filas;
     }
 }
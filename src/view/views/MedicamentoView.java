@@ -2,13 +2,20 @@ package view.views;
 
 import controller.MedicamentoController;
 import model.dto.MedicamentoMasVendidoDTO;
+import model.dto.PeriodoVentas;
 import model.entities.Medicamento;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -22,6 +29,7 @@ public class MedicamentoView extends JFrame {
     private JTable tblMedicamentos;
     private JButton btnNuevoMedicamento, btnEditarMedicamento, btnEliminarMedicamento,btnGraficoBarras;
     private MedicamentoController medicamentoController;
+    private LazyTableModel<Medicamento> modeloMedicamentos;
 
     /**
      * Instantiates a new Medicamento view.
@@ -39,7 +47,15 @@ public class MedicamentoView extends JFrame {
         medicamentoController = AppFactory.getMedicamentoController();
 
         // Crear tabla
-        tblMedicamentos = new JTable();
+        modeloMedicamentos = new LazyTableModel<>(
+                FuenteDatos.de(medicamentoController::contarMedicamentos, medicamentoController::obtenerMedicamentosPagina),
+                Medicamento::getIdMedicamento,
+                new String[]{"Nombre", "Descripción", "Precio"},
+                m -> new Object[]{m.getNombre(), m.getDescripcion(), m.getPrecio()});
+        tblMedicamentos = new JTable(modeloMedicamentos);
+        modeloMedicamentos.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Medicamento.class, AsyncExecutor.EDT, modeloMedicamentos::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblMedicamentos), BorderLayout.CENTER);
 
         // Panel de botones
@@ -67,17 +83,7 @@ public class MedicamentoView extends JFrame {
     }
 
     private void actualizarTabla() {
-        List<Medicamento> lista = medicamentoController.obtenerTodosMedicamentos();
-        Object[][] data = new Object[lista.size()][4];
-
-        for (int i = 0; i < lista.size(); i++) {
-            data[i][0] = lista.get(i).getNombre();
-            data[i][1] = lista.get(i).getDescripcion();
-            data[i][2] = lista.get(i).getPrecio();
-        }
-
-        String[] columnas = {"Nombre", "Descripción", "Precio"};
-        tblMedicamentos.setModel(new DefaultTableModel(data, columnas));
+        modeloMedicamentos.refrescar();
     }
 
     private void agregarNuevoMedicamento() {
@@ -98,15 +104,18 @@ public class MedicamentoView extends JFrame {
             double precio = Double.parseDouble(precioField.getText());
 
             Medicamento nuevo = new Medicamento(nombre, descripcion, precio);
-            medicamentoController.guardarMedicamento(nuevo);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> medicamentoController.guardarMedicamento(nuevo), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar el medicamento.", "Error");
+                }
+            });
         }
     }
 
     private void editarMedicamentoSeleccionado() {
         int row = tblMedicamentos.getSelectedRow();
-        if (row != -1) {
-            Medicamento seleccionado = medicamentoController.obtenerTodosMedicamentos().get(row);
+        Medicamento seleccionado = row != -1 ? modeloMedicamentos.getFila(row) : null;
+        if (seleccionado != null) {
 
             JTextField nombreField = new JTextField(seleccionado.getNombre());
             JTextField descripcionField = new JTextField(seleccionado.getDescripcion());
@@ -124,8 +133,7 @@ public class MedicamentoView extends JFrame {
                 seleccionado.setDescripcion(descripcionField.getText());
                 seleccionado.setPrecio(Double.parseDouble(precioField.getText()));
 
-                medicamentoController.actualizarMedicamento(seleccionado);
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> medicamentoController.actualizarMedicamento(seleccionado));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un medicamento para editar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -134,12 +142,11 @@ public class MedicamentoView extends JFrame {
 
     private void eliminarMedicamentoSeleccionado() {
         int row = tblMedicamentos.getSelectedRow();
-        if (row != -1) {
-            Medicamento seleccionado = medicamentoController.obtenerTodosMedicamentos().get(row);
+        Medicamento seleccionado = row != -1 ? modeloMedicamentos.getFila(row) : null;
+        if (seleccionado != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Eliminar este medicamento?", "Confirmar", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                medicamentoController.eliminarMedicamento(seleccionado.getIdMedicamento());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> medicamentoController.eliminarMedicamento(seleccionado.getIdMedicamento()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un medicamento para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -160,14 +167,53 @@ public class MedicamentoView extends JFrame {
 
     /**
      * Mostrar medicamentos mas vendidos.
+     * Pide el periodo del reporte; la consulta se hace en segundo plano y el gráfico se
+     * abre al terminar.
      */
     public void mostrarMedicamentosMasVendidos() {
+        JComboBox<PeriodoVentas> comboPeriodo = new JComboBox<>(PeriodoVentas.values());
+        comboPeriodo.setSelectedItem(PeriodoVentas.TOTAL);
+        JTextField fechaField = new JTextField(LocalDate.now().toString());
+        JCheckBox chkReconstruir = new JCheckBox("Reconstruir antes las ventas acumuladas");
+
+        Object[] message = {
+                "Periodo:", comboPeriodo,
+                "Fecha (yyyy-MM-dd):", fechaField,
+                chkReconstruir
+        };
+
+        int option = JOptionPane.showConfirmDialog(null, message, "Medicamentos Más Vendidos", JOptionPane.OK_CANCEL_OPTION);
+        if (option != JOptionPane.OK_OPTION) {
+            return;
+        }
+
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(fechaField.getText().trim());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(null, "La fecha debe tener el formato yyyy-MM-dd.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        PeriodoVentas periodo = (PeriodoVentas) comboPeriodo.getSelectedItem();
+        boolean reconstruir = chkReconstruir.isSelected();
+
+        AsyncExecutor.cargar(this, () -> {
+            if (reconstruir) {
+                medicamentoController.reconstruirVentasMedicamentos();
+            }
+            return medicamentoController.obtenerMedicamentosMasVendidos(periodo, fecha);
+        }, this::mostrarGraficoMasVendidos);
+    }
+
+    /**
+     * Abre el gráfico de barras con los medicamentos más vendidos.
+     *
+     * @param medicamentosMasVendidos Lista de medicamentos más vendidos
+     */
+    private void mostrarGraficoMasVendidos(List<MedicamentoMasVendidoDTO> medicamentosMasVendidos) {
         // Mapa para almacenar el nombre del medicamento y la cantidad de ventas
         Map<String, Integer> datos = new LinkedHashMap<>();
 
-        // Obtenemos la lista de medicamentos más vendidos
-        List<MedicamentoMasVendidoDTO> medicamentosMasVendidos = obtenerMedicamentosMasVendidos();
-
         // Verificamos que la lista no esté vacía
         if (medicamentosMasVendidos != null && !medicamentosMasVendidos.isEmpty()) {
             // Recorremos la lista de medicamentos más vendidos
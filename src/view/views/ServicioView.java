@@ -2,12 +2,16 @@ package view.views;
 
 import controller.ServicioController;
 import model.entities.Servicio;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 /**
  * The type Servicio view.
@@ -17,6 +21,7 @@ public class ServicioView extends JFrame {
     private JTable tblServicios;
     private JButton btnNuevoServicio, btnEditarServicio, btnEliminarServicio;
     private ServicioController servicioController;
+    private LazyTableModel<Servicio> modeloServicios;
 
     /**
      * Instantiates a new Servicio view.
@@ -33,7 +38,15 @@ public class ServicioView extends JFrame {
 
         servicioController = AppFactory.getServicioController();
 
-        tblServicios = new JTable();
+        modeloServicios = new LazyTableModel<>(
+                FuenteDatos.de(servicioController::contarServicios, servicioController::obtenerServiciosPagina),
+                Servicio::getIdServicio,
+                new String[]{"Nombre", "Descripción", "Precio"},
+                s -> new Object[]{s.getNombreServicio(), s.getDescripcion(), s.getPrecio()});
+        tblServicios = new JTable(modeloServicios);
+        modeloServicios.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Servicio.class, AsyncExecutor.EDT, modeloServicios::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblServicios), BorderLayout.CENTER);
 
         JPanel panelBotones = new JPanel();
@@ -57,17 +70,7 @@ public class ServicioView extends JFrame {
     }
 
     private void actualizarTabla() {
-        List<Servicio> lista = servicioController.obtenerTodosServicios();
-        Object[][] data = new Object[lista.size()][3];
-
-        for (int i = 0; i < lista.size(); i++) {
-            data[i][0] = lista.get(i).getNombreServicio();
-            data[i][1] = lista.get(i).getDescripcion();
-            data[i][2] = lista.get(i).getPrecio();
-        }
-
-        String[] columnas = {"Nombre", "Descripción", "Precio"};
-        tblServicios.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+        modeloServicios.refrescar();
     }
 
     private void agregarNuevoServicio() {
@@ -88,15 +91,18 @@ public class ServicioView extends JFrame {
                     descripcionField.getText(),
                     Double.parseDouble(precioField.getText())
             );
-            servicioController.guardarServicio(nuevo);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> servicioController.guardarServicio(nuevo), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar el servicio.", "Error");
+                }
+            });
         }
     }
 
     private void editarServicioSeleccionado() {
         int row = tblServicios.getSelectedRow();
-        if (row != -1) {
-            Servicio seleccionado = servicioController.obtenerTodosServicios().get(row);
+        Servicio seleccionado = row != -1 ? modeloServicios.getFila(row) : null;
+        if (seleccionado != null) {
 
             JTextField nombreField = new JTextField(seleccionado.getNombreServicio());
             JTextField descripcionField = new JTextField(seleccionado.getDescripcion());
@@ -114,8 +120,7 @@ public class ServicioView extends JFrame {
                 seleccionado.setDescripcion(descripcionField.getText());
                 seleccionado.setPrecio(Double.parseDouble(precioField.getText()));
 
-                servicioController.actualizarServicio(seleccionado);
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> servicioController.actualizarServicio(seleccionado));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un servicio para editar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -124,12 +129,11 @@ public class ServicioView extends JFrame {
 
     private void eliminarServicioSeleccionado() {
         int row = tblServicios.getSelectedRow();
-        if (row != -1) {
-            Servicio seleccionado = servicioController.obtenerTodosServicios().get(row);
+        Servicio seleccionado = row != -1 ? modeloServicios.getFila(row) : null;
+        if (seleccionado != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Estás seguro de eliminar este servicio?", "Confirmar eliminación", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                servicioController.eliminarServicio(seleccionado.getIdServicio());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> servicioController.eliminarServicio(seleccionado.getIdServicio()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un servicio para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
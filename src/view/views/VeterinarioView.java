@@ -2,12 +2,16 @@ package view.views;
 
 import controller.VeterinarioController;
 import model.entities.Veterinario;
+import model.events.EventosDominio;
+import model.events.EventosDominio.Suscripcion;
 import utils.AppFactory;
+import utils.AsyncExecutor;
 import utils.SwingUtils;
+import view.tables.LazyTableModel;
+import view.tables.LazyTableModel.FuenteDatos;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.List;
 
 /**
  * The type Veterinario view.
@@ -17,6 +21,7 @@ public class VeterinarioView extends JFrame {
     private JTable tblVeterinarios;
     private JButton btnNuevoVeterinario, btnEditarVeterinario, btnEliminarVeterinario;
     private VeterinarioController veterinarioController;
+    private LazyTableModel<Veterinario> modeloVeterinarios;
 
     /**
      * Instantiates a new Veterinario view.
@@ -34,7 +39,15 @@ public class VeterinarioView extends JFrame {
         veterinarioController = AppFactory.getVeterinarioController();
 
         // Crear tabla
-        tblVeterinarios = new JTable();
+        modeloVeterinarios = new LazyTableModel<>(
+                FuenteDatos.de(veterinarioController::contarVeterinarios, veterinarioController::obtenerVeterinariosPagina),
+                Veterinario::getIdVeterinario,
+                new String[]{"Nombre", "Especialidad", "Teléfono", "Email"},
+                v -> new Object[]{v.getNombre(), v.getEspecialidad(), v.getTelefono(), v.getEmail()});
+        tblVeterinarios = new JTable(modeloVeterinarios);
+        modeloVeterinarios.setIndicadorCarga(cargando -> SwingUtils.mostrarCargando(this, cargando));
+        Suscripcion cambios = EventosDominio.suscribir(Veterinario.class, AsyncExecutor.EDT, modeloVeterinarios::aplicar);
+        SwingUtils.alCerrar(this, cambios::cancelar);
         contentPane.add(new JScrollPane(tblVeterinarios), BorderLayout.CENTER);
 
         // Panel de botones
@@ -60,18 +73,7 @@ public class VeterinarioView extends JFrame {
     }
 
     private void actualizarTabla() {
-        List<Veterinario> lista = veterinarioController.obtenerTodosVeterinarios();
-        Object[][] data = new Object[lista.size()][4];
-
-        for (int i = 0; i < lista.size(); i++) {
-            data[i][0] = lista.get(i).getNombre();
-            data[i][1] = lista.get(i).getEspecialidad();
-            data[i][2] = lista.get(i).getTelefono();
-            data[i][3] = lista.get(i).getEmail();
-        }
-
-        String[] columnas = {"Nombre", "Especialidad", "Teléfono", "Email"};
-        tblVeterinarios.setModel(new javax.swing.table.DefaultTableModel(data, columnas));
+        modeloVeterinarios.refrescar();
     }
 
     private void agregarNuevoVeterinario(){
@@ -95,15 +97,18 @@ public class VeterinarioView extends JFrame {
             String email = emailField.getText();
 
             Veterinario nuevo = new Veterinario(nombre, especialidad, telefono, email);
-            veterinarioController.guardarVeterinario(nuevo);
-            actualizarTabla();
+            AsyncExecutor.cargar(this, () -> veterinarioController.guardarVeterinario(nuevo), guardado -> {
+                if (guardado == null) {
+                    SwingUtils.mostrarError("No se pudo guardar el veterinario.", "Error");
+                }
+            });
         }
     }
 
     private void editarVeterinarioSeleccionado(){
         int row = tblVeterinarios.getSelectedRow();
-        if (row != -1) {
-            Veterinario seleccionado = veterinarioController.obtenerTodosVeterinarios().get(row);
+        Veterinario seleccionado = row != -1 ? modeloVeterinarios.getFila(row) : null;
+        if (seleccionado != null) {
 
             JTextField nombreField = new JTextField(seleccionado.getNombre());
             JTextField especialidadField = new JTextField(seleccionado.getEspecialidad());
@@ -124,8 +129,7 @@ public class VeterinarioView extends JFrame {
                 seleccionado.setTelefono(telefonoField.getText());
                 seleccionado.setEmail(emailField.getText());
 
-                veterinarioController.actualizarVeterinario(seleccionado);
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> veterinarioController.actualizarVeterinario(seleccionado));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un veterinario para editar.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -134,12 +138,11 @@ public class VeterinarioView extends JFrame {
 
     private void eliminarVeterinarioSeleccionado(){
         int row = tblVeterinarios.getSelectedRow();
-        if (row != -1) {
-            Veterinario seleccionado = veterinarioController.obtenerTodosVeterinarios().get(row);
+        Veterinario seleccionado = row != -1 ? modeloVeterinarios.getFila(row) : null;
+        if (seleccionado != null) {
             int option = JOptionPane.showConfirmDialog(null, "¿Estás seguro de eliminar este veterinario?", "Confirmar eliminación", JOptionPane.YES_NO_OPTION);
             if (option == JOptionPane.YES_OPTION) {
-                veterinarioController.eliminarVeterinario(seleccionado.getIdVeterinario());
-                actualizarTabla();
+                AsyncExecutor.ejecutar(this, () -> veterinarioController.eliminarVeterinario(seleccionado.getIdVeterinario()));
             }
         } else {
             JOptionPane.showMessageDialog(null, "Selecciona un veterinario para eliminar.", "Error", JOptionPane.ERROR_MESSAGE);
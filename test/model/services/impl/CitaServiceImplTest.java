@@ -1,6 +1,7 @@
 package model.services.impl;
 
 import model.dao.CitaDAO;
+import model.dto.CitaDetalleDTO;
 import model.entities.Cita;
 import model.exceptions.BusinessException;
 import model.exceptions.PersistenceException;
@@ -11,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -45,7 +47,7 @@ public class CitaServiceImplTest {
         citaValida.setIdCita(1);
         citaValida.setFechaHora(LocalDateTime.now().plusDays(1));
         citaValida.setMotivo("Consulta general");
-        citaValida.setEstado("Programada");
+        citaValida.setEstado("Pendiente");
         citaValida.setIdMascota(1);
         citaValida.setIdVeterinario(1);
 
@@ -165,6 +167,46 @@ public class CitaServiceImplTest {
         assertTrue(exception.getMessage().contains("Error al obtener citas"));
     }
 
+    /**
+     * Obtener citas detalladas deberia retornar la proyeccion del dao.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void obtenerCitasDetalladas_DeberiaRetornarProyeccionDelDao() throws Exception {
+        // Arrange
+        CitaDetalleDTO detalle = new CitaDetalleDTO(1, citaValida.getFechaHora(), "Consulta general", "Pendiente",
+                1, "Firulais", 1, "Ana", 1, "Dr. Pérez");
+        when(citaDao.obtenerCitasDetalladas()).thenReturn(List.of(detalle));
+
+        // Act
+        List<CitaDetalleDTO> resultado = citaService.obtenerCitasDetalladas();
+
+        // Assert
+        assertEquals(1, resultado.size());
+        assertEquals("Firulais", resultado.get(0).nombreMascota());
+        verify(citaDao, times(1)).obtenerCitasDetalladas();
+        verify(citaDao, never()).obtenerTodos();
+    }
+
+    /**
+     * Obtener citas detalladas con error en dao deberia lanzar excepcion.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void obtenerCitasDetalladas_ConErrorEnDao_DeberiaLanzarExcepcion() throws Exception {
+        // Arrange
+        when(citaDao.obtenerCitasDetalladas()).thenThrow(new PersistenceException("Error DB"));
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            citaService.obtenerCitasDetalladas();
+        });
+
+        assertTrue(exception.getMessage().contains("Error al obtener citas detalladas"));
+    }
+
     /**
      * Buscar cita por id con id existente deberia retornar cita.
      *
@@ -310,4 +352,182 @@ public class CitaServiceImplTest {
         assertEquals("No se encontró una cita con el ID proporcionado", exception.getMessage());
         verify(citaDao, times(1)).buscarPorId(-1); // Verifica que se llamó al DAO con el ID correcto
     }
-}
\ No newline at end of file
+
+    /**
+     * Guardar cita con veterinario ocupado deberia lanzar excepcion con el siguiente hueco.
+     *
+     * @throws Exception the exception
+     */
+// Tests de la agenda de citas
+    @Test
+    public void guardarCita_ConVeterinarioOcupado_DeberiaLanzarExcepcion() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        LocalDateTime inicio = citaValida.getFechaHora();
+        Cita ocupada = new Cita(2, inicio.plusMinutes(10), "Vacunación anual", "Confirmada", 2, 1);
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of(ocupada));
+        citaValida.setIdCita(0);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            servicio.guardarCita(citaValida);
+        });
+
+        assertTrue(exception.getMessage().startsWith("El veterinario ya tiene una cita"));
+        verify(citaDao, never()).guardar(any());
+    }
+
+    /**
+     * Guardar cita justo al terminar otra no deberia considerarse solapamiento.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void guardarCita_AlTerminarOtraCita_DeberiaLlamarAlDao() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        LocalDateTime inicio = citaValida.getFechaHora();
+        Cita anterior = new Cita(2, inicio.minusMinutes(30), "Vacunación anual", "Confirmada", 1, 1);
+        Cita cancelada = new Cita(3, inicio, "Revisión general", "Cancelada", 1, 1);
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of(anterior, cancelada));
+
+        // Act
+        servicio.guardarCita(citaValida);
+
+        // Assert
+        verify(citaDao, times(1)).guardar(citaValida);
+    }
+
+    /**
+     * Actualizar cita moviendola dentro de su propio hueco no deberia considerarse conflicto.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void actualizarCita_MoviendoSuPropiaCita_DeberiaLlamarAlDao() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        Cita guardada = new Cita(1, citaValida.getFechaHora().minusMinutes(15), "Consulta general", "Pendiente", 1, 1);
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of(guardada));
+
+        // Act
+        servicio.actualizarCita(citaValida);
+
+        // Assert
+        verify(citaDao, times(1)).actualizar(citaValida);
+    }
+
+    /**
+     * Buscar siguiente hueco libre deberia saltar las citas seguidas del veterinario y de la mascota.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void buscarSiguienteHuecoLibre_ConCitasSeguidas_DeberiaSaltarlas() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of(
+                new Cita(2, inicio, "Vacunación anual", "Confirmada", 2, 1),
+                new Cita(3, inicio.plusMinutes(30), "Revisión general", "Pendiente", 3, 1),
+                new Cita(4, inicio.plusMinutes(60), "Desparasitación", "Pendiente", 1, 2)));
+
+        // Act
+        LocalDateTime hueco = servicio.buscarSiguienteHuecoLibre(1, 1, inicio.plusMinutes(5));
+
+        // Assert
+        assertEquals(inicio.plusMinutes(90), hueco);
+        verify(citaDao, times(1)).obtenerDesde(any());
+    }
+
+    /**
+     * Obtener citas por veterinario con rango valido deberia consultar el dao.
+     *
+     * @throws Exception the exception
+     */
+// Tests de consultas por rango
+    @Test
+    public void obtenerCitasDetalladasPorVeterinario_ConRangoValido_DeberiaLlamarAlDao() throws Exception {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.now().withHour(0).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime hasta = desde.plusDays(1);
+        CitaDetalleDTO detalle = new CitaDetalleDTO(1, desde.plusHours(9), "Consulta general", "Pendiente",
+                1, "Firulais", 1, "Ana", 1, "Dr. Pérez");
+        when(citaDao.obtenerCitasDetalladasPorVeterinario(1, desde, hasta)).thenReturn(List.of(detalle));
+
+        // Act
+        List<CitaDetalleDTO> resultado = citaService.obtenerCitasDetalladasPorVeterinario(1, desde, hasta);
+
+        // Assert
+        assertEquals(1, resultado.size());
+        verify(citaDao, never()).obtenerCitasDetalladas();
+    }
+
+    /**
+     * Obtener citas en rango con fin anterior al inicio deberia lanzar excepcion.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void obtenerCitasDetalladasEnRango_ConRangoInvertido_DeberiaLanzarExcepcion() throws Exception {
+        // Arrange
+        LocalDateTime desde = LocalDateTime.now();
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            citaService.obtenerCitasDetalladasEnRango(desde, desde.minusDays(1));
+        });
+
+        assertEquals("La fecha final debe ser posterior a la inicial", exception.getMessage());
+        verify(citaDao, never()).obtenerCitasDetalladasEnRango(any(), any());
+    }
+
+    /**
+     * Guardar citas con dos citas del lote solapadas deberia lanzar excepcion sin guardar ninguna.
+     *
+     * @throws Exception the exception
+     */
+// Tests de escrituras por lotes
+    @Test
+    public void guardarCitas_ConSolapamientoDentroDelLote_DeberiaLanzarExcepcion() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of());
+        citaValida.setIdCita(0);
+        Cita solapada = new Cita(0, citaValida.getFechaHora().plusMinutes(15), "Vacunación anual", "Pendiente", 2, 1);
+
+        // Act & Assert
+        BusinessException exception = assertThrows(BusinessException.class, () -> {
+            servicio.guardarCitas(List.of(citaValida, solapada));
+        });
+
+        assertTrue(exception.getMessage().startsWith("El veterinario ya tiene una cita"));
+        verify(citaDao, never()).guardarTodos(any());
+    }
+
+    /**
+     * Guardar citas validas deberia llamar al dao una sola vez y liberar las reservas provisionales.
+     *
+     * @throws Exception the exception
+     */
+    @Test
+    public void guardarCitas_ConCitasValidas_DeberiaLlamarAlDaoUnaVez() throws Exception {
+        // Arrange
+        CitaServiceImpl servicio = new CitaServiceImpl(citaDao, Duration.ofMinutes(30));
+        when(citaDao.obtenerDesde(any())).thenReturn(List.of());
+        Cita siguiente = new Cita(0, citaValida.getFechaHora().plusMinutes(30), "Vacunación anual", "Pendiente", 2, 1);
+        List<Cita> citas = List.of(citaValida, siguiente);
+        when(citaDao.guardarTodos(citas)).thenAnswer(invocacion -> {
+            siguiente.setIdCita(2);
+            return List.of(1, 2);
+        });
+
+        // Act
+        servicio.guardarCitas(citas);
+
+        // Assert
+        verify(citaDao, times(1)).guardarTodos(citas);
+        assertEquals(citaValida.getFechaHora().plusMinutes(60),
+                servicio.buscarSiguienteHuecoLibre(1, 0, citaValida.getFechaHora()));
+    }
+}